@@ -136,7 +136,7 @@ public abstract class CollectionType extends DataType {
         return dataType;
     }
 
-    static class ArrayStreamer implements Streamer {
+    public static class ArrayStreamer implements Streamer {
 
         private DataType innerType;
 
@@ -144,6 +144,10 @@ public abstract class CollectionType extends DataType {
             this.innerType = innerType;
         }
 
+        public DataType innerType() {
+            return innerType;
+        }
+
         @Override
         public Object[] readValueFrom(StreamInput in) throws IOException {
             int size = in.readVInt();
@@ -0,0 +1,52 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.beans;
+
+import io.crate.protocols.ssl.SslHandshakeStats;
+
+public class SslHandshakes implements SslHandshakesMBean {
+
+    public static final String NAME = "io.crate.monitoring:type=SslHandshakes";
+
+    private final SslHandshakeStats stats;
+
+    public SslHandshakes(SslHandshakeStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public long getHandshakes() {
+        return stats.handshakes();
+    }
+
+    @Override
+    public long getFailedHandshakes() {
+        return stats.failedHandshakes();
+    }
+
+    @Override
+    public long getHandshakeTime() {
+        return stats.handshakeTimeInMillis();
+    }
+
+    @Override
+    public long getMaxHandshakeTime() {
+        return stats.maxHandshakeTimeInMillis();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.beans;
+
+import io.crate.operation.reference.sys.job.QueryStatsEntry;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Latency distribution of a statement fingerprint as exposed by the {@link QueryLatencyMXBean}.
+ * All durations are in milliseconds.
+ */
+public class StatementLatency {
+
+    private final String fingerprint;
+    private final long count;
+    private final long errorCount;
+    private final double averageDuration;
+    private final long maxDuration;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+
+    @ConstructorProperties({"fingerprint", "count", "errorCount", "averageDuration", "maxDuration",
+        "p50", "p95", "p99"})
+    public StatementLatency(String fingerprint,
+                            long count,
+                            long errorCount,
+                            double averageDuration,
+                            long maxDuration,
+                            long p50,
+                            long p95,
+                            long p99) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.averageDuration = averageDuration;
+        this.maxDuration = maxDuration;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    static StatementLatency of(QueryStatsEntry entry) {
+        return new StatementLatency(
+            entry.fingerprint(),
+            entry.count(),
+            entry.errorCount(),
+            entry.avgDuration(),
+            entry.maxDuration(),
+            entry.p50(),
+            entry.p95(),
+            entry.p99()
+        );
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public double getAverageDuration() {
+        return averageDuration;
+    }
+
+    public long getMaxDuration() {
+        return maxDuration;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+}
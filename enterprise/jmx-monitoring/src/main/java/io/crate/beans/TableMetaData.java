@@ -0,0 +1,52 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.beans;
+
+import io.crate.metadata.doc.DocTableInfoStats;
+
+public class TableMetaData implements TableMetaDataMBean {
+
+    public static final String NAME = "io.crate.monitoring:type=TableMetaData";
+
+    private final DocTableInfoStats stats;
+
+    public TableMetaData(DocTableInfoStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public long getBuilds() {
+        return stats.builds();
+    }
+
+    @Override
+    public long getBuildTime() {
+        return stats.buildTimeInMillis();
+    }
+
+    @Override
+    public long getMaxBuildTime() {
+        return stats.maxBuildTimeInMillis();
+    }
+
+    @Override
+    public long getInvalidations() {
+        return stats.invalidations();
+    }
+}
@@ -18,8 +18,13 @@
 
 package io.crate.plugin;
 
+import io.crate.beans.QueryLatency;
 import io.crate.beans.QueryStats;
+import io.crate.beans.SslHandshakes;
+import io.crate.beans.TableMetaData;
+import io.crate.metadata.doc.DocTableInfoStats;
 import io.crate.operation.collect.stats.JobsLogs;
+import io.crate.protocols.ssl.SslContextProvider;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.logging.Loggers;
@@ -34,9 +39,15 @@ public class CrateMonitor {
     private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
 
     @Inject
-    public CrateMonitor(JobsLogs jobsLogs, Settings settings) {
+    public CrateMonitor(JobsLogs jobsLogs,
+                        DocTableInfoStats docTableInfoStats,
+                        SslContextProvider sslContextProvider,
+                        Settings settings) {
         logger = Loggers.getLogger(CrateMonitor.class, settings);
         registerMBean(QueryStats.NAME, new QueryStats(jobsLogs));
+        registerMBean(QueryLatency.NAME, new QueryLatency(jobsLogs));
+        registerMBean(TableMetaData.NAME, new TableMetaData(docTableInfoStats));
+        registerMBean(SslHandshakes.NAME, new SslHandshakes(sslContextProvider.handshakeStats()));
     }
 
     private void registerMBean(String name, Object bean) {
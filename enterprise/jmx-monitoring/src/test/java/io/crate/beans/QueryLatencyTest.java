@@ -0,0 +1,54 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.beans;
+
+import io.crate.operation.collect.stats.JobsLogs;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryLatencyTest {
+
+    @Test
+    public void testLatenciesAreGroupedByFingerprint() throws Exception {
+        JobsLogs jobsLogs = new JobsLogs(() -> true);
+        for (int i = 0; i < 3; i++) {
+            UUID jobId = UUID.randomUUID();
+            jobsLogs.logExecutionStart(jobId, "select name from t1 where id = " + i, null);
+            jobsLogs.logExecutionEnd(jobId, i == 2 ? "error" : null);
+        }
+
+        List<StatementLatency> latencies = new QueryLatency(jobsLogs).getStatementLatencies();
+        assertThat(latencies.size(), is(1));
+        StatementLatency latency = latencies.get(0);
+        assertThat(latency.getFingerprint(), is("select name from t1 where id = ?"));
+        assertThat(latency.getCount(), is(3L));
+        assertThat(latency.getErrorCount(), is(1L));
+    }
+
+    @Test
+    public void testNoLatenciesIfNothingWasExecuted() throws Exception {
+        QueryLatency queryLatency = new QueryLatency(new JobsLogs(() -> true));
+        assertThat(queryLatency.getStatementLatencies().size(), is(0));
+    }
+}
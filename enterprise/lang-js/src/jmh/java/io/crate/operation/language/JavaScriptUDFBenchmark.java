@@ -0,0 +1,77 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.operation.language;
+
+import io.crate.analyze.FunctionArgumentDefinition;
+import io.crate.data.Input;
+import io.crate.metadata.Scalar;
+import io.crate.operation.udf.UserDefinedFunctionMetaData;
+import io.crate.operation.udf.UserDefinedFunctionService;
+import io.crate.types.DataTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a simple JavaScript UDF for 10M rows, like it is done by a projection or a collector.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JavaScriptUDFBenchmark {
+
+    private static final int NUM_ROWS = 10_000_000;
+
+    private Scalar<Object, Object> udf;
+    private final long[] row = new long[1];
+    private final Input[] inputs = new Input[]{() -> row[0]};
+
+    @Setup
+    public void setup() throws Exception {
+        UserDefinedFunctionService udfService = new UserDefinedFunctionService(null, null);
+        JavaScriptLanguage language = new JavaScriptLanguage(udfService);
+        UserDefinedFunctionMetaData meta = new UserDefinedFunctionMetaData(
+            "doc",
+            "add_one",
+            Collections.singletonList(FunctionArgumentDefinition.of(DataTypes.LONG)),
+            DataTypes.LONG,
+            JavaScriptLanguage.NAME,
+            "function add_one(x) { return x + 1; }"
+        );
+        //noinspection unchecked
+        udf = language.createFunctionImplementation(meta);
+    }
+
+    @Benchmark
+    public void measureEvaluate(Blackhole blackhole) {
+        for (int i = 0; i < NUM_ROWS; i++) {
+            row[0] = i;
+            //noinspection unchecked
+            blackhole.consume(udf.evaluate(inputs));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.operation.language;
+
+import io.crate.exceptions.ScriptException;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+
+/**
+ * The compiled script of a JavaScript user defined function, shared by all queries which use the function.
+ * <p>
+ * Nashorn globals must not be used by multiple threads concurrently and globals modified by a function
+ * must not be visible to other queries, so the script is evaluated into new bindings by {@link #bindFunction()}.
+ * See {@link JavaScriptUserDefinedFunction#compile(java.util.List)} for how they are kept per query and thread.
+ */
+final class CompiledJavaScript {
+
+    private final String functionName;
+    private final CompiledScript compiledScript;
+
+    CompiledJavaScript(String functionName, CompiledScript compiledScript) {
+        this.functionName = functionName;
+        this.compiledScript = compiledScript;
+    }
+
+    /**
+     * @return the function of the script evaluated into new bindings
+     */
+    ScriptObjectMirror bindFunction() {
+        Bindings bindings = compiledScript.getEngine().createBindings();
+        try {
+            compiledScript.eval(bindings);
+        } catch (javax.script.ScriptException e) {
+            // this should not happen if the script was evaluated upfront
+            throw new ScriptException("evaluation error", e, JavaScriptLanguage.NAME);
+        }
+        Object function = bindings.get(functionName);
+        if (!(function instanceof ScriptObjectMirror) || !((ScriptObjectMirror) function).isFunction()) {
+            throw new ScriptException(
+                "The name of the function signature doesn't match the function name in the function definition.",
+                JavaScriptLanguage.NAME
+            );
+        }
+        return (ScriptObjectMirror) function;
+    }
+}
@@ -18,6 +18,10 @@
 
 package io.crate.operation.language;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Scalar;
@@ -27,11 +31,13 @@ import io.crate.operation.udf.UserDefinedFunctionService;
 import io.crate.types.DataType;
 import jdk.nashorn.api.scripting.NashornScriptEngine;
 import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.inject.Inject;
 
 import javax.annotation.Nullable;
 import javax.script.*;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 public class JavaScriptLanguage implements UDFLanguage {
@@ -41,17 +47,41 @@ public class JavaScriptLanguage implements UDFLanguage {
     private static final NashornScriptEngine ENGINE = (NashornScriptEngine) new NashornScriptEngineFactory()
         .getScriptEngine("--no-java", "--no-syntax-extensions");
 
+    /**
+     * Compiled scripts by function signature and definition.
+     * The implementations of all functions of a schema are re-created whenever the schema changes,
+     * this avoids compiling the scripts of unchanged functions again and keeps their per-thread bindings.
+     */
+    private final Cache<Tuple<FunctionIdent, String>, CompiledJavaScript> compiledScripts = CacheBuilder.newBuilder()
+        .maximumSize(1000)
+        .build();
+
     @Inject
     public JavaScriptLanguage(UserDefinedFunctionService udfService) {
         udfService.registerLanguage(this);
     }
 
     public Scalar createFunctionImplementation(UserDefinedFunctionMetaData meta) throws ScriptException {
-        FunctionInfo info = new FunctionInfo(
-            new FunctionIdent(meta.schema(), meta.name(), meta.argumentTypes()),
-            meta.returnType()
-        );
-        return new JavaScriptUserDefinedFunction(info, meta.definition());
+        FunctionIdent ident = new FunctionIdent(meta.schema(), meta.name(), meta.argumentTypes());
+        FunctionInfo info = new FunctionInfo(ident, meta.returnType());
+        return new JavaScriptUserDefinedFunction(info, compiledScript(ident, meta.definition()));
+    }
+
+    @VisibleForTesting
+    CompiledJavaScript compiledScript(FunctionIdent ident, String definition) throws ScriptException {
+        try {
+            return compiledScripts.get(
+                new Tuple<>(ident, definition),
+                () -> new CompiledJavaScript(ident.name(), ENGINE.compile(definition)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof ScriptException) {
+                throw (ScriptException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     @Nullable
@@ -32,8 +32,7 @@ import jdk.nashorn.internal.runtime.Undefined;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.BytesRefs;
 
-import javax.script.Bindings;
-import javax.script.ScriptException;
+import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -43,11 +42,20 @@ import java.util.stream.Collectors;
 public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
     private final FunctionInfo info;
-    private final String script;
+    private final CompiledJavaScript script;
+    @Nullable
+    private final ThreadLocal<ScriptObjectMirror> functions;
 
-    JavaScriptUserDefinedFunction(FunctionInfo info, String script) {
+    JavaScriptUserDefinedFunction(FunctionInfo info, CompiledJavaScript script) {
+        this(info, script, null);
+    }
+
+    private JavaScriptUserDefinedFunction(FunctionInfo info,
+                                          CompiledJavaScript script,
+                                          @Nullable ThreadLocal<ScriptObjectMirror> functions) {
         this.info = info;
         this.script = script;
+        this.functions = functions;
     }
 
     @Override
@@ -55,57 +63,22 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
         return info;
     }
 
+    /**
+     * The returned instance is used by a single query. It evaluates the script once per thread into its own bindings,
+     * so globals which are modified by the function persist for the rows of the query, but not across queries.
+     */
     @Override
     public Scalar<Object, Object> compile(List<Symbol> arguments) {
-        try {
-            return new CompiledFunction(JavaScriptLanguage.bindScript(script));
-        } catch (ScriptException e) {
-            // this should not happen if the script was evaluated upfront
-            throw new io.crate.exceptions.ScriptException(
-                "compile error",
-                e,
-                JavaScriptLanguage.NAME
-            );
-        }
+        return new JavaScriptUserDefinedFunction(info, script, ThreadLocal.withInitial(script::bindFunction));
     }
 
-    @Override
-    public Object evaluate(Input<Object>[] values) {
-        try {
-            return evaluateScriptWithBindings(JavaScriptLanguage.bindScript(script), values);
-        } catch (ScriptException e) {
-            // this should not happen if the script was evaluated upfront
-            throw new io.crate.exceptions.ScriptException(
-                "evaluation error",
-                e,
-                JavaScriptLanguage.NAME
-            );
-        }
+    private ScriptObjectMirror function() {
+        // an instance which isn't compiled for a query, e.g. used to normalize literals, uses new bindings every time
+        return functions == null ? script.bindFunction() : functions.get();
     }
 
-    private class CompiledFunction extends Scalar<Object, Object> {
-
-        private final Bindings bindings;
-
-        private CompiledFunction(Bindings bindings) {
-            this.bindings = bindings;
-        }
-
-        @Override
-        public FunctionInfo info() {
-            // return the functionInfo of the outer class,
-            // because the function info is the same for every compiled instance of a function
-            return info;
-        }
-
-        @Override
-        public final Object evaluate(Input<Object>[] values) {
-            return evaluateScriptWithBindings(bindings, values);
-        }
-
-    }
-
-    private Object evaluateScriptWithBindings(Bindings bindings, Input<Object>[] values) {
+    @Override
+    public Object evaluate(Input<Object>[] values) {
         Object[] args = new Object[values.length];
         for (int i = 0; i < values.length; i++) {
             args[i] = processBytesRefInputIfNeeded(values[i].value());
@@ -113,12 +86,7 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
         Object result;
         try {
-            result = ((ScriptObjectMirror) bindings.get(info.ident().name())).call(this, args);
-        } catch (NullPointerException e) {
-            throw new io.crate.exceptions.ScriptException(
-                "The name of the function signature doesn't match the function name in the function definition.",
-                JavaScriptLanguage.NAME
-            );
+            result = function().call(this, args);
         } catch (ECMAException e) {
             throw new io.crate.exceptions.ScriptException(
                 e.getMessage(),
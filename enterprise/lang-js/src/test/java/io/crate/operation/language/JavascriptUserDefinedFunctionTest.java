@@ -22,8 +22,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.crate.analyze.FunctionArgumentDefinition;
 import io.crate.analyze.symbol.Literal;
+import io.crate.data.Input;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.Scalar;
 import io.crate.metadata.Schemas;
 import io.crate.operation.scalar.AbstractScalarFunctionsTest;
 import io.crate.operation.udf.UserDefinedFunctionMetaData;
@@ -40,14 +42,22 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import javax.script.ScriptException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.crate.testing.SymbolMatchers.isLiteral;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.mock;
 
@@ -58,13 +68,14 @@ public class JavascriptUserDefinedFunctionTest extends AbstractScalarFunctionsTe
 
     private static final String JS = "javascript";
     private UserDefinedFunctionService udfService;
+    private JavaScriptLanguage javaScriptLanguage;
 
     @Override
     @Before
     public void setUp() throws Exception {
         super.setUp();
         udfService = new UserDefinedFunctionService(mock(ClusterService.class), functions);
-        udfService.registerLanguage(new JavaScriptLanguage(udfService));
+        javaScriptLanguage = new JavaScriptLanguage(udfService);
     }
 
     private Map<FunctionIdent, FunctionImplementation> functionImplementations = new HashMap<>();
@@ -272,4 +283,60 @@ public class JavascriptUserDefinedFunctionTest extends AbstractScalarFunctionsTe
         assertEvaluate("f(array_string_array)", "foo",
             Literal.of(new Object[][]{new Object[]{new BytesRef("foo")}}, new ArrayType(new ArrayType(DataTypes.STRING))));
     }
+
+    @Test
+    public void testCompiledScriptIsReusedForSameSignatureAndDefinition() throws Exception {
+        FunctionIdent ident = new FunctionIdent(Schemas.DEFAULT_SCHEMA_NAME, "f", ImmutableList.of(DataTypes.LONG));
+        CompiledJavaScript script = javaScriptLanguage.compiledScript(ident, "function f(x) { return x; }");
+
+        assertThat(javaScriptLanguage.compiledScript(ident, "function f(x) { return x; }"), sameInstance(script));
+        assertThat(javaScriptLanguage.compiledScript(ident, "function f(x) { return x + 1; }"),
+            not(sameInstance(script)));
+    }
+
+    @Test
+    public void testFunctionCanBeEvaluatedConcurrently() throws Exception {
+        registerUserDefinedFunction("f", DataTypes.LONG, ImmutableList.of(DataTypes.LONG),
+            "function f(x) { var y = x; return y * 2; }");
+        Scalar<Object, Object> udf = ((Scalar<Object, Object>) functionImplementations.get(
+            new FunctionIdent(Schemas.DEFAULT_SCHEMA_NAME, "f", ImmutableList.of(DataTypes.LONG))))
+            .compile(Collections.singletonList(Literal.of(1L)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (long i = 0; i < 1000; i++) {
+                        Object result = udf.evaluate(new Input[]{Literal.of(i)});
+                        if (!Long.valueOf(i * 2).equals(result)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGlobalsModifiedByFunctionAreResetForEveryQuery() throws Exception {
+        registerUserDefinedFunction("f", DataTypes.LONG, ImmutableList.of(DataTypes.LONG),
+            "var calls = 0; function f(x) { calls = calls + 1; return calls; }");
+        Scalar<Object, Object> udf = (Scalar<Object, Object>) functionImplementations.get(
+            new FunctionIdent(Schemas.DEFAULT_SCHEMA_NAME, "f", ImmutableList.of(DataTypes.LONG)));
+
+        Scalar<Object, Object> firstQuery = udf.compile(Collections.singletonList(Literal.of(1L)));
+        assertThat(firstQuery.evaluate(new Input[]{Literal.of(1L)}), is(1L));
+        assertThat(firstQuery.evaluate(new Input[]{Literal.of(1L)}), is(2L));
+
+        Scalar<Object, Object> secondQuery = udf.compile(Collections.singletonList(Literal.of(1L)));
+        assertThat(secondQuery.evaluate(new Input[]{Literal.of(1L)}), is(1L));
+        assertThat(udf.evaluate(new Input[]{Literal.of(1L)}), is(1L));
+    }
 }
@@ -21,10 +21,12 @@ package io.crate.protocols.ssl;
 import io.crate.settings.CrateSetting;
 import io.netty.handler.ssl.ApplicationProtocolConfig;
 import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.SslProvider;
+import io.netty.handler.ssl.SupportedCipherSuiteFilter;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
@@ -75,6 +77,8 @@ import java.util.Optional;
 @SuppressWarnings("WeakerAccess")
 public final class SslConfiguration {
 
+    private static final Logger LOGGER = Loggers.getLogger(SslConfiguration.class);
+
     private SslConfiguration() {}
 
     public static SslContext buildSslContext(Settings settings) {
@@ -103,16 +107,18 @@ public final class SslConfiguration {
                 trustedCertificates = trustStoreSettings.get().exportRootCertificates(trustedCertificates);
             }
 
+            SslProvider sslProvider = sslProvider(SslConfigSettings.SSL_PROVIDER.setting().get(settings));
             final SslContextBuilder sslContextBuilder =
                 SslContextBuilder
                     .forServer(privateKey, keystoreCerts)
-                    .ciphers(enabledCiphers)
+                    // the ciphers are named by the JDK, OpenSSL may not support all of them
+                    .ciphers(enabledCiphers, SupportedCipherSuiteFilter.INSTANCE)
                     .applicationProtocolConfig(ApplicationProtocolConfig.DISABLED)
                     .clientAuth(ClientAuth.OPTIONAL)
-                    .sessionCacheSize(0)
-                    .sessionTimeout(0)
+                    .sessionCacheSize(SslConfigSettings.SSL_SESSION_CACHE_SIZE.setting().get(settings))
+                    .sessionTimeout(SslConfigSettings.SSL_SESSION_TIMEOUT.setting().get(settings).seconds())
                     .startTls(false)
-                    .sslProvider(SslProvider.JDK);
+                    .sslProvider(sslProvider);
 
             if (trustedCertificates != null && trustedCertificates.length > 0) {
                 sslContextBuilder.trustManager(trustedCertificates);
@@ -127,6 +133,30 @@ public final class SslConfiguration {
         }
     }
 
+    /**
+     * OpenSSL (netty-tcnative) performs handshakes with less CPU than the JDK implementation and supports session
+     * tickets, so it's preferred if it is available on the classpath.
+     */
+    static SslProvider sslProvider(String provider) {
+        switch (provider) {
+            case "jdk":
+                return SslProvider.JDK;
+            case "openssl":
+                if (OpenSsl.isAvailable() == false) {
+                    throw new SslConfigurationException(
+                        "SSL provider openssl is not available: " + OpenSsl.unavailabilityCause());
+                }
+                return SslProvider.OPENSSL;
+            default:
+                if (OpenSsl.isAvailable()) {
+                    LOGGER.info("Using the OpenSSL provider for SSL");
+                    return SslProvider.OPENSSL;
+                }
+                LOGGER.info("Using the JDK provider for SSL, OpenSSL is not available");
+                return SslProvider.JDK;
+        }
+    }
+
     abstract static class AbstractKeyStoreSettings {
 
         final Logger LOGGER = Loggers.getLogger(getClass());
@@ -19,7 +19,9 @@
 package io.crate.protocols.ssl;
 
 import io.crate.test.integration.CrateUnitTest;
+import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslProvider;
 import org.elasticsearch.common.settings.Settings;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -76,6 +78,36 @@ public class SslConfigurationTest extends CrateUnitTest {
         assertThat(sslContext.cipherSuites(), not(hasItem(containsString("NULL"))));
     }
 
+    @Test
+    public void testSslContextWithSessionCacheSettings() {
+        Settings settings = Settings.builder()
+            .put(SslConfigSettings.SSL_KEYSTORE_FILEPATH_SETTING_NAME, keyStoreFile)
+            .put(SslConfigSettings.SSL_KEYSTORE_PASSWORD_SETTING_NAME, KEYSTORE_PASSWORD)
+            .put(SslConfigSettings.SSL_KEYSTORE_KEY_PASSWORD_SETTING_NAME, KEYSTORE_KEY_PASSWORD)
+            .put(SslConfigSettings.SSL_SESSION_CACHE_SIZE_SETTING_NAME, 42)
+            .put(SslConfigSettings.SSL_SESSION_TIMEOUT_SETTING_NAME, "10m")
+            .put(SslConfigSettings.SSL_PROVIDER_SETTING_NAME, "jdk")
+            .build();
+        SslContext sslContext = SslConfiguration.buildSslContext(settings);
+        assertThat(sslContext.sessionCacheSize(), is(42L));
+        assertThat(sslContext.sessionTimeout(), is(600L));
+    }
+
+    @Test
+    public void testSslProvider() {
+        assertThat(SslConfiguration.sslProvider("jdk"), is(SslProvider.JDK));
+        assertThat(SslConfiguration.sslProvider("auto"),
+            is(OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK));
+    }
+
+    @Test
+    public void testInvalidSslProvider() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid SSL provider \"boringssl\", must be one of auto, jdk or openssl");
+        SslConfigSettings.SSL_PROVIDER.setting().get(
+            Settings.builder().put(SslConfigSettings.SSL_PROVIDER_SETTING_NAME, "boringssl").build());
+    }
+
     @Test
     public void testTrustStoreLoading() throws Exception {
         Settings.Builder settingsBuilder = Settings.builder();
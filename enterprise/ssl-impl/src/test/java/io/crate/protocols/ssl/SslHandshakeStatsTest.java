@@ -0,0 +1,96 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.protocols.ssl;
+
+import io.crate.test.integration.CrateUnitTest;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class SslHandshakeStatsTest extends CrateUnitTest {
+
+    private SslContext serverContext;
+    private SslContext clientContext;
+
+    @Before
+    public void setUpContexts() throws Exception {
+        SelfSignedCertificate ssc = new SelfSignedCertificate();
+        serverContext = SslContextBuilder
+            .forServer(ssc.certificate(), ssc.privateKey())
+            .build();
+        clientContext = SslContextBuilder
+            .forClient()
+            .trustManager(InsecureTrustManagerFactory.INSTANCE)
+            .build();
+    }
+
+    @Test
+    public void testCompletedHandshakeIsCounted() throws Exception {
+        SslHandshakeStats stats = new SslHandshakeStats();
+        SslHandler serverHandler = serverContext.newHandler(ByteBufAllocator.DEFAULT);
+        stats.accept(serverHandler);
+
+        EmbeddedChannel server = new EmbeddedChannel(serverHandler);
+        EmbeddedChannel client = new EmbeddedChannel(clientContext.newHandler(ByteBufAllocator.DEFAULT));
+        try {
+            for (int i = 0; i < 10 && !serverHandler.handshakeFuture().isDone(); i++) {
+                transfer(client, server);
+                transfer(server, client);
+            }
+            assertThat(serverHandler.handshakeFuture().isSuccess(), is(true));
+            assertThat(stats.handshakes(), is(1L));
+            assertThat(stats.failedHandshakes(), is(0L));
+            assertThat(stats.maxHandshakeTimeInMillis(), lessThanOrEqualTo(stats.handshakeTimeInMillis()));
+        } finally {
+            client.close().awaitUninterruptibly();
+            server.close().awaitUninterruptibly();
+        }
+    }
+
+    @Test
+    public void testHandshakeAbortedByClosedChannelIsCountedAsFailed() throws Exception {
+        SslHandshakeStats stats = new SslHandshakeStats();
+        SslHandler serverHandler = serverContext.newHandler(ByteBufAllocator.DEFAULT);
+        stats.accept(serverHandler);
+
+        EmbeddedChannel server = new EmbeddedChannel(serverHandler);
+        server.close().awaitUninterruptibly();
+
+        assertThat(serverHandler.handshakeFuture().isSuccess(), is(false));
+        assertThat(stats.handshakes(), is(0L));
+        assertThat(stats.failedHandshakes(), is(1L));
+        assertThat(stats.handshakeTimeInMillis(), is(0L));
+    }
+
+    private static void transfer(EmbeddedChannel from, EmbeddedChannel to) {
+        Object msg;
+        while ((msg = from.readOutbound()) != null) {
+            to.writeInbound(msg);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.operation.auth;
+
+import io.crate.protocols.postgres.ConnectionProperties;
+import org.elasticsearch.common.network.InetAddresses;
+
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.crate.operation.auth.HostBasedAuthentication.KEY_ADDRESS;
+import static io.crate.operation.auth.HostBasedAuthentication.KEY_PROTOCOL;
+import static io.crate.operation.auth.HostBasedAuthentication.KEY_USER;
+import static io.crate.operation.auth.HostBasedAuthentication.SSL_OPTIONS;
+
+/**
+ * Compiled form of the host based authentication configuration.
+ *
+ * The entries are grouped by their user and protocol, a missing user or protocol is grouped under the null key.
+ * The addresses of each group are stored in a binary prefix trie per address family, so a lookup visits at most
+ * 4 groups and one trie path per group, independent of the number of entries.
+ *
+ * As with a sequential scan over the configuration, the first matching entry in configuration order wins.
+ */
+final class HbaMatcher {
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private final List<Map.Entry<String, Map<String, String>>> entries;
+    private final Map<String, Map<String, AddressTrie>> triesByUserAndProtocol = new HashMap<>();
+
+    HbaMatcher(Map<String, Map<String, String>> hbaConf) {
+        entries = new ArrayList<>(hbaConf.entrySet());
+        for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+            Map<String, String> entry = entries.get(ordinal).getValue();
+            triesByUserAndProtocol
+                .computeIfAbsent(entry.get(KEY_USER), k -> new HashMap<>())
+                .computeIfAbsent(entry.get(KEY_PROTOCOL), k -> new AddressTrie())
+                .add(entry.get(KEY_ADDRESS), ordinal);
+        }
+    }
+
+    Optional<Map.Entry<String, Map<String, String>>> match(String user, ConnectionProperties connectionProperties) {
+        InetAddress inetAddress = connectionProperties.address();
+        byte[] address = inetAddress == null ? null : inetAddress.getAddress();
+        String protocol = connectionProperties.protocol().toString();
+
+        int best = Integer.MAX_VALUE;
+        for (String hbaUser : new String[]{user, null}) {
+            Map<String, AddressTrie> triesByProtocol = triesByUserAndProtocol.get(hbaUser);
+            if (triesByProtocol != null) {
+                best = firstMatch(triesByProtocol.get(protocol), address, connectionProperties, best);
+                best = firstMatch(triesByProtocol.get(null), address, connectionProperties, best);
+            }
+        }
+        return best == Integer.MAX_VALUE ? Optional.empty() : Optional.of(entries.get(best));
+    }
+
+    private int firstMatch(@Nullable AddressTrie trie,
+                           @Nullable byte[] address,
+                           ConnectionProperties connectionProperties,
+                           int best) {
+        if (trie == null) {
+            return best;
+        }
+        best = firstValid(trie.anyAddress, connectionProperties, best);
+        if (address != null) {
+            Node node = address.length == 4 ? trie.ipv4 : trie.ipv6;
+            int bits = address.length * 8;
+            for (int i = 0; node != null; i++) {
+                best = firstValid(node.ordinals, connectionProperties, best);
+                if (i == bits) {
+                    break;
+                }
+                node = node.children[bit(address, i)];
+            }
+        }
+        return best;
+    }
+
+    private int firstValid(int[] ordinals, ConnectionProperties connectionProperties, int best) {
+        for (int ordinal : ordinals) {
+            if (ordinal >= best) {
+                break;
+            }
+            String sslOption = entries.get(ordinal).getValue().get(SSL_OPTIONS.KEY);
+            if (HostBasedAuthentication.Matchers.isValidConnection(sslOption, connectionProperties)) {
+                return ordinal;
+            }
+        }
+        return best;
+    }
+
+    private static int bit(byte[] address, int i) {
+        return (address[i >> 3] >> (7 - (i & 7))) & 1;
+    }
+
+    private static final class AddressTrie {
+
+        private int[] anyAddress = NO_ORDINALS;
+        private final Node ipv4 = new Node();
+        private final Node ipv6 = new Node();
+
+        /**
+         * Adds an entry for an address or CIDR block. Entries must be added in ascending ordinal order.
+         */
+        void add(@Nullable String hbaAddress, int ordinal) {
+            if (hbaAddress == null) {
+                // no IP/CIDR --> match all
+                anyAddress = append(anyAddress, ordinal);
+                return;
+            }
+            int p = hbaAddress.indexOf('/');
+            byte[] address = InetAddresses.forString(p < 0 ? hbaAddress : hbaAddress.substring(0, p)).getAddress();
+            int bits = address.length * 8;
+            int prefixLength = bits;
+            if (p >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(hbaAddress.substring(p + 1));
+                } catch (NumberFormatException e) {
+                    prefixLength = -1;
+                }
+                if (prefixLength < 0 || prefixLength > bits) {
+                    throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                        "Invalid CIDR notation of host based authentication address \"%s\"", hbaAddress));
+                }
+            }
+            Node node = address.length == 4 ? ipv4 : ipv6;
+            for (int i = 0; i < prefixLength; i++) {
+                int bit = bit(address, i);
+                if (node.children[bit] == null) {
+                    node.children[bit] = new Node();
+                }
+                node = node.children[bit];
+            }
+            node.ordinals = append(node.ordinals, ordinal);
+        }
+
+        private static int[] append(int[] ordinals, int ordinal) {
+            int[] result = Arrays.copyOf(ordinals, ordinals.length + 1);
+            result[ordinals.length] = ordinal;
+            return result;
+        }
+    }
+
+    private static final class Node {
+
+        private final Node[] children = new Node[2];
+        private int[] ordinals = NO_ORDINALS;
+    }
+}
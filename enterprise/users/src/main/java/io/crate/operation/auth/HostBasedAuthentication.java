@@ -23,12 +23,9 @@ import com.google.common.collect.ImmutableMap;
 import io.crate.operation.user.UserLookup;
 import io.crate.protocols.postgres.ConnectionProperties;
 import org.elasticsearch.common.inject.Inject;
-import org.elasticsearch.common.network.Cidrs;
-import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.common.settings.Settings;
 
 import javax.annotation.Nullable;
-import java.net.InetAddress;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -70,17 +67,19 @@ public class HostBasedAuthentication implements Authentication {
      }
      */
     private Map<String, Map<String, String>> hbaConf;
+    private HbaMatcher hbaMatcher;
 
     private final Map<String, Supplier<AuthenticationMethod>> authMethodRegistry = new HashMap<>();
 
     @Inject
     public HostBasedAuthentication(Settings settings, UserLookup userLookup) {
-        hbaConf = convertHbaSettingsToHbaConf(AuthSettings.AUTH_HOST_BASED_CONFIG_SETTING.setting().get(settings));
+        updateHbaConfig(convertHbaSettingsToHbaConf(AuthSettings.AUTH_HOST_BASED_CONFIG_SETTING.setting().get(settings)));
         authMethodRegistry.put(TrustAuthenticationMethod.NAME, () -> new TrustAuthenticationMethod(userLookup));
         authMethodRegistry.put(ClientCertAuth.NAME, () -> new ClientCertAuth(userLookup));
     }
 
     void updateHbaConfig(Map<String, Map<String, String>> hbaMap) {
+        hbaMatcher = new HbaMatcher(hbaMap);
         hbaConf = hbaMap;
     }
 
@@ -123,12 +122,7 @@ public class HostBasedAuthentication implements Authentication {
         if (user == null || connectionProperties == null) {
             return Optional.empty();
         }
-        return hbaConf.entrySet().stream()
-            .filter(e -> Matchers.isValidUser(e, user))
-            .filter(e -> Matchers.isValidAddress(e.getValue().get(KEY_ADDRESS), connectionProperties.address()))
-            .filter(e -> Matchers.isValidProtocol(e.getValue().get(KEY_PROTOCOL), connectionProperties.protocol()))
-            .filter(e -> Matchers.isValidConnection(e.getValue().get(SSL_OPTIONS.KEY), connectionProperties))
-            .findFirst();
+        return hbaMatcher.match(user, connectionProperties);
     }
 
     static class Matchers {
@@ -138,20 +132,6 @@ public class HostBasedAuthentication implements Authentication {
             return hbaUser == null || user.equals(hbaUser);
         }
 
-        static boolean isValidAddress(@Nullable String hbaAddress, InetAddress address) {
-            if (hbaAddress == null) {
-                // no IP/CIDR --> 0.0.0.0/0 --> match all
-                return true;
-            }
-            int p = hbaAddress.indexOf('/');
-            if (p < 0) {
-                return InetAddresses.forString(hbaAddress).equals(address);
-            }
-            long[] minAndMax = Cidrs.cidrMaskToMinMax(hbaAddress);
-            int addressAsInt = ipv4AddressToInt(address.getAddress());
-            return minAndMax[0] <= addressAsInt && addressAsInt < minAndMax[1];
-        }
-
         static boolean isValidProtocol(String hbaProtocol, Protocol protocol) {
             return hbaProtocol == null || hbaProtocol.equals(protocol.toString());
         }
@@ -164,13 +144,4 @@ public class HostBasedAuthentication implements Authentication {
                    (hbaConnectionMode.equals(SSL_OPTIONS.REQUIRED.VALUE) && connectionProperties.hasSSL());
         }
     }
-
-    private static int ipv4AddressToInt(byte[] address) {
-        int net = 0;
-        for (byte a : address) {
-            net <<= 8;
-            net |= a & 0xFF;
-        }
-        return net;
-    }
 }
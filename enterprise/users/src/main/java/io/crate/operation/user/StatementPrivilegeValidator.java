@@ -27,6 +27,7 @@ import io.crate.analyze.AlterTableRenameAnalyzedStatement;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.AnalyzedStatementVisitor;
+import io.crate.analyze.CloseCursorAnalyzedStatement;
 import io.crate.analyze.CopyFromAnalyzedStatement;
 import io.crate.analyze.CopyToAnalyzedStatement;
 import io.crate.analyze.CreateAnalyzerAnalyzedStatement;
@@ -36,6 +37,7 @@ import io.crate.analyze.CreateRepositoryAnalyzedStatement;
 import io.crate.analyze.CreateSnapshotAnalyzedStatement;
 import io.crate.analyze.CreateTableAnalyzedStatement;
 import io.crate.analyze.CreateUserAnalyzedStatement;
+import io.crate.analyze.DeclareCursorAnalyzedStatement;
 import io.crate.analyze.DeleteAnalyzedStatement;
 import io.crate.analyze.DropBlobTableAnalyzedStatement;
 import io.crate.analyze.DropFunctionAnalyzedStatement;
@@ -44,6 +46,7 @@ import io.crate.analyze.DropSnapshotAnalyzedStatement;
 import io.crate.analyze.DropTableAnalyzedStatement;
 import io.crate.analyze.DropUserAnalyzedStatement;
 import io.crate.analyze.ExplainAnalyzedStatement;
+import io.crate.analyze.FetchFromCursorAnalyzedStatement;
 import io.crate.analyze.InsertFromSubQueryAnalyzedStatement;
 import io.crate.analyze.InsertFromValuesAnalyzedStatement;
 import io.crate.analyze.KillAnalyzedStatement;
@@ -67,11 +70,12 @@ import io.crate.analyze.relations.TableFunctionRelation;
 import io.crate.analyze.relations.TableRelation;
 import io.crate.analyze.user.Privilege;
 import io.crate.exceptions.UnauthorizedException;
-import io.crate.metadata.PartitionName;
 import io.crate.metadata.TableIdent;
 import io.crate.sql.tree.SetStatement;
 
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
 
 class StatementPrivilegeValidator implements StatementAuthorizedValidator {
 
@@ -278,13 +282,13 @@ class StatementPrivilegeValidator implements StatementAuthorizedValidator {
 
         @Override
         public Void visitRefreshTableStatement(RefreshTableAnalyzedStatement analysis, User user) {
+            // the partitions of a table share its privileges, so every table is only checked once and
+            // partition names are resolved to their table without decoding the partition values
+            Set<String> tableNames = new HashSet<>();
             for (String indexName : analysis.indexNames()) {
-                String tableName;
-                if (PartitionName.isPartition(indexName)) {
-                    tableName = PartitionName.fromIndexOrTemplate(indexName).tableIdent().toString();
-                } else {
-                    tableName = TableIdent.fqnFromIndexName(indexName);
-                }
+                tableNames.add(TableIdent.fqnFromIndexName(indexName));
+            }
+            for (String tableName : tableNames) {
                 Privileges.ensureUserHasPrivilege(
                     Privilege.Type.DQL,
                     Privilege.Clazz.TABLE,
@@ -415,6 +419,22 @@ class StatementPrivilegeValidator implements StatementAuthorizedValidator {
             return process(explainAnalyzedStatement.statement(), user);
         }
 
+        @Override
+        public Void visitDeclareCursor(DeclareCursorAnalyzedStatement analysis, User user) {
+            return process(analysis.query(), user);
+        }
+
+        @Override
+        public Void visitFetchFromCursor(FetchFromCursorAnalyzedStatement analysis, User user) {
+            // privileges of the query have been validated when the cursor was declared
+            return null;
+        }
+
+        @Override
+        public Void visitCloseCursor(CloseCursorAnalyzedStatement analysis, User user) {
+            return null;
+        }
+
         @Override
         public Void visitBegin(AnalyzedBegin analyzedBegin, User user) {
             Privileges.ensureUserHasPrivilege(
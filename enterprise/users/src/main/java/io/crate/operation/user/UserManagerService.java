@@ -19,6 +19,7 @@
 package io.crate.operation.user;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.crate.action.FutureActionListener;
 import io.crate.analyze.user.Privilege;
@@ -43,6 +44,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -86,7 +88,7 @@ public class UserManagerService implements UserManager, ClusterStateListener {
     private final TransportCreateUserAction transportCreateUserAction;
     private final TransportDropUserAction transportDropUserAction;
     private final TransportPrivilegesAction transportPrivilegesAction;
-    private volatile Set<User> users = ImmutableSet.of(CRATE_USER);
+    private volatile Map<String, User> usersByName = ImmutableMap.of(CRATE_USER.name(), CRATE_USER);
 
     @Inject
     public UserManagerService(TransportCreateUserAction transportCreateUserAction,
@@ -170,7 +172,7 @@ public class UserManagerService implements UserManager, ClusterStateListener {
     }
 
     public Iterable<User> users() {
-        return users;
+        return usersByName.values();
     }
 
     @Override
@@ -205,18 +207,25 @@ public class UserManagerService implements UserManager, ClusterStateListener {
         if (!event.metaDataChanged()) {
             return;
         }
+        MetaData prevMetaData = event.previousState().metaData();
         MetaData metaData = event.state().metaData();
-        users = getUsers(metaData.custom(UsersMetaData.TYPE), metaData.custom(UsersPrivilegesMetaData.TYPE));
+        UsersMetaData usersMetaData = metaData.custom(UsersMetaData.TYPE);
+        UsersPrivilegesMetaData privilegesMetaData = metaData.custom(UsersPrivilegesMetaData.TYPE);
+        if (usersMetaData == prevMetaData.custom(UsersMetaData.TYPE)
+            && privilegesMetaData == prevMetaData.custom(UsersPrivilegesMetaData.TYPE)) {
+            // the users and their compiled privileges are only rebuilt if the user meta data changed
+            return;
+        }
+        ImmutableMap.Builder<String, User> usersBuilder = ImmutableMap.builder();
+        for (User user : getUsers(usersMetaData, privilegesMetaData)) {
+            usersBuilder.put(user.name(), user);
+        }
+        usersByName = usersBuilder.build();
     }
 
 
     @Nullable
     public User findUser(String userName) {
-        for (User user : users()) {
-            if (userName.equals(user.name())) {
-                return user;
-            }
-        }
-        return null;
+        return usersByName.get(userName);
     }
 }
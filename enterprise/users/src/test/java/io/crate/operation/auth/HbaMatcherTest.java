@@ -0,0 +1,79 @@
+/*
+ * This file is part of a module with proprietary Enterprise Features.
+ *
+ * Licensed to Crate.io Inc. ("Crate.io") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.
+ *
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ *
+ * To use this file, Crate.io must have given you permission to enable and
+ * use such Enterprise Features and you must have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  If you enable or use the Enterprise
+ * Features, you represent and warrant that you have a valid Enterprise or
+ * Subscription Agreement with Crate.io.  Your use of the Enterprise Features
+ * if governed by the terms and conditions of your Enterprise or Subscription
+ * Agreement with Crate.io.
+ */
+
+package io.crate.operation.auth;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.protocols.postgres.ConnectionProperties;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.network.InetAddresses;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+public class HbaMatcherTest extends CrateUnitTest {
+
+    private static HbaMatcher matcherForAddress(String hbaAddress) {
+        Map<String, String> entry = hbaAddress == null
+            ? Collections.singletonMap("method", "trust")
+            : ImmutableMap.of("address", hbaAddress, "method", "trust");
+        return new HbaMatcher(Collections.singletonMap("0", entry));
+    }
+
+    private static boolean matches(HbaMatcher matcher, String address) {
+        ConnectionProperties connectionProperties =
+            new ConnectionProperties(InetAddresses.forString(address), Protocol.POSTGRES, null);
+        return matcher.match("crate", connectionProperties).isPresent();
+    }
+
+    @Test
+    public void testMatchAddress() throws Exception {
+        HbaMatcher matcher = matcherForAddress("10.0.1.100");
+        assertTrue(matches(matcher, "10.0.1.100"));
+        assertFalse(matches(matcher, "10.0.1.99"));
+        assertFalse(matches(matcher, "10.0.1.101"));
+
+        matcher = matcherForAddress("10.0.1.0/24");  // 10.0.1.0 -- 10.0.1.255
+        assertTrue(matches(matcher, "10.0.1.0"));
+        assertTrue(matches(matcher, "10.0.1.255"));
+        assertFalse(matches(matcher, "10.0.0.255"));
+        assertFalse(matches(matcher, "10.0.2.0"));
+
+        matcher = matcherForAddress(null);
+        assertTrue(matches(matcher, String.format(Locale.ENGLISH, "%s.%s.%s.%s",
+            randomInt(255), randomInt(255), randomInt(255), randomInt(255))));
+    }
+
+    @Test
+    public void testMatchAddressWithHighestBitSet() throws Exception {
+        HbaMatcher matcher = matcherForAddress("192.168.0.0/16");  // 192.168.0.0 -- 192.168.255.255
+        assertTrue(matches(matcher, "192.168.0.0"));
+        assertTrue(matches(matcher, "192.168.255.255"));
+        assertFalse(matches(matcher, "192.167.255.255"));
+        assertFalse(matches(matcher, "192.169.0.0"));
+    }
+
+    @Test
+    public void testInvalidCidrPrefixLength() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid CIDR notation of host based authentication address \"10.0.0.0/33\"");
+        matcherForAddress("10.0.0.0/33");
+    }
+}
@@ -41,7 +41,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
-import static io.crate.operation.auth.HostBasedAuthentication.Matchers.isValidAddress;
 import static io.crate.operation.auth.HostBasedAuthentication.Matchers.isValidProtocol;
 import static io.crate.operation.auth.HostBasedAuthentication.Matchers.isValidUser;
 import static org.hamcrest.Matchers.instanceOf;
@@ -166,6 +165,78 @@ public class HostBasedAuthenticationTest extends CrateUnitTest {
         assertThat(entry.isPresent(), is(false));
     }
 
+    @Test
+    public void testFirstMatchingEntryInConfigurationOrderWins() throws Exception {
+        authService.updateHbaConfig(createHbaConf(
+            ImmutableMap.of("user", "crate", "address", "10.0.1.0/24", "method", "trust"),
+            ImmutableMap.of("address", "10.0.0.0/8", "method", "md5", "protocol", "pg"),
+            ImmutableMap.of("user", "crate", "address", "10.0.1.23", "method", "cert")
+        ));
+        Optional<Map.Entry<String, Map<String, String>>> entry;
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("10.0.1.23"), Protocol.POSTGRES, null));
+        assertThat(entry.get().getValue().get("method"), is("trust"));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("10.0.2.23"), Protocol.POSTGRES, null));
+        assertThat(entry.get().getValue().get("method"), is("md5"));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("10.0.2.23"), Protocol.HTTP, null));
+        assertThat(entry.isPresent(), is(false));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("11.0.1.23"), Protocol.POSTGRES, null));
+        assertThat(entry.isPresent(), is(false));
+    }
+
+    @Test
+    public void testMatchAddressesOfWholeRange() throws Exception {
+        authService.updateHbaConfig(createHbaConf(HBA_2));
+        Optional<Map.Entry<String, Map<String, String>>> entry;
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("0.0.0.0"), Protocol.POSTGRES, null));
+        assertThat(entry.isPresent(), is(true));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("255.255.255.255"), Protocol.POSTGRES, null));
+        assertThat(entry.isPresent(), is(true));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("::1"), Protocol.POSTGRES, null));
+        assertThat(entry.isPresent(), is(false));
+    }
+
+    @Test
+    public void testMatchIPv6Address() throws Exception {
+        authService.updateHbaConfig(createHbaConf(
+            ImmutableMap.of("user", "crate", "address", "::1", "method", "trust"),
+            ImmutableMap.of("user", "crate", "address", "fe80::/64", "method", "md5")
+        ));
+        Optional<Map.Entry<String, Map<String, String>>> entry;
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("::1"), Protocol.POSTGRES, null));
+        assertThat(entry.get().getValue().get("method"), is("trust"));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("fe80::1:2"), Protocol.POSTGRES, null));
+        assertThat(entry.get().getValue().get("method"), is("md5"));
+
+        entry = authService.getEntry("crate",
+            new ConnectionProperties(InetAddresses.forString("fe81::1"), Protocol.POSTGRES, null));
+        assertThat(entry.isPresent(), is(false));
+    }
+
+    @Test
+    public void testInvalidCIDRPrefixLength() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid CIDR notation of host based authentication address \"10.0.0.0/33\"");
+        authService.updateHbaConfig(createHbaConf(ImmutableMap.of("address", "10.0.0.0/33")));
+    }
+
     @Test
     public void testMatchUser() throws Exception {
         // only "crate" matches
@@ -189,26 +260,6 @@ public class HostBasedAuthenticationTest extends CrateUnitTest {
         assertTrue(isValidProtocol(null, Protocol.POSTGRES));
     }
 
-    @Test
-    public void testMatchAddress() throws Exception {
-        String hbaAddress = "10.0.1.100";
-        assertTrue(isValidAddress(hbaAddress, InetAddresses.forString("10.0.1.100")));
-        assertFalse(isValidAddress(hbaAddress, InetAddresses.forString("10.0.1.99")));
-        assertFalse(isValidAddress(hbaAddress, InetAddresses.forString("10.0.1.101")));
-
-        hbaAddress = "10.0.1.0/24";  // 10.0.1.0 -- 10.0.1.255
-        assertTrue(isValidAddress(hbaAddress, InetAddresses.forString("10.0.1.0")));
-        assertTrue(isValidAddress(hbaAddress, InetAddresses.forString("10.0.1.255")));
-        assertFalse(isValidAddress(hbaAddress, InetAddresses.forString("10.0.0.255")));
-        assertFalse(isValidAddress(hbaAddress, InetAddresses.forString("10.0.2.0")));
-
-        assertTrue(isValidAddress(null,
-            InetAddresses.forString(
-                String.format("%s.%s.%s.%s", randomInt(255), randomInt(255), randomInt(255), randomInt(255)))
-            )
-        );
-    }
-
     @Test
     public void testConvertSettingsToConf() throws Exception {
         Settings settings = Settings.builder()
@@ -32,6 +32,7 @@ import org.elasticsearch.common.logging.Loggers;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -48,6 +49,7 @@ public class PipelineRegistry {
 
     private final List<ChannelPipelineItem> addBeforeList;
     private SslContext sslContext;
+    private Consumer<SslHandler> sslHandlerListener = sslHandler -> {};
 
     public PipelineRegistry() {
         this.addBeforeList = new ArrayList<>();
@@ -97,12 +99,20 @@ public class PipelineRegistry {
         }
     }
 
+    /**
+     * Registers a listener which is called with every {@link SslHandler} added to a pipeline.
+     */
+    public void registerSslHandlerListener(Consumer<SslHandler> sslHandlerListener) {
+        this.sslHandlerListener = sslHandlerListener;
+    }
+
     public void registerItems(ChannelPipeline pipeline) {
         for (PipelineRegistry.ChannelPipelineItem item : addBeforeList) {
             pipeline.addBefore(item.base, item.name, item.handlerFactory.get());
         }
         if (sslContext != null) {
             SslHandler sslHandler = sslContext.newHandler(pipeline.channel().alloc());
+            sslHandlerListener.accept(sslHandler);
             pipeline.addFirst(sslHandler);
         }
     }
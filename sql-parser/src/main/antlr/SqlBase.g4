@@ -33,7 +33,7 @@ singleExpression
 statement
     : query                                                                          #default
     | BEGIN                                                                          #begin
-    | EXPLAIN statement                                                              #explain
+    | EXPLAIN ANALYZE? statement                                                     #explain
     | OPTIMIZE TABLE tableWithPartitions withProperties?                             #optimize
     | REFRESH TABLE tableWithPartitions                                              #refreshTable
     | UPDATE aliasedRelation SET assignment (',' assignment)* where?                 #update
@@ -58,6 +58,10 @@ statement
     | SET GLOBAL (PERSISTENT | TRANSIENT)?
         setGlobalAssignment (',' setGlobalAssignment)*                               #setGlobal
     | KILL (ALL | jobId=parameterOrString)                                           #kill
+    | DECLARE ident CURSOR FOR query                                                 #declareCursor
+    | FETCH (NEXT | FORWARD | FORWARD? (count=integerLiteral | ALL))?
+        (FROM | IN)? ident                                                           #fetchFromCursor
+    | CLOSE (ALL | ident)                                                            #closeCursor
     | INSERT INTO table ('(' ident (',' ident)* ')')? insertSource
         (ON DUPLICATE KEY UPDATE assignment (',' assignment)*)?                      #insert
     | RESTORE SNAPSHOT qname (ALL | TABLE tableWithPartitions) withProperties?       #restore
@@ -581,7 +585,7 @@ clazz
     ;
 
 nonReserved
-    : ALIAS | ANALYZER | BERNOULLI | BLOB | CATALOGS | CHAR_FILTERS | CLUSTERED
+    : ALIAS | ANALYZE | ANALYZER | BERNOULLI | BLOB | CATALOGS | CHAR_FILTERS | CLUSTERED
     | COLUMNS | COPY | CURRENT | DATE | DAY | DISTRIBUTED | DUPLICATE | DYNAMIC | EXPLAIN
     | EXTENDS | FOLLOWING | FORMAT | FULLTEXT | FUNCTIONS | GEO_POINT | GEO_SHAPE | GLOBAL
     | GRAPHVIZ | HOUR | IGNORED | KEY | KILL | LOGICAL | LOCAL | MATERIALIZED | MINUTE
@@ -591,7 +595,7 @@ nonReserved
     | TIMESTAMP | TO | TOKENIZER | TOKEN_FILTERS | TYPE | VALUES | VIEW | YEAR
     | REPOSITORY | SNAPSHOT | RESTORE | GENERATED | ALWAYS | BEGIN
     | ISOLATION | TRANSACTION | CHARACTERISTICS | LEVEL | LANGUAGE | OPEN | CLOSE | RENAME
-    | PRIVILEGES | SCHEMA
+    | PRIVILEGES | SCHEMA | DECLARE | CURSOR | FETCH | NEXT | FORWARD
     ;
 
 SELECT: 'SELECT';
@@ -686,6 +690,12 @@ COLUMN: 'COLUMN';
 OPEN: 'OPEN';
 CLOSE: 'CLOSE';
 
+DECLARE: 'DECLARE';
+CURSOR: 'CURSOR';
+FETCH: 'FETCH';
+NEXT: 'NEXT';
+FORWARD: 'FORWARD';
+
 RENAME: 'RENAME';
 
 BOOLEAN: 'BOOLEAN';
@@ -775,6 +785,7 @@ IGNORED: 'IGNORED';
 
 ARRAY: 'ARRAY';
 
+ANALYZE: 'ANALYZE';
 ANALYZER: 'ANALYZER';
 EXTENDS: 'EXTENDS';
 TOKENIZER: 'TOKENIZER';
@@ -140,7 +140,7 @@ public final class SqlFormatter {
 
         @Override
         protected Void visitExplain(Explain node, Integer indent) {
-            append(indent, "EXPLAIN ");
+            append(indent, node.isAnalyze() ? "EXPLAIN ANALYZE " : "EXPLAIN ");
             process(node.getStatement(), indent);
             return null;
         }
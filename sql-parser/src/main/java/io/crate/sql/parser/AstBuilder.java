@@ -47,6 +47,7 @@ import io.crate.sql.tree.BetweenPredicate;
 import io.crate.sql.tree.BooleanLiteral;
 import io.crate.sql.tree.Cast;
 import io.crate.sql.tree.CharFilters;
+import io.crate.sql.tree.CloseCursor;
 import io.crate.sql.tree.ClusteredBy;
 import io.crate.sql.tree.CollectionColumnType;
 import io.crate.sql.tree.ColumnConstraint;
@@ -65,6 +66,7 @@ import io.crate.sql.tree.CreateTable;
 import io.crate.sql.tree.CreateUser;
 import io.crate.sql.tree.CurrentTime;
 import io.crate.sql.tree.DateLiteral;
+import io.crate.sql.tree.DeclareCursor;
 import io.crate.sql.tree.Delete;
 import io.crate.sql.tree.DenyPrivilege;
 import io.crate.sql.tree.DoubleLiteral;
@@ -79,6 +81,7 @@ import io.crate.sql.tree.ExistsPredicate;
 import io.crate.sql.tree.Explain;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Extract;
+import io.crate.sql.tree.FetchFromCursor;
 import io.crate.sql.tree.FunctionArgument;
 import io.crate.sql.tree.FunctionCall;
 import io.crate.sql.tree.GenericProperties;
@@ -488,9 +491,33 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         return new KillStatement((Expression) visit(context.jobId));
     }
 
+    @Override
+    public Node visitDeclareCursor(SqlBaseParser.DeclareCursorContext context) {
+        return new DeclareCursor(getIdentText(context.ident()), (Query) visit(context.query()));
+    }
+
+    @Override
+    public Node visitFetchFromCursor(SqlBaseParser.FetchFromCursorContext context) {
+        long count = 1L;
+        if (context.ALL() != null) {
+            count = FetchFromCursor.ALL;
+        } else if (context.count != null) {
+            count = ((LongLiteral) visit(context.count)).getValue();
+        }
+        return new FetchFromCursor(getIdentText(context.ident()), count);
+    }
+
+    @Override
+    public Node visitCloseCursor(SqlBaseParser.CloseCursorContext context) {
+        if (context.ALL() != null) {
+            return new CloseCursor();
+        }
+        return new CloseCursor(getIdentText(context.ident()));
+    }
+
     @Override
     public Node visitExplain(SqlBaseParser.ExplainContext context) {
-        return new Explain((Statement) visit(context.statement()));
+        return new Explain((Statement) visit(context.statement()), context.ANALYZE() != null);
     }
 
     @Override
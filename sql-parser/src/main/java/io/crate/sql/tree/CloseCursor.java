@@ -0,0 +1,66 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.sql.tree;
+
+import java.util.Optional;
+
+public class CloseCursor extends Statement {
+
+    private final Optional<String> cursorName;
+
+    /**
+     * Closes all cursors of the session
+     */
+    public CloseCursor() {
+        this.cursorName = Optional.empty();
+    }
+
+    public CloseCursor(String cursorName) {
+        this.cursorName = Optional.of(cursorName);
+    }
+
+    public Optional<String> cursorName() {
+        return cursorName;
+    }
+
+    @Override
+    public int hashCode() {
+        return cursorName.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return cursorName.equals(((CloseCursor) obj).cursorName);
+    }
+
+    @Override
+    public String toString() {
+        return cursorName.isPresent() ? "CLOSE " + cursorName.get() : "CLOSE ALL";
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitCloseCursor(this, context);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.sql.tree;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+public class DeclareCursor extends Statement {
+
+    private final String cursorName;
+    private final Query query;
+
+    public DeclareCursor(String cursorName, Query query) {
+        this.cursorName = cursorName;
+        this.query = query;
+    }
+
+    public String cursorName() {
+        return cursorName;
+    }
+
+    public Query query() {
+        return query;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cursorName, query);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        DeclareCursor that = (DeclareCursor) obj;
+        return cursorName.equals(that.cursorName) && query.equals(that.query);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("cursorName", cursorName)
+            .add("query", query)
+            .toString();
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitDeclareCursor(this, context);
+    }
+}
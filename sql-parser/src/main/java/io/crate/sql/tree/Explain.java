@@ -29,15 +29,28 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class Explain
     extends Statement {
     private final Statement statement;
+    private final boolean isAnalyze;
 
     public Explain(Statement statement) {
+        this(statement, false);
+    }
+
+    public Explain(Statement statement, boolean isAnalyze) {
         this.statement = checkNotNull(statement, "statement is null");
+        this.isAnalyze = isAnalyze;
     }
 
     public Statement getStatement() {
         return statement;
     }
 
+    /**
+     * @return true if the statement should be executed and profiled (EXPLAIN ANALYZE)
+     */
+    public boolean isAnalyze() {
+        return isAnalyze;
+    }
+
     @Override
     public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
         return visitor.visitExplain(this, context);
@@ -45,7 +58,7 @@ public class Explain
 
     @Override
     public int hashCode() {
-        return statement.hashCode();
+        return Objects.hashCode(statement, isAnalyze);
     }
 
     @Override
@@ -57,13 +70,14 @@ public class Explain
             return false;
         }
         Explain o = (Explain) obj;
-        return Objects.equal(statement, o.statement);
+        return Objects.equal(statement, o.statement) && isAnalyze == o.isAnalyze;
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("statement", statement)
+            .add("isAnalyze", isAnalyze)
             .toString();
     }
 }
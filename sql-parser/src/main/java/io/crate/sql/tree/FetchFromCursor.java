@@ -0,0 +1,79 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.sql.tree;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+public class FetchFromCursor extends Statement {
+
+    /**
+     * Count which fetches all remaining rows of the cursor.
+     */
+    public static final long ALL = -1L;
+
+    private final String cursorName;
+    private final long count;
+
+    public FetchFromCursor(String cursorName, long count) {
+        this.cursorName = cursorName;
+        this.count = count;
+    }
+
+    public String cursorName() {
+        return cursorName;
+    }
+
+    /**
+     * The number of rows to fetch or {@link #ALL}.
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cursorName, count);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        FetchFromCursor that = (FetchFromCursor) obj;
+        return count == that.count && cursorName.equals(that.cursorName);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("cursorName", cursorName)
+            .add("count", count)
+            .toString();
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitFetchFromCursor(this, context);
+    }
+}
@@ -139,6 +139,14 @@ public class TestStatementBuilder {
     @Test
     public void testExplainStmtBuilder() {
         printStatement("explain drop table foo");
+        printStatement("explain analyze select * from foo");
+    }
+
+    @Test
+    public void testExplainAnalyze() {
+        Explain explain = (Explain) SqlParser.createStatement("explain analyze select * from foo");
+        assertThat(explain.isAnalyze(), is(true));
+        assertThat(((Explain) SqlParser.createStatement("explain select * from foo")).isAnalyze(), is(false));
     }
 
     @Test
@@ -197,6 +205,37 @@ public class TestStatementBuilder {
         assertTrue(stmt.equals(new KillStatement()));
     }
 
+    @Test
+    public void testCursorStmtBuilder() {
+        printStatement("declare c cursor for select * from t");
+        printStatement("fetch from c");
+        printStatement("fetch next c");
+        printStatement("fetch 10 in c");
+        printStatement("fetch forward all from c");
+        printStatement("close c");
+        printStatement("close all");
+    }
+
+    @Test
+    public void testDeclareCursor() throws Exception {
+        DeclareCursor stmt = (DeclareCursor) SqlParser.createStatement("DECLARE c CURSOR FOR SELECT x FROM t");
+        assertThat(stmt.cursorName(), is("c"));
+        assertThat(stmt.query(), is(SqlParser.createStatement("SELECT x FROM t")));
+    }
+
+    @Test
+    public void testFetchFromCursor() throws Exception {
+        assertThat(SqlParser.createStatement("FETCH c"), is(new FetchFromCursor("c", 1L)));
+        assertThat(SqlParser.createStatement("FETCH FORWARD 100 FROM c"), is(new FetchFromCursor("c", 100L)));
+        assertThat(SqlParser.createStatement("FETCH ALL IN c"), is(new FetchFromCursor("c", FetchFromCursor.ALL)));
+    }
+
+    @Test
+    public void testCloseCursor() throws Exception {
+        assertThat(SqlParser.createStatement("CLOSE c"), is(new CloseCursor("c")));
+        assertThat(SqlParser.createStatement("CLOSE ALL"), is(new CloseCursor()));
+    }
+
     @Test
     public void testRefreshStmtBuilder() {
         printStatement("refresh table t");
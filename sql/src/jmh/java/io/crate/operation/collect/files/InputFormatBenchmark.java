@@ -0,0 +1,159 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.FunctionResolver;
+import io.crate.metadata.Functions;
+import io.crate.operation.InputFactory;
+import io.crate.operation.reference.file.FileLineReferenceResolver;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static io.crate.testing.TestingHelpers.createReference;
+
+/**
+ * Measures the rows per second COPY FROM can read from a file in the different formats.
+ * Only 2 of the 8 columns of the file are collected.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class InputFormatBenchmark {
+
+    private static final int NUM_ROWS = 200_000;
+    private static final List<String> COLUMNS = Arrays.asList("id", "name", "a", "b", "c", "d", "e", "f");
+    private static final Set<String> COLLECTED_COLUMNS = ImmutableSet.of("id", "name");
+
+    @Param({JsonInputFormat.NAME, CsvInputFormat.NAME, ColumnarInputFormat.NAME})
+    public String format;
+
+    private Path dir;
+    private Path file;
+    private InputFactory inputFactory;
+
+    @Setup
+    public void writeFile() throws Exception {
+        inputFactory = new InputFactory(new Functions(
+            ImmutableMap.<FunctionIdent, FunctionImplementation>of(),
+            ImmutableMap.<String, FunctionResolver>of()
+        ));
+        dir = Files.createTempDirectory("input_format_benchmark");
+        file = dir.resolve("data." + format);
+        switch (format) {
+            case JsonInputFormat.NAME:
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    for (int i = 0; i < NUM_ROWS; i++) {
+                        writer.write("{\"id\": " + i + ", \"name\": \"name" + i + "\", \"a\": " + i +
+                                     ", \"b\": \"Don't panic\", \"c\": 4.2, \"d\": true, \"e\": " + (i * 7L) +
+                                     ", \"f\": \"So long, and thanks for all the fish\"}\n");
+                    }
+                }
+                break;
+
+            case CsvInputFormat.NAME:
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    writer.write(String.join(",", COLUMNS) + "\n");
+                    for (int i = 0; i < NUM_ROWS; i++) {
+                        writer.write(i + ",name" + i + "," + i + ",Don't panic,4.2,true," + (i * 7L) +
+                                     ",\"So long, and thanks for all the fish\"\n");
+                    }
+                }
+                break;
+
+            case ColumnarInputFormat.NAME:
+                try (OutputStream out = Files.newOutputStream(file);
+                     ColumnarFileWriter writer = new ColumnarFileWriter(out, COLUMNS)) {
+                    for (int i = 0; i < NUM_ROWS; i++) {
+                        writer.addRow(i, "name" + i, i, "Don't panic", 4.2, true, i * 7L,
+                            "So long, and thanks for all the fish");
+                    }
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    @TearDown
+    public void deleteFile() throws Exception {
+        IOUtils.rm(dir);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_ROWS)
+    public void measureReadRows(Blackhole blackhole) throws Exception {
+        FileSplits splits = new FileSplits(
+            Collections.singletonList(file.toUri().toString()),
+            null,
+            ImmutableMap.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            false,
+            1,
+            0,
+            Long.MAX_VALUE
+        );
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        List<Input<?>> inputs = Arrays.asList(
+            ctx.add(createReference("id", DataTypes.LONG)),
+            ctx.add(createReference("name", DataTypes.STRING))
+        );
+        BatchIterator it = FileReadingIterator.newInstance(
+            splits, InputFormats.get(format), COLLECTED_COLUMNS, inputs, ctx.expressions(), 0);
+        Input<?> id = it.rowData().get(0);
+        Input<?> name = it.rowData().get(1);
+        while (it.moveNext()) {
+            blackhole.consume(id.value());
+            blackhole.consume(name.value());
+        }
+        it.close();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.merge;
+
+import com.google.common.primitives.UnsignedBytes;
+import io.crate.operation.projectors.sorting.ArrayComparators;
+import io.crate.operation.projectors.sorting.OrderingByPosition;
+import io.crate.operation.projectors.sorting.SortKeyEncoder;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sorting rows (Object[]) using the generic {@link OrderingByPosition},
+ * the type specialized {@link ArrayComparators} and binary sort keys created by the {@link SortKeyEncoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class OrderByComparatorBenchmark {
+
+    private static final int NUM_ROWS = 200_000;
+
+    private List<Object[]> longRows;
+    private List<Object[]> multiKeyRows;
+
+    private Comparator<Object[]> genericLong;
+    private Comparator<Object[]> specializedLong;
+    private Comparator<Object[]> genericMultiKey;
+    private Comparator<Object[]> specializedMultiKey;
+    private SortKeyEncoder multiKeyEncoder;
+
+    @Setup
+    public void prepareData() {
+        Random rnd = new Random(42);
+        longRows = new ArrayList<>(NUM_ROWS);
+        multiKeyRows = new ArrayList<>(NUM_ROWS);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            longRows.add(new Object[]{rnd.nextLong()});
+            multiKeyRows.add(new Object[]{
+                new BytesRef("group" + rnd.nextInt(50)),
+                rnd.nextInt(10) == 0 ? null : (long) rnd.nextInt(1000),
+                rnd.nextDouble()
+            });
+        }
+
+        int[] singlePosition = new int[]{0};
+        boolean[] singleReverse = new boolean[]{false};
+        Boolean[] singleNullsFirst = new Boolean[]{null};
+        genericLong = OrderingByPosition.arrayOrdering(singlePosition, singleReverse, singleNullsFirst);
+        specializedLong = ArrayComparators.of(
+            singlePosition, singleReverse, singleNullsFirst, Collections.singletonList(DataTypes.LONG));
+
+        int[] positions = new int[]{0, 1, 2};
+        boolean[] reverseFlags = new boolean[]{false, true, false};
+        Boolean[] nullsFirst = new Boolean[]{null, false, null};
+        List<DataType> types = Arrays.asList(DataTypes.STRING, DataTypes.LONG, DataTypes.DOUBLE);
+        genericMultiKey = OrderingByPosition.arrayOrdering(positions, reverseFlags, nullsFirst);
+        specializedMultiKey = ArrayComparators.of(positions, reverseFlags, nullsFirst, types);
+        multiKeyEncoder = SortKeyEncoder.of(positions, reverseFlags, nullsFirst, types);
+    }
+
+    @Benchmark
+    public List<Object[]> measureSortLongGeneric() {
+        List<Object[]> rows = new ArrayList<>(longRows);
+        rows.sort(genericLong);
+        return rows;
+    }
+
+    @Benchmark
+    public List<Object[]> measureSortLongSpecialized() {
+        List<Object[]> rows = new ArrayList<>(longRows);
+        rows.sort(specializedLong);
+        return rows;
+    }
+
+    @Benchmark
+    public List<Object[]> measureSortMultiKeyGeneric() {
+        List<Object[]> rows = new ArrayList<>(multiKeyRows);
+        rows.sort(genericMultiKey);
+        return rows;
+    }
+
+    @Benchmark
+    public List<Object[]> measureSortMultiKeySpecialized() {
+        List<Object[]> rows = new ArrayList<>(multiKeyRows);
+        rows.sort(specializedMultiKey);
+        return rows;
+    }
+
+    /**
+     * Includes the cost of creating the keys, as the SortingProjector has to create them for every row.
+     */
+    @Benchmark
+    public List<Object[]> measureSortMultiKeyBinaryKeys() {
+        List<Object[]> rows = new ArrayList<>(multiKeyRows.size());
+        for (Object[] row : multiKeyRows) {
+            Object[] withKey = Arrays.copyOf(row, row.length + 1);
+            withKey[row.length] = multiKeyEncoder.encode(row);
+            rows.add(withKey);
+        }
+        Comparator<byte[]> keyComparator = UnsignedBytes.lexicographicalComparator();
+        int keyIdx = multiKeyRows.get(0).length;
+        rows.sort((a, b) -> keyComparator.compare((byte[]) a[keyIdx], (byte[]) b[keyIdx]));
+        return rows;
+    }
+}
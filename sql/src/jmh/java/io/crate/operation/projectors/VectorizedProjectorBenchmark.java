@@ -0,0 +1,138 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.RowsBatchIterator;
+import io.crate.metadata.Functions;
+import io.crate.operation.InputFactory;
+import io.crate.operation.RowFilter;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+
+/**
+ * Compares the {@link InputRowProjector} and {@link FilterProjector} with the {@link VectorizedProjector}
+ * for <code>x * 2 + y</code> and <code>x * 2 + y &gt; 100</code>, including the batching and the row handling
+ * of the projectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class VectorizedProjectorBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final List<Row> rows = new ArrayList<>(100_000);
+
+    private Projector evalProjector;
+    private Projector vectorizedEvalProjector;
+    private Projector filterProjector;
+    private Projector vectorizedFilterProjector;
+
+    @Setup
+    public void prepare() {
+        Functions functions = getFunctions();
+        List<DataType> longs = ImmutableList.of(DataTypes.LONG, DataTypes.LONG);
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        InputColumn y = new InputColumn(1, DataTypes.LONG);
+        Function multiply = new Function(
+            functions.getBuiltin(ArithmeticFunctions.Names.MULTIPLY, longs).info(),
+            ImmutableList.of(x, Literal.of(2L)));
+        Function add = new Function(
+            functions.getBuiltin(ArithmeticFunctions.Names.ADD, longs).info(),
+            ImmutableList.of(multiply, y));
+        Symbol gt = new Function(
+            functions.getBuiltin(GtOperator.NAME, longs).info(),
+            ImmutableList.of(add, Literal.of(100L)));
+
+        InputFactory inputFactory = new InputFactory(functions);
+        List<Symbol> outputs = Collections.singletonList(add);
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(outputs);
+        evalProjector = new InputRowProjector(ctx.topLevelInputs(), ctx.expressions());
+        vectorizedEvalProjector = VectorizedProjector.eval(
+            inputFactory.ctxForVectors(outputs, BATCH_SIZE), inputFactory.ctxForInputColumns(outputs));
+
+        filterProjector = new FilterProjector(RowFilter.create(inputFactory, gt));
+        vectorizedFilterProjector = VectorizedProjector.filter(
+            inputFactory.ctxForVectors(Collections.singletonList(gt), BATCH_SIZE), RowFilter.create(inputFactory, gt));
+
+        for (long i = 0; i < 100_000; i++) {
+            rows.add(new RowN(new Object[]{i % 100, i % 7 == 0 ? null : i}));
+        }
+    }
+
+    private void consume(Projector projector, Blackhole blackhole) throws Exception {
+        BatchIterator batchIterator = projector.apply(RowsBatchIterator.newInstance(rows, 2));
+        Input<?> firstColumn = batchIterator.rowData().get(0);
+        while (true) {
+            while (batchIterator.moveNext()) {
+                blackhole.consume(firstColumn.value());
+            }
+            if (batchIterator.allLoaded()) {
+                break;
+            }
+            batchIterator.loadNextBatch().toCompletableFuture().get();
+        }
+        batchIterator.close();
+    }
+
+    @Benchmark
+    public void measureEvalRowByRow(Blackhole blackhole) throws Exception {
+        consume(evalProjector, blackhole);
+    }
+
+    @Benchmark
+    public void measureEvalVectorized(Blackhole blackhole) throws Exception {
+        consume(vectorizedEvalProjector, blackhole);
+    }
+
+    @Benchmark
+    public void measureFilterRowByRow(Blackhole blackhole) throws Exception {
+        consume(filterProjector, blackhole);
+    }
+
+    @Benchmark
+    public void measureFilterVectorized(Blackhole blackhole) throws Exception {
+        consume(vectorizedFilterProjector, blackhole);
+    }
+}
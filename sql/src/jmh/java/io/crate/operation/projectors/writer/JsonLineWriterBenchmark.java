@@ -0,0 +1,98 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import io.crate.data.Input;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding rows as JSON arrays using the {@link JsonLineWriter} and a {@link XContentBuilder}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonLineWriterBenchmark {
+
+    private static final int NUM_ROWS = 10_000;
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private final Object[] row = new Object[3];
+    private final List<Input<?>> inputs = new ArrayList<>(3);
+    private final JsonLineWriter lineWriter = new JsonLineWriter();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < row.length; i++) {
+            final int idx = i;
+            inputs.add(() -> row[idx]);
+        }
+    }
+
+    private void setRow(int i) {
+        row[0] = (long) i;
+        row[1] = new BytesRef("some name " + (i % 100));
+        row[2] = i * 0.5d;
+    }
+
+    @Benchmark
+    public void measureJsonLineWriter() throws IOException {
+        for (int i = 0; i < NUM_ROWS; i++) {
+            setRow(i);
+            lineWriter.writeArray(inputs);
+            lineWriter.writeLineTo(NULL_OUTPUT);
+        }
+    }
+
+    @Benchmark
+    public void measureXContentBuilder() throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder(NULL_OUTPUT);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            setRow(i);
+            builder.startArray();
+            for (Input<?> input : inputs) {
+                builder.value(input.value());
+            }
+            builder.endArray();
+            builder.flush();
+            NULL_OUTPUT.write('\n');
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.metadata.Functions;
+import io.crate.operation.InputFactory;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.operator.OperatorModule;
+import io.crate.operation.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.inject.ModulesBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the row-by-row evaluation of <code>x * 2 + y &gt; 100</code> using boxed values with
+ * the vectorized evaluation using primitive column vectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class VectorizedScalarBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private List<Row> rows;
+    private Input<?> rowInput;
+    private List<CollectExpression<Row, ?>> rowExpressions;
+    private InputFactory.VectorContext vectorContext;
+
+    @Setup
+    public void prepare() {
+        Functions functions = new ModulesBuilder()
+            .add(new ScalarFunctionModule())
+            .add(new OperatorModule())
+            .createInjector().getInstance(Functions.class);
+
+        List<DataType> longs = ImmutableList.of(DataTypes.LONG, DataTypes.LONG);
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        InputColumn y = new InputColumn(1, DataTypes.LONG);
+        Function multiply = new Function(
+            functions.getBuiltin(ArithmeticFunctions.Names.MULTIPLY, longs).info(),
+            ImmutableList.of(x, Literal.of(2L)));
+        Function add = new Function(
+            functions.getBuiltin(ArithmeticFunctions.Names.ADD, longs).info(),
+            ImmutableList.of(multiply, y));
+        Symbol gt = new Function(
+            functions.getBuiltin(GtOperator.NAME, longs).info(),
+            ImmutableList.of(add, Literal.of(100L)));
+
+        InputFactory inputFactory = new InputFactory(functions);
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
+        rowInput = ctx.add(gt);
+        rowExpressions = ctx.expressions();
+        vectorContext = inputFactory.ctxForVectors(Collections.singletonList(gt), BATCH_SIZE);
+
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < BATCH_SIZE; i++) {
+            rows.add(new RowN(new Object[]{i % 100, i % 7 == 0 ? null : i}));
+        }
+    }
+
+    @Benchmark
+    public void measureRowByRow(Blackhole blackhole) {
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            for (int e = 0; e < rowExpressions.size(); e++) {
+                rowExpressions.get(e).setNextRow(row);
+            }
+            blackhole.consume(rowInput.value());
+        }
+    }
+
+    @Benchmark
+    public void measureVectorized(Blackhole blackhole) {
+        for (int i = 0; i < rows.size(); i++) {
+            vectorContext.setRow(i, rows.get(i));
+        }
+        BooleanVector result = (BooleanVector) vectorContext.topLevelExpressions().get(0).evaluate(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            blackhole.consume(result.isTrue(i));
+        }
+    }
+}
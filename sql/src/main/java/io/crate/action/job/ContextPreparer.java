@@ -47,6 +47,7 @@ import io.crate.jobs.CountContext;
 import io.crate.jobs.ExecutionSubContext;
 import io.crate.jobs.JobExecutionContext;
 import io.crate.jobs.NestedLoopContext;
+import io.crate.jobs.OperationStats;
 import io.crate.jobs.PageDownstreamContext;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Routing;
@@ -399,6 +400,7 @@ public class ContextPreparer extends AbstractComponent {
          */
         private final LongObjectMap<BatchConsumer> consumersByPhaseInputId = new LongObjectHashMap<>();
         private final IntObjectMap<BatchConsumer> handlerConsumersByPhaseId = new IntObjectHashMap<>();
+        private final IntObjectMap<OperationStats> statsByPhaseId = new IntObjectHashMap<>();
 
         private final SharedShardContexts sharedShardContexts;
 
@@ -446,7 +448,7 @@ public class ContextPreparer extends AbstractComponent {
                 case BROADCAST:
                 case MODULO:
                     BatchConsumer consumer = distributingDownstreamFactory.create(
-                        nodeOperation, phase.distributionInfo(), jobId(), pageSize);
+                        nodeOperation, phase.distributionInfo(), jobId(), pageSize, operationStats(phase.phaseId()));
                     traceGetBatchConsumer(phase, distributionType.toString(), nodeOperation, consumer);
                     return consumer;
 
@@ -484,6 +486,18 @@ public class ContextPreparer extends AbstractComponent {
             return consumer;
         }
 
+        /**
+         * The stats of a phase are shared between its sub-context and the consumer which distributes its result.
+         */
+        OperationStats operationStats(int phaseId) {
+            OperationStats stats = statsByPhaseId.get(phaseId);
+            if (stats == null) {
+                stats = new OperationStats(contextBuilder.isProfiling());
+                statsByPhaseId.put(phaseId, stats);
+            }
+            return stats;
+        }
+
         void registerBatchConsumer(int phaseId, BatchConsumer consumer) {
             consumersByPhaseInputId.put(toKey(phaseId, (byte) 0), consumer);
         }
@@ -515,7 +529,8 @@ public class ContextPreparer extends AbstractComponent {
                 countOperation,
                 consumer,
                 indexShardMap,
-                phase.whereClause()
+                phase.whereClause(),
+                context.operationStats(phase.phaseId())
             ));
             return true;
         }
@@ -533,7 +548,8 @@ public class ContextPreparer extends AbstractComponent {
                 phase.projections(),
                 phase.jobId(),
                 ramAccountingContext,
-                projectorFactory
+                projectorFactory,
+                context.operationStats(phase.phaseId())
             );
 
             if (upstreamOnSameNode) {
@@ -555,7 +571,8 @@ public class ContextPreparer extends AbstractComponent {
                         RamAccountingContext.forExecutionPhase(circuitBreaker, phase))),
                 DataTypes.getStreamers(phase.inputTypes()),
                 ramAccountingContext,
-                phase.numUpstreams()
+                phase.numUpstreams(),
+                context.operationStats(phase.phaseId())
             ));
             return true;
         }
@@ -571,7 +588,8 @@ public class ContextPreparer extends AbstractComponent {
                 collectOperation,
                 ramAccountingContext,
                 consumer,
-                context.sharedShardContexts
+                context.sharedShardContexts,
+                context.operationStats(phase.phaseId())
             ));
             return true;
         }
@@ -585,7 +603,8 @@ public class ContextPreparer extends AbstractComponent {
                 collectOperation,
                 ramAccountingContext,
                 consumer,
-                context.sharedShardContexts
+                context.sharedShardContexts,
+                context.operationStats(phase.phaseId())
             ));
             return true;
         }
@@ -624,7 +643,12 @@ public class ContextPreparer extends AbstractComponent {
             BatchConsumer lastConsumer = context.getBatchConsumer(phase, Paging.PAGE_SIZE);
 
             BatchConsumer firstConsumer = ProjectingBatchConsumer.create(
-                lastConsumer, phase.projections(), phase.jobId(), ramAccountingContext, projectorFactory);
+                lastConsumer,
+                phase.projections(),
+                phase.jobId(),
+                ramAccountingContext,
+                projectorFactory,
+                context.operationStats(phase.phaseId()));
             Predicate<Row> joinCondition = RowFilter.create(inputFactory, phase.joinCondition());
 
             NestedLoopOperation nestedLoopOperation = new NestedLoopOperation(
@@ -658,7 +682,8 @@ public class ContextPreparer extends AbstractComponent {
                 phase,
                 nestedLoopOperation,
                 left,
-                right
+                right,
+                context.operationStats(phase.phaseId())
             ));
             return true;
         }
@@ -682,7 +707,8 @@ public class ContextPreparer extends AbstractComponent {
                     mergePhase.projections(),
                     mergePhase.jobId(),
                     ramAccountingContext,
-                    projectorFactory
+                    projectorFactory,
+                    ctx.operationStats(mergePhase.phaseId())
                 );
             }
             return new PageDownstreamContext(
@@ -700,7 +726,8 @@ public class ContextPreparer extends AbstractComponent {
                         RamAccountingContext.forExecutionPhase(circuitBreaker, mergePhase))),
                 StreamerVisitor.streamersFromOutputs(mergePhase),
                 ramAccountingContext,
-                mergePhase.numUpstreams()
+                mergePhase.numUpstreams(),
+                ctx.operationStats(mergePhase.phaseId())
             );
         }
     }
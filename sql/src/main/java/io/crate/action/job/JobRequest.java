@@ -36,14 +36,23 @@ public class JobRequest extends TransportRequest {
     private UUID jobId;
     private String coordinatorNodeId;
     private Collection<? extends NodeOperation> nodeOperations;
+    private boolean enableProfiling;
 
     public JobRequest() {
     }
 
     public JobRequest(UUID jobId, String coordinatorNodeId, Collection<? extends NodeOperation> nodeOperations) {
+        this(jobId, coordinatorNodeId, nodeOperations, false);
+    }
+
+    public JobRequest(UUID jobId,
+                      String coordinatorNodeId,
+                      Collection<? extends NodeOperation> nodeOperations,
+                      boolean enableProfiling) {
         this.jobId = jobId;
         this.coordinatorNodeId = coordinatorNodeId;
         this.nodeOperations = nodeOperations;
+        this.enableProfiling = enableProfiling;
     }
 
     public UUID jobId() {
@@ -58,6 +67,10 @@ public class JobRequest extends TransportRequest {
         return coordinatorNodeId;
     }
 
+    public boolean enableProfiling() {
+        return enableProfiling;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
@@ -71,6 +84,7 @@ public class JobRequest extends TransportRequest {
             nodeOperations.add(new NodeOperation(in));
         }
         this.nodeOperations = nodeOperations;
+        enableProfiling = in.readBoolean();
     }
 
     @Override
@@ -85,5 +99,6 @@ public class JobRequest extends TransportRequest {
         for (NodeOperation nodeOperation : nodeOperations) {
             nodeOperation.writeTo(out);
         }
+        out.writeBoolean(enableProfiling);
     }
 }
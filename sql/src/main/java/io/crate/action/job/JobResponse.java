@@ -37,18 +37,27 @@ public class JobResponse extends TransportResponse {
 
     private List<Bucket> directResponse = new ArrayList<>();
     private Streamer<?>[] streamers = null;
+    private int queueSize = -1;
 
     public JobResponse() {
     }
 
-    public JobResponse(@Nonnull List<Bucket> buckets) {
+    public JobResponse(@Nonnull List<Bucket> buckets, int queueSize) {
         this.directResponse = buckets;
+        this.queueSize = queueSize;
     }
 
     public List<Bucket> directResponse() {
         return directResponse;
     }
 
+    /**
+     * @return the queue size of the executor of the responding node, -1 if unknown
+     */
+    public int queueSize() {
+        return queueSize;
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         List<Bucket> directResponse = directResponse();
         for (Bucket bucket : directResponse) {
@@ -69,6 +78,7 @@ public class JobResponse extends TransportResponse {
             bucket.readFrom(in);
             directResponse.add(bucket);
         }
+        queueSize = in.readInt();
     }
 
     @Override
@@ -78,5 +88,6 @@ public class JobResponse extends TransportResponse {
         for (Bucket bucket : directResponse) {
             StreamBucket.writeBucket(out, streamers, bucket);
         }
+        out.writeInt(queueSize);
     }
 }
@@ -28,6 +28,7 @@ import io.crate.executor.transport.NodeActionRequestHandler;
 import io.crate.executor.transport.Transports;
 import io.crate.jobs.JobContextService;
 import io.crate.jobs.JobExecutionContext;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionListenerResponseHandler;
 import org.elasticsearch.common.inject.Inject;
@@ -36,8 +37,10 @@ import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Singleton
 public class TransportJobAction implements NodeAction<JobRequest, JobResponse> {
@@ -49,17 +52,23 @@ public class TransportJobAction implements NodeAction<JobRequest, JobResponse> {
     private final Transports transports;
     private final JobContextService jobContextService;
     private final ContextPreparer contextPreparer;
+    private final Executor executor;
+    private final AdaptiveReplicaSelection replicaSelection;
 
     @Inject
     public TransportJobAction(TransportService transportService,
                               IndicesService indicesService,
                               Transports transports,
                               JobContextService jobContextService,
-                              ContextPreparer contextPreparer) {
+                              ContextPreparer contextPreparer,
+                              ThreadPool threadPool,
+                              AdaptiveReplicaSelection replicaSelection) {
         this.indicesService = indicesService;
         this.transports = transports;
         this.jobContextService = jobContextService;
         this.contextPreparer = contextPreparer;
+        this.executor = threadPool.executor(EXECUTOR);
+        this.replicaSelection = replicaSelection;
         transportService.registerRequestHandler(
             ACTION_NAME,
             JobRequest::new,
@@ -68,13 +77,28 @@ public class TransportJobAction implements NodeAction<JobRequest, JobResponse> {
     }
 
     public void execute(String node, final JobRequest request, final ActionListener<JobResponse> listener) {
-        transports.sendRequest(
-            ACTION_NAME, node, request, listener, new ActionListenerResponseHandler<>(listener, JobResponse::new));
+        // the response is sent once the collect phases with a direct response are done, so this measures how fast
+        // the node executes them
+        long startNanos = replicaSelection.onRequestSent(node);
+        ActionListener<JobResponse> statsListener = ActionListener.wrap(
+            response -> {
+                replicaSelection.onResponse(node, startNanos, response.queueSize());
+                listener.onResponse(response);
+            },
+            e -> {
+                replicaSelection.onFailure(node);
+                listener.onFailure(e);
+            });
+        transports.sendRequest(ACTION_NAME, node, request, statsListener,
+            new ActionListenerResponseHandler<>(statsListener, JobResponse::new));
     }
 
     @Override
     public CompletableFuture<JobResponse> nodeOperation(final JobRequest request) {
         JobExecutionContext.Builder contextBuilder = jobContextService.newBuilder(request.jobId(), request.coordinatorNodeId());
+        if (request.enableProfiling()) {
+            contextBuilder.enableProfiling();
+        }
 
         SharedShardContexts sharedShardContexts = new SharedShardContexts(indicesService);
         List<CompletableFuture<Bucket>> directResponseFutures = contextPreparer.prepareOnRemote(
@@ -88,9 +112,11 @@ public class TransportJobAction implements NodeAction<JobRequest, JobResponse> {
         }
 
         if (directResponseFutures.size() == 0) {
-            return CompletableFuture.completedFuture(new JobResponse());
+            return CompletableFuture.completedFuture(
+                new JobResponse(Collections.emptyList(), AdaptiveReplicaSelection.queueSize(executor)));
         } else {
-            return CompletableFutures.allAsList(directResponseFutures).thenApply(JobResponse::new);
+            return CompletableFutures.allAsList(directResponseFutures).thenApply(
+                buckets -> new JobResponse(buckets, AdaptiveReplicaSelection.queueSize(executor)));
         }
     }
 }
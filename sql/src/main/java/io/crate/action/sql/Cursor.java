@@ -0,0 +1,235 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.analyze.symbol.Field;
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+import io.crate.sql.tree.FetchFromCursor;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A server-side cursor which has been declared using {@code DECLARE name CURSOR FOR query}.
+ * <p>
+ * The cursor is the consumer of the BatchIterator of the query. Instead of consuming it, the iterator is kept
+ * suspended until rows are fetched using {@link #fetch(BatchConsumer, long)}.
+ * Each fetch passes a view on the iterator which is limited to the requested number of rows to another consumer.
+ * Closing that view only releases the cursor, the underlying iterator stays open until the cursor is closed
+ * or all rows have been fetched.
+ * </p>
+ */
+public class Cursor implements BatchConsumer {
+
+    private final String name;
+    private final List<Field> fields;
+    private final CompletableFuture<BatchIterator> iteratorFuture = new CompletableFuture<>();
+
+    /**
+     * Completed once the previous fetch has been finished; Fetches are queued behind each other.
+     */
+    private CompletableFuture<BatchIterator> available = iteratorFuture;
+    private int pendingFetches = 0;
+    private boolean closed = false;
+    private volatile boolean exhausted = false;
+    private long lastAccessNanos = System.nanoTime();
+
+    public Cursor(String name, List<Field> fields) {
+        this.name = name;
+        this.fields = fields;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<Field> fields() {
+        return fields;
+    }
+
+    /**
+     * @return future which is completed once the query of the cursor has been started or failed to start.
+     */
+    public CompletableFuture<?> started() {
+        return iteratorFuture;
+    }
+
+    @Override
+    public void accept(BatchIterator iterator, @Nullable Throwable failure) {
+        if (failure == null) {
+            iteratorFuture.complete(iterator);
+        } else {
+            if (iterator != null) {
+                iterator.close();
+            }
+            iteratorFuture.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Passes the next {@code count} rows (or all remaining rows if count is {@link FetchFromCursor#ALL})
+     * to the consumer. If another fetch is still in progress, the rows are passed once it has finished.
+     */
+    public void fetch(BatchConsumer consumer, long count) {
+        CompletableFuture<BatchIterator> previous;
+        CompletableFuture<BatchIterator> next = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException(String.format(Locale.ENGLISH, "Cursor '%s' is closed", name));
+            }
+            previous = available;
+            available = next;
+            pendingFetches++;
+        }
+        long limit = count == FetchFromCursor.ALL ? Long.MAX_VALUE : count;
+        previous.whenComplete((iterator, failure) -> {
+            if (failure == null) {
+                consumer.accept(new FetchBatchIterator(iterator, limit, next), null);
+            } else {
+                release();
+                next.completeExceptionally(failure);
+                consumer.accept(null, failure);
+            }
+        });
+    }
+
+    /**
+     * Closes the cursor. The iterator of the query is closed once the fetches which are in progress have finished.
+     */
+    public void close() {
+        CompletableFuture<BatchIterator> lastFetch;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lastFetch = available;
+        }
+        // if the query failed, the iterator has already been closed in accept
+        lastFetch.thenAccept(this::closeIterator);
+    }
+
+    /**
+     * Closes the cursor if it hasn't been used for the given time.
+     *
+     * @return 0 if the cursor is closed, otherwise the nanoseconds until it will time out if it isn't used.
+     */
+    public long closeIfIdle(long idleTimeoutNanos) {
+        synchronized (this) {
+            if (closed) {
+                return 0L;
+            }
+            if (pendingFetches > 0) {
+                return idleTimeoutNanos;
+            }
+            long remainingNanos = idleTimeoutNanos - (System.nanoTime() - lastAccessNanos);
+            if (remainingNanos > 0) {
+                return remainingNanos;
+            }
+        }
+        close();
+        return 0L;
+    }
+
+    private synchronized void release() {
+        pendingFetches--;
+        lastAccessNanos = System.nanoTime();
+    }
+
+    private void closeIterator(BatchIterator iterator) {
+        synchronized (this) {
+            if (exhausted) {
+                return;
+            }
+            exhausted = true;
+        }
+        iterator.close();
+    }
+
+    private class FetchBatchIterator extends ForwardingBatchIterator {
+
+        private final BatchIterator delegate;
+        private final CompletableFuture<BatchIterator> finished;
+        private long remaining;
+        private boolean delegateFinished = false;
+        private boolean released = false;
+
+        FetchBatchIterator(BatchIterator delegate, long limit, CompletableFuture<BatchIterator> finished) {
+            this.delegate = delegate;
+            this.remaining = limit;
+            this.finished = finished;
+        }
+
+        @Override
+        protected BatchIterator delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void moveToStart() {
+            throw new UnsupportedOperationException("Cursors can only fetch forward");
+        }
+
+        @Override
+        public boolean moveNext() {
+            if (remaining == 0 || exhausted) {
+                return false;
+            }
+            if (delegate.moveNext()) {
+                remaining--;
+                return true;
+            }
+            delegateFinished = delegate.allLoaded();
+            return false;
+        }
+
+        @Override
+        public boolean allLoaded() {
+            return remaining == 0 || exhausted || delegate.allLoaded();
+        }
+
+        @Override
+        public CompletionStage<?> loadNextBatch() {
+            return delegate.loadNextBatch();
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (delegateFinished) {
+                // all rows have been fetched; release the resources of the query right away
+                closeIterator(delegate);
+            }
+            release();
+            finished.complete(delegate);
+        }
+    }
+}
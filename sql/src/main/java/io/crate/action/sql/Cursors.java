@@ -0,0 +1,87 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.exceptions.CursorAlreadyExistsException;
+import io.crate.exceptions.CursorUnknownException;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cursors which have been declared within a session.
+ */
+public class Cursors {
+
+    public static final Setting<TimeValue> IDLE_TIMEOUT_SETTING = Setting.positiveTimeSetting(
+        "node.sql.cursor_idle_timeout",
+        TimeValue.timeValueMinutes(30),
+        Setting.Property.NodeScope);
+
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+
+    public void add(Cursor cursor) {
+        if (cursors.putIfAbsent(cursor.name(), cursor) != null) {
+            throw new CursorAlreadyExistsException(cursor.name());
+        }
+    }
+
+    public Cursor get(String name) {
+        Cursor cursor = cursors.get(name);
+        if (cursor == null) {
+            throw new CursorUnknownException(name);
+        }
+        return cursor;
+    }
+
+    /**
+     * Removes the cursor without closing it; Nothing happens if another cursor is registered using the same name.
+     */
+    public void remove(Cursor cursor) {
+        cursors.remove(cursor.name(), cursor);
+    }
+
+    public void close(String name) {
+        Cursor cursor = cursors.remove(name);
+        if (cursor == null) {
+            throw new CursorUnknownException(name);
+        }
+        cursor.close();
+    }
+
+    public void closeAll() {
+        Iterator<Cursor> it = cursors.values().iterator();
+        while (it.hasNext()) {
+            Cursor cursor = it.next();
+            it.remove();
+            cursor.close();
+        }
+    }
+
+    public int size() {
+        return cursors.size();
+    }
+}
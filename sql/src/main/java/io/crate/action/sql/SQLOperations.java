@@ -25,6 +25,7 @@ package io.crate.action.sql;
 import io.crate.analyze.Analyzer;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.symbol.Field;
+import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.executor.Executor;
 import io.crate.operation.collect.stats.JobsLogs;
@@ -39,6 +40,7 @@ import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Provider;
 import org.elasticsearch.common.inject.Singleton;
@@ -78,6 +80,7 @@ public class SQLOperations {
     private final ClusterService clusterService;
     private final UserManager userManager;
     private final boolean isReadOnly;
+    private final CircuitBreaker queryBreaker;
     private volatile boolean disabled;
 
     @Inject
@@ -87,7 +90,8 @@ public class SQLOperations {
                          JobsLogs jobsLogs,
                          Settings settings,
                          ClusterService clusterService,
-                         Provider<UserManager> userManagerProvider) {
+                         Provider<UserManager> userManagerProvider,
+                         CrateCircuitBreakerService breakerService) {
         this.analyzer = analyzer;
         this.planner = planner;
         this.executorProvider = executorProvider;
@@ -95,6 +99,7 @@ public class SQLOperations {
         this.clusterService = clusterService;
         this.userManager = userManagerProvider.get();
         this.isReadOnly = NODE_READ_ONLY_SETTING.get(settings);
+        this.queryBreaker = breakerService.getBreaker(CrateCircuitBreakerService.QUERY);
     }
 
     private Session createSession(SessionContext sessionContext) {
@@ -197,7 +202,7 @@ public class SQLOperations {
         private Portal getOrCreatePortal(String portalName) {
             Portal portal = portals.get(portalName);
             if (portal == null) {
-                portal = new SimplePortal(portalName, analyzer, executor, isReadOnly, sessionContext);
+                portal = new SimplePortal(portalName, analyzer, executor, isReadOnly, queryBreaker, sessionContext);
                 portals.put(portalName, portal);
             }
             return portal;
@@ -406,6 +411,7 @@ public class SQLOperations {
             for (Portal portal : portals.values()) {
                 portal.close();
             }
+            sessionContext.cursors().closeAll();
         }
     }
 
@@ -42,6 +42,7 @@ public class SessionContext implements StatementAuthorizedValidator, ExceptionAu
     private final User user;
     private final StatementAuthorizedValidator statementAuthorizedValidator;
     private final ExceptionAuthorizedValidator exceptionAuthorizedValidator;
+    private final Cursors cursors = new Cursors();
 
     public SessionContext(@Nullable String defaultSchema,
                           @Nullable User user,
@@ -96,6 +97,13 @@ public class SessionContext implements StatementAuthorizedValidator, ExceptionAu
         return defaultLimit;
     }
 
+    /**
+     * The server-side cursors which have been declared within the session.
+     */
+    public Cursors cursors() {
+        return cursors;
+    }
+
     @Override
     public void ensureExceptionAuthorized(Throwable t) throws MissingPrivilegeException {
         exceptionAuthorizedValidator.ensureExceptionAuthorized(t);
@@ -173,6 +173,18 @@ public class AnalyzedStatementVisitor<C, R> {
         return visitAnalyzedStatement(analyzedBegin, context);
     }
 
+    public R visitDeclareCursor(DeclareCursorAnalyzedStatement analysis, C context) {
+        return visitAnalyzedStatement(analysis, context);
+    }
+
+    public R visitFetchFromCursor(FetchFromCursorAnalyzedStatement analysis, C context) {
+        return visitAnalyzedStatement(analysis, context);
+    }
+
+    public R visitCloseCursor(CloseCursorAnalyzedStatement analysis, C context) {
+        return visitAnalyzedStatement(analysis, context);
+    }
+
     public R visitPrivilegesStatement(PrivilegesAnalyzedStatement analysis, C context) {
         return visitDCLStatement(analysis, context);
     }
@@ -20,6 +20,7 @@
  */
 package io.crate.analyze;
 
+import io.crate.action.sql.Cursor;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.QueriedRelation;
@@ -36,6 +37,7 @@ import io.crate.sql.tree.AlterTableOpenClose;
 import io.crate.sql.tree.AlterTableRename;
 import io.crate.sql.tree.AstVisitor;
 import io.crate.sql.tree.BeginStatement;
+import io.crate.sql.tree.CloseCursor;
 import io.crate.sql.tree.CopyFrom;
 import io.crate.sql.tree.CopyTo;
 import io.crate.sql.tree.CreateAnalyzer;
@@ -45,6 +47,7 @@ import io.crate.sql.tree.CreateRepository;
 import io.crate.sql.tree.CreateSnapshot;
 import io.crate.sql.tree.CreateTable;
 import io.crate.sql.tree.CreateUser;
+import io.crate.sql.tree.DeclareCursor;
 import io.crate.sql.tree.Delete;
 import io.crate.sql.tree.DenyPrivilege;
 import io.crate.sql.tree.DropBlobTable;
@@ -54,6 +57,7 @@ import io.crate.sql.tree.DropSnapshot;
 import io.crate.sql.tree.DropTable;
 import io.crate.sql.tree.DropUser;
 import io.crate.sql.tree.Explain;
+import io.crate.sql.tree.FetchFromCursor;
 import io.crate.sql.tree.GrantPrivilege;
 import io.crate.sql.tree.InsertFromSubquery;
 import io.crate.sql.tree.InsertFromValues;
@@ -398,6 +402,26 @@ public class Analyzer {
             return new AnalyzedBegin();
         }
 
+        @Override
+        public AnalyzedStatement visitDeclareCursor(DeclareCursor node, Analysis context) {
+            AnalyzedRelation relation = relationAnalyzer.analyze(node.query().getQueryBody(), context);
+            return new DeclareCursorAnalyzedStatement(
+                node.cursorName(), new SelectAnalyzedStatement((QueriedRelation) relation));
+        }
+
+        @Override
+        public AnalyzedStatement visitFetchFromCursor(FetchFromCursor node, Analysis context) {
+            Cursor cursor = context.sessionContext().cursors().get(node.cursorName());
+            FetchFromCursorAnalyzedStatement statement = new FetchFromCursorAnalyzedStatement(cursor, node.count());
+            context.rootRelation(statement);
+            return statement;
+        }
+
+        @Override
+        public AnalyzedStatement visitCloseCursor(CloseCursor node, Analysis context) {
+            return new CloseCursorAnalyzedStatement(node.cursorName().orElse(null));
+        }
+
         @Override
         protected AnalyzedStatement visitNode(Node node, Analysis context) {
             throw new UnsupportedOperationException(String.format(Locale.ENGLISH, "cannot analyze statement: '%s'", node));
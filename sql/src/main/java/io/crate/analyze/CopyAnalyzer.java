@@ -50,11 +50,13 @@ import io.crate.metadata.TableIdent;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.settings.ByteSizeSetting;
 import io.crate.metadata.settings.SettingsApplier;
 import io.crate.metadata.settings.SettingsAppliers;
 import io.crate.metadata.settings.StringSetting;
 import io.crate.metadata.table.Operation;
 import io.crate.metadata.table.TableInfo;
+import io.crate.operation.collect.files.InputFormats;
 import io.crate.planner.projection.WriterProjection;
 import io.crate.sql.tree.ArrayLiteral;
 import io.crate.sql.tree.CopyFrom;
@@ -65,6 +67,7 @@ import io.crate.types.CollectionType;
 import io.crate.types.DataTypes;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -79,15 +82,18 @@ import java.util.function.Predicate;
 class CopyAnalyzer {
 
     private static final StringSetting COMPRESSION_SETTINGS =
-        new StringSetting("compression", ImmutableSet.of("gzip"));
+        new StringSetting("compression", ImmutableSet.of("gzip", "snappy"));
 
     private static final StringSetting OUTPUT_FORMAT_SETTINGS =
-        new StringSetting("format", ImmutableSet.of("json_object", "json_array"));
+        new StringSetting("format", ImmutableSet.of("json_object", "json_array", "columnar"));
+
+    private static final ByteSizeSetting MAX_FILE_SIZE_SETTING = new ByteSizeSetting("max_file_size", null);
 
     private static final ImmutableMap<String, SettingsApplier> SETTINGS_APPLIERS =
         ImmutableMap.<String, SettingsApplier>builder()
             .put(COMPRESSION_SETTINGS.name(), new SettingsAppliers.StringSettingsApplier(COMPRESSION_SETTINGS))
             .put(OUTPUT_FORMAT_SETTINGS.name(), new SettingsAppliers.StringSettingsApplier(OUTPUT_FORMAT_SETTINGS))
+            .put(MAX_FILE_SIZE_SETTING.name(), new SettingsAppliers.ByteSizeSettingsApplier(MAX_FILE_SIZE_SETTING))
             .build();
     private final Schemas schemas;
     private final Functions functions;
@@ -126,6 +132,8 @@ class CopyAnalyzer {
             Map<String, Expression> properties = new HashMap<>(node.genericProperties().get().properties());
             nodeFilters = discoveryNodePredicate(analysis.parameterContext().parameters(), properties.remove(NodeFilters.NAME));
             settings = settingsFromProperties(properties, expressionAnalyzer, expressionAnalysisContext);
+            // fail early on unknown formats
+            InputFormats.get(settings.get("format"));
         }
         Symbol uri = expressionAnalyzer.convert(node.path(), expressionAnalysisContext);
         uri = normalizer.normalize(uri, analysis.transactionContext());
@@ -185,6 +193,11 @@ class CopyAnalyzer {
 
         WriterProjection.CompressionType compressionType = settingAsEnum(WriterProjection.CompressionType.class, settings.get(COMPRESSION_SETTINGS.name()));
         WriterProjection.OutputFormat outputFormat = settingAsEnum(WriterProjection.OutputFormat.class, settings.get(OUTPUT_FORMAT_SETTINGS.name()));
+        long maxFileSize = settings.getAsBytesSize(MAX_FILE_SIZE_SETTING.name(), new ByteSizeValue(0)).getBytes();
+        if (maxFileSize < 0) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Invalid value %d for %s, must not be negative", maxFileSize, MAX_FILE_SIZE_SETTING.name()));
+        }
 
         Symbol uri = expressionAnalyzer.convert(node.targetUri(), expressionAnalysisContext);
         uri = normalizer.normalize(uri, analysis.transactionContext());
@@ -238,12 +251,17 @@ class CopyAnalyzer {
         }
         querySpec.outputs(outputs);
 
-        if (!columnsDefined && outputFormat == WriterProjection.OutputFormat.JSON_ARRAY) {
+        if (!columnsDefined && (outputFormat == WriterProjection.OutputFormat.JSON_ARRAY
+                                || outputFormat == WriterProjection.OutputFormat.COLUMNAR)) {
             throw new UnsupportedFeatureException("Output format not supported without specifying columns.");
         }
+        if (compressionType != null && outputFormat == WriterProjection.OutputFormat.COLUMNAR) {
+            throw new UnsupportedFeatureException("Compression is not supported for the columnar output format.");
+        }
 
         QueriedDocTable subRelation = new QueriedDocTable(tableRelation, querySpec);
-        return new CopyToAnalyzedStatement(subRelation, settings, uri, compressionType, outputFormat, outputNames, columnsDefined, overwrites);
+        return new CopyToAnalyzedStatement(
+            subRelation, settings, uri, compressionType, outputFormat, outputNames, columnsDefined, overwrites, maxFileSize);
     }
 
     private static <E extends Enum<E>> E settingAsEnum(Class<E> settingsEnum, String settingValue) {
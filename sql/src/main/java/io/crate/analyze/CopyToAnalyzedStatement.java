@@ -51,6 +51,8 @@ public class CopyToAnalyzedStatement extends AbstractCopyAnalyzedStatement {
      */
     private final Map<ColumnIdent, Symbol> overwrites;
 
+    private final long maxFileSize;
+
     public CopyToAnalyzedStatement(QueriedDocTable subQueryRelation,
                                    Settings settings,
                                    Symbol uri,
@@ -58,7 +60,8 @@ public class CopyToAnalyzedStatement extends AbstractCopyAnalyzedStatement {
                                    @Nullable WriterProjection.OutputFormat outputFormat,
                                    @Nullable List<String> outputNames,
                                    boolean columnsDefined,
-                                   @Nullable Map<ColumnIdent, Symbol> overwrites) {
+                                   @Nullable Map<ColumnIdent, Symbol> overwrites,
+                                   long maxFileSize) {
         super(settings, uri);
         this.subQueryRelation = subQueryRelation;
         this.columnsDefined = columnsDefined;
@@ -66,6 +69,7 @@ public class CopyToAnalyzedStatement extends AbstractCopyAnalyzedStatement {
         this.outputNames = outputNames;
         this.outputFormat = outputFormat;
         this.overwrites = MoreObjects.firstNonNull(overwrites, ImmutableMap.<ColumnIdent, Symbol>of());
+        this.maxFileSize = maxFileSize;
     }
 
     public QueriedDocTable subQueryRelation() {
@@ -95,6 +99,13 @@ public class CopyToAnalyzedStatement extends AbstractCopyAnalyzedStatement {
         return this.overwrites;
     }
 
+    /**
+     * @return the number of uncompressed bytes after which a new file is started, 0 if there is no limit
+     */
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
     @Override
     public <C, R> R accept(AnalyzedStatementVisitor<C, R> analyzedStatementVisitor, C context) {
         return analyzedStatementVisitor.visitCopyToStatement(this, context);
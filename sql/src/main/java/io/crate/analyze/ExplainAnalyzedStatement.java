@@ -40,9 +40,15 @@ public class ExplainAnalyzedStatement implements AnalyzedStatement, AnalyzedRela
 
     final AnalyzedStatement statement;
     private final List<Field> fields;
+    private final boolean isAnalyze;
 
     public ExplainAnalyzedStatement(String columnName, AnalyzedStatement statement) {
+        this(columnName, statement, false);
+    }
+
+    public ExplainAnalyzedStatement(String columnName, AnalyzedStatement statement, boolean isAnalyze) {
         this.statement = statement;
+        this.isAnalyze = isAnalyze;
         this.fields = Collections.singletonList(new Field(this, new OutputName(columnName), DataTypes.OBJECT));
     }
 
@@ -55,6 +61,10 @@ public class ExplainAnalyzedStatement implements AnalyzedStatement, AnalyzedRela
         return statement;
     }
 
+    public boolean isAnalyze() {
+        return isAnalyze;
+    }
+
     @Override
     public <C, R> R accept(AnalyzedRelationVisitor<C, R> visitor, C context) {
         return visitor.visitExplain(this, context);
@@ -22,6 +22,7 @@
 
 package io.crate.analyze;
 
+import io.crate.action.sql.Cursor;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.RelationAnalyzer;
@@ -98,6 +99,12 @@ class UnboundAnalyzer {
             return showCreateTableAnalyzer.analyze(node.table(), context.sessionContext());
         }
 
+        @Override
+        public AnalyzedRelation visitFetchFromCursor(FetchFromCursor node, Analysis context) {
+            Cursor cursor = context.sessionContext().cursors().get(node.cursorName());
+            return new FetchFromCursorAnalyzedStatement(cursor, node.count());
+        }
+
         @Override
         protected AnalyzedRelation visitExplain(Explain node, Analysis context) {
             // Sub-relation is ignored for now.
@@ -0,0 +1,55 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.task;
+
+import io.crate.action.sql.Cursors;
+import io.crate.data.BatchConsumer;
+import io.crate.data.Row;
+import io.crate.data.RowsBatchIterator;
+import io.crate.executor.JobTask;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+public class CloseCursorTask extends JobTask {
+
+    @Nullable
+    private final String cursorName;
+    private final Cursors cursors;
+
+    public CloseCursorTask(UUID jobId, @Nullable String cursorName, Cursors cursors) {
+        super(jobId);
+        this.cursorName = cursorName;
+        this.cursors = cursors;
+    }
+
+    @Override
+    public void execute(BatchConsumer consumer, Row parameters) {
+        if (cursorName == null) {
+            cursors.closeAll();
+        } else {
+            cursors.close(cursorName);
+        }
+        consumer.accept(RowsBatchIterator.empty(0), null);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.executor.task;
+
+import io.crate.action.sql.Cursor;
+import io.crate.action.sql.Cursors;
+import io.crate.data.BatchConsumer;
+import io.crate.data.Row;
+import io.crate.data.RowsBatchIterator;
+import io.crate.executor.JobTask;
+import io.crate.executor.Task;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.UUID;
+
+/**
+ * Starts the query of a cursor and registers the cursor within the session.
+ * <p>
+ * The query stays suspended until rows are fetched. If an idle timeout is set, the cursor is closed once it
+ * hasn't been used for longer than the timeout.
+ * </p>
+ */
+public class DeclareCursorTask extends JobTask {
+
+    private final Cursor cursor;
+    private final Cursors cursors;
+    private final Task queryTask;
+    private final ThreadPool threadPool;
+    private final TimeValue idleTimeout;
+
+    public DeclareCursorTask(UUID jobId,
+                             Cursor cursor,
+                             Cursors cursors,
+                             Task queryTask,
+                             ThreadPool threadPool,
+                             TimeValue idleTimeout) {
+        super(jobId);
+        this.cursor = cursor;
+        this.cursors = cursors;
+        this.queryTask = queryTask;
+        this.threadPool = threadPool;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void execute(BatchConsumer consumer, Row parameters) {
+        cursors.add(cursor);
+        cursor.started().whenComplete((result, failure) -> {
+            if (failure == null) {
+                if (idleTimeout.nanos() > 0) {
+                    scheduleIdleCheck(idleTimeout);
+                }
+                consumer.accept(RowsBatchIterator.empty(0), null);
+            } else {
+                cursors.remove(cursor);
+                consumer.accept(null, failure);
+            }
+        });
+        try {
+            queryTask.execute(cursor, parameters);
+        } catch (Throwable t) {
+            cursor.accept(null, t);
+        }
+    }
+
+    private void scheduleIdleCheck(TimeValue delay) {
+        threadPool.schedule(delay, ThreadPool.Names.GENERIC, () -> {
+            long remainingNanos = cursor.closeIfIdle(idleTimeout.nanos());
+            if (remainingNanos > 0) {
+                scheduleIdleCheck(TimeValue.timeValueNanos(remainingNanos));
+            } else {
+                cursors.remove(cursor);
+            }
+        });
+    }
+}
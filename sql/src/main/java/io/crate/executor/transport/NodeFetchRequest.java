@@ -40,6 +40,7 @@ public class NodeFetchRequest extends TransportRequest {
     private UUID jobId;
     private int fetchPhaseId;
     private boolean closeContext;
+    private boolean compressResponse = false;
 
     @Nullable
     private IntObjectMap<? extends IntContainer> toFetch;
@@ -71,6 +72,18 @@ public class NodeFetchRequest extends TransportRequest {
         return closeContext;
     }
 
+    /**
+     * @return true if the fetched rows should be compressed if they exceed the configured minimum size,
+     *         see {@link ResultCompression}
+     */
+    public boolean compressResponse() {
+        return compressResponse;
+    }
+
+    void compressResponse(boolean compressResponse) {
+        this.compressResponse = compressResponse;
+    }
+
     @Nullable
     public IntObjectMap<? extends IntContainer> toFetch() {
         return toFetch;
@@ -82,6 +95,7 @@ public class NodeFetchRequest extends TransportRequest {
         jobId = new UUID(in.readLong(), in.readLong());
         fetchPhaseId = in.readVInt();
         closeContext = in.readBoolean();
+        compressResponse = in.readBoolean();
         int numReaders = in.readVInt();
         if (numReaders > 0) {
             IntObjectHashMap<IntArrayList> toFetch = new IntObjectHashMap<>(numReaders);
@@ -105,6 +119,7 @@ public class NodeFetchRequest extends TransportRequest {
         out.writeLong(jobId.getLeastSignificantBits());
         out.writeVInt(fetchPhaseId);
         out.writeBoolean(closeContext);
+        out.writeBoolean(compressResponse);
         if (toFetch == null) {
             out.writeVInt(0);
         } else {
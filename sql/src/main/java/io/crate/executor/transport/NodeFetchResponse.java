@@ -41,9 +41,21 @@ public class NodeFetchResponse extends TransportResponse {
 
     @Nullable
     private IntObjectMap<StreamBucket> fetched;
+    private int queueSize = -1;
+    private boolean compress = false;
 
-    public static NodeFetchResponse forSending(IntObjectMap<StreamBucket> fetched) {
-        return new NodeFetchResponse(null, fetched, null);
+    public static NodeFetchResponse forSending(IntObjectMap<StreamBucket> fetched, int queueSize) {
+        return forSending(fetched, queueSize, false);
+    }
+
+    /**
+     * @param compress if true the fetched buckets are written compressed, see {@link StreamBucket#writeTo(StreamOutput, boolean)}
+     */
+    public static NodeFetchResponse forSending(IntObjectMap<StreamBucket> fetched, int queueSize, boolean compress) {
+        NodeFetchResponse response = new NodeFetchResponse(null, fetched, null);
+        response.queueSize = queueSize;
+        response.compress = compress;
+        return response;
     }
 
     public static NodeFetchResponse forReceiveing(@Nullable IntObjectMap<Streamer[]> streamers,
@@ -64,6 +76,13 @@ public class NodeFetchResponse extends TransportResponse {
         return fetched;
     }
 
+    /**
+     * @return the queue size of the fetch executor of the responding node, -1 if unknown
+     */
+    public int queueSize() {
+        return queueSize;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         assert ramAccountingContext != null : "RamAccountingContext must be present to receive a NodeFetchResponse";
@@ -81,6 +100,7 @@ public class NodeFetchResponse extends TransportResponse {
                 fetched.put(readerId, bucket);
             }
         }
+        queueSize = in.readInt();
     }
 
     @Override
@@ -92,8 +112,9 @@ public class NodeFetchResponse extends TransportResponse {
             out.writeVInt(fetched.size());
             for (IntObjectCursor<StreamBucket> cursor : fetched) {
                 out.writeVInt(cursor.key);
-                cursor.value.writeTo(out);
+                cursor.value.writeTo(out, compress);
             }
         }
+        out.writeInt(queueSize);
     }
 }
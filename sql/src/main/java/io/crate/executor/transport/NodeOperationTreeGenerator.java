@@ -214,7 +214,7 @@ public final class NodeOperationTreeGenerator extends PlanVisitor<NodeOperationT
 
         boolean useDirectResponse = context.noPreviousPhases() &&
                                     subPlan instanceof Collect &&
-                                    !Paging.shouldPage(subPlan.resultDescription().maxRowsPerNode());
+                                    !Paging.shouldPage(subPlan.resultDescription());
         context.addPhase(merge.mergePhase());
         if (useDirectResponse) {
             context.addPhase(((Collect) subPlan).collectPhase(), true);
@@ -0,0 +1,392 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport;
+
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import io.crate.Streamer;
+import io.crate.types.CollectionType;
+import io.crate.types.ObjectType;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page-local encoding of object and object array columns used by {@link StreamBucket}.
+ * <p>
+ * {@link ObjectType} writes every object using the generic encoding, including every key and a type byte for every
+ * value. This encoding instead builds the schema of the objects of a column while writing the page: The first time a
+ * key is seen, it's written together with the kind of its value and added to the schema. Subsequent occurrences of
+ * the key only refer to its position in the schema and the values are written without type information. Nested
+ * objects and the elements of nested arrays have their own schema.
+ * <p>
+ * Each value is written as a token followed by the entries of the object:
+ * <pre>
+ *  0           null
+ *  1           generic value (not an object)
+ *  2 + n       object with n entries
+ * </pre>
+ * Each entry starts with a token:
+ * <pre>
+ *  0           key + generic value. Used for values without a known kind (e.g. null) or if the schema is full
+ *  1           key + kind + typed value. The key is added to the schema
+ *  2 + 2i      typed value of the i-th key of the schema
+ *  3 + 2i      generic value of the i-th key of the schema, used if the kind of the value differs
+ * </pre>
+ * Like for {@link StringColumnEncoding} the reader builds the schema in the same way as the writer.
+ */
+final class ObjectColumnEncoding {
+
+    private static final int NULL = 0;
+    private static final int GENERIC = 1;
+    private static final int FIRST_OBJECT_SIZE = 2;
+
+    private static final int GENERIC_ENTRY = 0;
+    private static final int NEW_KEY = 1;
+    private static final int FIRST_KEY = 2;
+
+    private static final int MAX_KEYS = 256;
+
+    private ObjectColumnEncoding() {
+    }
+
+    static boolean supports(Streamer<?> streamer) {
+        return streamer instanceof ObjectType || isObjectArray(streamer);
+    }
+
+    private static boolean isObjectArray(Streamer<?> streamer) {
+        return streamer instanceof CollectionType.ArrayStreamer
+               && ((CollectionType.ArrayStreamer) streamer).innerType() instanceof ObjectType;
+    }
+
+    /**
+     * The kinds of values which are written without type information once their key is part of the schema.
+     */
+    private enum Kind {
+        STRING,
+        BOOLEAN,
+        BYTE,
+        SHORT,
+        INTEGER,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        OBJECT,
+        LIST,
+        ARRAY;
+
+        private static final Kind[] VALUES = values();
+
+        @Nullable
+        static Kind of(@Nullable Object value) {
+            if (value instanceof String) {
+                return STRING;
+            } else if (value instanceof Boolean) {
+                return BOOLEAN;
+            } else if (value instanceof Byte) {
+                return BYTE;
+            } else if (value instanceof Short) {
+                return SHORT;
+            } else if (value instanceof Integer) {
+                return INTEGER;
+            } else if (value instanceof Long) {
+                return LONG;
+            } else if (value instanceof Float) {
+                return FLOAT;
+            } else if (value instanceof Double) {
+                return DOUBLE;
+            } else if (value instanceof Map) {
+                return OBJECT;
+            } else if (value instanceof List) {
+                return LIST;
+            } else if (value instanceof Object[]) {
+                return ARRAY;
+            }
+            return null;
+        }
+    }
+
+    private static final class Field {
+
+        private final String key;
+        private final Kind kind;
+
+        /**
+         * schema of nested objects or of the elements of nested arrays
+         */
+        @Nullable
+        private final Schema nested;
+
+        private Field(String key, Kind kind) {
+            this.key = key;
+            this.kind = kind;
+            this.nested = kind == Kind.OBJECT || kind == Kind.LIST || kind == Kind.ARRAY ? new Schema() : null;
+        }
+
+        private void write(StreamOutput out, Object value) throws IOException {
+            switch (kind) {
+                case STRING:
+                    out.writeString((String) value);
+                    break;
+                case BOOLEAN:
+                    out.writeBoolean((Boolean) value);
+                    break;
+                case BYTE:
+                    out.writeByte((Byte) value);
+                    break;
+                case SHORT:
+                    out.writeShort((Short) value);
+                    break;
+                case INTEGER:
+                    out.writeInt((Integer) value);
+                    break;
+                case LONG:
+                    out.writeLong((Long) value);
+                    break;
+                case FLOAT:
+                    out.writeFloat((Float) value);
+                    break;
+                case DOUBLE:
+                    out.writeDouble((Double) value);
+                    break;
+                case OBJECT:
+                    writeValue(out, nested, value);
+                    break;
+                case LIST:
+                    List<?> list = (List<?>) value;
+                    out.writeVInt(list.size());
+                    for (Object element : list) {
+                        writeValue(out, nested, element);
+                    }
+                    break;
+                case ARRAY:
+                    Object[] array = (Object[]) value;
+                    out.writeVInt(array.length);
+                    for (Object element : array) {
+                        writeValue(out, nested, element);
+                    }
+                    break;
+                default:
+                    throw new AssertionError("Unexpected kind: " + kind);
+            }
+        }
+
+        private Object read(StreamInput in) throws IOException {
+            switch (kind) {
+                case STRING:
+                    return in.readString();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case BYTE:
+                    return in.readByte();
+                case SHORT:
+                    return in.readShort();
+                case INTEGER:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case OBJECT:
+                    return readValue(in, nested);
+                case LIST:
+                    int listSize = in.readVInt();
+                    List<Object> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(readValue(in, nested));
+                    }
+                    return list;
+                case ARRAY:
+                    Object[] array = new Object[in.readVInt()];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readValue(in, nested);
+                    }
+                    return array;
+                default:
+                    throw new AssertionError("Unexpected kind: " + kind);
+            }
+        }
+    }
+
+    private static final class Schema {
+
+        private final ObjectIntHashMap<String> positions = new ObjectIntHashMap<>();
+        private final List<Field> fields = new ArrayList<>();
+
+        private int position(String key) {
+            return positions.getOrDefault(key, -1);
+        }
+
+        private boolean isFull() {
+            return fields.size() >= MAX_KEYS;
+        }
+
+        private Field add(String key, Kind kind) {
+            Field field = new Field(key, kind);
+            positions.put(key, fields.size());
+            fields.add(field);
+            return field;
+        }
+
+        private void clear() {
+            positions.clear();
+            fields.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(StreamOutput out, Schema schema, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeVInt(NULL);
+            return;
+        }
+        if ((value instanceof Map) == false) {
+            out.writeVInt(GENERIC);
+            out.writeGenericValue(value);
+            return;
+        }
+        Map<String, Object> map = (Map<String, Object>) value;
+        out.writeVInt(FIRST_OBJECT_SIZE + map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            String key = entry.getKey();
+            Object entryValue = entry.getValue();
+            int position = schema.position(key);
+            if (position >= 0) {
+                Field field = schema.fields.get(position);
+                if (Kind.of(entryValue) == field.kind) {
+                    out.writeVInt(FIRST_KEY + 2 * position);
+                    field.write(out, entryValue);
+                } else {
+                    out.writeVInt(FIRST_KEY + 2 * position + 1);
+                    out.writeGenericValue(entryValue);
+                }
+                continue;
+            }
+            Kind kind = Kind.of(entryValue);
+            if (kind == null || schema.isFull()) {
+                out.writeVInt(GENERIC_ENTRY);
+                out.writeString(key);
+                out.writeGenericValue(entryValue);
+            } else {
+                out.writeVInt(NEW_KEY);
+                out.writeString(key);
+                out.writeVInt(kind.ordinal());
+                schema.add(key, kind).write(out, entryValue);
+            }
+        }
+    }
+
+    @Nullable
+    private static Object readValue(StreamInput in, Schema schema) throws IOException {
+        int token = in.readVInt();
+        switch (token) {
+            case NULL:
+                return null;
+
+            case GENERIC:
+                return in.readGenericValue();
+
+            default:
+                int size = token - FIRST_OBJECT_SIZE;
+                Map<String, Object> map = new LinkedHashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    int entryToken = in.readVInt();
+                    if (entryToken == GENERIC_ENTRY) {
+                        map.put(in.readString(), in.readGenericValue());
+                    } else if (entryToken == NEW_KEY) {
+                        String key = in.readString();
+                        Kind kind = Kind.VALUES[in.readVInt()];
+                        map.put(key, schema.add(key, kind).read(in));
+                    } else {
+                        int keyToken = entryToken - FIRST_KEY;
+                        Field field = schema.fields.get(keyToken >> 1);
+                        map.put(field.key, (keyToken & 1) == 0 ? field.read(in) : in.readGenericValue());
+                    }
+                }
+                return map;
+        }
+    }
+
+    static final class Writer {
+
+        private final boolean isArray;
+        private final Schema schema = new Schema();
+
+        Writer(Streamer<?> streamer) {
+            this.isArray = isObjectArray(streamer);
+        }
+
+        void write(StreamOutput out, @Nullable Object value) throws IOException {
+            if (isArray == false) {
+                writeValue(out, schema, value);
+                return;
+            }
+            // same as the array streamer: null as size 0, otherwise size + 1
+            if (value == null) {
+                out.writeVInt(0);
+                return;
+            }
+            Object[] array = (Object[]) value;
+            out.writeVInt(array.length + 1);
+            for (Object element : array) {
+                writeValue(out, schema, element);
+            }
+        }
+
+        void reset() {
+            schema.clear();
+        }
+    }
+
+    static final class Reader {
+
+        private final boolean isArray;
+        private final Schema schema = new Schema();
+
+        Reader(Streamer<?> streamer) {
+            this.isArray = isObjectArray(streamer);
+        }
+
+        @Nullable
+        Object read(StreamInput in) throws IOException {
+            if (isArray == false) {
+                return readValue(in, schema);
+            }
+            int size = in.readVInt();
+            if (size == 0) {
+                return null;
+            }
+            Object[] array = new Object[size - 1];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = readValue(in, schema);
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport;
+
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Decides if result pages sent to other nodes ({@link StreamBucket}s of distributed results and fetch responses)
+ * are compressed.
+ * <p>
+ * In the default <code>auto</code> mode pages are compressed if they are sent to a node in a different zone, as
+ * identified by the node attribute configured with {@link #ZONE_ATTRIBUTE_SETTING}. The network between zones
+ * (e.g. availability zones of a cloud provider) is usually slower and more expensive than the CPU time
+ * spent on compression. Pages smaller than {@link #MIN_SIZE_SETTING} are never compressed.
+ */
+@Singleton
+public class ResultCompression {
+
+    public enum Mode {
+        AUTO,
+        ALWAYS,
+        NEVER;
+
+        static Mode of(String mode) {
+            try {
+                return valueOf(mode.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Invalid result compression mode \"%s\", must be one of auto, always or never", mode));
+            }
+        }
+    }
+
+    public static final CrateSetting<Mode> MODE_SETTING = CrateSetting.of(new Setting<>(
+        "cluster.sql.result_compression.mode", "auto", Mode::of,
+        Setting.Property.Dynamic, Setting.Property.NodeScope), DataTypes.STRING);
+
+    public static final CrateSetting<ByteSizeValue> MIN_SIZE_SETTING = CrateSetting.of(Setting.byteSizeSetting(
+        "cluster.sql.result_compression.min_size", new ByteSizeValue(64 * 1024),
+        Setting.Property.Dynamic, Setting.Property.NodeScope), DataTypes.STRING);
+
+    public static final CrateSetting<String> ZONE_ATTRIBUTE_SETTING = CrateSetting.of(Setting.simpleString(
+        "cluster.sql.result_compression.zone_attribute", "zone",
+        Setting.Property.Dynamic, Setting.Property.NodeScope), DataTypes.STRING);
+
+    private final Supplier<DiscoveryNodes> nodes;
+    private volatile Mode mode;
+    private volatile long minSizeInBytes;
+    private volatile String zoneAttribute;
+
+    @Inject
+    public ResultCompression(Settings settings, ClusterService clusterService) {
+        this(settings, () -> clusterService.state().nodes());
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(MODE_SETTING.setting(), this::setMode);
+        clusterSettings.addSettingsUpdateConsumer(MIN_SIZE_SETTING.setting(), this::setMinSize);
+        clusterSettings.addSettingsUpdateConsumer(ZONE_ATTRIBUTE_SETTING.setting(), this::setZoneAttribute);
+    }
+
+    public ResultCompression(Settings settings, Supplier<DiscoveryNodes> nodes) {
+        this.nodes = nodes;
+        setMode(MODE_SETTING.setting().get(settings));
+        setMinSize(MIN_SIZE_SETTING.setting().get(settings));
+        setZoneAttribute(ZONE_ATTRIBUTE_SETTING.setting().get(settings));
+    }
+
+    private void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    private void setMinSize(ByteSizeValue minSize) {
+        this.minSizeInBytes = minSize.getBytes();
+    }
+
+    private void setZoneAttribute(String zoneAttribute) {
+        this.zoneAttribute = zoneAttribute;
+    }
+
+    /**
+     * @return true if a page with the given size that is sent to the given node should be compressed
+     */
+    public boolean compress(String targetNodeId, long sizeInBytes) {
+        return exceedsMinSize(sizeInBytes) && compressFor(targetNodeId);
+    }
+
+    /**
+     * @return true if pages sent to the given node should be compressed, regardless of their size
+     */
+    public boolean compressFor(String targetNodeId) {
+        switch (mode) {
+            case NEVER:
+                return false;
+
+            case ALWAYS:
+                return true;
+
+            default:
+                return isInOtherZone(targetNodeId);
+        }
+    }
+
+    public boolean exceedsMinSize(long sizeInBytes) {
+        return mode != Mode.NEVER && sizeInBytes >= minSizeInBytes;
+    }
+
+    private boolean isInOtherZone(String targetNodeId) {
+        DiscoveryNodes discoveryNodes = nodes.get();
+        String localZone = zone(discoveryNodes.getLocalNode());
+        String targetZone = zone(discoveryNodes.get(targetNodeId));
+        return localZone != null && targetZone != null && localZone.equals(targetZone) == false;
+    }
+
+    @Nullable
+    private String zone(@Nullable DiscoveryNode node) {
+        if (node == null || zoneAttribute.isEmpty()) {
+            return null;
+        }
+        return node.getAttributes().get(zoneAttribute);
+    }
+}
@@ -26,6 +26,11 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.data.RowN;
+import org.apache.lucene.codecs.compressing.CompressionMode;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
@@ -34,23 +39,35 @@ import org.elasticsearch.common.io.stream.Streamable;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 
+/**
+ * A bucket containing serialized rows. Each value is written using the streamer of its column, except for
+ * string columns which use a page-local dictionary and run-length encoding (see {@link StringColumnEncoding}) and
+ * object columns which write the keys of the objects once per page (see {@link ObjectColumnEncoding}).
+ * <p>
+ * The serialized rows can optionally be sent LZ4 compressed, see {@link #writeTo(StreamOutput, boolean)}.
+ */
 public class StreamBucket implements Bucket, Streamable {
 
     private Streamer<?>[] streamers;
     private int size = -1;
     private BytesReference bytes;
 
-    public static class Builder {
+    @Nullable
+    private byte[] compressed;
 
+    public static class Builder {
 
         private static final int INITIAL_PAGE_SIZE = 1024;
         private final RamAccountingContext ramAccountingContext;
 
         private int size = 0;
         private final Streamer<?>[] streamers;
+        private final StringColumnEncoding.Writer[] stringWriters;
+        private final ObjectColumnEncoding.Writer[] objectWriters;
         private BytesStreamOutput out;
         private int prevOutSize = 0;
 
@@ -58,6 +75,15 @@ public class StreamBucket implements Bucket, Streamable {
             this.ramAccountingContext = ramAccountingContext;
             assert validStreamers(streamers) : "streamers must not be null and they shouldn't be of undefinedType";
             this.streamers = streamers;
+            this.stringWriters = new StringColumnEncoding.Writer[streamers.length];
+            this.objectWriters = new ObjectColumnEncoding.Writer[streamers.length];
+            for (int i = 0; i < streamers.length; i++) {
+                if (StringColumnEncoding.supports(streamers[i])) {
+                    stringWriters[i] = new StringColumnEncoding.Writer();
+                } else if (ObjectColumnEncoding.supports(streamers[i])) {
+                    objectWriters[i] = new ObjectColumnEncoding.Writer(streamers[i]);
+                }
+            }
             out = new BytesStreamOutput(INITIAL_PAGE_SIZE);
         }
 
@@ -66,7 +92,13 @@ public class StreamBucket implements Bucket, Streamable {
 
             size++;
             for (int i = 0; i < row.numColumns(); i++) {
-                streamers[i].writeValueTo(out, row.get(i));
+                if (stringWriters[i] != null) {
+                    stringWriters[i].write(out, row.get(i));
+                } else if (objectWriters[i] != null) {
+                    objectWriters[i].write(out, row.get(i));
+                } else {
+                    streamers[i].writeValueTo(out, row.get(i));
+                }
             }
             if (ramAccountingContext != null) {
                 ramAccountingContext.addBytes(out.size() - prevOutSize);
@@ -74,9 +106,17 @@ public class StreamBucket implements Bucket, Streamable {
             }
         }
 
+        /**
+         * @return the number of bytes of the rows added so far
+         */
+        public long sizeInBytes() {
+            return out.size();
+        }
+
         public void writeToStream(StreamOutput output) throws IOException {
             output.writeVInt(size);
             if (size > 0) {
+                output.writeBoolean(false);
                 output.writeBytesReference(out.bytes());
             }
         }
@@ -91,6 +131,16 @@ public class StreamBucket implements Bucket, Streamable {
         public void reset() {
             out = new BytesStreamOutput(size); // next bucket is probably going to have the same size
             size = 0;
+            for (StringColumnEncoding.Writer stringWriter : stringWriters) {
+                if (stringWriter != null) {
+                    stringWriter.reset();
+                }
+            }
+            for (ObjectColumnEncoding.Writer objectWriter : objectWriters) {
+                if (objectWriter != null) {
+                    objectWriter.reset();
+                }
+            }
         }
     }
 
@@ -104,6 +154,16 @@ public class StreamBucket implements Bucket, Streamable {
         return size;
     }
 
+    /**
+     * @return the number of bytes of the serialized rows
+     */
+    public long sizeInBytes() {
+        if (size <= 0 || bytes == null) {
+            return 0L;
+        }
+        return bytes.length();
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         assert validStreamers(streamers) : "streamers must not be null and they shouldn't be of undefinedType";
         this.streamers = streamers;
@@ -122,8 +182,20 @@ public class StreamBucket implements Bucket, Streamable {
     }
 
     public static void writeBucket(StreamOutput out, @Nullable Streamer<?>[] streamers, @Nullable Bucket bucket) throws IOException {
+        writeBucket(out, streamers, bucket, false);
+    }
+
+    /**
+     * @param compress if true and the bucket is a {@link StreamBucket} its rows are written compressed.
+     */
+    public static void writeBucket(StreamOutput out,
+                                   @Nullable Streamer<?>[] streamers,
+                                   @Nullable Bucket bucket,
+                                   boolean compress) throws IOException {
         if (bucket == null || bucket.size() == 0) {
             out.writeVInt(0);
+        } else if (bucket instanceof StreamBucket) {
+            ((StreamBucket) bucket).writeTo(out, compress);
         } else if (bucket instanceof Streamable) {
             ((Streamable) bucket).writeTo(out);
         } else {
@@ -139,6 +211,8 @@ public class StreamBucket implements Bucket, Streamable {
     private static class RowIterator implements Iterator<Row> {
 
         private final Streamer<?>[] streamers;
+        private final StringColumnEncoding.Reader[] stringReaders;
+        private final ObjectColumnEncoding.Reader[] objectReaders;
         private final int size;
         private final StreamInput input;
         private final Object[] current;
@@ -151,6 +225,15 @@ public class StreamBucket implements Bucket, Streamable {
             input = streamInput;
             current = new Object[streamers.length];
             row = new RowN(current);
+            stringReaders = new StringColumnEncoding.Reader[streamers.length];
+            objectReaders = new ObjectColumnEncoding.Reader[streamers.length];
+            for (int i = 0; i < streamers.length; i++) {
+                if (StringColumnEncoding.supports(streamers[i])) {
+                    stringReaders[i] = new StringColumnEncoding.Reader();
+                } else if (ObjectColumnEncoding.supports(streamers[i])) {
+                    objectReaders[i] = new ObjectColumnEncoding.Reader(streamers[i]);
+                }
+            }
         }
 
         @Override
@@ -162,7 +245,13 @@ public class StreamBucket implements Bucket, Streamable {
         public Row next() {
             for (int c = 0; c < streamers.length; c++) {
                 try {
-                    current[c] = streamers[c].readValueFrom(input);
+                    if (stringReaders[c] != null) {
+                        current[c] = stringReaders[c].read(input);
+                    } else if (objectReaders[c] != null) {
+                        current[c] = objectReaders[c].read(input);
+                    } else {
+                        current[c] = streamers[c].readValueFrom(input);
+                    }
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -189,20 +278,70 @@ public class StreamBucket implements Bucket, Streamable {
         }
     }
 
+    /**
+     * Compresses the serialized rows so that they can be written using {@link #writeTo(StreamOutput, boolean)}.
+     * The compressed rows are kept, so that a bucket which is sent to multiple nodes is compressed only once.
+     *
+     * @return the number of bytes of the compressed rows
+     */
+    public synchronized long compressedSizeInBytes() {
+        if (size <= 0 || bytes == null) {
+            return 0L;
+        }
+        if (compressed == null) {
+            BytesRef uncompressed = bytes.toBytesRef();
+            // worst case size of LZ4 for incompressible input
+            byte[] buffer = new byte[uncompressed.length + uncompressed.length / 255 + 16];
+            ByteArrayDataOutput out = new ByteArrayDataOutput(buffer);
+            try {
+                CompressionMode.FAST.newCompressor().compress(
+                    uncompressed.bytes, uncompressed.offset, uncompressed.length, out);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            compressed = Arrays.copyOf(buffer, out.getPosition());
+        }
+        return compressed.length;
+    }
+
     @Override
     public void readFrom(StreamInput in) throws IOException {
         size = in.readVInt();
         if (size > 0) {
-            bytes = in.readBytesReference();
+            boolean isCompressed = in.readBoolean();
+            if (isCompressed) {
+                int length = in.readVInt();
+                byte[] compressedBytes = in.readByteArray();
+                BytesRef uncompressed = new BytesRef(length);
+                CompressionMode.FAST.newDecompressor().decompress(
+                    new ByteArrayDataInput(compressedBytes), length, 0, length, uncompressed);
+                bytes = new BytesArray(uncompressed);
+            } else {
+                bytes = in.readBytesReference();
+            }
         }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, false);
+    }
+
+    /**
+     * @param compress if true the rows are written LZ4 compressed, see {@link #compressedSizeInBytes()}
+     */
+    public void writeTo(StreamOutput out, boolean compress) throws IOException {
         assert size > -1 : "size must be > -1";
         out.writeVInt(size);
         if (size > 0) {
-            out.writeBytesReference(bytes);
+            out.writeBoolean(compress);
+            if (compress) {
+                compressedSizeInBytes();
+                out.writeVInt(bytes.length());
+                out.writeByteArray(compressed);
+            } else {
+                out.writeBytesReference(bytes);
+            }
         }
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport;
+
+import com.carrotsearch.hppc.ObjectIntHashMap;
+import io.crate.Streamer;
+import io.crate.types.StringType;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Page-local encoding of string columns used by {@link StreamBucket}.
+ * <p>
+ * Each value is written as a token:
+ * <pre>
+ *  0       null
+ *  1       same value as the previous non-null value of the column (run-length)
+ *  2       literal: length + bytes. The value is added to the dictionary of the page if it isn't full yet
+ *  3 + n   the n-th entry of the dictionary
+ * </pre>
+ * The dictionary is built by the reader in the same way as by the writer, so it's never sent on its own.
+ * Low cardinality columns are reduced to one or two bytes per value; for high cardinality columns the dictionary fills
+ * up quickly and the encoding degrades to the plain length + bytes with one additional byte per value.
+ */
+final class StringColumnEncoding {
+
+    private static final int NULL = 0;
+    private static final int REPEAT = 1;
+    private static final int LITERAL = 2;
+    private static final int FIRST_ENTRY = 3;
+
+    private static final int MAX_ENTRIES = 1024;
+    private static final int MAX_DICTIONARY_BYTES = 64 * 1024;
+
+    private StringColumnEncoding() {
+    }
+
+    static boolean supports(Streamer<?> streamer) {
+        return streamer instanceof StringType;
+    }
+
+    private static boolean fitsIntoDictionary(int numEntries, int numBytes, int length) {
+        return numEntries < MAX_ENTRIES && numBytes + length <= MAX_DICTIONARY_BYTES;
+    }
+
+    static final class Writer {
+
+        private final ObjectIntHashMap<BytesRef> dictionary = new ObjectIntHashMap<>();
+        private final BytesRefBuilder previous = new BytesRefBuilder();
+        private boolean hasPrevious = false;
+        private int dictionaryBytes = 0;
+
+        void write(StreamOutput out, @Nullable Object value) throws IOException {
+            if (value == null) {
+                out.writeVInt(NULL);
+                return;
+            }
+            BytesRef ref = (BytesRef) value;
+            if (hasPrevious && previous.get().bytesEquals(ref)) {
+                out.writeVInt(REPEAT);
+                return;
+            }
+            previous.copyBytes(ref);
+            hasPrevious = true;
+
+            int idx = dictionary.getOrDefault(ref, -1);
+            if (idx >= 0) {
+                out.writeVInt(FIRST_ENTRY + idx);
+                return;
+            }
+            out.writeVInt(LITERAL);
+            out.writeVInt(ref.length);
+            out.writeBytes(ref.bytes, ref.offset, ref.length);
+            if (fitsIntoDictionary(dictionary.size(), dictionaryBytes, ref.length)) {
+                dictionary.put(BytesRef.deepCopyOf(ref), dictionary.size());
+                dictionaryBytes += ref.length;
+            }
+        }
+
+        void reset() {
+            dictionary.clear();
+            hasPrevious = false;
+            dictionaryBytes = 0;
+        }
+    }
+
+    static final class Reader {
+
+        private final List<BytesRef> dictionary = new ArrayList<>();
+        private BytesRef previous = null;
+        private int dictionaryBytes = 0;
+
+        @Nullable
+        BytesRef read(StreamInput in) throws IOException {
+            int token = in.readVInt();
+            switch (token) {
+                case NULL:
+                    return null;
+
+                case REPEAT:
+                    return previous;
+
+                case LITERAL:
+                    int length = in.readVInt();
+                    previous = in.readBytesRef(length);
+                    if (fitsIntoDictionary(dictionary.size(), dictionaryBytes, length)) {
+                        dictionary.add(previous);
+                        dictionaryBytes += length;
+                    }
+                    return previous;
+
+                default:
+                    previous = dictionary.get(token - FIRST_ENTRY);
+                    return previous;
+            }
+        }
+    }
+}
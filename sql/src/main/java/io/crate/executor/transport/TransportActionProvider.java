@@ -24,6 +24,8 @@ package io.crate.executor.transport;
 import io.crate.action.job.TransportJobAction;
 import io.crate.executor.transport.kill.TransportKillAllNodeAction;
 import io.crate.executor.transport.kill.TransportKillJobsNodeAction;
+import io.crate.executor.transport.profile.TransportCollectProfileNodeAction;
+import io.crate.operation.projectors.PartitionCreationCoordinator;
 import org.elasticsearch.action.admin.cluster.settings.TransportClusterUpdateSettingsAction;
 import org.elasticsearch.action.admin.cluster.snapshots.create.TransportCreateSnapshotAction;
 import org.elasticsearch.action.admin.cluster.snapshots.delete.TransportDeleteSnapshotAction;
@@ -50,10 +52,12 @@ public class TransportActionProvider {
     private final Provider<TransportMultiGetAction> transportMultiGetActionProvider;
     private final Provider<TransportShardUpsertAction> transportShardUpsertActionProvider;
     private final Provider<TransportBulkCreateIndicesAction> transportBulkCreateIndicesActionProvider;
+    private final Provider<PartitionCreationCoordinator> partitionCreationCoordinatorProvider;
 
     private final Provider<TransportJobAction> transportJobInitActionProvider;
     private final Provider<TransportKillAllNodeAction> transportKillAllNodeActionProvider;
     private final Provider<TransportKillJobsNodeAction> transportKillJobsNodeActionProvider;
+    private final Provider<TransportCollectProfileNodeAction> transportCollectProfileNodeActionProvider;
 
     private final Provider<TransportCreateSnapshotAction> transportCreateSnapshotActionProvider;
     private final Provider<TransportDeleteSnapshotAction> transportDeleteSnapshotActionProvider;
@@ -76,7 +80,9 @@ public class TransportActionProvider {
                                    Provider<TransportDeleteSnapshotAction> transportDeleteSnapshotActionProvider,
                                    Provider<TransportCreateSnapshotAction> transportCreateSnapshotActionProvider,
                                    Provider<TransportRestoreSnapshotAction> transportRestoreSnapshotActionProvider,
-                                   Provider<TransportGetSnapshotsAction> transportGetSnapshotsActionPovider) {
+                                   Provider<TransportGetSnapshotsAction> transportGetSnapshotsActionPovider,
+                                   Provider<TransportCollectProfileNodeAction> transportCollectProfileNodeActionProvider,
+                                   Provider<PartitionCreationCoordinator> partitionCreationCoordinatorProvider) {
         this.transportDeleteIndexActionProvider = transportDeleteIndexActionProvider;
         this.transportClusterUpdateSettingsActionProvider = transportClusterUpdateSettingsActionProvider;
         this.transportShardDeleteActionProvider = transportShardDeleteActionProvider;
@@ -93,12 +99,18 @@ public class TransportActionProvider {
         this.transportCreateSnapshotActionProvider = transportCreateSnapshotActionProvider;
         this.transportRestoreSnapshotActionProvider = transportRestoreSnapshotActionProvider;
         this.transportGetSnapshotsActionProvider = transportGetSnapshotsActionPovider;
+        this.transportCollectProfileNodeActionProvider = transportCollectProfileNodeActionProvider;
+        this.partitionCreationCoordinatorProvider = partitionCreationCoordinatorProvider;
     }
 
     public TransportBulkCreateIndicesAction transportBulkCreateIndicesAction() {
         return transportBulkCreateIndicesActionProvider.get();
     }
 
+    public PartitionCreationCoordinator partitionCreationCoordinator() {
+        return partitionCreationCoordinatorProvider.get();
+    }
+
     public TransportDeleteIndexAction transportDeleteIndexAction() {
         return transportDeleteIndexActionProvider.get();
     }
@@ -143,6 +155,10 @@ public class TransportActionProvider {
         return transportKillJobsNodeActionProvider.get();
     }
 
+    public TransportCollectProfileNodeAction transportCollectProfileNodeAction() {
+        return transportCollectProfileNodeActionProvider.get();
+    }
+
     public TransportDeleteSnapshotAction transportDeleteSnapshotAction() {
         return transportDeleteSnapshotActionProvider.get();
     }
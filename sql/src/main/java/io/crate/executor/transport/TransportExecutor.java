@@ -23,6 +23,8 @@
 package io.crate.executor.transport;
 
 import io.crate.action.job.ContextPreparer;
+import io.crate.action.sql.Cursor;
+import io.crate.action.sql.Cursors;
 import io.crate.action.sql.DCLStatementDispatcher;
 import io.crate.action.sql.DDLStatementDispatcher;
 import io.crate.analyze.EvaluatingNormalizer;
@@ -30,15 +32,20 @@ import io.crate.analyze.symbol.SelectSymbol;
 import io.crate.data.BatchConsumer;
 import io.crate.data.CollectingBatchConsumer;
 import io.crate.data.Row;
+import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.executor.Executor;
 import io.crate.executor.Task;
+import io.crate.executor.task.CloseCursorTask;
+import io.crate.executor.task.DeclareCursorTask;
 import io.crate.executor.task.ExplainTask;
+import io.crate.executor.task.FetchFromCursorTask;
 import io.crate.executor.task.FunctionDispatchTask;
 import io.crate.executor.task.NoopTask;
 import io.crate.executor.task.SetSessionTask;
 import io.crate.executor.transport.ddl.TransportDropTableAction;
 import io.crate.executor.transport.executionphases.ExecutionPhasesTask;
 import io.crate.executor.transport.task.DropTableTask;
+import io.crate.executor.transport.task.ExplainAnalyzeTask;
 import io.crate.executor.transport.task.KillJobTask;
 import io.crate.executor.transport.task.KillTask;
 import io.crate.executor.transport.task.ShowCreateTableTask;
@@ -75,6 +82,9 @@ import io.crate.planner.node.dql.join.NestedLoop;
 import io.crate.planner.node.management.ExplainPlan;
 import io.crate.planner.node.management.KillPlan;
 import io.crate.planner.node.management.ShowCreateTablePlan;
+import io.crate.planner.statement.CloseCursorPlan;
+import io.crate.planner.statement.DeclareCursorPlan;
+import io.crate.planner.statement.FetchFromCursorPlan;
 import io.crate.planner.statement.SetSessionPlan;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -82,6 +92,7 @@ import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -114,6 +125,7 @@ public class TransportExecutor implements Executor {
 
     private final ProjectionToProjectorVisitor globalProjectionToProjectionVisitor;
     private final MultiPhaseExecutor multiPhaseExecutor = new MultiPhaseExecutor();
+    private final TimeValue cursorIdleTimeout;
 
     @Inject
     public TransportExecutor(Settings settings,
@@ -140,6 +152,7 @@ public class TransportExecutor implements Executor {
         this.dclStatementDispatcher = dclStatementDispatcher;
         this.transportDropTableAction = transportDropTableAction;
         this.plan2TaskVisitor = new TaskCollectingVisitor();
+        this.cursorIdleTimeout = Cursors.IDLE_TIMEOUT_SETTING.get(settings);
         EvaluatingNormalizer normalizer = EvaluatingNormalizer.functionOnlyNormalizer(functions);
         globalProjectionToProjectionVisitor = new ProjectionToProjectorVisitor(
             clusterService,
@@ -181,8 +194,41 @@ public class TransportExecutor implements Executor {
             return new SetSessionTask(plan.jobId(), plan.settings(), plan.sessionContext());
         }
 
+        @Override
+        public Task visitDeclareCursorPlan(DeclareCursorPlan plan, Void context) {
+            return new DeclareCursorTask(
+                plan.jobId(),
+                new Cursor(plan.cursorName(), plan.fields()),
+                plan.cursors(),
+                process(plan.subPlan(), context),
+                threadPool,
+                cursorIdleTimeout);
+        }
+
+        @Override
+        public Task visitFetchFromCursorPlan(FetchFromCursorPlan plan, Void context) {
+            return new FetchFromCursorTask(plan.jobId(), plan.cursor(), plan.count());
+        }
+
+        @Override
+        public Task visitCloseCursorPlan(CloseCursorPlan plan, Void context) {
+            return new CloseCursorTask(plan.jobId(), plan.cursorName(), plan.cursors());
+        }
+
         @Override
         public Task visitExplainPlan(ExplainPlan explainPlan, Void context) {
+            if (explainPlan.isAnalyze()) {
+                Plan subPlan = explainPlan.subPlan();
+                Task subTask = process(subPlan, context);
+                if (!(subTask instanceof ExecutionPhasesTask)) {
+                    throw new UnsupportedFeatureException(
+                        "EXPLAIN ANALYZE is not supported for " + subPlan.getClass().getSimpleName());
+                }
+                ExecutionPhasesTask executionPhasesTask = (ExecutionPhasesTask) subTask;
+                executionPhasesTask.enableProfiling();
+                return new ExplainAnalyzeTask(
+                    executionPhasesTask, transportActionProvider.transportCollectProfileNodeAction());
+            }
             return new ExplainTask(explainPlan);
         }
 
@@ -318,6 +364,20 @@ public class TransportExecutor implements Executor {
             return CompletableFuture.allOf(fLeft, fRight).thenApply(x -> plan);
         }
 
+        @Override
+        public CompletableFuture<Plan> visitExplainPlan(ExplainPlan explainPlan, Void context) {
+            if (explainPlan.isAnalyze()) {
+                return process(explainPlan.subPlan(), context).thenApply(p -> new ExplainPlan(p, true));
+            }
+            return CompletableFuture.completedFuture(explainPlan);
+        }
+
+        @Override
+        public CompletableFuture<Plan> visitDeclareCursorPlan(DeclareCursorPlan plan, Void context) {
+            return process(plan.subPlan(), context).thenApply(
+                p -> new DeclareCursorPlan(plan.jobId(), plan.cursorName(), plan.fields(), p, plan.cursors()));
+        }
+
         @Override
         public CompletableFuture<Plan> visitQueryThenFetch(QueryThenFetch qtf, Void context) {
             return process(qtf.subPlan(), context).thenApply(x -> qtf);
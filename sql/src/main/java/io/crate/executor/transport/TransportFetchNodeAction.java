@@ -22,10 +22,12 @@
 package io.crate.executor.transport;
 
 import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
 import io.crate.Streamer;
 import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.breaker.RamAccountingContext;
 import io.crate.jobs.JobContextService;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.operation.collect.stats.JobsLogs;
 import io.crate.operation.fetch.NodeFetchOperation;
 import org.elasticsearch.action.ActionListener;
@@ -35,7 +37,9 @@ import org.elasticsearch.common.inject.Singleton;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Singleton
 public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, NodeFetchResponse> {
@@ -45,6 +49,9 @@ public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, No
 
     private final Transports transports;
     private final NodeFetchOperation nodeFetchOperation;
+    private final Executor executor;
+    private final AdaptiveReplicaSelection replicaSelection;
+    private final ResultCompression resultCompression;
 
     @Inject
     public TransportFetchNodeAction(TransportService transportService,
@@ -52,10 +59,15 @@ public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, No
                                     ThreadPool threadPool,
                                     JobsLogs jobsLogs,
                                     JobContextService jobContextService,
-                                    CrateCircuitBreakerService circuitBreakerService) {
+                                    CrateCircuitBreakerService circuitBreakerService,
+                                    AdaptiveReplicaSelection replicaSelection,
+                                    ResultCompression resultCompression) {
         this.transports = transports;
+        this.replicaSelection = replicaSelection;
+        this.resultCompression = resultCompression;
+        this.executor = threadPool.executor(ThreadPool.Names.SEARCH);
         this.nodeFetchOperation = new NodeFetchOperation(
-            threadPool.executor(ThreadPool.Names.SEARCH),
+            executor,
             jobsLogs,
             jobContextService,
             circuitBreakerService.getBreaker(CrateCircuitBreakerService.QUERY)
@@ -80,8 +92,19 @@ public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, No
                         final NodeFetchRequest request,
                         RamAccountingContext ramAccountingContext,
                         ActionListener<NodeFetchResponse> listener) {
-        transports.sendRequest(TRANSPORT_ACTION, targetNode, request, listener,
-            new ActionListenerResponseHandler<>(listener, () -> NodeFetchResponse.forReceiveing(streamers, ramAccountingContext)));
+        request.compressResponse(resultCompression.compressFor(targetNode));
+        long startNanos = replicaSelection.onRequestSent(targetNode);
+        ActionListener<NodeFetchResponse> statsListener = ActionListener.wrap(
+            response -> {
+                replicaSelection.onResponse(targetNode, startNanos, response.queueSize());
+                listener.onResponse(response);
+            },
+            e -> {
+                replicaSelection.onFailure(targetNode);
+                listener.onFailure(e);
+            });
+        transports.sendRequest(TRANSPORT_ACTION, targetNode, request, statsListener,
+            new ActionListenerResponseHandler<>(statsListener, () -> NodeFetchResponse.forReceiveing(streamers, ramAccountingContext)));
     }
 
     @Override
@@ -92,6 +115,20 @@ public class TransportFetchNodeAction implements NodeAction<NodeFetchRequest, No
             request.toFetch(),
             request.isCloseContext()
         );
-        return resultFuture.thenApply(NodeFetchResponse::forSending);
+        return resultFuture.thenApply(fetched -> NodeFetchResponse.forSending(
+            fetched,
+            AdaptiveReplicaSelection.queueSize(executor),
+            request.compressResponse() && resultCompression.exceedsMinSize(sizeInBytes(fetched))));
+    }
+
+    private static long sizeInBytes(@Nullable IntObjectMap<StreamBucket> fetched) {
+        if (fetched == null) {
+            return 0L;
+        }
+        long sizeInBytes = 0L;
+        for (IntObjectCursor<StreamBucket> cursor : fetched) {
+            sizeInBytes += cursor.value.sizeInBytes();
+        }
+        return sizeInBytes;
     }
 }
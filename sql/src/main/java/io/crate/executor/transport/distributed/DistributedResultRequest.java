@@ -42,6 +42,7 @@ public class DistributedResultRequest extends TransportRequest {
     private Bucket rows;
     private UUID jobId;
     private boolean isLast = true;
+    private boolean compress = false;
 
     private Throwable throwable = null;
     private boolean isKilled = false;
@@ -69,6 +70,18 @@ public class DistributedResultRequest extends TransportRequest {
         this.isLast = isLast;
     }
 
+    public DistributedResultRequest(UUID jobId,
+                                    int executionPhaseId,
+                                    byte inputId,
+                                    int bucketIdx,
+                                    Streamer<?>[] streamers,
+                                    Bucket rows,
+                                    boolean isLast,
+                                    boolean compress) {
+        this(jobId, executionPhaseId, inputId, bucketIdx, streamers, rows, isLast);
+        this.compress = compress;
+    }
+
     public DistributedResultRequest(UUID jobId,
                                     int executionPhaseId,
                                     byte inputId,
@@ -165,7 +178,7 @@ public class DistributedResultRequest extends TransportRequest {
             out.writeBoolean(isKilled);
         } else {
             // TODO: we should not rely on another bucket in this class and instead write to the stream directly
-            StreamBucket.writeBucket(out, streamers, rows);
+            StreamBucket.writeBucket(out, streamers, rows, compress);
         }
     }
 }
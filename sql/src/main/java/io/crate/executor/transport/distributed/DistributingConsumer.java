@@ -26,6 +26,8 @@ import com.google.common.annotations.VisibleForTesting;
 import io.crate.Streamer;
 import io.crate.data.*;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.executor.transport.StreamBucket;
+import io.crate.jobs.OperationStats;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -60,6 +62,7 @@ public class DistributingConsumer implements BatchConsumer {
     private final int pageSize;
     private final Bucket[] buckets;
     private final List<Downstream> downstreams;
+    private final OperationStats stats;
     private final boolean traceEnabled;
 
     @VisibleForTesting
@@ -77,7 +80,8 @@ public class DistributingConsumer implements BatchConsumer {
                                 Collection<String> downstreamNodeIds,
                                 TransportDistributedResultAction distributedResultAction,
                                 Streamer<?>[] streamers,
-                                int pageSize) {
+                                int pageSize,
+                                OperationStats stats) {
         this.traceEnabled = logger.isTraceEnabled();
         this.logger = logger;
         this.responseExecutor = responseExecutor;
@@ -89,6 +93,7 @@ public class DistributingConsumer implements BatchConsumer {
         this.distributedResultAction = distributedResultAction;
         this.streamers = streamers;
         this.pageSize = pageSize;
+        this.stats = stats;
         this.buckets = new Bucket[downstreamNodeIds.size()];
         downstreams = new ArrayList<>(downstreamNodeIds.size());
         for (String downstreamNodeId : downstreamNodeIds) {
@@ -190,9 +195,24 @@ public class DistributingConsumer implements BatchConsumer {
                 logger.trace("forwardResults targetNode={} targetPhase={}/{} bucket={} isLast={}",
                     downstream.nodeId, targetPhaseId, inputId, bucketIdx, isLast);
             }
+            boolean compress = false;
+            if (buckets[i] instanceof StreamBucket) {
+                StreamBucket bucket = (StreamBucket) buckets[i];
+                long sizeInBytes = bucket.sizeInBytes();
+                compress = distributedResultAction.compress(downstream.nodeId, sizeInBytes);
+                if (compress) {
+                    long startCpuNanos = OperationStats.currentThreadCpuNanos();
+                    long compressedSizeInBytes = bucket.compressedSizeInBytes();
+                    stats.addCompression(sizeInBytes, compressedSizeInBytes, startCpuNanos);
+                    stats.addBytesSent(compressedSizeInBytes);
+                } else {
+                    stats.addBytesSent(sizeInBytes);
+                }
+            }
             distributedResultAction.pushResult(
                 downstream.nodeId,
-                new DistributedResultRequest(jobId, targetPhaseId, inputId, bucketIdx, streamers, buckets[i], isLast),
+                new DistributedResultRequest(
+                    jobId, targetPhaseId, inputId, bucketIdx, streamers, buckets[i], isLast, compress),
                 new ActionListener<DistributedResultResponse>() {
                     @Override
                     public void onResponse(DistributedResultResponse response) {
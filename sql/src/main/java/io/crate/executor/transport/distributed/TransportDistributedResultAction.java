@@ -25,6 +25,7 @@ import io.crate.concurrent.CompletableFutures;
 import io.crate.exceptions.ContextMissingException;
 import io.crate.executor.transport.NodeAction;
 import io.crate.executor.transport.NodeActionRequestHandler;
+import io.crate.executor.transport.ResultCompression;
 import io.crate.executor.transport.Transports;
 import io.crate.jobs.DownstreamExecutionSubContext;
 import io.crate.jobs.JobContextService;
@@ -57,15 +58,18 @@ public class TransportDistributedResultAction extends AbstractComponent implemen
     private final JobContextService jobContextService;
     private final ScheduledExecutorService scheduler;
     private final Executor executor;
+    private final ResultCompression resultCompression;
 
     @Inject
     public TransportDistributedResultAction(Transports transports,
                                             JobContextService jobContextService,
                                             ThreadPool threadPool,
                                             TransportService transportService,
+                                            ResultCompression resultCompression,
                                             Settings settings) {
         super(settings);
         this.transports = transports;
+        this.resultCompression = resultCompression;
         this.jobContextService = jobContextService;
         this.executor = threadPool.executor(EXECUTOR_NAME);
         scheduler = threadPool.scheduler();
@@ -76,6 +80,13 @@ public class TransportDistributedResultAction extends AbstractComponent implemen
             new NodeActionRequestHandler<>(this));
     }
 
+    /**
+     * @return true if a page of the given size which is pushed to the given node should be compressed
+     */
+    boolean compress(String node, long sizeInBytes) {
+        return resultCompression.compress(node, sizeInBytes);
+    }
+
     void pushResult(String node, DistributedResultRequest request, ActionListener<DistributedResultResponse> listener) {
         transports.sendRequest(DISTRIBUTED_RESULT_ACTION, node, request, listener,
             new ActionListenerResponseHandler<>(listener, DistributedResultResponse::new));
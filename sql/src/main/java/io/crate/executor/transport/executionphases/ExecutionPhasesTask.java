@@ -101,6 +101,7 @@ public class ExecutionPhasesTask extends JobTask {
     private final IndicesService indicesService;
 
     private boolean hasDirectResponse;
+    private boolean enableProfiling = false;
 
     public ExecutionPhasesTask(UUID jobId,
                                ClusterService clusterService,
@@ -129,6 +130,14 @@ public class ExecutionPhasesTask extends JobTask {
         }
     }
 
+    /**
+     * Record the runtime of the execution phases on all nodes so that they can be collected
+     * using {@link JobContextService#collectProfiles(UUID)} (EXPLAIN ANALYZE)
+     */
+    public void enableProfiling() {
+        enableProfiling = true;
+    }
+
     @Override
     public void execute(BatchConsumer consumer, Row parameters) {
         assert nodeOperationTrees.size() == 1 : "must only have 1 NodeOperationTree for non-bulk operations";
@@ -191,6 +200,9 @@ public class ExecutionPhasesTask extends JobTask {
             handlerPhases, handlerConsumers, initializationTracker);
 
         JobExecutionContext.Builder builder = jobContextService.newBuilder(jobId(), localNodeId, operationByServer.keySet());
+        if (enableProfiling) {
+            builder.enableProfiling();
+        }
         List<CompletableFuture<Bucket>> directResponseFutures = contextPreparer.prepareOnHandler(
             localNodeOperations, builder, handlerPhaseAndReceiver, new SharedShardContexts(indicesService));
         JobExecutionContext localJobContext = jobContextService.createContext(builder);
@@ -266,7 +278,7 @@ public class ExecutionPhasesTask extends JobTask {
                                  InitializationTracker initializationTracker) {
         for (Map.Entry<String, Collection<NodeOperation>> entry : operationByServer.entrySet()) {
             String serverNodeId = entry.getKey();
-            JobRequest request = new JobRequest(jobId(), localNodeId, entry.getValue());
+            JobRequest request = new JobRequest(jobId(), localNodeId, entry.getValue(), enableProfiling);
             if (hasDirectResponse) {
                 transportJobAction.execute(serverNodeId, request,
                     new SetBucketActionListener(pageBucketReceivers, bucketIdx, initializationTracker));
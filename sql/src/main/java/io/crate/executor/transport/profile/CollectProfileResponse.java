@@ -0,0 +1,100 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport.profile;
+
+import io.crate.jobs.PhaseProfile;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.TransportResponse;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The profiles of the execution phases of a job by node name
+ */
+public class CollectProfileResponse extends TransportResponse {
+
+    static final MergeCollectProfileResponseFunction MERGE_FUNCTION = new MergeCollectProfileResponseFunction();
+
+    private Map<String, List<PhaseProfile>> profilesByNode;
+
+    CollectProfileResponse() {
+        this(Collections.emptyMap());
+    }
+
+    CollectProfileResponse(String nodeName, List<PhaseProfile> profiles) {
+        this(Collections.singletonMap(nodeName, profiles));
+    }
+
+    private CollectProfileResponse(Map<String, List<PhaseProfile>> profilesByNode) {
+        this.profilesByNode = profilesByNode;
+    }
+
+    public Map<String, List<PhaseProfile>> profilesByNode() {
+        return profilesByNode;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVInt(profilesByNode.size());
+        for (Map.Entry<String, List<PhaseProfile>> entry : profilesByNode.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeList(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readFrom(StreamInput in) throws IOException {
+        super.readFrom(in);
+        int numNodes = in.readVInt();
+        profilesByNode = new HashMap<>(numNodes);
+        for (int i = 0; i < numNodes; i++) {
+            profilesByNode.put(in.readString(), in.readList(PhaseProfile::new));
+        }
+    }
+
+    static class MergeCollectProfileResponseFunction
+        implements Function<List<CollectProfileResponse>, CollectProfileResponse> {
+
+        @Override
+        public CollectProfileResponse apply(@Nullable List<CollectProfileResponse> input) {
+            if (input == null) {
+                return new CollectProfileResponse();
+            }
+            Map<String, List<PhaseProfile>> profilesByNode = new HashMap<>();
+            for (CollectProfileResponse response : input) {
+                for (Map.Entry<String, List<PhaseProfile>> entry : response.profilesByNode().entrySet()) {
+                    profilesByNode.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(entry.getValue());
+                }
+            }
+            return new CollectProfileResponse(profilesByNode);
+        }
+    }
+}
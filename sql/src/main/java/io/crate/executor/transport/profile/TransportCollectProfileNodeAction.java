@@ -0,0 +1,91 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport.profile;
+
+import io.crate.executor.MultiActionListener;
+import io.crate.executor.transport.NodeAction;
+import io.crate.executor.transport.NodeActionRequestHandler;
+import io.crate.jobs.JobContextService;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionListenerResponseHandler;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportResponseHandler;
+import org.elasticsearch.transport.TransportService;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects the {@link io.crate.jobs.PhaseProfile}s of a profiled job from all nodes.
+ */
+@Singleton
+public class TransportCollectProfileNodeAction extends AbstractComponent
+    implements NodeAction<CollectProfileRequest, CollectProfileResponse> {
+
+    private static final String NAME = "crate/sql/collect_profile";
+
+    private final JobContextService jobContextService;
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+
+    @Inject
+    public TransportCollectProfileNodeAction(Settings settings,
+                                             JobContextService jobContextService,
+                                             ClusterService clusterService,
+                                             TransportService transportService) {
+        super(settings);
+        this.jobContextService = jobContextService;
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+        transportService.registerRequestHandler(
+            NAME,
+            CollectProfileRequest::new,
+            ThreadPool.Names.GENERIC,
+            new NodeActionRequestHandler<>(this));
+    }
+
+    @Override
+    public CompletableFuture<CollectProfileResponse> nodeOperation(CollectProfileRequest request) {
+        String nodeName = clusterService.localNode().getName();
+        return jobContextService.collectProfiles(request.jobId())
+            .thenApply(profiles -> new CollectProfileResponse(nodeName, profiles));
+    }
+
+    /**
+     * Broadcasts the request to all nodes in the cluster
+     */
+    public void broadcast(CollectProfileRequest request, ActionListener<CollectProfileResponse> listener) {
+        DiscoveryNodes nodes = clusterService.state().nodes();
+        listener = new MultiActionListener<>(nodes.getSize(), CollectProfileResponse.MERGE_FUNCTION, listener);
+        TransportResponseHandler<CollectProfileResponse> responseHandler =
+            new ActionListenerResponseHandler<>(listener, CollectProfileResponse::new);
+        for (DiscoveryNode node : nodes) {
+            transportService.sendRequest(node, NAME, request, responseHandler);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport.task;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.CollectingBatchConsumer;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.executor.JobTask;
+import io.crate.executor.transport.OneRowActionListener;
+import io.crate.executor.transport.executionphases.ExecutionPhasesTask;
+import io.crate.executor.transport.profile.CollectProfileRequest;
+import io.crate.executor.transport.profile.CollectProfileResponse;
+import io.crate.executor.transport.profile.TransportCollectProfileNodeAction;
+import io.crate.jobs.PhaseProfile;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Executes a profiled {@link ExecutionPhasesTask}, discards its result and returns a single row containing
+ * the total execution time, the number of result rows and the runtime profiles of all execution phases by node.
+ */
+public class ExplainAnalyzeTask extends JobTask {
+
+    private final ExecutionPhasesTask subTask;
+    private final TransportCollectProfileNodeAction collectProfileNodeAction;
+
+    public ExplainAnalyzeTask(ExecutionPhasesTask subTask, TransportCollectProfileNodeAction collectProfileNodeAction) {
+        super(subTask.jobId());
+        this.subTask = subTask;
+        this.collectProfileNodeAction = collectProfileNodeAction;
+    }
+
+    @Override
+    public void execute(BatchConsumer consumer, Row parameters) {
+        CollectingBatchConsumer<?, Long> countingConsumer = new CollectingBatchConsumer<>(Collectors.counting());
+        long startNanos = System.nanoTime();
+        countingConsumer.resultFuture().whenComplete((numRows, t) -> {
+            if (t == null) {
+                long durationNanos = System.nanoTime() - startNanos;
+                collectProfileNodeAction.broadcast(
+                    new CollectProfileRequest(jobId()),
+                    new OneRowActionListener<>(consumer, r -> new Row1(toMap(durationNanos, numRows, r))));
+            } else {
+                consumer.accept(null, t);
+            }
+        });
+        subTask.execute(countingConsumer, parameters);
+    }
+
+    private static Map<String, Object> toMap(long durationNanos, long numRows, CollectProfileResponse response) {
+        Map<Integer, Map<String, Object>> phasesById = new TreeMap<>();
+        Map<Integer, String> phaseNames = new TreeMap<>();
+        for (Map.Entry<String, List<PhaseProfile>> entry : response.profilesByNode().entrySet()) {
+            for (PhaseProfile profile : entry.getValue()) {
+                phaseNames.put(profile.phaseId(), profile.name());
+                phasesById.computeIfAbsent(profile.phaseId(), k -> new TreeMap<>()).put(entry.getKey(), profile.toMap());
+            }
+        }
+        Map<String, Object> phases = new LinkedHashMap<>(phasesById.size());
+        for (Map.Entry<Integer, Map<String, Object>> entry : phasesById.entrySet()) {
+            phases.put(entry.getKey() + "-" + phaseNames.get(entry.getKey()), entry.getValue());
+        }
+        Map<String, Object> map = new LinkedHashMap<>(3);
+        map.put("execution_time", TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1_000.0);
+        map.put("rows", numRows);
+        map.put("phases", phases);
+        return map;
+    }
+}
@@ -34,20 +34,31 @@ public abstract class AbstractExecutionSubContext implements ExecutionSubContext
 
     protected final Logger logger;
     protected final int id;
+    protected final OperationStats stats;
 
     private final AtomicBoolean firstClose = new AtomicBoolean(false);
     private final CompletionState completionState = new CompletionState();
     private final CompletableFuture<CompletionState> future = new CompletableFuture<>();
 
     protected AbstractExecutionSubContext(int id, Logger logger) {
+        this(id, logger, new OperationStats());
+    }
+
+    protected AbstractExecutionSubContext(int id, Logger logger, OperationStats stats) {
         this.id = id;
         this.logger = logger;
+        this.stats = stats;
     }
 
     public int id() {
         return id;
     }
 
+    @Override
+    public OperationStats stats() {
+        return stats;
+    }
+
     protected void innerStart() {
     }
 
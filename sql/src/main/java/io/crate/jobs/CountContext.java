@@ -51,10 +51,11 @@ public class CountContext extends AbstractExecutionSubContext {
                         CountOperation countOperation,
                         BatchConsumer consumer,
                         Map<String, List<Integer>> indexShardMap,
-                        WhereClause whereClause) {
-        super(id, LOGGER);
+                        WhereClause whereClause,
+                        OperationStats stats) {
+        super(id, LOGGER, stats);
         this.countOperation = countOperation;
-        this.consumer = consumer;
+        this.consumer = stats.track(consumer);
         this.indexShardMap = indexShardMap;
         this.whereClause = whereClause;
     }
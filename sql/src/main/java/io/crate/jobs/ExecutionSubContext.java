@@ -50,6 +50,11 @@ public interface ExecutionSubContext extends CompletionListenable {
 
     int id();
 
+    /**
+     * @return the resource usage of this context which is exposed in {@code sys.operations}
+     */
+    OperationStats stats();
+
     /**
      * Hook to cleanup the resources of this context. This might be called at any time in the lifecycle of the context.
      */
@@ -21,6 +21,8 @@
 
 package io.crate.jobs;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import io.crate.concurrent.CountdownFutureCallback;
 import io.crate.exceptions.ContextMissingException;
@@ -37,6 +39,7 @@ import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
@@ -48,6 +51,14 @@ public class JobContextService extends AbstractLifecycleComponent {
     private final ConcurrentMap<UUID, JobExecutionContext> activeContexts =
         ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
+    /**
+     * Profiles of finished jobs which had profiling enabled.
+     * They're removed once collected by the handler, the expiry only guards against handlers which never collect.
+     */
+    private final Cache<UUID, List<PhaseProfile>> finishedProfiles = CacheBuilder.newBuilder()
+        .expireAfterWrite(5, TimeUnit.MINUTES)
+        .build();
+
     private final List<KillAllListener> killAllListeners = Collections.synchronizedList(new ArrayList<KillAllListener>());
 
     @Inject
@@ -121,7 +132,7 @@ public class JobContextService extends AbstractLifecycleComponent {
         final UUID jobId = contextBuilder.jobId();
         JobExecutionContext newContext = contextBuilder.build();
 
-        JobContextCallback jobContextCallback = new JobContextCallback(jobId);
+        JobContextCallback jobContextCallback = new JobContextCallback(newContext);
         newContext.completionFuture().whenComplete(jobContextCallback);
 
         JobExecutionContext existing = activeContexts.putIfAbsent(jobId, newContext);
@@ -190,16 +201,39 @@ public class JobContextService extends AbstractLifecycleComponent {
         return killContexts(toKill);
     }
 
+    /**
+     * Returns the profiles of the given job once the job context on this node has finished.
+     * The profiles are removed, they can only be retrieved once.
+     */
+    public CompletableFuture<List<PhaseProfile>> collectProfiles(UUID jobId) {
+        JobExecutionContext context = activeContexts.get(jobId);
+        if (context != null) {
+            return context.completionFuture().handle((r, t) -> {
+                finishedProfiles.invalidate(jobId);
+                return context.profiles();
+            });
+        }
+        List<PhaseProfile> profiles = finishedProfiles.getIfPresent(jobId);
+        finishedProfiles.invalidate(jobId);
+        return CompletableFuture.completedFuture(profiles == null ? Collections.emptyList() : profiles);
+    }
+
     private class JobContextCallback implements BiConsumer<Void, Throwable> {
 
         private final UUID jobId;
+        private final JobExecutionContext context;
 
-        JobContextCallback(UUID jobId) {
-            this.jobId = jobId;
+        JobContextCallback(JobExecutionContext context) {
+            this.jobId = context.jobId();
+            this.context = context;
         }
 
         @Override
         public void accept(Void aVoid, Throwable throwable) {
+            if (context.isProfiling()) {
+                // must be available before the context is removed, see collectProfiles
+                finishedProfiles.put(jobId, context.profiles());
+            }
             activeContexts.remove(jobId);
             if (logger.isTraceEnabled()) {
                 logger.trace("JobExecutionContext closed for job {} removed it -" +
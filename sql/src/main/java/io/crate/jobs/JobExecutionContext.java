@@ -34,6 +34,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -59,6 +60,11 @@ public class JobExecutionContext implements CompletionListenable {
     private final Collection<String> participatedNodes;
     private volatile Throwable failure;
 
+    @Nullable
+    private final ConcurrentMap<Integer, Long> startNanosBySubContextId;
+    @Nullable
+    private final List<PhaseProfile> profiles;
+
 
     public static class Builder {
 
@@ -67,6 +73,7 @@ public class JobExecutionContext implements CompletionListenable {
         private final JobsLogs jobsLogs;
         private final List<ExecutionSubContext> subContexts = new ArrayList<>();
         private final Collection<String> participatingNodes;
+        private boolean profiling = false;
 
         Builder(UUID jobId, String coordinatorNode, Collection<String> participatingNodes, JobsLogs jobsLogs) {
             this.jobId = jobId;
@@ -87,8 +94,19 @@ public class JobExecutionContext implements CompletionListenable {
             return jobId;
         }
 
+        /**
+         * Record a {@link PhaseProfile} for each sub context once it finished, see {@link #profiles()}
+         */
+        public void enableProfiling() {
+            profiling = true;
+        }
+
+        public boolean isProfiling() {
+            return profiling;
+        }
+
         JobExecutionContext build() throws Exception {
-            return new JobExecutionContext(jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts);
+            return new JobExecutionContext(jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts, profiling);
         }
     }
 
@@ -97,8 +115,16 @@ public class JobExecutionContext implements CompletionListenable {
                                 String coordinatorNodeId,
                                 Collection<String> participatingNodes,
                                 JobsLogs jobsLogs,
-                                List<ExecutionSubContext> orderedContexts) throws Exception {
+                                List<ExecutionSubContext> orderedContexts,
+                                boolean profiling) throws Exception {
         this.coordinatorNodeId = coordinatorNodeId;
+        if (profiling) {
+            startNanosBySubContextId = new ConcurrentHashMap<>(orderedContexts.size());
+            profiles = Collections.synchronizedList(new ArrayList<>(orderedContexts.size()));
+        } else {
+            startNanosBySubContextId = null;
+            profiles = null;
+        }
         this.participatedNodes = participatingNodes;
         orderedContextIds = new IntArrayList(orderedContexts.size());
         this.jobId = jobId;
@@ -129,6 +155,23 @@ public class JobExecutionContext implements CompletionListenable {
         return jobId;
     }
 
+    public boolean isProfiling() {
+        return profiles != null;
+    }
+
+    /**
+     * @return the profiles of the sub contexts which have finished so far.
+     *         Empty if profiling isn't enabled for this context.
+     */
+    public List<PhaseProfile> profiles() {
+        if (profiles == null) {
+            return Collections.emptyList();
+        }
+        synchronized (profiles) {
+            return new ArrayList<>(profiles);
+        }
+    }
+
     String coordinatorNodeId() {
         return coordinatorNodeId;
     }
@@ -141,7 +184,10 @@ public class JobExecutionContext implements CompletionListenable {
         for (int i = 0; i < orderedContextIds.size(); i++) {
             int id = orderedContextIds.get(i);
             ExecutionSubContext subContext = orderedContexts.get(i);
-            jobsLogs.operationStarted(id, jobId, subContext.name());
+            jobsLogs.operationStarted(id, jobId, subContext.name(), subContext.stats());
+            if (startNanosBySubContextId != null) {
+                startNanosBySubContextId.put(id, System.nanoTime());
+            }
             try {
                 subContext.prepare();
             } catch (Exception e) {
@@ -240,6 +286,9 @@ public class JobExecutionContext implements CompletionListenable {
         private RemoveSubContextPosition remove() {
             ExecutionSubContext removed = subContexts.remove(id);
             assert removed != null : "removed must not be null";
+            if (profiles != null) {
+                addProfile(removed);
+            }
             if (numSubContexts.decrementAndGet() == 0) {
                 finish();
                 return RemoveSubContextPosition.LAST;
@@ -247,6 +296,12 @@ public class JobExecutionContext implements CompletionListenable {
             return RemoveSubContextPosition.UNKNOWN;
         }
 
+        private void addProfile(ExecutionSubContext subContext) {
+            Long startNanos = startNanosBySubContextId.get(id);
+            long durationNanos = startNanos == null ? 0L : System.nanoTime() - startNanos;
+            profiles.add(new PhaseProfile(id, subContext.name(), durationNanos, subContext.stats()));
+        }
+
         public void onSuccess(@Nullable CompletionState state) {
             assert state != null : "state must not be null";
             jobsLogs.operationFinished(id, jobId, null, state.bytesUsed());
@@ -41,8 +41,9 @@ public class NestedLoopContext extends AbstractExecutionSubContext implements Do
                              NestedLoopPhase nestedLoopPhase,
                              CompletionListenable completionListenable,
                              @Nullable PageBucketReceiver leftBucketReceiver,
-                             @Nullable PageBucketReceiver rightBucketReceiver) {
-        super(nestedLoopPhase.phaseId(), logger);
+                             @Nullable PageBucketReceiver rightBucketReceiver,
+                             OperationStats stats) {
+        super(nestedLoopPhase.phaseId(), logger, stats);
 
         this.nestedLoopPhase = nestedLoopPhase;
         this.leftBucketReceiver = leftBucketReceiver;
@@ -0,0 +1,379 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.jobs;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.ForwardingBatchIterator;
+
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resource usage of a single {@link ExecutionSubContext}.
+ * <p>
+ * The counters are updated concurrently by the threads which drive the operation and are read by
+ * {@code sys.operations} and {@code sys.operations_log}.
+ * </p>
+ * <ul>
+ *     <li>cpuNanos: thread CPU time spent while the operation drives its consumer</li>
+ *     <li>rowsProduced: rows emitted to the consumer of the operation</li>
+ *     <li>rowsConsumed: rows received from upstream operations</li>
+ *     <li>bytesSent / bytesReceived: size of the result buckets exchanged with other nodes</li>
+ *     <li>blockedNanos: wall time spent waiting for pages of upstream operations</li>
+ *     <li>compressionRatio / compressionNanos: ratio and thread CPU time of result buckets compressed
+ *     before they were sent to other nodes</li>
+ * </ul>
+ * <p>
+ * If profiling is enabled (EXPLAIN ANALYZE) {@link #profile(String, BatchIterator)} additionally measures the
+ * time spent in and the rows emitted by individual iterators of the operation, e.g. shards or projectors.
+ * </p>
+ */
+public class OperationStats {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder rowsProduced = new LongAdder();
+    private final LongAdder rowsConsumed = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder compressionInputBytes = new LongAdder();
+    private final LongAdder compressionOutputBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+
+    @Nullable
+    private final Map<String, IteratorProfile> iteratorProfiles;
+
+    public OperationStats() {
+        this(false);
+    }
+
+    public OperationStats(boolean profiling) {
+        this.iteratorProfiles = profiling ? Collections.synchronizedMap(new LinkedHashMap<>()) : null;
+    }
+
+    private static boolean isCpuTimeSupported() {
+        try {
+            return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the CPU time of the current thread in nanoseconds or 0 if measuring the CPU time isn't supported.
+     *         To be used together with {@link #addCpuNanosSince(long)}
+     */
+    public static long currentThreadCpuNanos() {
+        if (CPU_TIME_SUPPORTED) {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        }
+        return 0L;
+    }
+
+    public void addCpuNanosSince(long startCpuNanos) {
+        if (CPU_TIME_SUPPORTED) {
+            cpuNanos.add(Math.max(0L, THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpuNanos));
+        }
+    }
+
+    public void addRowsProduced(long rows) {
+        rowsProduced.add(rows);
+    }
+
+    public void addRowsConsumed(long rows) {
+        rowsConsumed.add(rows);
+    }
+
+    public void addBytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    public void addBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    public void addBlockedNanos(long nanos) {
+        blockedNanos.add(nanos);
+    }
+
+    /**
+     * Record the compression of a result bucket. The CPU time is measured since startCpuNanos,
+     * see {@link #currentThreadCpuNanos()}
+     */
+    public void addCompression(long uncompressedBytes, long compressedBytes, long startCpuNanos) {
+        compressionInputBytes.add(uncompressedBytes);
+        compressionOutputBytes.add(compressedBytes);
+        if (CPU_TIME_SUPPORTED) {
+            compressionNanos.add(Math.max(0L, THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpuNanos));
+        }
+    }
+
+    public long cpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    public long rowsProduced() {
+        return rowsProduced.sum();
+    }
+
+    public long rowsConsumed() {
+        return rowsConsumed.sum();
+    }
+
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long blockedNanos() {
+        return blockedNanos.sum();
+    }
+
+    /**
+     * @return uncompressed size / compressed size of all compressed buckets or 0 if nothing was compressed
+     */
+    public double compressionRatio() {
+        long compressed = compressionOutputBytes.sum();
+        if (compressed == 0L) {
+            return 0.0d;
+        }
+        return (double) compressionInputBytes.sum() / compressed;
+    }
+
+    public long compressionNanos() {
+        return compressionNanos.sum();
+    }
+
+    public boolean isProfiling() {
+        return iteratorProfiles != null;
+    }
+
+    /**
+     * Wrap the iterator to measure the time spent in it (including the time spent in the iterators it wraps)
+     * and the number of rows it emits. Returns the iterator as is if profiling is disabled.
+     */
+    public BatchIterator profile(String name, BatchIterator iterator) {
+        if (iteratorProfiles == null) {
+            return iterator;
+        }
+        IteratorProfile profile;
+        synchronized (iteratorProfiles) {
+            profile = iteratorProfiles.computeIfAbsent(name, k -> new IteratorProfile());
+        }
+        return new ProfilingBatchIterator(iterator, profile);
+    }
+
+    /**
+     * Wrap the consumer so that the iterator it receives is {@link #profile(String, BatchIterator) profiled}.
+     * Returns the consumer as is if profiling is disabled.
+     */
+    public BatchConsumer profile(String name, BatchConsumer consumer) {
+        if (iteratorProfiles == null) {
+            return consumer;
+        }
+        return new ProfilingBatchConsumer(consumer, name, this);
+    }
+
+    /**
+     * @return the profiled iterators by name with the measured time in nanoseconds and the number of emitted rows
+     */
+    public Map<String, long[]> iteratorProfiles() {
+        if (iteratorProfiles == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, long[]> result = new LinkedHashMap<>();
+        synchronized (iteratorProfiles) {
+            for (Map.Entry<String, IteratorProfile> entry : iteratorProfiles.entrySet()) {
+                IteratorProfile profile = entry.getValue();
+                result.put(entry.getKey(), new long[] { profile.nanos.sum(), profile.rows.sum() });
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wrap the iterator so that every row it emits is counted as produced row.
+     */
+    public BatchIterator countRowsProduced(BatchIterator iterator) {
+        return new RowCountingBatchIterator(iterator, rowsProduced);
+    }
+
+    /**
+     * Wrap the consumer so that the rows it receives are counted as produced rows and the CPU time spent
+     * in {@link BatchConsumer#accept(BatchIterator, Throwable)} is accounted to this operation.
+     * <p>
+     * Consumers usually consume an iterator synchronously until a batch has to be loaded,
+     * so this covers the CPU time spent on the thread that starts the consumption.
+     * </p>
+     */
+    public BatchConsumer track(BatchConsumer consumer) {
+        return new TrackingBatchConsumer(consumer, this);
+    }
+
+    @Override
+    public String toString() {
+        return "OperationStats{" +
+               "cpuNanos=" + cpuNanos +
+               ", rowsProduced=" + rowsProduced +
+               ", rowsConsumed=" + rowsConsumed +
+               ", bytesSent=" + bytesSent +
+               ", bytesReceived=" + bytesReceived +
+               ", blockedNanos=" + blockedNanos +
+               '}';
+    }
+
+    private static class RowCountingBatchIterator extends ForwardingBatchIterator {
+
+        private final BatchIterator delegate;
+        private final LongAdder rows;
+
+        RowCountingBatchIterator(BatchIterator delegate, LongAdder rows) {
+            this.delegate = delegate;
+            this.rows = rows;
+        }
+
+        @Override
+        protected BatchIterator delegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean moveNext() {
+            if (delegate.moveNext()) {
+                rows.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class IteratorProfile {
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+    }
+
+    private static class ProfilingBatchIterator extends ForwardingBatchIterator {
+
+        private final BatchIterator delegate;
+        private final IteratorProfile profile;
+
+        ProfilingBatchIterator(BatchIterator delegate, IteratorProfile profile) {
+            this.delegate = delegate;
+            this.profile = profile;
+        }
+
+        @Override
+        protected BatchIterator delegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean moveNext() {
+            long start = System.nanoTime();
+            try {
+                if (delegate.moveNext()) {
+                    profile.rows.increment();
+                    return true;
+                }
+                return false;
+            } finally {
+                profile.nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public CompletionStage<?> loadNextBatch() {
+            long start = System.nanoTime();
+            return delegate.loadNextBatch()
+                .whenComplete((r, t) -> profile.nanos.add(System.nanoTime() - start));
+        }
+    }
+
+    private static class ProfilingBatchConsumer implements BatchConsumer {
+
+        private final BatchConsumer delegate;
+        private final String name;
+        private final OperationStats stats;
+
+        ProfilingBatchConsumer(BatchConsumer delegate, String name, OperationStats stats) {
+            this.delegate = delegate;
+            this.name = name;
+            this.stats = stats;
+        }
+
+        @Override
+        public void accept(@Nullable BatchIterator iterator, @Nullable Throwable failure) {
+            delegate.accept(iterator == null ? null : stats.profile(name, iterator), failure);
+        }
+
+        @Override
+        public boolean requiresScroll() {
+            return delegate.requiresScroll();
+        }
+    }
+
+    private static class TrackingBatchConsumer implements BatchConsumer {
+
+        private final BatchConsumer delegate;
+        private final OperationStats stats;
+
+        TrackingBatchConsumer(BatchConsumer delegate, OperationStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public void accept(@Nullable BatchIterator iterator, @Nullable Throwable failure) {
+            long startCpuNanos = currentThreadCpuNanos();
+            try {
+                delegate.accept(iterator == null ? null : stats.countRowsProduced(iterator), failure);
+            } finally {
+                stats.addCpuNanosSince(startCpuNanos);
+            }
+        }
+
+        @Override
+        public boolean requiresScroll() {
+            return delegate.requiresScroll();
+        }
+
+        @Override
+        public String toString() {
+            return "TrackingBatchConsumer{" +
+                   "delegate=" + delegate +
+                   '}';
+        }
+    }
+}
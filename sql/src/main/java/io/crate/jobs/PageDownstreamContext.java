@@ -27,8 +27,10 @@ import com.carrotsearch.hppc.cursors.ObjectCursor;
 import io.crate.Streamer;
 import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
+import io.crate.executor.transport.StreamBucket;
 import io.crate.operation.PageResultListener;
 import io.crate.operation.merge.BatchPagingIterator;
 import io.crate.operation.merge.KeyIterable;
@@ -57,9 +59,11 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     private final IntObjectHashMap<Bucket> bucketsByIdx;
     private final BatchConsumer consumer;
     private final BatchPagingIterator<Integer> batchPagingIterator;
+    private final BatchIterator iterator;
 
     private Throwable lastThrowable = null;
     private volatile boolean receivingFirstPage = true;
+    private volatile long waitingForPageSince;
 
     public PageDownstreamContext(Logger logger,
                                  String nodeName,
@@ -69,8 +73,9 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
                                  PagingIterator<Integer, Row> pagingIterator,
                                  Streamer<?>[] streamers,
                                  RamAccountingContext ramAccountingContext,
-                                 int numBuckets) {
-        super(id, logger);
+                                 int numBuckets,
+                                 OperationStats stats) {
+        super(id, logger, stats);
         this.nodeName = nodeName;
         this.name = name;
         this.streamers = streamers;
@@ -88,7 +93,9 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
             () -> releaseListenersAndCloseContext(null),
             streamers.length
         );
+        this.iterator = stats.countRowsProduced(batchPagingIterator);
         this.consumer = batchConsumer;
+        this.waitingForPageSince = System.nanoTime();
     }
 
     private void releaseListenersAndCloseContext(@Nullable Throwable throwable) {
@@ -112,6 +119,10 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
                 pageResultListener.needMore(false);
             }
         }
+        stats.addRowsConsumed(Math.max(0, rows.size()));
+        if (rows instanceof StreamBucket) {
+            stats.addBytesReceived(((StreamBucket) rows).sizeInBytes());
+        }
         boolean shouldTriggerConsumer = false;
         synchronized (lock) {
             traceLog("method=setBucket", bucketIdx);
@@ -135,6 +146,16 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     }
 
     private void triggerConsumer() {
+        stats.addBlockedNanos(System.nanoTime() - waitingForPageSince);
+        long startCpuNanos = OperationStats.currentThreadCpuNanos();
+        try {
+            doTriggerConsumer();
+        } finally {
+            stats.addCpuNanosSince(startCpuNanos);
+        }
+    }
+
+    private void doTriggerConsumer() {
         boolean invokeConsumer = false;
         Throwable throwable;
         synchronized (lock) {
@@ -145,7 +166,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
             throwable = lastThrowable;
         }
         if (invokeConsumer) {
-            consumer.accept(batchPagingIterator, throwable);
+            consumer.accept(iterator, throwable);
         } else {
             batchPagingIterator.completeLoad(throwable);
         }
@@ -180,6 +201,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
         if (exhausted.cardinality() == numBuckets) {
             return false;
         }
+        waitingForPageSince = System.nanoTime();
         if (exhaustedBucket == null || exhausted.get(exhaustedBucket)) {
             fetchFromUnExhausted();
         } else {
@@ -316,7 +338,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
         // there won't be any executionNodes for that collectPhase
         // -> no upstreams -> just finish
         if (numBuckets == 0) {
-            consumer.accept(batchPagingIterator, lastThrowable);
+            consumer.accept(iterator, lastThrowable);
         }
     }
 
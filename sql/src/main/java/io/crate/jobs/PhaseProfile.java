@@ -0,0 +1,147 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.jobs;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The measured runtime and resource usage of an {@link ExecutionSubContext} on a single node.
+ * Collected from all nodes after a profiled job (EXPLAIN ANALYZE) has finished.
+ */
+public class PhaseProfile implements Writeable {
+
+    private final int phaseId;
+    private final String name;
+    private final long durationNanos;
+    private final long cpuNanos;
+    private final long rowsProduced;
+    private final long rowsConsumed;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final long blockedNanos;
+    private final Map<String, long[]> iterators;
+
+    public PhaseProfile(int phaseId, String name, long durationNanos, OperationStats stats) {
+        this.phaseId = phaseId;
+        this.name = name;
+        this.durationNanos = durationNanos;
+        this.cpuNanos = stats.cpuNanos();
+        this.rowsProduced = stats.rowsProduced();
+        this.rowsConsumed = stats.rowsConsumed();
+        this.bytesSent = stats.bytesSent();
+        this.bytesReceived = stats.bytesReceived();
+        this.blockedNanos = stats.blockedNanos();
+        this.iterators = stats.iteratorProfiles();
+    }
+
+    public PhaseProfile(StreamInput in) throws IOException {
+        phaseId = in.readVInt();
+        name = in.readString();
+        durationNanos = in.readVLong();
+        cpuNanos = in.readVLong();
+        rowsProduced = in.readVLong();
+        rowsConsumed = in.readVLong();
+        bytesSent = in.readVLong();
+        bytesReceived = in.readVLong();
+        blockedNanos = in.readVLong();
+        int numIterators = in.readVInt();
+        iterators = new LinkedHashMap<>(numIterators);
+        for (int i = 0; i < numIterators; i++) {
+            iterators.put(in.readString(), new long[] { in.readVLong(), in.readVLong() });
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(phaseId);
+        out.writeString(name);
+        out.writeVLong(durationNanos);
+        out.writeVLong(cpuNanos);
+        out.writeVLong(rowsProduced);
+        out.writeVLong(rowsConsumed);
+        out.writeVLong(bytesSent);
+        out.writeVLong(bytesReceived);
+        out.writeVLong(blockedNanos);
+        out.writeVInt(iterators.size());
+        for (Map.Entry<String, long[]> entry : iterators.entrySet()) {
+            out.writeString(entry.getKey());
+            out.writeVLong(entry.getValue()[0]);
+            out.writeVLong(entry.getValue()[1]);
+        }
+    }
+
+    public int phaseId() {
+        return phaseId;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return the profile as map which is used as output of EXPLAIN ANALYZE. Times are in milliseconds.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("duration", toMillis(durationNanos));
+        map.put("cpu_time", toMillis(cpuNanos));
+        map.put("blocked_time", toMillis(blockedNanos));
+        map.put("rows_produced", rowsProduced);
+        map.put("rows_consumed", rowsConsumed);
+        map.put("bytes_sent", bytesSent);
+        map.put("bytes_received", bytesReceived);
+        if (!iterators.isEmpty()) {
+            Map<String, Object> iteratorsMap = new LinkedHashMap<>(iterators.size());
+            for (Map.Entry<String, long[]> entry : iterators.entrySet()) {
+                Map<String, Object> iteratorMap = new LinkedHashMap<>(2);
+                iteratorMap.put("time", toMillis(entry.getValue()[0]));
+                iteratorMap.put("rows", entry.getValue()[1]);
+                iteratorsMap.put(entry.getKey(), iteratorMap);
+            }
+            map.put("iterators", iteratorsMap);
+        }
+        return map;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseProfile{" +
+               "phaseId=" + phaseId +
+               ", name='" + name + '\'' +
+               ", durationNanos=" + durationNanos +
+               '}';
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.metadata;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ranks the copies of a shard by the responsiveness of the nodes holding them, so that
+ * {@link Routing}s prefer copies on fast nodes over copies on nodes which are busy, in a long GC, etc.
+ * <p>
+ * For every node an exponentially weighted moving average (EWMA) of the response times and of the queue
+ * sizes reported back by the node is kept, together with the number of requests which are currently
+ * outstanding. The rank of a node is computed similar to the C3 algorithm:
+ * </p>
+ * <pre>
+ *     rank = responseTime * (1 + outstanding + queueSize + shardsAssignedInThisRouting) ^ 3
+ * </pre>
+ * The cubic queue term spreads the shards of a routing over multiple nodes instead of
+ * sending all of them to the fastest node.
+ * Nodes without statistics are ranked like the fastest candidate, so that they receive requests
+ * and statistics are gathered.
+ * Candidates which didn't get any shard of a routing approach the fastest candidate, so that they are retried
+ * eventually, otherwise a node that was slow once would never be selected again.
+ * <p>
+ * Response times are measured for job requests, which include the collect phases with a direct response, and for
+ * fetch requests. Failed requests aren't used as a sample, instead the response time of the node is raised to at
+ * least one second, so that a node which fails fast isn't ranked as the fastest one.
+ * Pushes of distributed results aren't measured because their response is delayed until the receiver needs more
+ * data.
+ */
+@Singleton
+public class AdaptiveReplicaSelection {
+
+    public static final CrateSetting<Boolean> ADAPTIVE_REPLICA_SELECTION_SETTING = CrateSetting.of(Setting.boolSetting(
+        "cluster.routing.use_adaptive_replica_selection", false, Setting.Property.Dynamic, Setting.Property.NodeScope),
+        DataTypes.BOOLEAN);
+
+    private static final double ALPHA = 0.3;
+    private static final double SKIPPED_ADJUSTMENT = 0.1;
+    private static final double FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, NodeStats> statsByNode = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    @Inject
+    public AdaptiveReplicaSelection(Settings settings, ClusterService clusterService) {
+        this(ADAPTIVE_REPLICA_SELECTION_SETTING.setting().get(settings));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            ADAPTIVE_REPLICA_SELECTION_SETTING.setting(), this::setEnabled);
+        clusterService.addListener(event -> {
+            if (event.nodesRemoved()) {
+                for (DiscoveryNode node : event.nodesDelta().removedNodes()) {
+                    statsByNode.remove(node.getId());
+                }
+            }
+        });
+    }
+
+    public AdaptiveReplicaSelection(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Must be called before a request is sent to a node and be followed by either
+     * {@link #onResponse(String, long, int)} or {@link #onFailure(String)}.
+     *
+     * @return the start time which must be passed to onResponse
+     */
+    public long onRequestSent(String nodeId) {
+        statsByNode.computeIfAbsent(nodeId, n -> new NodeStats()).outstanding.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * @param queueSize the queue size reported by the node, -1 if unknown
+     */
+    public void onResponse(String nodeId, long startNanos, int queueSize) {
+        NodeStats stats = statsByNode.get(nodeId);
+        if (stats != null) {
+            stats.outstanding.decrementAndGet();
+            stats.update(System.nanoTime() - startNanos, queueSize);
+        }
+    }
+
+    public void onFailure(String nodeId) {
+        NodeStats stats = statsByNode.get(nodeId);
+        if (stats != null) {
+            stats.outstanding.decrementAndGet();
+            stats.penalize();
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting in the queue of the executor or -1 if it cannot be determined
+     */
+    public static int queueSize(Executor executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getQueue().size();
+        }
+        return -1;
+    }
+
+    /**
+     * Create a selection which is used to select the copies of all shards of a routing.
+     */
+    public Selection newSelection() {
+        return new Selection();
+    }
+
+    @VisibleForTesting
+    @Nullable
+    NodeStats stats(String nodeId) {
+        return statsByNode.get(nodeId);
+    }
+
+    public class Selection {
+
+        private final Map<String, Integer> assignedShards = new HashMap<>();
+        private final Set<String> candidates = new HashSet<>();
+
+        private Selection() {
+        }
+
+        /**
+         * @param copies the copies of a shard, active copies are preferred over initializing copies.
+         * @return the selected copy or null if copies is empty
+         */
+        @Nullable
+        public ShardRouting select(List<ShardRouting> copies) {
+            double fastestResponseTime = Double.MAX_VALUE;
+            boolean hasActive = false;
+            for (ShardRouting copy : copies) {
+                if (copy.active()) {
+                    hasActive = true;
+                    candidates.add(copy.currentNodeId());
+                    NodeStats stats = statsByNode.get(copy.currentNodeId());
+                    if (stats != null && stats.hasResponses()) {
+                        fastestResponseTime = Math.min(fastestResponseTime, stats.responseTime());
+                    }
+                }
+            }
+            if (!hasActive) {
+                return copies.isEmpty() ? null : copies.get(0);
+            }
+            if (fastestResponseTime == Double.MAX_VALUE) {
+                fastestResponseTime = 1.0;
+            }
+            ShardRouting selected = null;
+            double selectedRank = Double.MAX_VALUE;
+            for (ShardRouting copy : copies) {
+                if (!copy.active()) {
+                    continue;
+                }
+                String nodeId = copy.currentNodeId();
+                double rank = rank(statsByNode.get(nodeId), assignedShards.getOrDefault(nodeId, 0), fastestResponseTime);
+                // copies are in random order, keeping the first on ties distributes the load if there are no stats
+                if (rank < selectedRank) {
+                    selected = copy;
+                    selectedRank = rank;
+                }
+            }
+            assert selected != null : "there must be an active copy";
+            assignedShards.merge(selected.currentNodeId(), 1, Integer::sum);
+            return selected;
+        }
+
+        /**
+         * Must be called once all shards are selected.
+         * Moves the statistics of candidates which weren't selected towards the fastest candidate.
+         */
+        public void finish() {
+            double fastestResponseTime = Double.MAX_VALUE;
+            for (String nodeId : assignedShards.keySet()) {
+                NodeStats stats = statsByNode.get(nodeId);
+                if (stats != null && stats.hasResponses()) {
+                    fastestResponseTime = Math.min(fastestResponseTime, stats.responseTime());
+                }
+            }
+            if (fastestResponseTime == Double.MAX_VALUE) {
+                return;
+            }
+            for (String nodeId : candidates) {
+                if (!assignedShards.containsKey(nodeId)) {
+                    NodeStats stats = statsByNode.get(nodeId);
+                    if (stats != null) {
+                        stats.adjustTowards(fastestResponseTime);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double rank(@Nullable NodeStats stats, int assignedShards, double defaultResponseTime) {
+        double responseTime = defaultResponseTime;
+        double queue = 1 + assignedShards;
+        if (stats != null) {
+            if (stats.hasResponses()) {
+                responseTime = stats.responseTime();
+            }
+            queue += stats.outstanding.get() + stats.queueSize();
+        }
+        return responseTime * queue * queue * queue;
+    }
+
+    @VisibleForTesting
+    static class NodeStats {
+
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+        private double responseTime = -1;
+        private double queueSize = 0;
+
+        synchronized void update(long responseTimeNanos, int reportedQueueSize) {
+            if (responseTime < 0) {
+                responseTime = responseTimeNanos;
+                queueSize = Math.max(0, reportedQueueSize);
+                return;
+            }
+            responseTime = ALPHA * responseTimeNanos + (1 - ALPHA) * responseTime;
+            if (reportedQueueSize >= 0) {
+                queueSize = ALPHA * reportedQueueSize + (1 - ALPHA) * queueSize;
+            }
+        }
+
+        /**
+         * Doubles the response time, but raises it to at least one second.
+         */
+        synchronized void penalize() {
+            responseTime = Math.max(2 * responseTime, FAILURE_PENALTY_NANOS);
+        }
+
+        synchronized void adjustTowards(double fastestResponseTime) {
+            if (responseTime > fastestResponseTime) {
+                responseTime = SKIPPED_ADJUSTMENT * fastestResponseTime + (1 - SKIPPED_ADJUSTMENT) * responseTime;
+            }
+            queueSize = (1 - SKIPPED_ADJUSTMENT) * queueSize;
+        }
+
+        synchronized boolean hasResponses() {
+            return responseTime >= 0;
+        }
+
+        synchronized double responseTime() {
+            return responseTime;
+        }
+
+        synchronized double queueSize() {
+            return queueSize;
+        }
+
+        int outstanding() {
+            return outstanding.get();
+        }
+    }
+}
@@ -26,7 +26,9 @@ import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.format.OperatorFormatSpec;
 import io.crate.data.Input;
+import io.crate.operation.vector.VectorizedScalar;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 
@@ -114,7 +116,7 @@ public abstract class Scalar<ReturnType, InputType> implements FunctionImplement
         return Literal.of(function.info().returnType(), scalar.evaluate(inputs));
     }
 
-    private static class OperatorScalar<R, I> extends Scalar<R, I> implements OperatorFormatSpec {
+    private static class OperatorScalar<R, I> extends Scalar<R, I> implements OperatorFormatSpec, VectorizedScalar {
         private final Scalar<R, I> func;
         private final String operator;
 
@@ -137,5 +139,14 @@ public abstract class Scalar<ReturnType, InputType> implements FunctionImplement
         public String operator(Function function) {
             return operator;
         }
+
+        @Nullable
+        @Override
+        public Kernel vectorize(List<Symbol> arguments) {
+            if (func instanceof VectorizedScalar) {
+                return ((VectorizedScalar) func).vectorize(arguments);
+            }
+            return null;
+        }
     }
 }
@@ -21,8 +21,6 @@
 
 package io.crate.metadata.doc;
 
-import com.carrotsearch.hppc.ObjectLookupContainer;
-import com.carrotsearch.hppc.cursors.ObjectCursor;
 import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterators;
@@ -45,11 +43,14 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.index.Index;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.stream.Stream;
@@ -113,7 +114,15 @@ public class DocSchemaInfo implements SchemaInfo {
     private final DocTableInfoFactory docTableInfoFactory;
     private final Functions functions;
     private final UserDefinedFunctionService udfService;
+    private final DocTableInfoStats stats;
 
+    @Nullable
+    private final Executor rebuildExecutor;
+
+    /**
+     * Immutable snapshots of the tables of the schema. An entry is replaced as a whole once the meta data of one
+     * of the indices of the table changes, see {@link #update(ClusterChangedEvent)}.
+     */
     private final ConcurrentHashMap<String, DocTableInfo> docTableByName = new ConcurrentHashMap<>();
 
     private static final Predicate<String> NO_BLOB = ((Predicate<String>)BlobIndex::isBlobIndex).negate();
@@ -130,6 +139,22 @@ public class DocSchemaInfo implements SchemaInfo {
                          Functions functions,
                          UserDefinedFunctionService udfService,
                          DocTableInfoFactory docTableInfoFactory) {
+        this(schemaName, clusterService, functions, udfService, docTableInfoFactory, new DocTableInfoStats(), null);
+    }
+
+    /**
+     * @param rebuildExecutor executor used to rebuild invalidated tables in the background. If null, invalidated
+     *                        tables are built on their next access.
+     */
+    public DocSchemaInfo(final String schemaName,
+                         ClusterService clusterService,
+                         Functions functions,
+                         UserDefinedFunctionService udfService,
+                         DocTableInfoFactory docTableInfoFactory,
+                         DocTableInfoStats stats,
+                         @Nullable Executor rebuildExecutor) {
+        this.stats = stats;
+        this.rebuildExecutor = rebuildExecutor;
         this.functions = functions;
         this.schemaName = schemaName;
         this.isDocSchema = Schemas.DEFAULT_SCHEMA_NAME.equals(schemaName);
@@ -155,7 +180,12 @@ public class DocSchemaInfo implements SchemaInfo {
     }
 
     private DocTableInfo innerGetTableInfo(String tableName) {
-        return docTableInfoFactory.create(new TableIdent(schemaName, tableName), clusterService);
+        long startNanos = System.nanoTime();
+        try {
+            return docTableInfoFactory.create(new TableIdent(schemaName, tableName), clusterService);
+        } finally {
+            stats.onBuild(System.nanoTime() - startNanos);
+        }
     }
 
     @Override
@@ -205,68 +235,61 @@ public class DocSchemaInfo implements SchemaInfo {
 
     @Override
     public void invalidateTableCache(String tableName) {
-        docTableByName.remove(tableName);
+        invalidate(tableName);
     }
 
     @Override
     public void update(ClusterChangedEvent event) {
         assert event.metaDataChanged() : "metaDataChanged must be true if update is called";
 
-        // search for aliases of deleted and created indices, they must be invalidated also
+        // Only the tables of created, deleted or changed indices and templates are invalidated. Their aliases must be
+        // invalidated as well.
+        Set<String> changedTables = new HashSet<>();
         MetaData prevMetaData = event.previousState().metaData();
         for (Index index : event.indicesDeleted()) {
+            addTableOfIndex(index.getName(), changedTables);
             invalidateFromIndex(index, prevMetaData);
         }
         MetaData newMetaData = event.state().metaData();
         for (String index : event.indicesCreated()) {
+            addTableOfIndex(index, changedTables);
             invalidateAliases(newMetaData.index(index).getAliases());
         }
 
+        // search indices with changed meta data, this includes single partitions modified using
+        // alter table <t> partition (...)
+        for (ObjectObjectCursor<String, IndexMetaData> cursor : newMetaData.indices()) {
+            IndexMetaData oldIndexMetaData = prevMetaData.index(cursor.key);
+            if (oldIndexMetaData != null && ClusterChangedEvent.indexMetaDataChanged(oldIndexMetaData, cursor.value)) {
+                addTableOfIndex(cursor.key, changedTables);
+                invalidateAliases(cursor.value.getAliases());
+                invalidateAliases(oldIndexMetaData.getAliases());
+            }
+        }
+
         // search for templates with changed meta data => invalidate template aliases
         ImmutableOpenMap<String, IndexTemplateMetaData> newTemplates = newMetaData.templates();
         ImmutableOpenMap<String, IndexTemplateMetaData> prevTemplates = prevMetaData.templates();
         if (!newTemplates.equals(prevTemplates)) {
-            for (ObjectCursor<IndexTemplateMetaData> cursor : newTemplates.values()) {
-                invalidateAliases(cursor.value.aliases());
-            }
-            for (ObjectCursor<IndexTemplateMetaData> cursor : prevTemplates.values()) {
-                invalidateAliases(cursor.value.aliases());
+            for (ObjectObjectCursor<String, IndexTemplateMetaData> cursor : newTemplates) {
+                IndexTemplateMetaData prevTemplate = prevTemplates.get(cursor.key);
+                if (cursor.value.equals(prevTemplate) == false) {
+                    addTableOfIndex(cursor.key, changedTables);
+                    invalidateAliases(cursor.value.aliases());
+                }
             }
-        }
-
-        // search indices with changed meta data
-        Iterator<String> currentTablesIt = docTableByName.keySet().iterator();
-        ObjectLookupContainer<String> templates = newTemplates.keys();
-        ImmutableOpenMap<String, IndexMetaData> indices = newMetaData.indices();
-        while (currentTablesIt.hasNext()) {
-            String tableName = currentTablesIt.next();
-            String indexName = getIndexName(tableName);
-
-            IndexMetaData newIndexMetaData = newMetaData.index(indexName);
-            if (newIndexMetaData == null) {
-                docTableByName.remove(tableName);
-            } else {
-                IndexMetaData oldIndexMetaData = prevMetaData.index(indexName);
-                if (oldIndexMetaData != null && ClusterChangedEvent.indexMetaDataChanged(oldIndexMetaData, newIndexMetaData)) {
-                    docTableByName.remove(tableName);
-                    // invalidate aliases of changed indices
-                    invalidateAliases(newIndexMetaData.getAliases());
-                    invalidateAliases(oldIndexMetaData.getAliases());
-                } else {
-                    // this is the case if a single partition has been modified using alter table <t> partition (...)
-                    String possibleTemplateName = PartitionName.templateName(name(), tableName);
-                    if (templates.contains(possibleTemplateName)) {
-                        for (ObjectObjectCursor<String, IndexMetaData> indexEntry : indices) {
-                            if (PartitionName.isPartition(indexEntry.key)) {
-                                docTableByName.remove(tableName);
-                                break;
-                            }
-                        }
-                    }
+            for (ObjectObjectCursor<String, IndexTemplateMetaData> cursor : prevTemplates) {
+                IndexTemplateMetaData newTemplate = newTemplates.get(cursor.key);
+                if (cursor.value.equals(newTemplate) == false) {
+                    addTableOfIndex(cursor.key, changedTables);
+                    invalidateAliases(cursor.value.aliases());
                 }
             }
         }
 
+        for (String tableName : changedTables) {
+            invalidate(tableName);
+        }
 
         // re register UDFs for this schema
         UserDefinedFunctionsMetaData udfMetaData = newMetaData.custom(UserDefinedFunctionsMetaData.TYPE);
@@ -277,6 +300,28 @@ public class DocSchemaInfo implements SchemaInfo {
         }
     }
 
+    /**
+     * Adds the name of the table of the given index, partition or partitioned table template to tableNames
+     * if it belongs to this schema.
+     */
+    private void addTableOfIndex(String indexOrTemplateName, Set<String> tableNames) {
+        if (BlobIndex.isBlobIndex(indexOrTemplateName)) {
+            return;
+        }
+        if (PartitionName.isPartition(indexOrTemplateName)) {
+            try {
+                TableIdent tableIdent = PartitionName.fromIndexOrTemplate(indexOrTemplateName).tableIdent();
+                if (schemaName.equals(tableIdent.schema())) {
+                    tableNames.add(tableIdent.name());
+                }
+            } catch (IllegalArgumentException e) {
+                // not a crate partition
+            }
+        } else if (indexMatchesSchema(indexOrTemplateName)) {
+            tableNames.add(getTableNameFromIndexName(indexOrTemplateName));
+        }
+    }
+
     /**
      * checks if metaData contains a particular index and
      * invalidates its aliases if so
@@ -289,18 +334,36 @@ public class DocSchemaInfo implements SchemaInfo {
         }
     }
 
-    private String getIndexName(String tableName) {
-        if (schemaName.equals(Schemas.DEFAULT_SCHEMA_NAME)) {
-            return tableName;
-        } else {
-            return schemaName + "." + tableName;
+    private void rebuild(String tableName) {
+        try {
+            getTableInfo(tableName);
+        } catch (Exception e) {
+            // the failure is raised again on the next access by a statement
+        }
+    }
+
+    /**
+     * Removes the cached table. If a rebuild executor is available and the table was cached, it's rebuilt in the
+     * background, so that it's most likely available again once the next statement accesses it. Statements
+     * accessing it earlier wait for the rebuild instead of building it again.
+     */
+    private void invalidate(String tableName) {
+        if (docTableByName.remove(tableName) != null) {
+            stats.onInvalidation();
+            if (rebuildExecutor != null) {
+                try {
+                    rebuildExecutor.execute(() -> rebuild(tableName));
+                } catch (RejectedExecutionException e) {
+                    // built on the next access
+                }
+            }
         }
     }
 
     private void invalidateAliases(ImmutableOpenMap<String, AliasMetaData> aliases) {
         assert aliases != null : "aliases must not be null";
         if (aliases.size() > 0) {
-            aliases.keysIt().forEachRemaining(docTableByName::remove);
+            aliases.keysIt().forEachRemaining(this::invalidate);
         }
     }
 
@@ -28,6 +28,10 @@ import org.elasticsearch.cluster.service.ClusterService;
 import io.crate.operation.udf.UserDefinedFunctionService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Executor;
 
 @Singleton
 public class DocSchemaInfoFactory {
@@ -35,15 +39,37 @@ public class DocSchemaInfoFactory {
     private final DocTableInfoFactory docTableInfoFactory;
     private final Functions functions;
     private final UserDefinedFunctionService udfService;
+    private final DocTableInfoStats stats;
+
+    @Nullable
+    private final Executor rebuildExecutor;
 
     @Inject
+    public DocSchemaInfoFactory(DocTableInfoFactory docTableInfoFactory,
+                                Functions functions,
+                                UserDefinedFunctionService udfService,
+                                DocTableInfoStats stats,
+                                ThreadPool threadPool) {
+        this(docTableInfoFactory, functions, udfService, stats, threadPool.generic());
+    }
+
     public DocSchemaInfoFactory(DocTableInfoFactory docTableInfoFactory, Functions functions, UserDefinedFunctionService udfService) {
+        this(docTableInfoFactory, functions, udfService, new DocTableInfoStats(), null);
+    }
+
+    private DocSchemaInfoFactory(DocTableInfoFactory docTableInfoFactory,
+                                 Functions functions,
+                                 UserDefinedFunctionService udfService,
+                                 DocTableInfoStats stats,
+                                 @Nullable Executor rebuildExecutor) {
         this.docTableInfoFactory = docTableInfoFactory;
         this.functions = functions;
         this.udfService = udfService;
+        this.stats = stats;
+        this.rebuildExecutor = rebuildExecutor;
     }
 
     public SchemaInfo create(String schemaName, ClusterService clusterService) {
-        return new DocSchemaInfo(schemaName, clusterService, functions, udfService, docTableInfoFactory);
+        return new DocSchemaInfo(schemaName, clusterService, functions, udfService, docTableInfoFactory, stats, rebuildExecutor);
     }
 }
@@ -31,6 +31,7 @@ import io.crate.analyze.WhereClause;
 import io.crate.analyze.symbol.DynamicReference;
 import io.crate.exceptions.ColumnUnknownException;
 import io.crate.exceptions.UnavailableShardsException;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.GeneratedReference;
 import io.crate.metadata.IndexReference;
@@ -64,6 +65,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Function;
 
 
 /**
@@ -255,15 +257,43 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
             return new Routing(Collections.emptyMap());
         }
         final Map<String, Map<String, List<Integer>>> locations = new TreeMap<>();
-        fillLocationsFromShardIterators(locations, shardIterators);
+        fillLocationsFromShardIterators(locations, shardIterators, ShardIterator::nextOrNull);
+        return new Routing(locations);
+    }
+
+    /**
+     * Like {@link #getRouting(WhereClause, String, SessionContext)} without preference, but the copy of each shard
+     * is selected by the given {@link AdaptiveReplicaSelection} instead of randomly.
+     */
+    public Routing getRouting(final WhereClause whereClause,
+                              SessionContext sessionContext,
+                              AdaptiveReplicaSelection replicaSelection) {
+        GroupShardsIterator<ShardIterator> shardIterators;
+        try {
+            shardIterators = getShardIterators(whereClause, null);
+        } catch (IndexNotFoundException e) {
+            return new Routing(Collections.emptyMap());
+        }
+        final Map<String, Map<String, List<Integer>>> locations = new TreeMap<>();
+        AdaptiveReplicaSelection.Selection selection = replicaSelection.newSelection();
+        fillLocationsFromShardIterators(locations, shardIterators, shardIterator -> {
+            List<ShardRouting> copies = new ArrayList<>(shardIterator.size());
+            ShardRouting copy;
+            while ((copy = shardIterator.nextOrNull()) != null) {
+                copies.add(copy);
+            }
+            return selection.select(copies);
+        });
+        selection.finish();
         return new Routing(locations);
     }
 
     private void fillLocationsFromShardIterators(Map<String, Map<String, List<Integer>>> locations,
-                                                 GroupShardsIterator<ShardIterator> shardIterators) {
+                                                 GroupShardsIterator<ShardIterator> shardIterators,
+                                                 Function<ShardIterator, ShardRouting> selectCopy) {
         ShardRouting shardRouting;
         for (ShardIterator shardIterator : shardIterators) {
-            shardRouting = shardIterator.nextOrNull();
+            shardRouting = selectCopy.apply(shardIterator);
             if (shardRouting == null) {
                 if (isPartitioned) {
                     // if the table is partitioned it's okay to exclude newly created index/shards
@@ -0,0 +1,71 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.metadata.doc;
+
+import org.elasticsearch.common.inject.Singleton;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the {@link DocTableInfo} cache of the {@link DocSchemaInfo}s of a node.
+ * <ul>
+ *     <li>builds: number of DocTableInfos built, either on a cache miss or by a background rebuild</li>
+ *     <li>buildTime: total and max time spent building DocTableInfos</li>
+ *     <li>invalidations: number of cached DocTableInfos invalidated due to changed meta data</li>
+ * </ul>
+ */
+@Singleton
+public class DocTableInfoStats {
+
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAccumulator maxBuildNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder invalidations = new LongAdder();
+
+    void onBuild(long nanos) {
+        builds.increment();
+        buildNanos.add(nanos);
+        maxBuildNanos.accumulate(nanos);
+    }
+
+    void onInvalidation() {
+        invalidations.increment();
+    }
+
+    public long builds() {
+        return builds.sum();
+    }
+
+    public long buildTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(buildNanos.sum());
+    }
+
+    public long maxBuildTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBuildNanos.get());
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+}
@@ -26,6 +26,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.cluster.gracefulstop.DecommissioningService;
+import io.crate.executor.transport.ResultCompression;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.metadata.ReferenceImplementation;
 import io.crate.operation.collect.stats.JobsLogService;
 import io.crate.operation.projectors.ShardingUpsertExecutor;
@@ -94,6 +96,14 @@ public class CrateSettings implements ClusterStateListener {
             // BULK
             ShardingUpsertExecutor.BULK_REQUEST_TIMEOUT_SETTING,
 
+            // ROUTING
+            AdaptiveReplicaSelection.ADAPTIVE_REPLICA_SELECTION_SETTING,
+
+            // RESULT COMPRESSION
+            ResultCompression.MODE_SETTING,
+            ResultCompression.MIN_SIZE_SETTING,
+            ResultCompression.ZONE_ATTRIBUTE_SETTING,
+
             // GRACEFUL STOP
             DecommissioningService.DECOMMISSION_INTERNAL_SETTING_GROUP,
             DecommissioningService.GRACEFUL_STOP_MIN_AVAILABILITY_SETTING,
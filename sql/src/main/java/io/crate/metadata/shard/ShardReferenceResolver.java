@@ -33,6 +33,7 @@ import io.crate.metadata.Schemas;
 import io.crate.metadata.TableIdent;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.sys.SysShardsTableInfo;
+import io.crate.operation.collect.ShardResultCache;
 import io.crate.operation.reference.ReferenceResolver;
 import io.crate.operation.reference.sys.shard.LiteralReferenceImplementation;
 import io.crate.operation.reference.sys.shard.ShardMinLuceneVersionExpression;
@@ -43,6 +44,7 @@ import io.crate.operation.reference.sys.shard.ShardPathExpression;
 import io.crate.operation.reference.sys.shard.ShardPrimaryExpression;
 import io.crate.operation.reference.sys.shard.ShardRecoveryExpression;
 import io.crate.operation.reference.sys.shard.ShardRelocatingNodeExpression;
+import io.crate.operation.reference.sys.shard.ShardResultCacheExpression;
 import io.crate.operation.reference.sys.shard.ShardRoutingStateExpression;
 import io.crate.operation.reference.sys.shard.ShardSchemaNameExpression;
 import io.crate.operation.reference.sys.shard.ShardSizeExpression;
@@ -65,6 +67,7 @@ public class ShardReferenceResolver {
 
     public static ReferenceResolver<ReferenceImplementation<?>> create(ClusterService clusterService,
                                                                        Schemas schemas,
+                                                                       ShardResultCache resultCache,
                                                                        IndexShard indexShard) {
         ShardId shardId = indexShard.shardId();
         Index index = shardId.getIndex();
@@ -93,6 +96,8 @@ public class ShardReferenceResolver {
         builder.put(SysShardsTableInfo.ReferenceIdents.MIN_LUCENE_VERSION,
             new ShardMinLuceneVersionExpression(indexShard));
         builder.put(SysShardsTableInfo.ReferenceIdents.RECOVERY, new ShardRecoveryExpression(indexShard));
+        builder.put(SysShardsTableInfo.ReferenceIdents.RESULT_CACHE,
+            new ShardResultCacheExpression(() -> resultCache.stats(shardId)));
 
         return new MapBackedRefResolver(builder.build());
     }
@@ -27,6 +27,7 @@ import io.crate.metadata.ReferenceIdent;
 import io.crate.metadata.ReferenceImplementation;
 import io.crate.metadata.blob.BlobSchemaInfo;
 import io.crate.metadata.sys.SysShardsTableInfo;
+import io.crate.operation.collect.ShardResultCache;
 import io.crate.operation.reference.ReferenceResolver;
 import io.crate.operation.reference.sys.shard.*;
 import io.crate.operation.reference.sys.shard.blob.BlobShardBlobPathExpression;
@@ -65,6 +66,10 @@ public class BlobShardReferenceResolver {
         implementations.put(SysShardsTableInfo.ReferenceIdents.MIN_LUCENE_VERSION,
             new ShardMinLuceneVersionExpression(indexShard));
         implementations.put(SysShardsTableInfo.ReferenceIdents.RECOVERY, new ShardRecoveryExpression(indexShard));
+        // results of blob shards are never cached
+        ShardResultCache.Stats resultCacheStats = new ShardResultCache.Stats();
+        implementations.put(SysShardsTableInfo.ReferenceIdents.RESULT_CACHE,
+            new ShardResultCacheExpression(() -> resultCacheStats));
         return new MapBackedRefResolver(implementations);
     }
 }
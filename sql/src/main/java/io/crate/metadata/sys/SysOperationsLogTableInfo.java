@@ -51,6 +51,14 @@ public class SysOperationsLogTableInfo extends StaticTableInfo {
         public static final ColumnIdent STARTED = new ColumnIdent("started");
         static final ColumnIdent ENDED = new ColumnIdent("ended");
         static final ColumnIdent USED_BYTES = new ColumnIdent("used_bytes");
+        static final ColumnIdent CPU_NANOS = new ColumnIdent("cpu_nanos");
+        static final ColumnIdent ROWS_PRODUCED = new ColumnIdent("rows_produced");
+        static final ColumnIdent ROWS_CONSUMED = new ColumnIdent("rows_consumed");
+        static final ColumnIdent BYTES_SENT = new ColumnIdent("bytes_sent");
+        static final ColumnIdent BYTES_RECEIVED = new ColumnIdent("bytes_received");
+        static final ColumnIdent BLOCKED_NANOS = new ColumnIdent("blocked_nanos");
+        static final ColumnIdent COMPRESSION_RATIO = new ColumnIdent("compression_ratio");
+        static final ColumnIdent COMPRESSION_NANOS = new ColumnIdent("compression_nanos");
         public static final ColumnIdent ERROR = new ColumnIdent("error");
     }
 
@@ -80,6 +88,22 @@ public class SysOperationsLogTableInfo extends StaticTableInfo {
                 () -> RowContextCollectorExpression.objToBytesRef(OperationContextLog::errorMessage))
             .put(SysOperationsLogTableInfo.Columns.ENDED,
                 () -> RowContextCollectorExpression.forFunction(OperationContextLog::ended))
+            .put(SysOperationsLogTableInfo.Columns.CPU_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::cpuNanos))
+            .put(SysOperationsLogTableInfo.Columns.ROWS_PRODUCED,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::rowsProduced))
+            .put(SysOperationsLogTableInfo.Columns.ROWS_CONSUMED,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::rowsConsumed))
+            .put(SysOperationsLogTableInfo.Columns.BYTES_SENT,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::bytesSent))
+            .put(SysOperationsLogTableInfo.Columns.BYTES_RECEIVED,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::bytesReceived))
+            .put(SysOperationsLogTableInfo.Columns.BLOCKED_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::blockedNanos))
+            .put(SysOperationsLogTableInfo.Columns.COMPRESSION_RATIO,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::compressionRatio))
+            .put(SysOperationsLogTableInfo.Columns.COMPRESSION_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContextLog::compressionNanos))
             .build();
     }
 
@@ -91,7 +115,15 @@ public class SysOperationsLogTableInfo extends StaticTableInfo {
             .register(Columns.STARTED, DataTypes.TIMESTAMP)
             .register(Columns.ENDED, DataTypes.TIMESTAMP)
             .register(Columns.USED_BYTES, DataTypes.LONG)
-            .register(Columns.ERROR, DataTypes.STRING), Collections.emptyList());
+            .register(Columns.ERROR, DataTypes.STRING)
+            .register(Columns.CPU_NANOS, DataTypes.LONG)
+            .register(Columns.ROWS_PRODUCED, DataTypes.LONG)
+            .register(Columns.ROWS_CONSUMED, DataTypes.LONG)
+            .register(Columns.BYTES_SENT, DataTypes.LONG)
+            .register(Columns.BYTES_RECEIVED, DataTypes.LONG)
+            .register(Columns.BLOCKED_NANOS, DataTypes.LONG)
+            .register(Columns.COMPRESSION_RATIO, DataTypes.DOUBLE)
+            .register(Columns.COMPRESSION_NANOS, DataTypes.LONG), Collections.emptyList());
         this.clusterService = clusterService;
     }
 
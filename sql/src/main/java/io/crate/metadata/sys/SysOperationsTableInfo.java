@@ -52,6 +52,14 @@ public class SysOperationsTableInfo extends StaticTableInfo {
         public final static ColumnIdent NAME = new ColumnIdent("name");
         public final static ColumnIdent STARTED = new ColumnIdent("started");
         final static ColumnIdent USED_BYTES = new ColumnIdent("used_bytes");
+        final static ColumnIdent CPU_NANOS = new ColumnIdent("cpu_nanos");
+        final static ColumnIdent ROWS_PRODUCED = new ColumnIdent("rows_produced");
+        final static ColumnIdent ROWS_CONSUMED = new ColumnIdent("rows_consumed");
+        final static ColumnIdent BYTES_SENT = new ColumnIdent("bytes_sent");
+        final static ColumnIdent BYTES_RECEIVED = new ColumnIdent("bytes_received");
+        final static ColumnIdent BLOCKED_NANOS = new ColumnIdent("blocked_nanos");
+        final static ColumnIdent COMPRESSION_RATIO = new ColumnIdent("compression_ratio");
+        final static ColumnIdent COMPRESSION_NANOS = new ColumnIdent("compression_nanos");
     }
 
     public static Map<ColumnIdent, RowCollectExpressionFactory<OperationContext>> expressions() {
@@ -70,6 +78,22 @@ public class SysOperationsTableInfo extends StaticTableInfo {
                 }
                 return r.usedBytes;
             }))
+            .put(SysOperationsTableInfo.Columns.CPU_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::cpuNanos))
+            .put(SysOperationsTableInfo.Columns.ROWS_PRODUCED,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::rowsProduced))
+            .put(SysOperationsTableInfo.Columns.ROWS_CONSUMED,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::rowsConsumed))
+            .put(SysOperationsTableInfo.Columns.BYTES_SENT,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::bytesSent))
+            .put(SysOperationsTableInfo.Columns.BYTES_RECEIVED,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::bytesReceived))
+            .put(SysOperationsTableInfo.Columns.BLOCKED_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::blockedNanos))
+            .put(SysOperationsTableInfo.Columns.COMPRESSION_RATIO,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::compressionRatio))
+            .put(SysOperationsTableInfo.Columns.COMPRESSION_NANOS,
+                () -> RowContextCollectorExpression.forFunction(OperationContext::compressionNanos))
             .build();
     }
 
@@ -82,6 +106,14 @@ public class SysOperationsTableInfo extends StaticTableInfo {
                 .register(Columns.NAME, DataTypes.STRING)
                 .register(Columns.STARTED, DataTypes.TIMESTAMP)
                 .register(Columns.USED_BYTES, DataTypes.LONG)
+                .register(Columns.CPU_NANOS, DataTypes.LONG)
+                .register(Columns.ROWS_PRODUCED, DataTypes.LONG)
+                .register(Columns.ROWS_CONSUMED, DataTypes.LONG)
+                .register(Columns.BYTES_SENT, DataTypes.LONG)
+                .register(Columns.BYTES_RECEIVED, DataTypes.LONG)
+                .register(Columns.BLOCKED_NANOS, DataTypes.LONG)
+                .register(Columns.COMPRESSION_RATIO, DataTypes.DOUBLE)
+                .register(Columns.COMPRESSION_NANOS, DataTypes.LONG)
                 .putInfoOnly(SysNodesTableInfo.SYS_COL_IDENT, SysNodesTableInfo.tableColumnInfo(IDENT)),
             Collections.<ColumnIdent>emptyList());
         this.clusterService = clusterService;
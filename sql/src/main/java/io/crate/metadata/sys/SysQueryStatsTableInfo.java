@@ -0,0 +1,131 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.WhereClause;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.Reference;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RowContextCollectorExpression;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.TableIdent;
+import io.crate.metadata.expressions.RowCollectExpressionFactory;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.operation.reference.sys.job.QueryStatsEntry;
+import io.crate.types.DataTypes;
+import org.elasticsearch.cluster.service.ClusterService;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+
+public class SysQueryStatsTableInfo extends StaticTableInfo {
+
+    public static final TableIdent IDENT = new TableIdent(SysSchemaInfo.NAME, "query_stats");
+
+    public static class Columns {
+        public static final ColumnIdent FINGERPRINT = new ColumnIdent("fingerprint");
+        static final ColumnIdent EXEC_COUNT = new ColumnIdent("exec_count");
+        static final ColumnIdent ERROR_COUNT = new ColumnIdent("error_count");
+        static final ColumnIdent LAST_EXECUTED = new ColumnIdent("last_executed");
+        static final ColumnIdent AVG_DURATION = new ColumnIdent("avg_duration");
+        static final ColumnIdent MIN_DURATION = new ColumnIdent("min_duration");
+        static final ColumnIdent MAX_DURATION = new ColumnIdent("max_duration");
+        static final ColumnIdent P50_DURATION = new ColumnIdent("p50_duration");
+        static final ColumnIdent P90_DURATION = new ColumnIdent("p90_duration");
+        static final ColumnIdent P95_DURATION = new ColumnIdent("p95_duration");
+        static final ColumnIdent P99_DURATION = new ColumnIdent("p99_duration");
+    }
+
+    public static Map<ColumnIdent, RowCollectExpressionFactory<QueryStatsEntry>> expressions() {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory<QueryStatsEntry>>builder()
+            .put(Columns.FINGERPRINT,
+                () -> RowContextCollectorExpression.objToBytesRef(QueryStatsEntry::fingerprint))
+            .put(Columns.EXEC_COUNT,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::count))
+            .put(Columns.ERROR_COUNT,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::errorCount))
+            .put(Columns.LAST_EXECUTED,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::lastExecuted))
+            .put(Columns.AVG_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::avgDuration))
+            .put(Columns.MIN_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::minDuration))
+            .put(Columns.MAX_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::maxDuration))
+            .put(Columns.P50_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::p50))
+            .put(Columns.P90_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::p90))
+            .put(Columns.P95_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::p95))
+            .put(Columns.P99_DURATION,
+                () -> RowContextCollectorExpression.forFunction(QueryStatsEntry::p99))
+            .build();
+    }
+
+    private final ClusterService clusterService;
+    private final TableColumn nodesTableColumn;
+
+    SysQueryStatsTableInfo(ClusterService clusterService, SysNodesTableInfo sysNodesTableInfo) {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+                .register(Columns.FINGERPRINT, DataTypes.STRING)
+                .register(Columns.EXEC_COUNT, DataTypes.LONG)
+                .register(Columns.ERROR_COUNT, DataTypes.LONG)
+                .register(Columns.LAST_EXECUTED, DataTypes.TIMESTAMP)
+                .register(Columns.AVG_DURATION, DataTypes.DOUBLE)
+                .register(Columns.MIN_DURATION, DataTypes.LONG)
+                .register(Columns.MAX_DURATION, DataTypes.LONG)
+                .register(Columns.P50_DURATION, DataTypes.LONG)
+                .register(Columns.P90_DURATION, DataTypes.LONG)
+                .register(Columns.P95_DURATION, DataTypes.LONG)
+                .register(Columns.P99_DURATION, DataTypes.LONG)
+                .putInfoOnly(SysNodesTableInfo.SYS_COL_IDENT, SysNodesTableInfo.tableColumnInfo(IDENT)),
+            Collections.<ColumnIdent>emptyList());
+        this.clusterService = clusterService;
+        nodesTableColumn = sysNodesTableInfo.tableColumn();
+    }
+
+    @Nullable
+    @Override
+    public Reference getReference(ColumnIdent columnIdent) {
+        Reference info = super.getReference(columnIdent);
+        if (info == null) {
+            return nodesTableColumn.getReference(this.ident(), columnIdent);
+        }
+        return info;
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public Routing getRouting(WhereClause whereClause, @Nullable String preference, SessionContext sessionContext) {
+        return Routing.forTableOnAllNodes(IDENT, clusterService.state().nodes());
+    }
+}
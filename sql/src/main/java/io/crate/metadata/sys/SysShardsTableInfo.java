@@ -107,6 +107,13 @@ public class SysShardsTableInfo extends StaticTableInfo {
         static final ColumnIdent BLOB_PATH = new ColumnIdent("blob_path");
 
         static final ColumnIdent MIN_LUCENE_VERSION = new ColumnIdent("min_lucene_version");
+
+        static final ColumnIdent RESULT_CACHE = new ColumnIdent("result_cache");
+        static final ColumnIdent RESULT_CACHE_HITS = new ColumnIdent("result_cache", ImmutableList.of("hits"));
+        static final ColumnIdent RESULT_CACHE_MISSES = new ColumnIdent("result_cache", ImmutableList.of("misses"));
+        static final ColumnIdent RESULT_CACHE_EVICTIONS =
+            new ColumnIdent("result_cache", ImmutableList.of("evictions"));
+        static final ColumnIdent RESULT_CACHE_SIZE = new ColumnIdent("result_cache", ImmutableList.of("size"));
     }
 
     public static class ReferenceIdents {
@@ -133,6 +140,7 @@ public class SysShardsTableInfo extends StaticTableInfo {
         public static final ReferenceIdent PATH = new ReferenceIdent(IDENT, Columns.PATH);
         public static final ReferenceIdent BLOB_PATH = new ReferenceIdent(IDENT, Columns.BLOB_PATH);
         public static final ReferenceIdent MIN_LUCENE_VERSION = new ReferenceIdent(IDENT, Columns.MIN_LUCENE_VERSION);
+        public static final ReferenceIdent RESULT_CACHE = new ReferenceIdent(IDENT, Columns.RESULT_CACHE);
     }
 
     public static Map<ColumnIdent, RowCollectExpressionFactory<UnassignedShard>> unassignedShardsExpressions() {
@@ -187,6 +195,17 @@ public class SysShardsTableInfo extends StaticTableInfo {
                 () -> RowContextCollectorExpression.objToBytesRef(r -> null))
             .put(SysShardsTableInfo.Columns.MIN_LUCENE_VERSION,
                 () -> RowContextCollectorExpression.objToBytesRef(r -> null))
+            .put(SysShardsTableInfo.Columns.RESULT_CACHE, () -> new RowContextCollectorExpression<UnassignedShard, Object>() {
+                @Override
+                public Object value() {
+                    return null;
+                }
+
+                @Override
+                public ReferenceImplementation getChildImplementation(String name) {
+                    return this;
+                }
+            })
             .build();
     }
 
@@ -234,6 +253,12 @@ public class SysShardsTableInfo extends StaticTableInfo {
                 .register(Columns.BLOB_PATH, DataTypes.STRING)
 
                 .register(Columns.MIN_LUCENE_VERSION, StringType.INSTANCE)
+
+                .register(Columns.RESULT_CACHE, ObjectType.INSTANCE)
+                .register(Columns.RESULT_CACHE_HITS, LongType.INSTANCE)
+                .register(Columns.RESULT_CACHE_MISSES, LongType.INSTANCE)
+                .register(Columns.RESULT_CACHE_EVICTIONS, LongType.INSTANCE)
+                .register(Columns.RESULT_CACHE_SIZE, LongType.INSTANCE)
                 .putInfoOnly(SysNodesTableInfo.SYS_COL_IDENT, SysNodesTableInfo.tableColumnInfo(IDENT)),
             PRIMARY_KEY);
         this.service = service;
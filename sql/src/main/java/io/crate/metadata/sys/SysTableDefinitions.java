@@ -30,6 +30,7 @@ import io.crate.metadata.sys.SysJobsTableInfo;
 import io.crate.metadata.sys.SysNodeChecksTableInfo;
 import io.crate.metadata.sys.SysOperationsLogTableInfo;
 import io.crate.metadata.sys.SysOperationsTableInfo;
+import io.crate.metadata.sys.SysQueryStatsTableInfo;
 import io.crate.metadata.sys.SysRepositoriesTableInfo;
 import io.crate.metadata.sys.SysSnapshotsTableInfo;
 import io.crate.metadata.sys.SysSummitsTableInfo;
@@ -78,6 +79,10 @@ public class SysTableDefinitions {
             () -> completedFuture(jobsLogs.operationsLog()),
             SysOperationsLogTableInfo.expressions()
         ));
+        tableDefinitions.put(SysQueryStatsTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(jobsLogs.queryStats()),
+            SysQueryStatsTableInfo.expressions()
+        ));
 
         SysChecker<SysCheck> sysChecker = new SysChecker<>(sysChecks);
         tableDefinitions.put(SysChecksTableInfo.IDENT, new StaticTableDefinition<>(
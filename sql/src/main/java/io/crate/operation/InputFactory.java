@@ -24,8 +24,11 @@ package io.crate.operation;
 
 import com.carrotsearch.hppc.IntObjectHashMap;
 import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
 import io.crate.analyze.symbol.Aggregation;
+import io.crate.analyze.symbol.Function;
 import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.SymbolVisitor;
 import io.crate.data.Input;
@@ -33,11 +36,17 @@ import io.crate.data.Row;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
+import io.crate.metadata.Scalar;
 import io.crate.operation.aggregation.AggregationFunction;
 import io.crate.operation.collect.CollectExpression;
 import io.crate.operation.collect.InputCollectExpression;
 import io.crate.operation.reference.ReferenceResolver;
+import io.crate.operation.vector.ColumnVector;
+import io.crate.operation.vector.FunctionVectorExpression;
+import io.crate.operation.vector.VectorExpression;
+import io.crate.operation.vector.VectorizedScalar;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -68,6 +77,11 @@ import java.util.List;
  *      {@link #ctxForRefsWithInputCols(ReferenceResolver)}.
  *
  * </p>
+ *
+ * <p>
+ *     Operators which process rows in batches can use {@link #ctxForVectors(Iterable, int)} to evaluate
+ *     symbols containing InputColumns using {@link ColumnVector}s instead of boxed values.
+ * </p>
  */
 public class InputFactory {
 
@@ -115,6 +129,28 @@ public class InputFactory {
         );
     }
 
+    /**
+     * Create {@link VectorExpression}s for symbols which may contain InputColumns.
+     *
+     * @param batchSize the maximum number of rows per batch
+     * @return the context or null if any of the symbols cannot be evaluated in vectorized form.
+     *         E.g. because it contains a column of a type which isn't supported by {@link ColumnVector} or
+     *         a function which doesn't implement {@link VectorizedScalar}.
+     */
+    @Nullable
+    public VectorContext ctxForVectors(Iterable<? extends Symbol> symbols, int batchSize) {
+        VectorContext context = new VectorContext(batchSize);
+        VectorVisitor visitor = new VectorVisitor(functions, context);
+        for (Symbol symbol : symbols) {
+            VectorExpression expression = visitor.process(symbol, null);
+            if (expression == null || expression == VectorVisitor.NO_VECTOR) {
+                return null;
+            }
+            context.topLevelExpressions.add(expression);
+        }
+        return context;
+    }
+
     public static class Context<T extends Input<?>> {
 
         private final List<Input<?>> topLevelInputs = new ArrayList<>();
@@ -185,6 +221,34 @@ public class InputFactory {
         }
     }
 
+    public static class VectorContext {
+
+        private final int batchSize;
+        private final List<VectorExpression> topLevelExpressions = new ArrayList<>();
+        private final IntObjectMap<ColumnVector> inputColumns = new IntObjectHashMap<>();
+
+        private VectorContext(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int batchSize() {
+            return batchSize;
+        }
+
+        public List<VectorExpression> topLevelExpressions() {
+            return topLevelExpressions;
+        }
+
+        /**
+         * Load the values of the InputColumns from the row into the vectors at the given position.
+         */
+        public void setRow(int position, Row row) {
+            for (IntObjectCursor<ColumnVector> cursor : inputColumns) {
+                cursor.value.set(position, row.get(cursor.key));
+            }
+        }
+    }
+
     private static class InputColumnVisitor extends BaseImplementationSymbolVisitor<Void> {
 
         private final List<CollectExpression<Row, ?>> expressions;
@@ -234,6 +298,86 @@ public class InputFactory {
         }
     }
 
+    /**
+     * Returns null if a symbol can't be vectorized
+     */
+    private static class VectorVisitor extends SymbolVisitor<Void, VectorExpression> {
+
+        /**
+         * Used for literals of a type which isn't supported by {@link ColumnVector}.
+         * Only valid as argument of a function whose {@link VectorizedScalar#vectorize(List)} accepted it.
+         */
+        private static final VectorExpression NO_VECTOR = size -> null;
+
+        private final Functions functions;
+        private final VectorContext context;
+
+        VectorVisitor(Functions functions, VectorContext context) {
+            this.functions = functions;
+            this.context = context;
+        }
+
+        @Override
+        public VectorExpression visitFunction(Function function, Void context) {
+            if (!ColumnVector.supports(function.valueType())) {
+                return null;
+            }
+            FunctionImplementation impl = functions.getQualified(function.info().ident());
+            if (!(impl instanceof Scalar)) {
+                return null;
+            }
+            List<Symbol> arguments = function.arguments();
+            Scalar<?, ?> scalar = ((Scalar<?, ?>) impl).compile(arguments);
+            if (!(scalar instanceof VectorizedScalar)) {
+                return null;
+            }
+            VectorizedScalar.Kernel kernel = ((VectorizedScalar) scalar).vectorize(arguments);
+            if (kernel == null) {
+                return null;
+            }
+            VectorExpression[] argumentExpressions = new VectorExpression[arguments.size()];
+            for (int i = 0; i < argumentExpressions.length; i++) {
+                VectorExpression argument = process(arguments.get(i), context);
+                if (argument == null) {
+                    return null;
+                }
+                argumentExpressions[i] = argument;
+            }
+            return new FunctionVectorExpression(
+                kernel, argumentExpressions, ColumnVector.create(function.valueType(), this.context.batchSize));
+        }
+
+        @Override
+        public VectorExpression visitLiteral(Literal symbol, Void context) {
+            if (!ColumnVector.supports(symbol.valueType())) {
+                return NO_VECTOR;
+            }
+            ColumnVector vector = ColumnVector.create(symbol.valueType(), this.context.batchSize);
+            vector.fill(symbol.value());
+            return size -> vector;
+        }
+
+        @Override
+        public VectorExpression visitInputColumn(InputColumn inputColumn, Void context) {
+            if (!ColumnVector.supports(inputColumn.valueType())) {
+                return null;
+            }
+            int index = inputColumn.index();
+            ColumnVector vector = this.context.inputColumns.get(index);
+            if (vector == null) {
+                vector = ColumnVector.create(inputColumn.valueType(), this.context.batchSize);
+                this.context.inputColumns.put(index, vector);
+            }
+            ColumnVector finalVector = vector;
+            return size -> finalVector;
+        }
+
+        @Override
+        protected VectorExpression visitSymbol(Symbol symbol, Void context) {
+            return null;
+        }
+    }
+
     private static class RefVisitor<T extends Input<?>> extends BaseImplementationSymbolVisitor<Void> {
 
         private final ReferenceResolver<T> referenceResolver;
@@ -22,6 +22,7 @@
 package io.crate.operation;
 
 import io.crate.planner.Plan;
+import io.crate.planner.ResultDescription;
 import io.crate.planner.node.dql.Collect;
 import io.crate.planner.node.dql.CollectPhase;
 import io.crate.planner.node.dql.RoutedCollectPhase;
@@ -36,6 +37,13 @@ public class Paging {
     public static int PAGE_SIZE = 500_000;
     private static final double OVERHEAD_FACTOR = 1.5;
 
+    /**
+     * Below this number of rows per node it's cheaper to send all rows of an ordered result at once than to do
+     * additional paging round trips. It's also the maximum page size of a node if an ordered result is only paged
+     * because it exceeds this threshold.
+     */
+    static final int ORDERED_PAGING_THRESHOLD = 10_000;
+
     public static int getWeightedPageSize(@Nullable Integer limit, double weight) {
         return getWeightedPageSize(limit, weight, OVERHEAD_FACTOR);
     }
@@ -82,6 +90,44 @@ public class Paging {
         return maxRowsPerNode == -1 || maxRowsPerNode > PAGE_SIZE;
     }
 
+    /**
+     * Like {@link #shouldPage(int)} but also pages pre-sorted results of multiple nodes if they exceed
+     * {@link #ORDERED_PAGING_THRESHOLD} rows per node.
+     * <p>
+     * The sorted merge on the handler only requests another page from the node whose page it consumed, so a
+     * query like {@code ORDER BY x LIMIT 10 OFFSET 100000} transfers roughly limit + offset rows in total
+     * instead of limit + offset rows per node. The nodes resume their shard searches using search-after.
+     * To benefit from this the pages of the nodes are limited to {@link #ORDERED_PAGING_THRESHOLD} rows,
+     * see {@link #updateNodePageSizeHint(Plan, ResultDescription)}.
+     */
+    public static boolean shouldPage(ResultDescription resultDescription) {
+        int maxRowsPerNode = resultDescription.maxRowsPerNode();
+        if (shouldPage(maxRowsPerNode)) {
+            return true;
+        }
+        return resultDescription.orderBy() != null &&
+               resultDescription.nodeIds().size() > 1 &&
+               maxRowsPerNode > ORDERED_PAGING_THRESHOLD;
+    }
+
+    /**
+     * Like {@link #updateNodePageSizeHint(Plan, int)} with the max rows per node of the result, but limits the page
+     * size of the nodes to {@link #ORDERED_PAGING_THRESHOLD} if the result is only paged because it's ordered.
+     */
+    public static void updateNodePageSizeHint(Plan subPlan, ResultDescription resultDescription) {
+        int maxRowsPerNode = resultDescription.maxRowsPerNode();
+        updateNodePageSizeHint(subPlan, maxRowsPerNode);
+        if (shouldPage(maxRowsPerNode) || !(subPlan instanceof Collect)) {
+            return;
+        }
+        CollectPhase collectPhase = ((Collect) subPlan).collectPhase();
+        if (collectPhase instanceof RoutedCollectPhase) {
+            RoutedCollectPhase routedCollectPhase = (RoutedCollectPhase) collectPhase;
+            routedCollectPhase.nodePageSizeHint(
+                Math.min(routedCollectPhase.nodePageSizeHint(), ORDERED_PAGING_THRESHOLD));
+        }
+    }
+
     public static void updateNodePageSizeHint(Plan subPlan, int nodePageSize) {
         if (!(subPlan instanceof Collect) || nodePageSize == -1) {
             return;
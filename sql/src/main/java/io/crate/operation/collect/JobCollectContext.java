@@ -29,6 +29,7 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchConsumer;
 import io.crate.data.ListenableBatchConsumer;
 import io.crate.jobs.AbstractExecutionSubContext;
+import io.crate.jobs.OperationStats;
 import io.crate.metadata.RowGranularity;
 import io.crate.planner.node.dql.CollectPhase;
 import io.crate.planner.node.dql.RoutedCollectPhase;
@@ -63,13 +64,14 @@ public class JobCollectContext extends AbstractExecutionSubContext {
                              MapSideDataCollectOperation collectOperation,
                              RamAccountingContext queryPhaseRamAccountingContext,
                              BatchConsumer consumer,
-                             SharedShardContexts sharedShardContexts) {
-        super(collectPhase.phaseId(), LOGGER);
+                             SharedShardContexts sharedShardContexts,
+                             OperationStats stats) {
+        super(collectPhase.phaseId(), LOGGER, stats);
         this.collectPhase = collectPhase;
         this.collectOperation = collectOperation;
         this.queryPhaseRamAccountingContext = queryPhaseRamAccountingContext;
         this.sharedShardContexts = sharedShardContexts;
-        this.consumer = new ListenableBatchConsumer(consumer);
+        this.consumer = new ListenableBatchConsumer(stats.track(consumer));
         this.consumer.completionFuture().whenComplete((result, ex) -> close(ex));
         this.threadPoolName = threadPoolName(collectPhase);
     }
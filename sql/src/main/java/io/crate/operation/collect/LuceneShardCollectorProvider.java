@@ -21,28 +21,51 @@
 
 package io.crate.operation.collect;
 
+import com.google.common.collect.Iterables;
 import io.crate.action.job.SharedShardContext;
 import io.crate.action.sql.query.LuceneSortGenerator;
+import io.crate.analyze.WhereClause;
+import io.crate.analyze.symbol.Aggregation;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.Symbols;
+import io.crate.data.BatchConsumer;
+import io.crate.data.Bucket;
+import io.crate.data.CollectingBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
 import io.crate.executor.transport.TransportActionProvider;
 import io.crate.lucene.FieldTypeLookup;
 import io.crate.lucene.LuceneQueryBuilder;
+import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
 import io.crate.metadata.Schemas;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.shard.ShardReferenceResolver;
+import io.crate.operation.AggregationContext;
 import io.crate.operation.InputFactory;
 import io.crate.operation.NodeJobsCounter;
+import io.crate.operation.aggregation.AggregationFunction;
 import io.crate.operation.collect.collectors.CollectorFieldsVisitor;
 import io.crate.operation.collect.collectors.CrateDocCollectorBuilder;
+import io.crate.operation.collect.collectors.IndexStatsAggregator;
 import io.crate.operation.collect.collectors.LuceneOrderedDocCollector;
 import io.crate.operation.collect.collectors.OptimizeQueryForSearchAfter;
 import io.crate.operation.collect.collectors.OrderedDocCollector;
+import io.crate.operation.collect.collectors.OrdinalGroupingCollector;
 import io.crate.operation.reference.doc.lucene.CollectorContext;
 import io.crate.operation.reference.doc.lucene.LuceneCollectorExpression;
 import io.crate.operation.reference.doc.lucene.LuceneReferenceResolver;
+import io.crate.operation.reference.doc.lucene.OrdinalColumnReference;
 import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.projection.GroupProjection;
+import io.crate.planner.projection.Projection;
+import io.crate.planner.projection.Projections;
+import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.Query;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
@@ -52,6 +75,10 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Supplier;
 
 public class LuceneShardCollectorProvider extends ShardCollectorProvider {
@@ -63,6 +90,10 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     private final IndexShard indexShard;
     private final DocInputFactory docInputFactory;
     private final FieldTypeLookup fieldTypeLookup;
+    private final Functions functions;
+    private final InputFactory inputFactory;
+    private final LuceneReferenceResolver referenceResolver;
+    private final ShardResultCache resultCache;
 
     public LuceneShardCollectorProvider(Schemas schemas,
                                         LuceneQueryBuilder luceneQueryBuilder,
@@ -72,22 +103,79 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                                         ThreadPool threadPool,
                                         Settings settings,
                                         TransportActionProvider transportActionProvider,
+                                        ShardResultCache resultCache,
                                         IndexShard indexShard) {
-        super(clusterService, nodeJobsCounter, ShardReferenceResolver.create(clusterService, schemas, indexShard),
+        super(clusterService, nodeJobsCounter,
+            ShardReferenceResolver.create(clusterService, schemas, resultCache, indexShard),
             functions, threadPool, settings, transportActionProvider, indexShard);
+        this.resultCache = resultCache;
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.indexShard = indexShard;
         this.localNodeId = () -> clusterService.localNode().getId();
         fieldTypeLookup = indexShard.mapperService()::fullName;
-        this.docInputFactory = new DocInputFactory(functions,
-            fieldTypeLookup,
-            new LuceneReferenceResolver(fieldTypeLookup, indexShard.indexSettings()));
+        this.functions = functions;
+        this.inputFactory = new InputFactory(functions);
+        this.referenceResolver = new LuceneReferenceResolver(fieldTypeLookup, indexShard.indexSettings());
+        this.docInputFactory = new DocInputFactory(functions, fieldTypeLookup, referenceResolver);
+    }
+
+    /**
+     * Same as {@link ShardCollectorProvider#getCollectorBuilder(RoutedCollectPhase, boolean, JobCollectContext)},
+     * but the result of the shard projections is served from the {@link ShardResultCache} if possible.
+     */
+    @Override
+    public CrateCollector.Builder getCollectorBuilder(RoutedCollectPhase collectPhase,
+                                                      boolean requiresScroll,
+                                                      JobCollectContext jobCollectContext) throws Exception {
+        SharedShardContext sharedShardContext =
+            jobCollectContext.sharedShardContexts().getOrCreateContext(indexShard.shardId());
+        // the collectors acquire the searcher from the same shared context, so they read from the reader whose
+        // version is part of the key. The reference is kept until the phase completes; releasing it here would
+        // close the reader if it's the last one, e.g. on a cache hit where no collector acquires the searcher.
+        Engine.Searcher searcher = sharedShardContext.acquireSearcher();
+        releaseOnCompletion(jobCollectContext, searcher);
+        ShardResultCache.Key key = resultCache.key(indexShard.shardId(), searcher.reader(), collectPhase);
+        if (key == null) {
+            return super.getCollectorBuilder(collectPhase, requiresScroll, jobCollectContext);
+        }
+        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
+        List<? extends Symbol> outputs = Iterables.getLast(shardProjections).outputs();
+        Bucket cachedRows = resultCache.get(key);
+        if (cachedRows != null) {
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("[{}] using cached result of phase {}", indexShard.shardId(), collectPhase.phaseId());
+            }
+            return RowsCollector.builder(cachedRows, outputs.size());
+        }
+        CrateCollector.Builder builder = super.getCollectorBuilder(collectPhase, requiresScroll, jobCollectContext);
+        return new CrateCollector.Builder() {
+            @Override
+            public CrateCollector build(BatchConsumer batchConsumer) {
+                return builder.build(batchConsumer);
+            }
+
+            @Override
+            public BatchConsumer applyProjections(BatchConsumer consumer) {
+                return builder.applyProjections(resultCache.cachingConsumer(
+                    key,
+                    Symbols.streamerArray(outputs),
+                    jobCollectContext.queryPhaseRamAccountingContext(),
+                    consumer
+                ));
+            }
+        };
     }
 
     @Override
     protected CrateCollector.Builder getBuilder(RoutedCollectPhase collectPhase,
                                                 boolean requiresScroll,
                                                 JobCollectContext jobCollectContext) {
+        return getDocCollectorBuilder(collectPhase, jobCollectContext, docInputFactory);
+    }
+
+    private CrateDocCollectorBuilder getDocCollectorBuilder(RoutedCollectPhase collectPhase,
+                                                            JobCollectContext jobCollectContext,
+                                                            DocInputFactory docInputFactory) {
         ShardId shardId = indexShard.shardId();
         SharedShardContext sharedShardContext = jobCollectContext.sharedShardContexts().getOrCreateContext(shardId);
         Engine.Searcher searcher = sharedShardContext.acquireSearcher();
@@ -120,6 +208,130 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         }
     }
 
+    @Nullable
+    @Override
+    protected CrateCollector.Builder getGroupingBuilder(RoutedCollectPhase collectPhase,
+                                                        GroupProjection groupProjection,
+                                                        JobCollectContext jobCollectContext) {
+        Reference keyRef = getOrdinalsKey(collectPhase, groupProjection);
+        if (keyRef == null) {
+            return null;
+        }
+        String keyColumn = keyRef.ident().columnIdent().fqn();
+        OrdinalColumnReference keyExpression = new OrdinalColumnReference(keyColumn, fieldTypeLookup.get(keyColumn));
+        DocInputFactory ordinalsDocInputFactory = new DocInputFactory(
+            functions,
+            fieldTypeLookup,
+            ref -> ref.equals(keyRef) ? keyExpression : referenceResolver.getImplementation(ref)
+        );
+        CrateCollector.Builder docCollectorBuilder =
+            getDocCollectorBuilder(collectPhase, jobCollectContext, ordinalsDocInputFactory);
+
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForAggregations();
+        ctx.add(groupProjection.values());
+        List<AggregationContext> aggregations = ctx.aggregations();
+        AggregationFunction[] aggregationFunctions = new AggregationFunction[aggregations.size()];
+        Input[][] inputs = new Input[aggregations.size()][];
+        for (int i = 0; i < aggregationFunctions.length; i++) {
+            aggregationFunctions[i] = aggregations.get(i).function();
+            inputs[i] = aggregations.get(i).inputs();
+        }
+        OrdinalGroupingCollector collector = new OrdinalGroupingCollector(
+            keyExpression,
+            Iterables.toArray(ctx.expressions(), CollectExpression.class),
+            aggregationFunctions,
+            groupProjection.mode(),
+            inputs,
+            jobCollectContext.queryPhaseRamAccountingContext()
+        );
+        int numCols = groupProjection.outputs().size();
+        return new CrateCollector.Builder() {
+            @Override
+            public CrateCollector build(BatchConsumer batchConsumer) {
+                return docCollectorBuilder.build(batchConsumer);
+            }
+
+            @Override
+            public BatchConsumer applyProjections(BatchConsumer consumer) {
+                return (iterator, failure) -> {
+                    if (failure == null) {
+                        consumer.accept(CollectingBatchIterator.newInstance(iterator, collector, numCols), null);
+                    } else {
+                        consumer.accept(iterator, failure);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return the reference of the grouping key if the rows can be grouped by the ordinals of the key or null.
+     */
+    @Nullable
+    private Reference getOrdinalsKey(RoutedCollectPhase collectPhase, GroupProjection groupProjection) {
+        List<Symbol> keys = groupProjection.keys();
+        if (keys.size() != 1 || !(keys.get(0) instanceof InputColumn)) {
+            return null;
+        }
+        Symbol key = collectPhase.toCollect().get(((InputColumn) keys.get(0)).index());
+        if (!(key instanceof Reference) || !key.valueType().equals(DataTypes.STRING)) {
+            return null;
+        }
+        Reference keyRef = (Reference) key;
+        ColumnIdent keyColumn = keyRef.ident().columnIdent();
+        if (keyRef.granularity() != RowGranularity.DOC
+            || keyRef.indexType() != Reference.IndexType.NOT_ANALYZED
+            || DocSysColumns.COLUMN_IDENTS.containsKey(keyColumn)
+            || fieldTypeLookup.get(keyColumn.fqn()) == null) {
+            return null;
+        }
+        return keyRef;
+    }
+
+    @Nullable
+    @Override
+    protected Object[] aggregateFromIndex(RoutedCollectPhase collectPhase,
+                                          List<Aggregation> aggregations,
+                                          JobCollectContext jobCollectContext) throws IOException {
+        WhereClause whereClause = collectPhase.whereClause();
+        if (!IndexStatsAggregator.supports(aggregations, collectPhase.toCollect(), !whereClause.hasQuery())) {
+            return null;
+        }
+        ShardId shardId = indexShard.shardId();
+        SharedShardContext sharedShardContext = jobCollectContext.sharedShardContexts().getOrCreateContext(shardId);
+        Engine.Searcher searcher = sharedShardContext.acquireSearcher();
+        releaseOnCompletion(jobCollectContext, searcher);
+        Query query = null;
+        if (whereClause.hasQuery()) {
+            IndexService indexService = sharedShardContext.indexService();
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                whereClause,
+                indexService.mapperService(),
+                indexService.newQueryShardContext(shardId.getId(), searcher.reader(), System::currentTimeMillis),
+                indexService.fieldData(),
+                indexService.cache()
+            );
+            if (queryContext.minScore() != null) {
+                return null;
+            }
+            query = queryContext.query();
+        }
+        Object[] row = IndexStatsAggregator.aggregate(searcher.searcher(), query, aggregations, collectPhase.toCollect());
+        if (row != null && LOGGER.isTraceEnabled()) {
+            LOGGER.trace("[{}] computed aggregations using index statistics", shardId);
+        }
+        return row;
+    }
+
+    /**
+     * Hands the reference of a searcher acquired from the {@link SharedShardContext} over to the collect phase.
+     * Closing it right away could release the reader while the collectors or the fetch phase of the job,
+     * which acquire it from the same context later on, still need it.
+     */
+    private static void releaseOnCompletion(JobCollectContext jobCollectContext, Engine.Searcher searcher) {
+        jobCollectContext.completionFuture().whenComplete((state, t) -> searcher.close());
+    }
+
     @Override
     public OrderedDocCollector getOrderedCollector(RoutedCollectPhase phase,
                                                    SharedShardContext sharedShardContext,
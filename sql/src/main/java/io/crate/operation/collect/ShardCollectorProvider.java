@@ -24,9 +24,12 @@ package io.crate.operation.collect;
 
 import io.crate.action.job.SharedShardContext;
 import io.crate.analyze.EvaluatingNormalizer;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.analyze.symbol.Aggregation;
 import io.crate.data.BatchConsumer;
 import io.crate.data.Input;
 import io.crate.data.Row;
+import io.crate.data.RowN;
 import io.crate.executor.transport.TransportActionProvider;
 import io.crate.metadata.Functions;
 import io.crate.metadata.ReferenceImplementation;
@@ -39,6 +42,8 @@ import io.crate.operation.projectors.ProjectionToProjectorVisitor;
 import io.crate.operation.projectors.ProjectorFactory;
 import io.crate.operation.reference.ReferenceResolver;
 import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.projection.AggregationProjection;
+import io.crate.planner.projection.GroupProjection;
 import io.crate.planner.projection.Projection;
 import io.crate.planner.projection.Projections;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -47,7 +52,9 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class ShardCollectorProvider {
@@ -121,16 +128,21 @@ public abstract class ShardCollectorProvider {
         assert collectPhase.orderBy() ==
                null : "getDocCollector shouldn't be called if there is an orderBy on the collectPhase";
         RoutedCollectPhase normalizedCollectNode = collectPhase.normalize(shardNormalizer, null);
+        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
 
         final CrateCollector.Builder builder;
         if (normalizedCollectNode.whereClause().noMatch()) {
             builder = RowsCollector.emptyBuilder(collectPhase.toCollect().size());
         } else {
             assert normalizedCollectNode.maxRowGranularity() == RowGranularity.DOC : "granularity must be DOC";
+            CrateCollector.Builder projectedBuilder =
+                getProjectedBuilder(normalizedCollectNode, shardProjections, jobCollectContext);
+            if (projectedBuilder != null) {
+                return projectedBuilder;
+            }
             builder = getBuilder(normalizedCollectNode, requiresScroll, jobCollectContext);
         }
 
-        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
         if (shardProjections.isEmpty()) {
             return builder;
         } else {
@@ -154,6 +166,66 @@ public abstract class ShardCollectorProvider {
         }
     }
 
+    /**
+     * Create a builder for a collector which already emits the result of the shard projections.
+     *
+     * @return the builder or null if the shard projections have to be applied on the collected rows.
+     */
+    @Nullable
+    private CrateCollector.Builder getProjectedBuilder(RoutedCollectPhase collectPhase,
+                                                       Collection<? extends Projection> shardProjections,
+                                                       JobCollectContext jobCollectContext) throws IOException {
+        if (shardProjections.size() != 1) {
+            return null;
+        }
+        Projection projection = shardProjections.iterator().next();
+        if (projection instanceof AggregationProjection) {
+            AggregationProjection aggregationProjection = (AggregationProjection) projection;
+            if (aggregationProjection.mode() != AggregateMode.ITER_PARTIAL) {
+                return null;
+            }
+            Object[] row = aggregateFromIndex(collectPhase, aggregationProjection.aggregations(), jobCollectContext);
+            if (row == null) {
+                return null;
+            }
+            return RowsCollector.builder(Collections.singletonList(new RowN(row)), row.length);
+        }
+        if (projection instanceof GroupProjection) {
+            GroupProjection groupProjection = (GroupProjection) projection;
+            if (groupProjection.mode() == AggregateMode.PARTIAL_FINAL) {
+                return null;
+            }
+            return getGroupingBuilder(collectPhase, groupProjection, jobCollectContext);
+        }
+        return null;
+    }
+
+    /**
+     * Compute the partial aggregation states of a global aggregation without collecting the matching rows.
+     *
+     * @return the row containing the partial states or null if the aggregations have to be computed
+     *         by collecting the rows.
+     */
+    @Nullable
+    protected Object[] aggregateFromIndex(RoutedCollectPhase collectPhase,
+                                          List<Aggregation> aggregations,
+                                          JobCollectContext jobCollectContext) throws IOException {
+        return null;
+    }
+
+    /**
+     * Create a builder for a collector which groups and aggregates the matching documents itself, instead of
+     * materializing every row for a {@link io.crate.operation.projectors.GroupingProjector}.
+     *
+     * @return the builder or null if the rows have to be grouped by the {@link GroupProjection}.
+     */
+    @Nullable
+    protected CrateCollector.Builder getGroupingBuilder(RoutedCollectPhase collectPhase,
+                                                        GroupProjection groupProjection,
+                                                        JobCollectContext jobCollectContext) {
+        return null;
+    }
+
     protected abstract CrateCollector.Builder getBuilder(RoutedCollectPhase collectPhase,
                                                          boolean requiresScroll,
                                                          JobCollectContext jobCollectContext);
@@ -0,0 +1,396 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.crate.Streamer;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.analyze.symbol.SymbolVisitors;
+import io.crate.analyze.symbol.Symbols;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.data.Bucket;
+import io.crate.data.ForwardingBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowBridging;
+import io.crate.executor.transport.StreamBucket;
+import io.crate.metadata.FunctionInfo;
+import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.projection.FilterProjection;
+import io.crate.planner.projection.Projection;
+import io.crate.planner.projection.ProjectionType;
+import io.crate.planner.projection.Projections;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.shard.ShardId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A node wide LRU cache for the results of the shard-level projections of collect phases.
+ *
+ * <p>
+ * Only phases which reduce the collected rows using an aggregation or grouping on the shard are cached,
+ * as their results are small compared to the work needed to compute them.
+ * An entry is keyed on the shard, the version of the reader used to collect the rows
+ * and the serialized contents of the phase (toCollect, whereClause and shard projections).
+ * Any change to the shard (indexing, deletes, merges) results in a new reader version once the shard
+ * is refreshed, so stale entries are never hit and are eventually evicted.
+ * </p>
+ *
+ * <p>
+ * Rows are stored serialized as {@link StreamBucket}. This keeps the RAM accounting exact and ensures that every hit
+ * receives its own copy of mutable values like partial aggregation states.
+ * </p>
+ */
+@Singleton
+public class ShardResultCache {
+
+    private static final Logger LOGGER = Loggers.getLogger(ShardResultCache.class);
+
+    public static final CrateSetting<ByteSizeValue> SIZE_SETTING = CrateSetting.of(Setting.memorySizeSetting(
+        "indices.sql_result_cache.size", "1%", Setting.Property.NodeScope), DataTypes.STRING);
+
+    /**
+     * Rough estimate of the memory used by the key and entry objects in addition to the serialized bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private static final Set<ProjectionType> CACHEABLE_PROJECTIONS = EnumSet.of(
+        ProjectionType.AGGREGATION,
+        ProjectionType.GROUP,
+        ProjectionType.FILTER,
+        ProjectionType.EVAL,
+        ProjectionType.TOPN,
+        ProjectionType.TOPN_ORDERED
+    );
+
+    private static final Predicate<Symbol> IS_NON_DETERMINISTIC = s -> s instanceof Function
+        && !((Function) s).info().features().contains(FunctionInfo.Feature.DETERMINISTIC);
+
+    private final ConcurrentMap<ShardId, Stats> shardStats = new ConcurrentHashMap<>();
+    @Nullable
+    private final Cache<Key, StreamBucket> cache;
+    private final long maxEntrySizeInBytes;
+
+    @Inject
+    public ShardResultCache(Settings settings) {
+        this(SIZE_SETTING.setting().get(settings).getBytes());
+    }
+
+    @VisibleForTesting
+    ShardResultCache(long maxSizeInBytes) {
+        if (maxSizeInBytes <= 0) {
+            cache = null;
+            maxEntrySizeInBytes = 0;
+        } else {
+            cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSizeInBytes)
+                .weigher(ShardResultCache::weigh)
+                .removalListener(this::onRemoval)
+                .build();
+            // a single large result must not flush the whole cache
+            maxEntrySizeInBytes = maxSizeInBytes / 16;
+        }
+    }
+
+    /**
+     * Create the key to lookup the result of the given phase.
+     *
+     * @param reader the reader which is used to collect the rows of the phase
+     * @return the key or null if the result of the phase must not be cached.
+     */
+    @Nullable
+    public Key key(ShardId shardId, IndexReader reader, RoutedCollectPhase collectPhase) throws IOException {
+        if (cache == null || !(reader instanceof DirectoryReader) || !isCacheable(collectPhase)) {
+            return null;
+        }
+        BytesStreamOutput out = new BytesStreamOutput();
+        Symbols.toStream(collectPhase.toCollect(), out);
+        collectPhase.whereClause().writeTo(out);
+        for (Projection projection : Projections.shardProjections(collectPhase.projections())) {
+            Projection.toStream(projection, out);
+        }
+        return new Key(shardId, ((DirectoryReader) reader).getVersion(), out.bytes());
+    }
+
+    private static boolean isCacheable(RoutedCollectPhase collectPhase) {
+        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
+        boolean reducesRows = false;
+        for (Projection projection : shardProjections) {
+            ProjectionType type = projection.projectionType();
+            if (!CACHEABLE_PROJECTIONS.contains(type)) {
+                return false;
+            }
+            reducesRows |= type == ProjectionType.AGGREGATION || type == ProjectionType.GROUP;
+            if (containsNonDeterministic(projection.outputs())) {
+                return false;
+            }
+            if (projection instanceof FilterProjection
+                && SymbolVisitors.any(IS_NON_DETERMINISTIC, ((FilterProjection) projection).query())) {
+                return false;
+            }
+        }
+        if (!reducesRows || containsNonDeterministic(collectPhase.toCollect())) {
+            return false;
+        }
+        Symbol query = collectPhase.whereClause().query();
+        return query == null || !SymbolVisitors.any(IS_NON_DETERMINISTIC, query);
+    }
+
+    private static boolean containsNonDeterministic(Collection<? extends Symbol> symbols) {
+        for (Symbol symbol : symbols) {
+            if (SymbolVisitors.any(IS_NON_DETERMINISTIC, symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the cached rows or null if there is no entry for the key.
+     */
+    @Nullable
+    public Bucket get(Key key) {
+        assert cache != null : "key must only be created if the cache is enabled";
+        StreamBucket bucket = cache.getIfPresent(key);
+        Stats stats = stats(key.shardId);
+        if (bucket == null) {
+            stats.misses.increment();
+        } else {
+            stats.hits.increment();
+        }
+        return bucket;
+    }
+
+    /**
+     * Create a consumer which caches all rows of the BatchIterator it receives under the given key,
+     * once the BatchIterator has been fully consumed.
+     *
+     * @param streamers streamers of the rows emitted by the BatchIterator
+     * @param ramAccountingContext used to account the rows while they're collected
+     */
+    public BatchConsumer cachingConsumer(Key key,
+                                         Streamer<?>[] streamers,
+                                         RamAccountingContext ramAccountingContext,
+                                         BatchConsumer consumer) {
+        return (iterator, failure) -> {
+            if (failure == null) {
+                consumer.accept(
+                    new CachingBatchIterator(iterator, key, new StreamBucket.Builder(streamers, ramAccountingContext)),
+                    null);
+            } else {
+                consumer.accept(iterator, failure);
+            }
+        };
+    }
+
+    @VisibleForTesting
+    void put(Key key, StreamBucket bucket) {
+        assert cache != null : "key must only be created if the cache is enabled";
+        stats(key.shardId).sizeInBytes.add(weigh(key, bucket));
+        cache.put(key, bucket);
+    }
+
+    /**
+     * Remove all entries and statistics of the shard. Must be called if the shard is closed.
+     */
+    public void clear(ShardId shardId) {
+        shardStats.remove(shardId);
+        if (cache != null) {
+            cache.asMap().keySet().removeIf(key -> key.shardId.equals(shardId));
+        }
+    }
+
+    /**
+     * @return the statistics of the shard, all values are 0 if the shard didn't use the cache yet.
+     */
+    public Stats stats(ShardId shardId) {
+        return shardStats.computeIfAbsent(shardId, k -> new Stats());
+    }
+
+    private static int weigh(Key key, StreamBucket bucket) {
+        return ENTRY_OVERHEAD + key.phase.length() + (int) bucket.sizeInBytes();
+    }
+
+    private void onRemoval(RemovalNotification<Key, StreamBucket> notification) {
+        Key key = notification.getKey();
+        StreamBucket bucket = notification.getValue();
+        if (key == null || bucket == null) {
+            return;
+        }
+        Stats stats = shardStats.get(key.shardId);
+        if (stats != null) {
+            stats.sizeInBytes.add(-weigh(key, bucket));
+            if (notification.wasEvicted()) {
+                stats.evictions.increment();
+            }
+        }
+    }
+
+    public static final class Key {
+
+        private final ShardId shardId;
+        private final long readerVersion;
+        private final BytesReference phase;
+
+        Key(ShardId shardId, long readerVersion, BytesReference phase) {
+            this.shardId = shardId;
+            this.readerVersion = readerVersion;
+            this.phase = phase;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return readerVersion == key.readerVersion &&
+                   shardId.equals(key.shardId) &&
+                   phase.equals(key.phase);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shardId, readerVersion, phase);
+        }
+    }
+
+    public static final class Stats {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder sizeInBytes = new LongAdder();
+
+        public long hits() {
+            return hits.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long evictions() {
+            return evictions.sum();
+        }
+
+        public long sizeInBytes() {
+            return sizeInBytes.sum();
+        }
+    }
+
+    /**
+     * Serializes the rows while they are consumed and puts them into the cache once the source
+     * is exhausted. Caching is abandoned if the iterator is repeated or the result gets too large.
+     */
+    private class CachingBatchIterator extends ForwardingBatchIterator {
+
+        private final BatchIterator delegate;
+        private final Key key;
+        private final Row row;
+        @Nullable
+        private StreamBucket.Builder builder;
+        private volatile boolean killed = false;
+
+        CachingBatchIterator(BatchIterator delegate, Key key, StreamBucket.Builder builder) {
+            this.delegate = delegate;
+            this.key = key;
+            this.builder = builder;
+            this.row = RowBridging.toRow(delegate.rowData());
+        }
+
+        @Override
+        protected BatchIterator delegate() {
+            return delegate;
+        }
+
+        @Override
+        public void moveToStart() {
+            builder = null;
+            super.moveToStart();
+        }
+
+        @Override
+        public boolean moveNext() {
+            if (delegate.moveNext()) {
+                if (builder != null) {
+                    add();
+                }
+                return true;
+            }
+            if (builder != null && !killed && delegate.allLoaded()) {
+                try {
+                    put(key, builder.build());
+                } catch (IOException e) {
+                    LOGGER.warn("Couldn't cache result of shard " + key.shardId, e);
+                }
+                builder = null;
+            }
+            return false;
+        }
+
+        private void add() {
+            try {
+                builder.add(row);
+                if (builder.sizeInBytes() > maxEntrySizeInBytes) {
+                    builder = null;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Couldn't cache result of shard " + key.shardId, e);
+                builder = null;
+            }
+        }
+
+        @Override
+        public void kill(@Nonnull Throwable throwable) {
+            killed = true;
+            super.kill(throwable);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.collectors;
+
+import io.crate.analyze.symbol.Aggregation;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.metadata.Reference;
+import io.crate.operation.aggregation.impl.CountAggregation;
+import io.crate.operation.aggregation.impl.MaximumAggregation;
+import io.crate.operation.aggregation.impl.MinimumAggregation;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Computes the partial states of global <code>min</code>, <code>max</code> and <code>count</code> aggregations
+ * of a shard using index statistics instead of iterating over all matching documents.
+ *
+ * <ul>
+ *     <li><code>count(*)</code> is answered by {@link IndexReader#numDocs()}, or by
+ *     {@link IndexSearcher#count(Query)} if there is a query (like the {@link io.crate.operation.count.CountOperation})</li>
+ *     <li><code>count(col)</code>, <code>min(col)</code> and <code>max(col)</code> are answered using the
+ *     {@link PointValues} of numeric and timestamp columns. This is only possible without a query and
+ *     if the reader has no deletions, because points of deleted documents are still part of the statistics.</li>
+ * </ul>
+ */
+public final class IndexStatsAggregator {
+
+    private IndexStatsAggregator() {
+    }
+
+    /**
+     * @param matchAll true if all documents of the shard are matched (the whereClause has no query)
+     * @return true if all aggregations could be answered from index statistics.
+     *         {@link #aggregate(IndexSearcher, Query, List, List)} can still return null
+     *         if the reader contains deletions.
+     */
+    public static boolean supports(List<Aggregation> aggregations, List<? extends Symbol> toCollect, boolean matchAll) {
+        for (Aggregation aggregation : aggregations) {
+            String name = aggregation.functionIdent().name();
+            List<Symbol> inputs = aggregation.inputs();
+            if (inputs.isEmpty()) {
+                if (!name.equals(CountAggregation.NAME)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!matchAll || inputs.size() != 1) {
+                return false;
+            }
+            if (!(name.equals(CountAggregation.NAME)
+                  || name.equals(MinimumAggregation.NAME)
+                  || name.equals(MaximumAggregation.NAME))) {
+                return false;
+            }
+            if (pointReference(inputs.get(0), toCollect) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the partial states (the output of an {@link io.crate.analyze.symbol.AggregateMode#ITER_PARTIAL}
+     * aggregation) of the given aggregations.
+     * {@link #supports(List, List, boolean)} must have returned true for the aggregations.
+     *
+     * @param query the query to count matching documents or null if all documents are matched
+     * @return a row containing the partial states or null if the statistics cannot be used
+     */
+    @Nullable
+    public static Object[] aggregate(IndexSearcher searcher,
+                                     @Nullable Query query,
+                                     List<Aggregation> aggregations,
+                                     List<? extends Symbol> toCollect) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        Object[] row = new Object[aggregations.size()];
+        for (int i = 0; i < row.length; i++) {
+            Aggregation aggregation = aggregations.get(i);
+            List<Symbol> inputs = aggregation.inputs();
+            if (inputs.isEmpty()) {
+                long count = query == null ? reader.numDocs() : searcher.count(query);
+                row[i] = new CountAggregation.LongState(count);
+                continue;
+            }
+            if (reader.hasDeletions()) {
+                return null;
+            }
+            Reference ref = pointReference(inputs.get(0), toCollect);
+            assert ref != null : "aggregation must be supported, call supports() first";
+            String field = ref.ident().columnIdent().fqn();
+            DataType type = ref.valueType();
+            if (!hasCompatiblePoints(reader, field, type)) {
+                return null;
+            }
+            switch (aggregation.functionIdent().name()) {
+                case CountAggregation.NAME:
+                    row[i] = new CountAggregation.LongState(PointValues.getDocCount(reader, field));
+                    break;
+
+                case MinimumAggregation.NAME:
+                    row[i] = decode(PointValues.getMinPackedValue(reader, field), type);
+                    break;
+
+                case MaximumAggregation.NAME:
+                    row[i] = decode(PointValues.getMaxPackedValue(reader, field), type);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException(
+                        "Cannot use index statistics for aggregation " + aggregation.functionIdent().name());
+            }
+        }
+        return row;
+    }
+
+    @Nullable
+    private static Reference pointReference(Symbol input, List<? extends Symbol> toCollect) {
+        if (!(input instanceof InputColumn)) {
+            return null;
+        }
+        Symbol symbol = toCollect.get(((InputColumn) input).index());
+        if (!(symbol instanceof Reference)) {
+            return null;
+        }
+        Reference ref = (Reference) symbol;
+        if (pointBytes(ref.valueType()) == -1) {
+            return null;
+        }
+        return ref;
+    }
+
+    /**
+     * @return the number of bytes used to encode a value of the given type as point, -1 if not supported
+     */
+    private static int pointBytes(DataType type) {
+        switch (type.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+                return Long.BYTES;
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+                return Integer.BYTES;
+            case DoubleType.ID:
+                return Double.BYTES;
+            case FloatType.ID:
+                return Float.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Check that the field is indexed as one dimensional point in every segment in which it exists.
+     * Otherwise the field isn't indexed at all (e.g. INDEX OFF) and the statistics would be wrong.
+     */
+    private static boolean hasCompatiblePoints(IndexReader reader, String field, DataType type) {
+        int numBytes = pointBytes(type);
+        for (LeafReaderContext leaf : reader.leaves()) {
+            FieldInfo fieldInfo = leaf.reader().getFieldInfos().fieldInfo(field);
+            if (fieldInfo == null) {
+                continue;
+            }
+            if (fieldInfo.getPointDimensionCount() != 1 || fieldInfo.getPointNumBytes() != numBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Object decode(@Nullable byte[] packedValue, DataType type) {
+        if (packedValue == null) {
+            return null;
+        }
+        switch (type.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+                return LongPoint.decodeDimension(packedValue, 0);
+            case IntegerType.ID:
+                return IntPoint.decodeDimension(packedValue, 0);
+            case ShortType.ID:
+                return (short) IntPoint.decodeDimension(packedValue, 0);
+            case ByteType.ID:
+                return (byte) IntPoint.decodeDimension(packedValue, 0);
+            case DoubleType.ID:
+                return DoublePoint.decodeDimension(packedValue, 0);
+            case FloatType.ID:
+                return FloatPoint.decodeDimension(packedValue, 0);
+            default:
+                throw new IllegalArgumentException("Cannot decode point value for type " + type);
+        }
+    }
+}
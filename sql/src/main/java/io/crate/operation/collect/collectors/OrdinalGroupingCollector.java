@@ -0,0 +1,203 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.collectors;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import com.google.common.collect.Iterables;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.BytesRefSizeEstimator;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.reference.doc.lucene.OrdinalColumnReference;
+import org.apache.lucene.index.RandomAccessOrds;
+import org.apache.lucene.util.BytesRef;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collector which groups the rows of a {@link LuceneBatchIterator} by a single string column.
+ * <p>
+ * Within a segment the rows are grouped by the ordinal of the key ({@link OrdinalColumnReference#ord()}),
+ * which avoids copying and hashing the {@link BytesRef} for every row.
+ * Once a segment is exhausted each ordinal is resolved to its value exactly once and the states are reduced
+ * into the states of the same key of the previous segments.
+ */
+public class OrdinalGroupingCollector implements Collector<Row, OrdinalGroupingCollector.State, Iterable<Row>> {
+
+    private static final BytesRefSizeEstimator KEY_SIZE_ESTIMATOR = new BytesRefSizeEstimator();
+
+    /**
+     * ord + 32 bytes for entry + 4 bytes for increased capacity
+     */
+    private static final long ORD_ENTRY_SIZE = RamAccountingContext.roundUp(Long.BYTES + 36L);
+
+    private final OrdinalColumnReference keyExpression;
+    private final CollectExpression<Row, ?>[] expressions;
+    private final AggregationFunction[] aggregations;
+    private final AggregateMode mode;
+    private final Input[][] inputs;
+    private final RamAccountingContext ramAccountingContext;
+
+    public OrdinalGroupingCollector(OrdinalColumnReference keyExpression,
+                                    CollectExpression<Row, ?>[] expressions,
+                                    AggregationFunction[] aggregations,
+                                    AggregateMode mode,
+                                    Input[][] inputs,
+                                    RamAccountingContext ramAccountingContext) {
+        assert mode != AggregateMode.PARTIAL_FINAL : "ordinal grouping can only be used on the collected documents";
+        this.keyExpression = keyExpression;
+        this.expressions = expressions;
+        this.aggregations = aggregations;
+        this.mode = mode;
+        this.inputs = inputs;
+        this.ramAccountingContext = ramAccountingContext;
+    }
+
+    public static final class State {
+
+        private final LongObjectHashMap<Object[]> statesByOrd = new LongObjectHashMap<>();
+        private final Map<BytesRef, Object[]> statesByKey = new HashMap<>();
+        private RandomAccessOrds segmentValues;
+    }
+
+    @Override
+    public Supplier<State> supplier() {
+        return State::new;
+    }
+
+    @Override
+    public BiConsumer<State, Row> accumulator() {
+        return this::onNextRow;
+    }
+
+    @Override
+    public BinaryOperator<State> combiner() {
+        return (state1, state2) -> { throw new UnsupportedOperationException("combine not supported"); };
+    }
+
+    @Override
+    public Function<State, Iterable<Row>> finisher() {
+        return this::mapToRows;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    private void onNextRow(State state, Row row) {
+        for (CollectExpression<Row, ?> expression : expressions) {
+            expression.setNextRow(row);
+        }
+        RandomAccessOrds values = keyExpression.values();
+        if (values != state.segmentValues) {
+            flushSegment(state);
+            state.segmentValues = values;
+        }
+        long ord = keyExpression.ord();
+        Object[] states = state.statesByOrd.get(ord);
+        if (states == null) {
+            states = new Object[aggregations.length];
+            for (int i = 0; i < aggregations.length; i++) {
+                AggregationFunction aggregation = aggregations[i];
+                states[i] = mode.onRow(
+                    ramAccountingContext, aggregation, aggregation.newState(ramAccountingContext), inputs[i]);
+            }
+            ramAccountingContext.addBytes(ORD_ENTRY_SIZE);
+            state.statesByOrd.put(ord, states);
+        } else {
+            for (int i = 0; i < aggregations.length; i++) {
+                states[i] = mode.onRow(ramAccountingContext, aggregations[i], states[i], inputs[i]);
+            }
+        }
+    }
+
+    /**
+     * Resolve the ordinals of the current segment and merge their states into the states by key.
+     * The entries by ordinal are removed afterwards, so their accounted bytes are released.
+     */
+    @SuppressWarnings("unchecked")
+    private void flushSegment(State state) {
+        if (state.statesByOrd.isEmpty()) {
+            return;
+        }
+        for (LongObjectCursor<Object[]> cursor : state.statesByOrd) {
+            BytesRef key = cursor.key == OrdinalColumnReference.MISSING_ORD
+                ? null
+                : BytesRef.deepCopyOf(state.segmentValues.lookupOrd(cursor.key));
+            Object[] states = state.statesByKey.get(key);
+            if (states == null) {
+                ramAccountingContext.addBytes(
+                    RamAccountingContext.roundUp(KEY_SIZE_ESTIMATOR.estimateSize(key) + 36L));
+                state.statesByKey.put(key, cursor.value);
+            } else {
+                Object[] segmentStates = cursor.value;
+                for (int i = 0; i < aggregations.length; i++) {
+                    states[i] = aggregations[i].reduce(ramAccountingContext, states[i], segmentStates[i]);
+                }
+            }
+        }
+        ramAccountingContext.addBytesWithoutBreaking(-state.statesByOrd.size() * ORD_ENTRY_SIZE);
+        state.statesByOrd.clear();
+    }
+
+    private Iterable<Row> mapToRows(State state) {
+        flushSegment(state);
+        return Iterables.transform(state.statesByKey.entrySet(), new com.google.common.base.Function<Map.Entry<BytesRef, Object[]>, Row>() {
+
+            RowN row = new RowN(1 + aggregations.length);
+            Object[] cells = new Object[row.numColumns()];
+
+            {
+                row.cells(cells);
+            }
+
+            @Nullable
+            @Override
+            public Row apply(@Nullable Map.Entry<BytesRef, Object[]> input) {
+                assert input != null : "input must not be null";
+
+                cells[0] = input.getKey();
+                Object[] states = input.getValue();
+                for (int i = 0; i < states.length; i++) {
+                    cells[i + 1] = mode.finishCollect(ramAccountingContext, aggregations[i], states[i]);
+                }
+                return row;
+            }
+        });
+    }
+}
@@ -34,6 +34,7 @@ import io.crate.executor.transport.kill.KillResponse;
 import io.crate.executor.transport.kill.TransportKillJobsNodeAction;
 import io.crate.jobs.JobContextService;
 import io.crate.jobs.JobExecutionContext;
+import io.crate.jobs.OperationStats;
 import io.crate.jobs.PageDownstreamContext;
 import io.crate.operation.NodeOperation;
 import io.crate.operation.collect.CrateCollector;
@@ -169,7 +170,8 @@ public class RemoteCollector implements CrateCollector {
             pagingIterator,
             DataTypes.getStreamers(collectPhase.outputTypes()),
             ramAccountingContext,
-            1
+            1,
+            new OperationStats()
         ));
         return builder;
     }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.io.CountingOutputStream;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes files in the format read by {@link ColumnarInputFormat}, used by COPY TO with the columnar format.
+ * The rows are buffered until {@code rowGroupSize} rows have been added and then written column by column.
+ */
+public class ColumnarFileWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 10_000;
+
+    private final CountingOutputStream out;
+    private final StreamOutput streamOutput;
+    private final List<String> columns;
+    private final int rowGroupSize;
+    private final Object[][] rowGroup;
+    private final BytesStreamOutput footer = new BytesStreamOutput();
+    private int numRows = 0;
+    private int numRowGroups = 0;
+
+    public ColumnarFileWriter(OutputStream out, List<String> columns) throws IOException {
+        this(out, columns, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarFileWriter(OutputStream out, List<String> columns, int rowGroupSize) throws IOException {
+        assert rowGroupSize > 0 : "rowGroupSize must be greater than 0";
+        this.out = new CountingOutputStream(new BufferedOutputStream(out));
+        this.streamOutput = new OutputStreamStreamOutput(this.out);
+        this.columns = new ArrayList<>(columns);
+        this.rowGroupSize = rowGroupSize;
+        this.rowGroup = new Object[columns.size()][rowGroupSize];
+        streamOutput.writeBytes(ColumnarInputFormat.MAGIC);
+    }
+
+    /**
+     * @param values the values of the row in the order of the columns
+     */
+    public void addRow(Object... values) throws IOException {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + columns.size() + " values, but got " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            rowGroup[i][numRows] = value instanceof BytesRef ? ((BytesRef) value).utf8ToString() : value;
+        }
+        numRows++;
+        if (numRows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * @return the number of bytes written so far, rows which are still buffered aren't included
+     */
+    public long bytesWritten() {
+        return out.getCount();
+    }
+
+    private void flushRowGroup() throws IOException {
+        footer.writeVInt(numRows);
+        for (Object[] columnValues : rowGroup) {
+            long offset = out.getCount();
+            for (int r = 0; r < numRows; r++) {
+                streamOutput.writeGenericValue(columnValues[r]);
+                columnValues[r] = null;
+            }
+            footer.writeVLong(offset);
+            footer.writeVLong(out.getCount() - offset);
+        }
+        numRowGroups++;
+        numRows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (numRows > 0) {
+            flushRowGroup();
+        }
+        BytesStreamOutput header = new BytesStreamOutput();
+        header.writeVInt(ColumnarInputFormat.VERSION);
+        header.writeVInt(columns.size());
+        for (String column : columns) {
+            header.writeString(column);
+        }
+        header.writeVInt(numRowGroups);
+        header.bytes().writeTo(streamOutput);
+        footer.bytes().writeTo(streamOutput);
+        streamOutput.writeInt(header.size() + footer.size());
+        streamOutput.writeBytes(ColumnarInputFormat.MAGIC);
+        streamOutput.close();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.io.ByteStreams;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.StreamInput;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A self-describing columnar format:
+ *
+ * <pre>
+ * file           := MAGIC rowGroup* footer footerLength(int) MAGIC
+ * rowGroup       := columnChunk*                   one chunk per column
+ * columnChunk    := value*                         numRows values written with StreamOutput#writeGenericValue
+ * footer         := version(vint) numColumns(vint) columnName(string)* numRowGroups(vint) rowGroupMeta*
+ * rowGroupMeta   := numRows(vint) (chunkOffset(vlong) chunkLength(vlong))*
+ * </pre>
+ *
+ * Only the chunks of the required columns are read, the chunks of other columns are skipped.
+ * Files are split at row group boundaries: a split contains the row groups which start within its byte range.
+ */
+public final class ColumnarInputFormat implements InputFormat {
+
+    public static final String NAME = "columnar";
+    public static final ColumnarInputFormat INSTANCE = new ColumnarInputFormat();
+
+    static final byte[] MAGIC = new byte[] { 'C', 'R', 'C', 'F' };
+    static final int VERSION = 1;
+
+    /**
+     * footer length and trailing magic
+     */
+    private static final int TAIL_LENGTH = Integer.BYTES + 4;
+
+    private ColumnarInputFormat() {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public RecordReader newReader(FileSplits.Split split,
+                                  boolean compressed,
+                                  @Nullable Set<String> columns) throws IOException {
+        if (compressed) {
+            throw new IllegalArgumentException("Compressed columnar files are not supported, " +
+                                               "the row groups of the file are read at their offsets");
+        }
+        long size = split.fileInput.size(split.uri);
+        if (size < 0) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Cannot read columnar file \"%s\", the size of the file is unknown", split.uri));
+        }
+        Footer footer = readFooter(split, size);
+        if (footer == null) {
+            return null;
+        }
+        List<RowGroup> rowGroups = new ArrayList<>();
+        for (RowGroup rowGroup : footer.rowGroups) {
+            if (rowGroup.numRows > 0 && rowGroup.offsets[0] >= split.start && rowGroup.offsets[0] < split.end) {
+                rowGroups.add(rowGroup);
+            }
+        }
+        int[] selectedColumns = selectColumns(footer.columns, columns);
+        return new ColumnarRecordReader(split, footer.columns, selectedColumns, rowGroups);
+    }
+
+    private static int[] selectColumns(String[] fileColumns, @Nullable Set<String> columns) {
+        int[] selected = new int[fileColumns.length];
+        int numSelected = 0;
+        for (int i = 0; i < fileColumns.length; i++) {
+            if (columns == null || columns.contains(fileColumns[i])) {
+                selected[numSelected++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, numSelected);
+    }
+
+    @Nullable
+    private static Footer readFooter(FileSplits.Split split, long size) throws IOException {
+        if (size < MAGIC.length + TAIL_LENGTH) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "\"%s\" is not a columnar file", split.uri));
+        }
+        int footerLength;
+        try (InputStream stream = split.fileInput.getStream(split.uri, size - TAIL_LENGTH)) {
+            if (stream == null) {
+                return null;
+            }
+            StreamInput in = new InputStreamStreamInput(stream);
+            footerLength = in.readInt();
+            byte[] magic = new byte[MAGIC.length];
+            in.readBytes(magic, 0, magic.length);
+            if (!Arrays.equals(magic, MAGIC) || footerLength < 0 || footerLength > size - MAGIC.length - TAIL_LENGTH) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "\"%s\" is not a columnar file", split.uri));
+            }
+        }
+        try (InputStream stream = split.fileInput.getStream(split.uri, size - TAIL_LENGTH - footerLength)) {
+            if (stream == null) {
+                return null;
+            }
+            StreamInput in = new InputStreamStreamInput(new BufferedInputStream(stream));
+            int version = in.readVInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Columnar file \"%s\" has unsupported version %d", split.uri, version));
+            }
+            String[] columns = new String[in.readVInt()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = in.readString();
+            }
+            int numRowGroups = in.readVInt();
+            List<RowGroup> rowGroups = new ArrayList<>(numRowGroups);
+            for (int i = 0; i < numRowGroups; i++) {
+                rowGroups.add(new RowGroup(in, columns.length));
+            }
+            return new Footer(columns, rowGroups);
+        }
+    }
+
+    private static final class Footer {
+
+        private final String[] columns;
+        private final List<RowGroup> rowGroups;
+
+        Footer(String[] columns, List<RowGroup> rowGroups) {
+            this.columns = columns;
+            this.rowGroups = rowGroups;
+        }
+    }
+
+    private static final class RowGroup {
+
+        private final int numRows;
+        private final long[] offsets;
+        private final long[] lengths;
+
+        RowGroup(StreamInput in, int numColumns) throws IOException {
+            numRows = in.readVInt();
+            offsets = new long[numColumns];
+            lengths = new long[numColumns];
+            for (int i = 0; i < numColumns; i++) {
+                offsets[i] = in.readVLong();
+                lengths[i] = in.readVLong();
+            }
+        }
+    }
+
+    private static final class ColumnarRecordReader implements RecordReader {
+
+        private final FileSplits.Split split;
+        private final String[] columns;
+        private final int[] selectedColumns;
+        private final List<RowGroup> rowGroups;
+        private final Object[][] values;
+
+        private BufferedInputStream stream;
+        private StreamInput in;
+        private long streamPosition;
+        private int rowGroupIdx = -1;
+        private int numRows = 0;
+        private int row = 0;
+        private long recordNumber = 0;
+        private Map<String, Object> source;
+
+        ColumnarRecordReader(FileSplits.Split split,
+                             String[] columns,
+                             int[] selectedColumns,
+                             List<RowGroup> rowGroups) {
+            this.split = split;
+            this.columns = columns;
+            this.selectedColumns = selectedColumns;
+            this.rowGroups = rowGroups;
+            this.values = new Object[selectedColumns.length][];
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            while (row >= numRows) {
+                if (rowGroupIdx + 1 >= rowGroups.size()) {
+                    return false;
+                }
+                rowGroupIdx++;
+                loadRowGroup(rowGroups.get(rowGroupIdx));
+            }
+            source = new HashMap<>((int) (selectedColumns.length / 0.75f) + 1);
+            for (int i = 0; i < selectedColumns.length; i++) {
+                source.put(columns[selectedColumns[i]], values[i][row]);
+            }
+            row++;
+            recordNumber++;
+            return true;
+        }
+
+        /**
+         * Read the chunks of the selected columns. The row groups of the split are consecutive,
+         * so a single stream is used which skips over the chunks of the other columns.
+         */
+        private void loadRowGroup(RowGroup rowGroup) throws IOException {
+            numRows = rowGroup.numRows;
+            row = 0;
+            for (int i = 0; i < selectedColumns.length; i++) {
+                int column = selectedColumns[i];
+                long offset = rowGroup.offsets[column];
+                if (stream == null) {
+                    InputStream rawStream = split.fileInput.getStream(split.uri, offset);
+                    if (rawStream == null) {
+                        throw new IOException("File \"" + split.uri + "\" doesn't exist anymore");
+                    }
+                    stream = new BufferedInputStream(rawStream);
+                    in = new InputStreamStreamInput(stream);
+                    streamPosition = offset;
+                }
+                assert offset >= streamPosition : "chunks must be read in the order of their offsets";
+                ByteStreams.skipFully(stream, offset - streamPosition);
+                Object[] columnValues = values[i];
+                if (columnValues == null || columnValues.length < numRows) {
+                    columnValues = new Object[numRows];
+                    values[i] = columnValues;
+                }
+                for (int r = 0; r < numRows; r++) {
+                    columnValues[r] = in.readGenericValue();
+                }
+                streamPosition = offset + rowGroup.lengths[column];
+            }
+        }
+
+        @Override
+        public long recordNumber() {
+            return recordNumber;
+        }
+
+        @Nullable
+        @Override
+        public byte[] raw() {
+            return null;
+        }
+
+        @Override
+        public Map<String, Object> source() {
+            return source;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Comma separated values as described in RFC 4180. The first record contains the column names.
+ * <p>
+ * Values may be enclosed in double quotes, in which case they can contain commas, line breaks and
+ * escaped ("") double quotes. Unquoted empty values are read as null, all other values as strings.
+ * Values of columns which aren't required are skipped without being copied.
+ * </p>
+ * Files aren't split because the header is only part of the first split and a quoted value may
+ * contain line breaks, which makes it impossible to find the start of a record at an arbitrary offset.
+ */
+public final class CsvInputFormat implements InputFormat {
+
+    public static final String NAME = "csv";
+    public static final CsvInputFormat INSTANCE = new CsvInputFormat();
+
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+
+    private CsvInputFormat() {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public RecordReader newReader(FileSplits.Split split,
+                                  boolean compressed,
+                                  @Nullable Set<String> columns) throws IOException {
+        assert split.start == 0 : "csv files must not be split";
+        InputStream stream = split.fileInput.getStream(split.uri);
+        if (stream == null) {
+            return null;
+        }
+        if (compressed) {
+            stream = new GZIPInputStream(stream);
+        }
+        return new CsvRecordReader(new InputStreamReader(stream, StandardCharsets.UTF_8), columns);
+    }
+
+    static final class CsvRecordReader implements RecordReader {
+
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder value = new StringBuilder();
+        private final List<String> values = new ArrayList<>();
+        private int bufferPosition = 0;
+        private int bufferLimit = 0;
+        private long lineNumber = 0;
+        private long recordLineNumber = 0;
+
+        private final String[] header;
+        @Nullable
+        private final boolean[] selected;
+        private final int numSelected;
+        private Map<String, Object> source;
+
+        CsvRecordReader(Reader in, @Nullable Set<String> columns) throws IOException {
+            this.in = in;
+            if (readRecord(null)) {
+                header = values.toArray(new String[values.size()]);
+                if (header.length > 0 && header[0] != null && !header[0].isEmpty() && header[0].charAt(0) == BOM) {
+                    header[0] = header[0].substring(1);
+                }
+            } else {
+                header = new String[0];
+            }
+            if (columns == null) {
+                selected = null;
+                numSelected = header.length;
+            } else {
+                selected = new boolean[header.length];
+                int numSelected = 0;
+                for (int i = 0; i < header.length; i++) {
+                    if (columns.contains(header[i])) {
+                        selected[i] = true;
+                        numSelected++;
+                    }
+                }
+                this.numSelected = numSelected;
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (!readRecord(selected)) {
+                return false;
+            }
+            if (values.size() != header.length) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Record in line %d has %d values, but the header defines %d columns",
+                    recordLineNumber, values.size(), header.length));
+            }
+            source = new HashMap<>((int) (numSelected / 0.75f) + 1);
+            for (int i = 0; i < header.length; i++) {
+                if (selected == null || selected[i]) {
+                    source.put(header[i], values.get(i));
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long recordNumber() {
+            return recordLineNumber;
+        }
+
+        @Nullable
+        @Override
+        public byte[] raw() {
+            return null;
+        }
+
+        @Override
+        public Map<String, Object> source() {
+            return source;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private boolean fillBuffer() throws IOException {
+            int read;
+            do {
+                read = in.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            bufferPosition = 0;
+            bufferLimit = read;
+            return true;
+        }
+
+        private int peek() throws IOException {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                return -1;
+            }
+            return buffer[bufferPosition];
+        }
+
+        private int read() throws IOException {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                return -1;
+            }
+            return buffer[bufferPosition++];
+        }
+
+        /**
+         * Consume a '\n', '\r' or "\r\n" line break
+         */
+        private void readLineBreak(int c) throws IOException {
+            if (c == '\r' && peek() == '\n') {
+                bufferPosition++;
+            }
+            lineNumber++;
+        }
+
+        /**
+         * Read the values of the next non-empty line into {@link #values}.
+         *
+         * @param selected the values to read, values which aren't selected are added as null
+         * @return false if the end of the file has been reached
+         */
+        private boolean readRecord(@Nullable boolean[] selected) throws IOException {
+            int c;
+            while ((c = peek()) == '\n' || c == '\r') {
+                bufferPosition++;
+                readLineBreak(c);
+            }
+            if (c == -1) {
+                return false;
+            }
+            recordLineNumber = lineNumber + 1;
+            values.clear();
+            while (true) {
+                int column = values.size();
+                boolean keep = selected == null || (column < selected.length && selected[column]);
+                values.add(readValue(keep));
+                c = read();
+                if (c == DELIMITER) {
+                    continue;
+                }
+                if (c != -1) {
+                    readLineBreak(c);
+                }
+                return true;
+            }
+        }
+
+        @Nullable
+        private String readValue(boolean keep) throws IOException {
+            value.setLength(0);
+            if (peek() == QUOTE) {
+                bufferPosition++;
+                while (true) {
+                    int c = read();
+                    if (c == -1) {
+                        throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                            "Unterminated quoted value in record starting in line %d", recordLineNumber));
+                    }
+                    if (c == QUOTE) {
+                        if (peek() != QUOTE) {
+                            break;
+                        }
+                        bufferPosition++;
+                    } else if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                        lineNumber++;
+                    }
+                    if (keep) {
+                        value.append((char) c);
+                    }
+                }
+                int c = peek();
+                if (c != DELIMITER && c != '\n' && c != '\r' && c != -1) {
+                    throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                        "Unexpected character '%c' after quoted value in record starting in line %d",
+                        (char) c, recordLineNumber));
+                }
+                return keep ? value.toString() : null;
+            }
+            while (bufferPosition < bufferLimit || fillBuffer()) {
+                int start = bufferPosition;
+                while (bufferPosition < bufferLimit) {
+                    char c = buffer[bufferPosition];
+                    if (c == DELIMITER || c == '\n' || c == '\r') {
+                        break;
+                    }
+                    bufferPosition++;
+                }
+                if (keep) {
+                    value.append(buffer, start, bufferPosition - start);
+                }
+                if (bufferPosition < bufferLimit) {
+                    break;
+                }
+            }
+            return keep && value.length() > 0 ? value.toString() : null;
+        }
+    }
+}
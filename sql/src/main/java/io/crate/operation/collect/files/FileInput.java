@@ -21,6 +21,8 @@
 
 package io.crate.operation.collect.files;
 
+import com.google.common.io.ByteStreams;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -43,5 +45,33 @@ public interface FileInput {
 
     InputStream getStream(URI uri) throws IOException;
 
+    /**
+     * @return a stream which starts at the byte offset {@code start} of the file
+     */
+    default InputStream getStream(URI uri, long start) throws IOException {
+        InputStream stream = getStream(uri);
+        if (stream != null && start > 0) {
+            ByteStreams.skipFully(stream, start);
+        }
+        return stream;
+    }
+
+    /**
+     * @param end the offset up to which the caller reads, plus the rest of the line which continues behind it.
+     *            Implementations can use it to avoid transferring the remainder of the file.
+     * @return a stream which starts at the byte offset {@code start} of the file
+     */
+    default InputStream getStream(URI uri, long start, long end) throws IOException {
+        return getStream(uri, start);
+    }
+
+    /**
+     * @return the size of the file in bytes or -1 if it is unknown.
+     *         Only files with a known size are split into multiple ranges which are read in parallel.
+     */
+    default long size(URI uri) throws IOException {
+        return -1L;
+    }
+
     boolean sharedStorageDefault();
 }
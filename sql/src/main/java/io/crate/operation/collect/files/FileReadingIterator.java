@@ -21,8 +21,6 @@
 
 package io.crate.operation.collect.files;
 
-import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
 import io.crate.concurrent.CompletableFutures;
 import io.crate.data.BatchIterator;
 import io.crate.data.CloseAssertingBatchIterator;
@@ -31,71 +29,79 @@ import io.crate.data.Input;
 import io.crate.operation.reference.file.LineContext;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.ElasticsearchParseException;
-import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.xcontent.XContentHelper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.SocketTimeoutException;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 
 import static io.crate.exceptions.Exceptions.rethrowUnchecked;
 
+/**
+ * BatchIterator which emits the records of the {@link FileSplits}, read using an {@link InputFormat}.
+ * <p>
+ * If {@code batchSize} is 0 the records are read in {@link #moveNext()} and all data is considered to be loaded.
+ * Otherwise the records are read in batches in {@link #loadNextBatch()} and, if any of the collector expressions
+ * requires the parsed line (or the JSON of a record read as map), also parsed (or serialized) there.
+ * This is used to read the splits of a node with multiple iterators which load their batches concurrently,
+ * see {@link io.crate.data.AsyncCompositeBatchIterator}.
+ * </p>
+ */
 public class FileReadingIterator implements BatchIterator {
 
     private static final Logger LOGGER = Loggers.getLogger(FileReadingIterator.class);
     public static final int MAX_SOCKET_TIMEOUT_RETRIES = 5;
-    private final Map<String, FileInputFactory> fileInputFactories;
-    private final Boolean shared;
-    private final int numReaders;
-    private final int readerNumber;
-    private final boolean compressed;
-
-    private static final Pattern HAS_GLOBS_PATTERN = Pattern.compile("(.*)[^\\\\]\\*.*");
-    private static final Predicate<URI> MATCH_ALL_PREDICATE = (URI input) -> true;
 
-    private final List<UriWithGlob> urisWithGlob;
+    private final FileSplits splits;
+    private final InputFormat format;
+    @Nullable
+    private final Set<String> columns;
     private final Iterable<LineCollectorExpression<?>> collectorExpressions;
-    private Iterator<Tuple<FileInput, UriWithGlob>> fileInputsIterator = null;
-    private Tuple<FileInput, UriWithGlob> currentInput = null;
-    private Iterator<URI> currentInputIterator = null;
-    private URI currentUri;
-    private BufferedReader currentReader = null;
+    private final Columns inputs;
+    private final int batchSize;
+    private final boolean parseAhead;
+    private final boolean serializeAhead;
+    private final List<Line> batch;
+
+    private FileSplits.Split currentSplit;
+    private InputFormat.RecordReader currentReader = null;
     private long currentLineNumber;
     private LineContext lineContext;
-    private final Columns inputs;
+    private int batchPosition = 0;
+    private boolean allLoaded = false;
 
-    private FileReadingIterator(Collection<String> fileUris,
+    private FileReadingIterator(FileSplits splits,
+                                InputFormat format,
+                                @Nullable Set<String> columns,
                                 List<? extends Input<?>> inputs,
                                 Iterable<LineCollectorExpression<?>> collectorExpressions,
-                                String compression,
-                                Map<String, FileInputFactory> fileInputFactories,
-                                Boolean shared,
-                                int numReaders,
-                                int readerNumber) {
-        this.compressed = compression != null && compression.equalsIgnoreCase("gzip");
+                                int batchSize) {
+        this.splits = splits;
+        this.format = format;
+        this.columns = columns;
         this.inputs = Columns.wrap(inputs.stream().map(ExceptionHandlingInputProxy::new).collect(Collectors.toList()));
-        this.fileInputFactories = fileInputFactories;
-        this.shared = shared;
-        this.numReaders = numReaders;
-        this.readerNumber = readerNumber;
-        this.urisWithGlob = getUrisWithGlob(fileUris);
         this.collectorExpressions = collectorExpressions;
+        this.batchSize = batchSize;
+        boolean parseAhead = false;
+        boolean serializeAhead = false;
+        for (LineCollectorExpression<?> collectorExpression : collectorExpressions) {
+            parseAhead |= collectorExpression.requiresParsedSource();
+            serializeAhead |= collectorExpression.requiresRawSource();
+        }
+        this.parseAhead = parseAhead && batchSize > 0;
+        this.serializeAhead = serializeAhead && batchSize > 0;
+        this.batch = batchSize > 0 ? new ArrayList<>(batchSize) : null;
         initCollectorState();
     }
 
@@ -123,12 +129,23 @@ public class FileReadingIterator implements BatchIterator {
                 return this.input.value();
             } catch (ElasticsearchParseException e) {
                 throw new ElasticsearchParseException(String.format(Locale.ENGLISH,
-                    "Failed to parse JSON in line: %d in file: \"%s\"%n" +
-                    "Original error message: %s", currentLineNumber, currentUri, e.getMessage()), e);
+                    "Failed to parse JSON in line: %s%n" +
+                    "Original error message: %s", currentLocation(), e.getMessage()), e);
             }
         }
     }
 
+    /**
+     * The line numbers of a split are counted from its start, which is the byte offset of the split in the file.
+     */
+    private String currentLocation() {
+        if (currentSplit.start == 0) {
+            return String.format(Locale.ENGLISH, "%d in file: \"%s\"", currentLineNumber, currentSplit.uri);
+        }
+        return String.format(Locale.ENGLISH, "%d after byte offset %d in file: \"%s\"",
+            currentLineNumber, currentSplit.start, currentSplit.uri);
+    }
+
     public static BatchIterator newInstance(Collection<String> fileUris,
                                             List<Input<?>> inputs,
                                             Iterable<LineCollectorExpression<?>> collectorExpressions,
@@ -137,8 +154,32 @@ public class FileReadingIterator implements BatchIterator {
                                             Boolean shared,
                                             int numReaders,
                                             int readerNumber) {
-        return new CloseAssertingBatchIterator(new FileReadingIterator(fileUris, inputs, collectorExpressions,
-            compression, fileInputFactories, shared, numReaders, readerNumber));
+        FileSplits splits = new FileSplits(
+            fileUris, compression, fileInputFactories, shared, numReaders, readerNumber, Long.MAX_VALUE);
+        return newInstance(splits, inputs, collectorExpressions, 0);
+    }
+
+    public static BatchIterator newInstance(FileSplits splits,
+                                            List<? extends Input<?>> inputs,
+                                            Iterable<LineCollectorExpression<?>> collectorExpressions,
+                                            int batchSize) {
+        return newInstance(splits, JsonInputFormat.INSTANCE, null, inputs, collectorExpressions, batchSize);
+    }
+
+    /**
+     * @param splits the splits to read, can be shared with other iterators if batchSize is greater than 0
+     * @param columns the top level columns the format has to read, null to read all columns
+     * @param batchSize the number of records to read in {@link #loadNextBatch()}
+     *                  or 0 to read the records in {@link #moveNext()}
+     */
+    public static BatchIterator newInstance(FileSplits splits,
+                                            InputFormat format,
+                                            @Nullable Set<String> columns,
+                                            List<? extends Input<?>> inputs,
+                                            Iterable<LineCollectorExpression<?>> collectorExpressions,
+                                            int batchSize) {
+        return new CloseAssertingBatchIterator(
+            new FileReadingIterator(splits, format, columns, inputs, collectorExpressions, batchSize));
     }
 
     private void initCollectorState() {
@@ -146,44 +187,39 @@ public class FileReadingIterator implements BatchIterator {
         for (LineCollectorExpression<?> collectorExpression : collectorExpressions) {
             collectorExpression.startCollect(lineContext);
         }
-        List<Tuple<FileInput, UriWithGlob>> fileInputs = new ArrayList<>(urisWithGlob.size());
-        for (UriWithGlob fileUri : urisWithGlob) {
-            try {
-                FileInput fileInput = getFileInput(fileUri.uri);
-                fileInputs.add(new Tuple<>(fileInput, fileUri));
-            } catch (IOException e) {
-                rethrowUnchecked(e);
-            }
-        }
-        fileInputsIterator = fileInputs.iterator();
     }
 
     @Override
     public void moveToStart() {
+        if (batchSize > 0) {
+            throw new UnsupportedOperationException("Cannot move to start if the files are read in batches");
+        }
+        closeCurrentReader();
+        splits.reset();
         initCollectorState();
     }
 
     @Override
     public boolean moveNext() {
+        if (batchSize > 0) {
+            if (batchPosition < batch.size()) {
+                Line line = batch.get(batchPosition++);
+                currentSplit = line.split;
+                currentLineNumber = line.lineNumber;
+                lineContext.rawSource(line.raw, line.parsedSource);
+                return true;
+            }
+            return false;
+        }
         try {
-            if (currentReader != null) {
-                String line = getLine(currentReader, currentLineNumber, 0);
-                if (line == null) {
-                    closeCurrentReader();
-                    return moveNext();
+            if (nextRecord()) {
+                byte[] raw = currentReader.raw();
+                if (raw == null) {
+                    lineContext.source(currentReader.source());
                 } else {
-                    lineContext.rawSource(line.getBytes(StandardCharsets.UTF_8));
-                    return true;
+                    lineContext.rawSource(raw);
                 }
-            } else if (currentInputIterator != null && currentInputIterator.hasNext()) {
-                advanceToNextUri(currentInput.v1());
-                return moveNext();
-            } else if (fileInputsIterator != null && fileInputsIterator.hasNext()) {
-                advanceToNextFileInput();
-                return moveNext();
-            } else {
-                releaseBatchIteratorState();
-                return false;
+                return true;
             }
         } catch (IOException e) {
             rethrowUnchecked(e);
@@ -191,29 +227,31 @@ public class FileReadingIterator implements BatchIterator {
         return false;
     }
 
-    private void advanceToNextUri(FileInput fileInput) throws IOException {
-        currentUri = currentInputIterator.next();
-        initCurrentReader(fileInput, currentUri);
-    }
-
-    private void advanceToNextFileInput() throws IOException {
-        currentInput = fileInputsIterator.next();
-        FileInput fileInput = currentInput.v1();
-        UriWithGlob fileUri = currentInput.v2();
-        Predicate<URI> uriPredicate = generateUriPredicate(fileInput, fileUri.globPredicate);
-        List<URI> uris = getUris(fileInput, fileUri.uri, fileUri.preGlobUri, uriPredicate);
-        if (uris.size() > 0) {
-            currentInputIterator = uris.iterator();
-            advanceToNextUri(fileInput);
+    /**
+     * Move {@link #currentReader} to the next record
+     *
+     * @return false if all splits have been read
+     */
+    private boolean nextRecord() throws IOException {
+        while (true) {
+            if (currentReader != null) {
+                if (readRecord(currentLineNumber, 0)) {
+                    return true;
+                }
+                closeCurrentReader();
+            }
+            FileSplits.Split split = splits.next();
+            if (split == null) {
+                return false;
+            }
+            initCurrentReader(split);
         }
     }
 
-    private void initCurrentReader(FileInput fileInput, URI uri) throws IOException {
-        InputStream stream = fileInput.getStream(uri);
-        if (stream != null) {
-            currentReader = createBufferedReader(stream);
-            currentLineNumber = 0;
-        }
+    private void initCurrentReader(FileSplits.Split split) throws IOException {
+        currentSplit = split;
+        currentReader = format.newReader(split, splits.compressed(), columns);
+        currentLineNumber = 0;
     }
 
     private void closeCurrentReader() {
@@ -221,205 +259,113 @@ public class FileReadingIterator implements BatchIterator {
             try {
                 currentReader.close();
             } catch (IOException e) {
-                LOGGER.error("Unable to close reader for {}", e, currentUri);
+                LOGGER.error("Unable to close reader for {}", e, currentSplit);
             }
             currentReader = null;
         }
     }
 
-    private String getLine(BufferedReader reader, long startFrom, int retry) throws IOException {
-        String line = null;
+    /**
+     * Move {@link #currentReader} to the next record which is at least record number {@code startFrom}
+     */
+    private boolean readRecord(long startFrom, int retry) throws IOException {
         try {
-            while ((line = reader.readLine()) != null) {
-                currentLineNumber++;
+            while (currentReader.next()) {
+                currentLineNumber = currentReader.recordNumber();
                 if (currentLineNumber < startFrom) {
                     continue;
                 }
-                if (line.length() == 0) {
-                    continue;
-                }
-                break;
+                return true;
             }
         } catch (SocketTimeoutException e) {
             if (retry > MAX_SOCKET_TIMEOUT_RETRIES) {
-                URI uri = currentInput.v2().uri;
-                LOGGER.info("Timeout during COPY FROM '{}' after {} retries", e, uri.toString(), retry);
+                LOGGER.info("Timeout during COPY FROM '{}' after {} retries", e, currentSplit.sourceUri, retry);
                 throw e;
             } else {
                 long startLine = currentLineNumber + 1;
                 closeCurrentReader();
-                initCurrentReader(currentInput.v1(), currentUri);
-                return getLine(currentReader, startLine, retry + 1);
+                initCurrentReader(currentSplit);
+                return currentReader != null && readRecord(startLine, retry + 1);
             }
         } catch (Exception e) {
-            URI uri = currentInput.v2().uri;
             // it's nice to know which exact file/uri threw an error
             // when COPY FROM returns less rows than expected
-            LOGGER.info("Error during COPY FROM '{}'", e, uri.toString());
+            LOGGER.info("Error during COPY FROM '{}'", e, currentSplit.sourceUri);
             rethrowUnchecked(e);
         }
-        return line;
+        return false;
     }
 
     @Override
     public void close() {
         closeCurrentReader();
-        releaseBatchIteratorState();
-    }
-
-    private void releaseBatchIteratorState() {
-        fileInputsIterator = null;
-        currentInputIterator = null;
-        currentInput = null;
-        currentUri = null;
+        if (batch != null) {
+            batch.clear();
+        }
     }
 
     @Override
     public CompletableFuture<?> loadNextBatch() {
-        return CompletableFutures.failedFuture(new IllegalStateException("All batches already loaded"));
-    }
-
-    @Override
-    public boolean allLoaded() {
-        return true;
-    }
-
-    private static class UriWithGlob {
-        final URI uri;
-        final URI preGlobUri;
-        @Nullable
-        final Predicate<URI> globPredicate;
-
-        public UriWithGlob(URI uri, URI preGlobUri, Predicate<URI> globPredicate) {
-            this.uri = uri;
-            this.preGlobUri = preGlobUri;
-            this.globPredicate = globPredicate;
+        if (allLoaded()) {
+            return CompletableFutures.failedFuture(new IllegalStateException("All batches already loaded"));
         }
-    }
-
-    private List<UriWithGlob> getUrisWithGlob(Collection<String> fileUris) {
-        List<UriWithGlob> uris = new ArrayList<>(fileUris.size());
-        for (String fileUri : fileUris) {
-            URI uri = toURI(fileUri);
-
-            URI preGlobUri = null;
-            Predicate<URI> globPredicate = null;
-            Matcher hasGlobMatcher = HAS_GLOBS_PATTERN.matcher(uri.toString());
-            if (hasGlobMatcher.matches()) {
-                if (fileUri.startsWith("/") || fileUri.startsWith("file://")) {
-                    /*
-                     * Substitute a symlink with the real path.
-                     * The wildcard needs to be maintained, though, because it is used to generate the matcher.
-                     * Take the part before the wildcard (*) and try to resolved the real path.
-                     * If the part before the wildcard contains a part of the filename (e.g. /tmp/foo_*.json) then use the
-                     * parent directory of this filename to resolved the real path.
-                     * Then replace this part with the real path and generate the URI.
-                     */
-                    Path oldPath = Paths.get(toURI(hasGlobMatcher.group(1)));
-                    if (!Files.isDirectory(oldPath)) {
-                        oldPath = oldPath.getParent();
-                    }
-                    String oldPathAsString;
-                    String newPathAsString;
-                    try {
-                        oldPathAsString = oldPath.toUri().toString();
-                        newPathAsString = oldPath.toRealPath().toUri().toString();
-                    } catch (IOException e) {
-                        continue;
+        batch.clear();
+        batchPosition = 0;
+        try {
+            while (batch.size() < batchSize) {
+                if (!nextRecord()) {
+                    allLoaded = true;
+                    break;
+                }
+                byte[] raw = currentReader.raw();
+                Map<String, Object> source = currentReader.source();
+                if (raw == null) {
+                    if (serializeAhead) {
+                        raw = LineContext.toJson(source);
                     }
-                    String resolvedFileUrl = uri.toString().replace(oldPathAsString, newPathAsString);
-                    uri = toURI(resolvedFileUrl);
-                    preGlobUri = toURI(newPathAsString);
-                } else {
-                    preGlobUri = URI.create(hasGlobMatcher.group(1));
+                } else if (parseAhead) {
+                    source = parse(raw);
                 }
-                globPredicate = new GlobPredicate(uri);
+                batch.add(new Line(raw, source, currentSplit, currentLineNumber));
             }
-
-            uris.add(new UriWithGlob(uri, preGlobUri, globPredicate));
+        } catch (Throwable t) {
+            return CompletableFutures.failedFuture(t);
         }
-        return uris;
+        return CompletableFuture.completedFuture(null);
     }
 
-    private URI toURI(String fileUri) {
-        if (fileUri.startsWith("/")) {
-            // using Paths.get().toUri instead of new URI(...) as it also encodes umlauts and other special characters
-            return Paths.get(fileUri).toUri();
-        } else {
-            URI uri = URI.create(fileUri);
-            if (uri.getScheme() == null) {
-                throw new IllegalArgumentException("relative fileURIs are not allowed");
-            }
-            if (uri.getScheme().equals("file") && !uri.getSchemeSpecificPart().startsWith("///")) {
-                throw new IllegalArgumentException("Invalid fileURI");
-            }
-            return uri;
-        }
+    @Override
+    public boolean allLoaded() {
+        return batchSize == 0 || allLoaded;
     }
 
     @Nullable
-    private FileInput getFileInput(URI fileUri) throws IOException {
-        FileInputFactory fileInputFactory = fileInputFactories.get(fileUri.getScheme());
-        if (fileInputFactory != null) {
-            return fileInputFactory.create();
-        }
-        return new URLFileInput(fileUri);
-    }
-
-    private BufferedReader createBufferedReader(InputStream inputStream) throws IOException {
-        BufferedReader reader;
-        if (compressed) {
-            reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(inputStream),
-                StandardCharsets.UTF_8));
-        } else {
-            reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-        }
-        return reader;
-    }
-
-    private static List<URI> getUris(FileInput fileInput, URI fileUri, URI preGlobUri, Predicate<URI> uriPredicate) throws IOException {
-        List<URI> uris;
-        if (preGlobUri != null) {
-            uris = fileInput.listUris(preGlobUri, uriPredicate);
-        } else if (uriPredicate.test(fileUri)) {
-            uris = ImmutableList.of(fileUri);
-        } else {
-            uris = ImmutableList.of();
-        }
-        return uris;
-    }
-
-    private Predicate<URI> generateUriPredicate(FileInput fileInput, @Nullable Predicate<URI> globPredicate) {
-        Predicate<URI> moduloPredicate;
-        boolean sharedStorage = MoreObjects.firstNonNull(shared, fileInput.sharedStorageDefault());
-        if (sharedStorage) {
-            moduloPredicate = input -> {
-                int hash = input.hashCode();
-                if (hash == Integer.MIN_VALUE) {
-                    hash = 0; // Math.abs(Integer.MIN_VALUE) == Integer.MIN_VALUE
-                }
-                return Math.abs(hash) % numReaders == readerNumber;
-            };
-        } else {
-            moduloPredicate = MATCH_ALL_PREDICATE;
-        }
-
-        if (globPredicate != null) {
-            return moduloPredicate.and(globPredicate);
+    private static Map<String, Object> parse(byte[] line) {
+        try {
+            return XContentHelper.convertToMap(new BytesArray(line), false).v2();
+        } catch (Exception e) {
+            // parsed again once the line is accessed, which reports the error together with the line number
+            return null;
         }
-        return moduloPredicate;
     }
 
-    private static class GlobPredicate implements Predicate<URI> {
-        private final Pattern globPattern;
+    private static final class Line {
 
-        GlobPredicate(URI fileUri) {
-            this.globPattern = Pattern.compile(Globs.toUnixRegexPattern(fileUri.toString()));
-        }
-
-        @Override
-        public boolean test(@Nullable URI input) {
-            return input != null && globPattern.matcher(input.toString()).matches();
+        @Nullable
+        private final byte[] raw;
+        @Nullable
+        private final Map<String, Object> parsedSource;
+        private final FileSplits.Split split;
+        private final long lineNumber;
+
+        Line(@Nullable byte[] raw,
+             @Nullable Map<String, Object> parsedSource,
+             FileSplits.Split split,
+             long lineNumber) {
+            this.raw = raw;
+            this.parsedSource = parsedSource;
+            this.split = split;
+            this.lineNumber = lineNumber;
         }
     }
 }
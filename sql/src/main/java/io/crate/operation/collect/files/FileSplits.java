@@ -0,0 +1,299 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The byte ranges of the files which have to be read by a node for a COPY FROM.
+ * <p>
+ * Uncompressed files whose size is known are split into ranges of {@code splitSize} bytes,
+ * so that a single large file can be read by multiple {@link FileReadingIterator}s in parallel.
+ * The iterators of a node share an instance and take the next split once they've finished one.
+ * </p>
+ * <p>
+ * If the storage is shared, every node only reads a subset of the splits; each split is assigned to a single node.
+ * </p>
+ */
+public class FileSplits {
+
+    public static final long DEFAULT_SPLIT_SIZE = new ByteSizeValue(64, ByteSizeUnit.MB).getBytes();
+
+    private static final Pattern HAS_GLOBS_PATTERN = Pattern.compile("(.*)[^\\\\]\\*.*");
+    private static final Predicate<URI> MATCH_ALL_PREDICATE = (URI input) -> true;
+
+    private final Map<String, FileInputFactory> fileInputFactories;
+    private final Boolean shared;
+    private final int numReaders;
+    private final int readerNumber;
+    private final boolean compressed;
+    private final long splitSize;
+    private final List<UriWithGlob> urisWithGlob;
+
+    private Iterator<UriWithGlob> urisWithGlobIterator;
+    private FileInput currentInput;
+    private UriWithGlob currentUriWithGlob;
+    private Iterator<URI> currentUris;
+    private URI currentUri;
+    private int currentSplitIndex;
+    private int currentNumSplits;
+    private boolean currentShared;
+
+    public FileSplits(Collection<String> fileUris,
+                      @Nullable String compression,
+                      Map<String, FileInputFactory> fileInputFactories,
+                      Boolean shared,
+                      int numReaders,
+                      int readerNumber,
+                      long splitSize) {
+        assert splitSize > 0 : "splitSize must be greater than 0";
+        this.compressed = compression != null && compression.equalsIgnoreCase("gzip");
+        this.fileInputFactories = fileInputFactories;
+        this.shared = shared;
+        this.numReaders = numReaders;
+        this.readerNumber = readerNumber;
+        this.splitSize = splitSize;
+        this.urisWithGlob = getUrisWithGlob(fileUris);
+        reset();
+    }
+
+    boolean compressed() {
+        return compressed;
+    }
+
+    /**
+     * Start again with the first split.
+     * Must only be used if a single {@link FileReadingIterator} reads the splits.
+     */
+    synchronized void reset() {
+        urisWithGlobIterator = urisWithGlob.iterator();
+        currentInput = null;
+        currentUriWithGlob = null;
+        currentUris = null;
+        currentUri = null;
+        currentSplitIndex = 0;
+        currentNumSplits = 0;
+    }
+
+    /**
+     * @return the next split which has to be read by this node or null if there are no more splits
+     */
+    @Nullable
+    synchronized Split next() throws IOException {
+        while (true) {
+            while (currentSplitIndex < currentNumSplits) {
+                int splitIndex = currentSplitIndex++;
+                if (currentShared && !isAssignedToThisNode(currentUri, splitIndex)) {
+                    continue;
+                }
+                long start = splitIndex * splitSize;
+                long end = splitIndex == currentNumSplits - 1 ? Long.MAX_VALUE : start + splitSize;
+                return new Split(currentInput, currentUriWithGlob.uri, currentUri, start, end);
+            }
+            if (currentUris != null && currentUris.hasNext()) {
+                currentUri = currentUris.next();
+                currentSplitIndex = 0;
+                currentNumSplits = 1;
+                if (!compressed) {
+                    long size = currentInput.size(currentUri);
+                    if (size > splitSize) {
+                        currentNumSplits = (int) ((size + splitSize - 1) / splitSize);
+                    }
+                }
+            } else if (urisWithGlobIterator.hasNext()) {
+                currentUriWithGlob = urisWithGlobIterator.next();
+                currentInput = getFileInput(currentUriWithGlob.uri);
+                currentShared = MoreObjects.firstNonNull(shared, currentInput.sharedStorageDefault());
+                currentUris = getUris(currentInput, currentUriWithGlob).iterator();
+            } else {
+                currentUris = null;
+                currentInput = null;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Assign consecutive splits of a file to consecutive nodes.
+     * Files which aren't split are distributed by the hash of their uri.
+     */
+    private boolean isAssignedToThisNode(URI uri, int splitIndex) {
+        int hash = uri.hashCode();
+        if (hash == Integer.MIN_VALUE) {
+            hash = 0; // Math.abs(Integer.MIN_VALUE) == Integer.MIN_VALUE
+        }
+        return (Math.abs(hash) + (long) splitIndex) % numReaders == readerNumber;
+    }
+
+    /**
+     * A byte range of a file.
+     * A split contains all lines which start at an offset in {@code [start, end)},
+     * the last line may therefore end behind {@code end}.
+     */
+    static final class Split {
+
+        final FileInput fileInput;
+        final URI sourceUri;
+        final URI uri;
+        final long start;
+        final long end;
+
+        Split(FileInput fileInput, URI sourceUri, URI uri, long start, long end) {
+            this.fileInput = fileInput;
+            this.sourceUri = sourceUri;
+            this.uri = uri;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return uri + (start == 0 && end == Long.MAX_VALUE ? "" : "[" + start + ", " + end + ")");
+        }
+    }
+
+    private static class UriWithGlob {
+        final URI uri;
+        final URI preGlobUri;
+        @Nullable
+        final Predicate<URI> globPredicate;
+
+        public UriWithGlob(URI uri, URI preGlobUri, Predicate<URI> globPredicate) {
+            this.uri = uri;
+            this.preGlobUri = preGlobUri;
+            this.globPredicate = globPredicate;
+        }
+    }
+
+    private static List<UriWithGlob> getUrisWithGlob(Collection<String> fileUris) {
+        List<UriWithGlob> uris = new ArrayList<>(fileUris.size());
+        for (String fileUri : fileUris) {
+            URI uri = toURI(fileUri);
+
+            URI preGlobUri = null;
+            Predicate<URI> globPredicate = null;
+            Matcher hasGlobMatcher = HAS_GLOBS_PATTERN.matcher(uri.toString());
+            if (hasGlobMatcher.matches()) {
+                if (fileUri.startsWith("/") || fileUri.startsWith("file://")) {
+                    /*
+                     * Substitute a symlink with the real path.
+                     * The wildcard needs to be maintained, though, because it is used to generate the matcher.
+                     * Take the part before the wildcard (*) and try to resolved the real path.
+                     * If the part before the wildcard contains a part of the filename (e.g. /tmp/foo_*.json) then use the
+                     * parent directory of this filename to resolved the real path.
+                     * Then replace this part with the real path and generate the URI.
+                     */
+                    Path oldPath = Paths.get(toURI(hasGlobMatcher.group(1)));
+                    if (!Files.isDirectory(oldPath)) {
+                        oldPath = oldPath.getParent();
+                    }
+                    String oldPathAsString;
+                    String newPathAsString;
+                    try {
+                        oldPathAsString = oldPath.toUri().toString();
+                        newPathAsString = oldPath.toRealPath().toUri().toString();
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    String resolvedFileUrl = uri.toString().replace(oldPathAsString, newPathAsString);
+                    uri = toURI(resolvedFileUrl);
+                    preGlobUri = toURI(newPathAsString);
+                } else {
+                    preGlobUri = URI.create(hasGlobMatcher.group(1));
+                }
+                globPredicate = new GlobPredicate(uri);
+            }
+
+            uris.add(new UriWithGlob(uri, preGlobUri, globPredicate));
+        }
+        return uris;
+    }
+
+    private static URI toURI(String fileUri) {
+        if (fileUri.startsWith("/")) {
+            // using Paths.get().toUri instead of new URI(...) as it also encodes umlauts and other special characters
+            return Paths.get(fileUri).toUri();
+        } else {
+            URI uri = URI.create(fileUri);
+            if (uri.getScheme() == null) {
+                throw new IllegalArgumentException("relative fileURIs are not allowed");
+            }
+            if (uri.getScheme().equals("file") && !uri.getSchemeSpecificPart().startsWith("///")) {
+                throw new IllegalArgumentException("Invalid fileURI");
+            }
+            return uri;
+        }
+    }
+
+    private FileInput getFileInput(URI fileUri) throws IOException {
+        FileInputFactory fileInputFactory = fileInputFactories.get(fileUri.getScheme());
+        if (fileInputFactory != null) {
+            return fileInputFactory.create();
+        }
+        return new URLFileInput(fileUri);
+    }
+
+    /**
+     * List the uris matching the glob. The assignment of shared files to nodes happens per split in {@link #next()}.
+     */
+    private static List<URI> getUris(FileInput fileInput, UriWithGlob uriWithGlob) throws IOException {
+        Predicate<URI> uriPredicate = MoreObjects.firstNonNull(uriWithGlob.globPredicate, MATCH_ALL_PREDICATE);
+        if (uriWithGlob.preGlobUri != null) {
+            return fileInput.listUris(uriWithGlob.preGlobUri, uriPredicate);
+        } else if (uriPredicate.test(uriWithGlob.uri)) {
+            return ImmutableList.of(uriWithGlob.uri);
+        } else {
+            return ImmutableList.of();
+        }
+    }
+
+    private static class GlobPredicate implements Predicate<URI> {
+        private final Pattern globPattern;
+
+        GlobPredicate(URI fileUri) {
+            this.globPattern = Pattern.compile(Globs.toUnixRegexPattern(fileUri.toString()));
+        }
+
+        @Override
+        public boolean test(@Nullable URI input) {
+            return input != null && globPattern.matcher(input.toString()).matches();
+        }
+    }
+}
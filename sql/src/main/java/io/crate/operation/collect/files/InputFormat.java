@@ -0,0 +1,86 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The format of the files which are read by COPY FROM, see {@link InputFormats}.
+ */
+public interface InputFormat {
+
+    String name();
+
+    /**
+     * @return true if a file can be split into byte ranges which are read independently,
+     *         see {@link FileSplits}
+     */
+    boolean isSplittable();
+
+    /**
+     * Open a reader for the records of a split.
+     *
+     * @param compressed true if the file is gzip compressed
+     * @param columns the top level columns which have to be read or null if all columns are required.
+     *                Formats may ignore this and return all columns.
+     * @return the reader or null if the file doesn't exist anymore
+     */
+    @Nullable
+    RecordReader newReader(FileSplits.Split split,
+                           boolean compressed,
+                           @Nullable Set<String> columns) throws IOException;
+
+    /**
+     * Reads the records of a split. A record is either provided as raw JSON object or as already parsed source.
+     */
+    interface RecordReader extends Closeable {
+
+        /**
+         * Move to the next record.
+         *
+         * @return false if there are no more records in the split
+         */
+        boolean next() throws IOException;
+
+        /**
+         * @return the 1-based number of the current record within the split, used in error messages.
+         *         Formats with line based records return the line number.
+         */
+        long recordNumber();
+
+        /**
+         * @return the current record as UTF-8 encoded JSON object or null if it is only available as map
+         */
+        @Nullable
+        byte[] raw();
+
+        /**
+         * @return the current record as map or null if it must be parsed from {@link #raw()}
+         */
+        @Nullable
+        Map<String, Object> source();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Map;
+
+public final class InputFormats {
+
+    private static final Map<String, InputFormat> FORMATS = ImmutableMap.of(
+        JsonInputFormat.NAME, JsonInputFormat.INSTANCE,
+        CsvInputFormat.NAME, CsvInputFormat.INSTANCE,
+        ColumnarInputFormat.NAME, ColumnarInputFormat.INSTANCE
+    );
+
+    private InputFormats() {
+    }
+
+    /**
+     * @param name the name of the format, case insensitive. If null the default ({@link JsonInputFormat}) is returned.
+     * @throws IllegalArgumentException if there is no format with the given name
+     */
+    public static InputFormat get(@Nullable String name) {
+        if (name == null) {
+            return JsonInputFormat.INSTANCE;
+        }
+        InputFormat format = FORMATS.get(name.toLowerCase(Locale.ENGLISH));
+        if (format == null) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Invalid format \"%s\", supported formats are: %s", name, String.join(", ", FORMATS.keySet())));
+        }
+        return format;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One JSON object per line. Empty lines are skipped.
+ * The lines are parsed by the collector expressions, so the columns to read can't be restricted.
+ */
+public final class JsonInputFormat implements InputFormat {
+
+    public static final String NAME = "json";
+    public static final JsonInputFormat INSTANCE = new JsonInputFormat();
+
+    private JsonInputFormat() {
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public RecordReader newReader(FileSplits.Split split,
+                                  boolean compressed,
+                                  @Nullable Set<String> columns) throws IOException {
+        // start one byte earlier to detect whether the first line starts exactly at the beginning of the split
+        long position = Math.max(0L, split.start - 1);
+        InputStream stream = position == 0 && split.end == Long.MAX_VALUE
+            ? split.fileInput.getStream(split.uri)
+            : split.fileInput.getStream(split.uri, position, split.end);
+        if (stream == null) {
+            return null;
+        }
+        if (compressed) {
+            stream = new GZIPInputStream(stream);
+        }
+        LineReader lineReader = new LineReader(stream, position, split.end);
+        if (split.start > 0) {
+            // the line belongs to the previous split
+            lineReader.skipLine();
+        }
+        return new JsonRecordReader(lineReader);
+    }
+
+    private static final class JsonRecordReader implements RecordReader {
+
+        private final LineReader lineReader;
+        private byte[] line;
+        private long lineNumber = 0;
+
+        JsonRecordReader(LineReader lineReader) {
+            this.lineReader = lineReader;
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            while ((line = lineReader.readLine()) != null) {
+                lineNumber++;
+                if (line.length > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long recordNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public byte[] raw() {
+            return line;
+        }
+
+        @Nullable
+        @Override
+        public Map<String, Object> source() {
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lineReader.close();
+        }
+    }
+}
@@ -27,4 +27,20 @@ import io.crate.operation.reference.file.LineContext;
 public abstract class LineCollectorExpression<ReturnType> implements Input<ReturnType> {
 
     public abstract void startCollect(LineContext context);
+
+    /**
+     * @return true if the expression accesses the parsed line, in which case lines may be parsed ahead
+     *         on the thread which reads them.
+     */
+    public boolean requiresParsedSource() {
+        return true;
+    }
+
+    /**
+     * @return true if the expression accesses the line as JSON. Formats which read records as map
+     *         serialize them ahead on the thread which reads them.
+     */
+    public boolean requiresRawSource() {
+        return false;
+    }
 }
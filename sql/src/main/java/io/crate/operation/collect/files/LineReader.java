@@ -0,0 +1,124 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a stream as UTF-8 encoded bytes and keeps track of the byte offset in the file.
+ * Like {@link java.io.BufferedReader#readLine()} lines are terminated by '\n', '\r' or "\r\n".
+ * Only lines which start before {@code end} are read.
+ */
+final class LineReader implements Closeable {
+
+    private final InputStream in;
+    private final long end;
+    private final byte[] buffer = new byte[8192];
+    private byte[] line = new byte[256];
+    private int bufferPosition = 0;
+    private int bufferLimit = 0;
+    private long position;
+    private boolean skipLF = false;
+
+    LineReader(InputStream in, long position, long end) {
+        this.in = in;
+        this.position = position;
+        this.end = end;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        bufferPosition = 0;
+        bufferLimit = read;
+        return true;
+    }
+
+    void skipLine() throws IOException {
+        readLine(false);
+    }
+
+    @Nullable
+    byte[] readLine() throws IOException {
+        return readLine(true);
+    }
+
+    @Nullable
+    private byte[] readLine(boolean checkEnd) throws IOException {
+        if (skipLF) {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                return null;
+            }
+            if (buffer[bufferPosition] == '\n') {
+                bufferPosition++;
+                position++;
+            }
+            skipLF = false;
+        }
+        if (checkEnd && position >= end) {
+            return null;
+        }
+        int length = 0;
+        boolean readAny = false;
+        while (true) {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                return readAny ? Arrays.copyOf(line, length) : null;
+            }
+            readAny = true;
+            int start = bufferPosition;
+            while (bufferPosition < bufferLimit) {
+                byte b = buffer[bufferPosition];
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                bufferPosition++;
+            }
+            int numBytes = bufferPosition - start;
+            if (length + numBytes > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + numBytes));
+            }
+            System.arraycopy(buffer, start, line, length, numBytes);
+            length += numBytes;
+            position += numBytes;
+            if (bufferPosition < bufferLimit) {
+                skipLF = buffer[bufferPosition] == '\r';
+                bufferPosition++;
+                position++;
+                return Arrays.copyOf(line, length);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
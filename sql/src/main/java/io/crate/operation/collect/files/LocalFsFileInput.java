@@ -81,6 +81,24 @@ public class LocalFsFileInput implements FileInput {
         }
     }
 
+    @Override
+    public InputStream getStream(URI uri, long start) throws IOException {
+        FileInputStream stream = (FileInputStream) getStream(uri);
+        if (stream != null && start > 0) {
+            stream.getChannel().position(start);
+        }
+        return stream;
+    }
+
+    @Override
+    public long size(URI uri) throws IOException {
+        try {
+            return Files.size(Paths.get(uri));
+        } catch (NoSuchFileException e) {
+            return -1L;
+        }
+    }
+
     @Override
     public boolean sharedStorageDefault() {
         return false;
@@ -22,12 +22,17 @@
 package io.crate.operation.collect.files;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import io.crate.external.S3ClientHelper;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -40,6 +45,8 @@ public class S3FileInput implements FileInput {
 
     private AmazonS3 client; // to prevent early GC during getObjectContent() in getStream()
     private static final Logger logger = Loggers.getLogger(S3FileInput.class);
+    private static final long RANGE_MARGIN = new ByteSizeValue(1, ByteSizeUnit.MB).getBytes();
+    private static final int RANGE_NOT_SATISFIABLE = 416;
 
     final S3ClientHelper clientBuilder;
 
@@ -98,8 +105,140 @@ public class S3FileInput implements FileInput {
         return null;
     }
 
+    @Override
+    public InputStream getStream(URI uri, long start) throws IOException {
+        if (start == 0) {
+            return getStream(uri);
+        }
+        if (client == null) {
+            client = clientBuilder.client(uri);
+        }
+        long size = size(uri);
+        if (start >= size) {
+            return null;
+        }
+        GetObjectRequest request = new GetObjectRequest(uri.getHost(), uri.getPath().substring(1))
+            .withRange(start, size - 1);
+        S3Object object = client.getObject(request);
+        if (object != null) {
+            return object.getObjectContent();
+        }
+        return null;
+    }
+
+    /**
+     * Requests only the range up to {@code end} plus {@link #RANGE_MARGIN} bytes for the line continuing behind it.
+     * If the line is even longer, the following ranges are requested once the stream is consumed.
+     */
+    @Override
+    public InputStream getStream(URI uri, long start, long end) throws IOException {
+        if (end == Long.MAX_VALUE) {
+            return getStream(uri, start);
+        }
+        if (client == null) {
+            client = clientBuilder.client(uri);
+        }
+        return new RangeInputStream(client, uri.getHost(), uri.getPath().substring(1), start, end + RANGE_MARGIN);
+    }
+
+    @Override
+    public long size(URI uri) throws IOException {
+        if (client == null) {
+            client = clientBuilder.client(uri);
+        }
+        ObjectMetadata metadata = client.getObjectMetadata(uri.getHost(), uri.getPath().substring(1));
+        if (metadata == null) {
+            return -1L;
+        }
+        return metadata.getContentLength();
+    }
+
     @Override
     public boolean sharedStorageDefault() {
         return true;
     }
+
+    /**
+     * Reads an object with consecutive range requests. The first range ends at {@code firstRangeEnd},
+     * the following ones are {@link #RANGE_MARGIN} bytes long and are only requested if the stream is read further.
+     */
+    private static final class RangeInputStream extends InputStream {
+
+        private final AmazonS3 client;
+        private final String bucket;
+        private final String key;
+        private long position;
+        private long rangeEnd;
+        private InputStream current;
+        private boolean eof = false;
+
+        RangeInputStream(AmazonS3 client, String bucket, String key, long start, long firstRangeEnd) {
+            this.client = client;
+            this.bucket = bucket;
+            this.key = key;
+            this.position = start;
+            this.rangeEnd = firstRangeEnd;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int read = read(b, 0, 1);
+            return read < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (!eof) {
+                if (current == null && !openNextRange()) {
+                    return -1;
+                }
+                int read = current.read(b, off, len);
+                if (read > 0) {
+                    position += read;
+                    return read;
+                }
+                current.close();
+                current = null;
+                if (position < rangeEnd) {
+                    // the object ended within the requested range
+                    eof = true;
+                } else {
+                    rangeEnd = position + RANGE_MARGIN;
+                }
+            }
+            return -1;
+        }
+
+        private boolean openNextRange() {
+            try {
+                S3Object object = client.getObject(new GetObjectRequest(bucket, key).withRange(position, rangeEnd - 1));
+                if (object == null) {
+                    eof = true;
+                    return false;
+                }
+                current = object.getObjectContent();
+                return true;
+            } catch (AmazonS3Exception e) {
+                if (e.getStatusCode() == RANGE_NOT_SATISFIABLE) {
+                    // the previous range ended exactly at the end of the object
+                    eof = true;
+                    return false;
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            eof = true;
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
 }
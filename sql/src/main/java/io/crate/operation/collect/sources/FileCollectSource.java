@@ -22,17 +22,24 @@
 package io.crate.operation.collect.sources;
 
 import io.crate.analyze.CopyFromAnalyzedStatement;
+import io.crate.analyze.symbol.RefVisitor;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.analyze.symbol.ValueSymbolVisitor;
+import io.crate.data.AsyncCompositeBatchIterator;
 import io.crate.data.BatchConsumer;
 import io.crate.data.BatchIterator;
 import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
+import io.crate.metadata.doc.DocSysColumns;
 import io.crate.operation.InputFactory;
 import io.crate.operation.collect.BatchIteratorCollectorBridge;
 import io.crate.operation.collect.CrateCollector;
 import io.crate.operation.collect.JobCollectContext;
 import io.crate.operation.collect.files.FileInputFactory;
 import io.crate.operation.collect.files.FileReadingIterator;
+import io.crate.operation.collect.files.FileSplits;
+import io.crate.operation.collect.files.InputFormat;
+import io.crate.operation.collect.files.InputFormats;
 import io.crate.operation.collect.files.LineCollectorExpression;
 import io.crate.operation.reference.file.FileLineReferenceResolver;
 import io.crate.planner.node.dql.CollectPhase;
@@ -42,32 +49,50 @@ import io.crate.types.DataTypes;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.threadpool.ThreadPool;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 @Singleton
 public class FileCollectSource implements CollectSource {
 
+    /**
+     * Number of lines each of the parallel readers reads (and parses) per batch
+     */
+    private static final int BATCH_SIZE = 1_000;
+
     private final ClusterService clusterService;
     private final Map<String, FileInputFactory> fileInputFactoryMap;
     private final InputFactory inputFactory;
+    private final Executor executor;
+    private final int numReadersPerNode;
 
     @Inject
-    public FileCollectSource(Functions functions, ClusterService clusterService, Map<String, FileInputFactory> fileInputFactoryMap) {
+    public FileCollectSource(Settings settings,
+                             Functions functions,
+                             ClusterService clusterService,
+                             Map<String, FileInputFactory> fileInputFactoryMap,
+                             ThreadPool threadPool) {
         this.fileInputFactoryMap = fileInputFactoryMap;
         inputFactory = new InputFactory(functions);
         this.clusterService = clusterService;
+        // reading is mostly blocked on IO, the number of concurrent tasks is bounded by numReadersPerNode
+        this.executor = threadPool.executor(ThreadPool.Names.GENERIC);
+        this.numReadersPerNode = EsExecutors.numberOfProcessors(settings);
     }
 
     @Override
     public CrateCollector getCollector(CollectPhase collectPhase, BatchConsumer consumer, JobCollectContext jobCollectContext) {
         FileUriCollectPhase fileUriCollectPhase = (FileUriCollectPhase) collectPhase;
-        InputFactory.Context<LineCollectorExpression<?>> ctx =
-            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
-        ctx.add(collectPhase.toCollect());
 
         String[] readers = fileUriCollectPhase.nodeIds().toArray(
             new String[fileUriCollectPhase.nodeIds().size()]);
@@ -75,18 +100,63 @@ public class FileCollectSource implements CollectSource {
 
         List<String> fileUris;
         fileUris = targetUriToStringList(fileUriCollectPhase.targetUri());
-        BatchIterator fileReadingIterator = FileReadingIterator.newInstance(
+        InputFormat format = InputFormats.get(fileUriCollectPhase.inputFormat());
+        Set<String> columns = columnsToRead(fileUriCollectPhase);
+        FileSplits splits = new FileSplits(
             fileUris,
-            ctx.topLevelInputs(),
-            ctx.expressions(),
             fileUriCollectPhase.compression(),
             fileInputFactoryMap,
             fileUriCollectPhase.sharedStorage(),
             readers.length,
-            Arrays.binarySearch(readers, clusterService.state().nodes().getLocalNodeId())
+            Arrays.binarySearch(readers, clusterService.state().nodes().getLocalNodeId()),
+            format.isSplittable() ? FileSplits.DEFAULT_SPLIT_SIZE : Long.MAX_VALUE
         );
+        if (consumer.requiresScroll() || numReadersPerNode == 1) {
+            return BatchIteratorCollectorBridge.newInstance(
+                createIterator(collectPhase, splits, format, columns, 0), consumer);
+        }
+        // the readers take the splits one after another and read and parse their next batch concurrently
+        BatchIterator[] iterators = new BatchIterator[numReadersPerNode];
+        for (int i = 0; i < iterators.length; i++) {
+            iterators[i] = createIterator(collectPhase, splits, format, columns, BATCH_SIZE);
+        }
+        return BatchIteratorCollectorBridge.newInstance(new AsyncCompositeBatchIterator(executor, iterators), consumer);
+    }
 
-        return BatchIteratorCollectorBridge.newInstance(fileReadingIterator, consumer);
+    private BatchIterator createIterator(CollectPhase collectPhase,
+                                         FileSplits splits,
+                                         InputFormat format,
+                                         @Nullable Set<String> columns,
+                                         int batchSize) {
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        ctx.add(collectPhase.toCollect());
+        return FileReadingIterator.newInstance(splits, format, columns, ctx.topLevelInputs(), ctx.expressions(), batchSize);
+    }
+
+    /**
+     * @return the top level columns which have to be read from the files or null if all columns are required
+     */
+    @Nullable
+    private static Set<String> columnsToRead(FileUriCollectPhase phase) {
+        Set<String> columns = new HashSet<>();
+        for (Symbol symbol : phase.toCollect()) {
+            if (!(symbol instanceof Reference)) {
+                // generated expressions of the primary key or partition columns
+                RefVisitor.visitRefs(symbol, r -> columns.add(r.ident().columnIdent().name()));
+                continue;
+            }
+            String name = ((Reference) symbol).ident().columnIdent().name();
+            if (name.equals(DocSysColumns.RAW.name()) || name.equals(DocSysColumns.DOC.name())) {
+                if (phase.columns() == null) {
+                    return null;
+                }
+                columns.addAll(phase.columns());
+            } else {
+                columns.add(name);
+            }
+        }
+        return columns;
     }
 
     private static List<String> targetUriToStringList(Symbol targetUri) {
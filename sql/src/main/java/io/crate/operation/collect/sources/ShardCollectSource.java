@@ -39,6 +39,7 @@ import io.crate.data.Row;
 import io.crate.data.RowsBatchIterator;
 import io.crate.exceptions.UnhandledServerException;
 import io.crate.executor.transport.TransportActionProvider;
+import io.crate.jobs.OperationStats;
 import io.crate.lucene.LuceneQueryBuilder;
 import io.crate.metadata.Functions;
 import io.crate.metadata.PartitionName;
@@ -57,6 +58,7 @@ import io.crate.operation.collect.LuceneShardCollectorProvider;
 import io.crate.operation.collect.RemoteCollectorFactory;
 import io.crate.operation.collect.RowsCollector;
 import io.crate.operation.collect.ShardCollectorProvider;
+import io.crate.operation.collect.ShardResultCache;
 import io.crate.operation.collect.collectors.CompositeCollector;
 import io.crate.operation.collect.collectors.OrderedDocCollector;
 import io.crate.operation.collect.collectors.OrderedLuceneBatchIteratorFactory;
@@ -173,6 +175,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
     private final Functions functions;
     private final LuceneQueryBuilder luceneQueryBuilder;
     private final NodeJobsCounter nodeJobsCounter;
+    private final ShardResultCache resultCache;
 
     @Inject
     public ShardCollectSource(Settings settings,
@@ -188,8 +191,10 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                               SystemCollectSource systemCollectSource,
                               NodeSysExpression nodeSysExpression,
                               IndexEventListenerProxy indexEventListenerProxy,
-                              BlobIndicesService blobIndicesService) {
+                              BlobIndicesService blobIndicesService,
+                              ShardResultCache resultCache) {
         super(settings);
+        this.resultCache = resultCache;
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.schemas = schemas;
         this.indicesService = indicesService;
@@ -269,7 +274,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                 } else {
                     return new LuceneShardCollectorProvider(
                         schemas, luceneQueryBuilder, clusterService, nodeJobsCounter, functions,
-                        threadPool, settings, transportActionProvider, indexShard);
+                        threadPool, settings, transportActionProvider, resultCache, indexShard);
                 }
             });
             shards.put(indexShard.shardId(), providerSupplier);
@@ -281,10 +286,12 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
             logger.debug("removing shard upon close in {} shard={} numShards={}", ShardCollectSource.this, shardId, shards.size());
             assert shards.containsKey(shardId) : "shard entry missing upon close";
             shards.remove(shardId);
+            resultCache.clear(shardId);
         }
 
         @Override
         public void beforeIndexShardDeleted(ShardId shardId, Settings indexSettings) {
+            resultCache.clear(shardId);
             if (shards.remove(shardId) != null) {
                 logger.debug("removed shard upon delete in {} shard={} remainingShards={}", ShardCollectSource.this, shardId, shards.size());
             } else {
@@ -309,7 +316,8 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
             Projections.nodeProjections(normalizedPhase.projections()),
             collectPhase.jobId(),
             jobCollectContext.queryPhaseRamAccountingContext(),
-            sharedProjectorFactory
+            sharedProjectorFactory,
+            jobCollectContext.stats()
         );
         if (normalizedPhase.maxRowGranularity() == RowGranularity.SHARD) {
             // it's possible to use FlatProjectorChain instead of ShardProjectorChain as a shortcut because
@@ -461,7 +469,7 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
                         requiresScroll,
                         jobCollectContext
                     );
-                    crateCollectors.add(collector);
+                    crateCollectors.add(profiled(collector, shardId, jobCollectContext.stats()));
                 } catch (ShardNotFoundException | IllegalIndexShardStateException e) {
                     // If toCollect contains a docId it means that this is a QueryThenFetch operation.
                     // In such a case RemoteCollect cannot be used because on that node the FetchContext is missing
@@ -481,6 +489,30 @@ public class ShardCollectSource extends AbstractComponent implements CollectSour
         return crateCollectors;
     }
 
+    /**
+     * Profile the rows emitted by the shard before any shard projections are applied.
+     * This is the time spent in the Lucene query and in loading the collected values.
+     */
+    private static CrateCollector.Builder profiled(CrateCollector.Builder builder,
+                                                   ShardId shardId,
+                                                   OperationStats stats) {
+        if (!stats.isProfiling()) {
+            return builder;
+        }
+        String name = "shard " + shardId;
+        return new CrateCollector.Builder() {
+            @Override
+            public CrateCollector build(BatchConsumer batchConsumer) {
+                return builder.build(stats.profile(name, batchConsumer));
+            }
+
+            @Override
+            public BatchConsumer applyProjections(BatchConsumer consumer) {
+                return builder.applyProjections(consumer);
+            }
+        };
+    }
+
     private CrateCollector getShardsCollector(RoutedCollectPhase collectPhase,
                                               RoutedCollectPhase normalizedPhase,
                                               String localNodeId,
@@ -27,7 +27,6 @@ import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.breaker.JobContextLogSizeEstimator;
 import io.crate.breaker.OperationContextLogSizeEstimator;
 import io.crate.breaker.SizeEstimator;
-import io.crate.core.collections.BlockingEvictingQueue;
 import io.crate.operation.reference.sys.job.ContextLog;
 import io.crate.operation.reference.sys.job.JobContextLog;
 import io.crate.operation.reference.sys.operation.OperationContextLog;
@@ -152,26 +151,22 @@ public class JobsLogService extends AbstractLifecycleComponent implements Provid
     }
 
     private <E extends ContextLog> LogSink<E> createSink(int size, TimeValue expiration, SizeEstimator<E> sizeEstimator, String breaker) {
-        Queue<E> q;
         long expirationMillis = expiration.getMillis();
-        final Runnable onClose;
         if (size == 0 && expirationMillis == 0) {
             return NoopLogSink.instance();
-        } else if (expirationMillis > 0) {
-            q = new ConcurrentLinkedDeque<>();
-            TimeExpiring lbTimeExpiring = new TimeExpiring(clearInterval(expiration));
-            ScheduledFuture<?> scheduledFuture = lbTimeExpiring.registerTruncateTask(q, scheduler, expiration);
-            onClose = () -> scheduledFuture.cancel(false);
-        } else {
-            q = new BlockingEvictingQueue<>(size);
-            onClose = () -> {
-            };
+        }
+        if (expirationMillis == 0) {
+            // size bounded logs are written into a ring buffer to keep the overhead on the query path low
+            return new RingBufferSink<>(size, breakerService.getBreaker(breaker), sizeEstimator);
         }
 
+        Queue<E> q = new ConcurrentLinkedDeque<>();
+        TimeExpiring lbTimeExpiring = new TimeExpiring(clearInterval(expiration));
+        ScheduledFuture<?> scheduledFuture = lbTimeExpiring.registerTruncateTask(q, scheduler, expiration);
         RamAccountingQueue<E> accountingQueue = new RamAccountingQueue<>(q, breakerService.getBreaker(breaker), sizeEstimator);
         return new QueueSink<>(accountingQueue, () -> {
             accountingQueue.close();
-            onClose.run();
+            scheduledFuture.cancel(false);
         });
     }
 
@@ -203,6 +198,7 @@ public class JobsLogService extends AbstractLifecycleComponent implements Provid
             isEnabled = false;
             updateOperationSink(0, TimeValue.timeValueSeconds(0));
             updateJobSink(0, TimeValue.timeValueSeconds(0));
+            jobsLogs.resetQueryStats();
         }
     }
 
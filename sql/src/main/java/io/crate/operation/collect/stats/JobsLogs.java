@@ -22,8 +22,10 @@
 
 package io.crate.operation.collect.stats;
 
+import io.crate.jobs.OperationStats;
 import io.crate.operation.reference.sys.job.JobContext;
 import io.crate.operation.reference.sys.job.JobContextLog;
+import io.crate.operation.reference.sys.job.QueryStatsEntry;
 import io.crate.operation.reference.sys.operation.OperationContext;
 import io.crate.operation.reference.sys.operation.OperationContextLog;
 import io.crate.operation.user.User;
@@ -49,6 +51,7 @@ import java.util.function.BooleanSupplier;
  *   - {@link #jobsLog()} ()}
  *   - {@link #activeOperations()} ()}
  *   - {@link #operationsLog()} ()}
+ *   - {@link #queryStats()}
  *
  * Note that on configuration updates (E.g.: resizing of jobs-log size, etc.) the Iterable instances previously returned
  * from the properties may become obsolete.
@@ -64,6 +67,8 @@ public class JobsLogs {
     final AtomicReference<LogSink<JobContextLog>> jobsLog = new AtomicReference<>(NoopLogSink.instance());
     final AtomicReference<LogSink<OperationContextLog>> operationsLog = new AtomicReference<>(NoopLogSink.instance());
 
+    private final StatementStats statementStats = new StatementStats();
+
     private final LongAdder activeRequests = new LongAdder();
     private final BooleanSupplier enabled;
 
@@ -111,8 +116,11 @@ public class JobsLogs {
         if (!isEnabled() || jobContext == null) {
             return;
         }
+        JobContextLog jobContextLog = new JobContextLog(jobContext, errorMessage);
         LogSink<JobContextLog> jobContextLogs = jobsLog.get();
-        jobContextLogs.add(new JobContextLog(jobContext, errorMessage));
+        jobContextLogs.add(jobContextLog);
+        statementStats.record(
+            jobContext.stmt, jobContextLog.ended() - jobContext.started, errorMessage != null, jobContextLog.ended());
     }
 
     /**
@@ -129,10 +137,14 @@ public class JobsLogs {
     }
 
     public void operationStarted(int operationId, UUID jobId, String name) {
+        operationStarted(operationId, jobId, name, new OperationStats());
+    }
+
+    public void operationStarted(int operationId, UUID jobId, String name, OperationStats stats) {
         if (isEnabled()) {
             operationsTable.put(
                 uniqueOperationId(operationId, jobId),
-                new OperationContext(operationId, jobId, name, System.currentTimeMillis()));
+                new OperationContext(operationId, jobId, name, System.currentTimeMillis(), stats));
         }
     }
 
@@ -167,6 +179,13 @@ public class JobsLogs {
         return operationsLog.get();
     }
 
+    /**
+     * Latency statistics of the statements executed on this node, grouped by {@link StatementFingerprint}.
+     */
+    public Iterable<QueryStatsEntry> queryStats() {
+        return statementStats.snapshot();
+    }
+
     public long activeRequests() {
         return activeRequests.longValue();
     }
@@ -179,4 +198,8 @@ public class JobsLogs {
         jobsLog.set(sink);
     }
 
+    void resetQueryStats() {
+        statementStats.clear();
+    }
+
 }
@@ -0,0 +1,172 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.SizeEstimator;
+import io.crate.operation.reference.sys.job.ContextLog;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A size bounded {@link LogSink} which is optimized for a high rate of concurrent writes.
+ * <p>
+ * Items are written into a preallocated ring buffer of {@code size} slots. A write claims the next slot using a
+ * single {@link AtomicLong#getAndIncrement()} on a global sequence and stores the item; once the buffer is full the
+ * oldest item is overwritten.
+ * <p>
+ * Memory accounting is done lazily: instead of estimating the size of every added item, the sizes of all items are
+ * estimated each time the buffer wrapped around and on every read. Like the {@link RamAccountingQueue}, all items
+ * are removed if the breaker limit is exceeded.
+ * <p>
+ * Reading returns a snapshot of the items ordered by {@link ContextLog#ended()}.
+ */
+public class RingBufferSink<T extends ContextLog> implements LogSink<T> {
+
+    private static final Logger LOGGER = Loggers.getLogger(RingBufferSink.class);
+    private static final Comparator<ContextLog> BY_ENDED = Comparator.comparingLong(ContextLog::ended);
+
+    private final int size;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLong position = new AtomicLong(0L);
+    private final CircuitBreaker breaker;
+    private final SizeEstimator<T> sizeEstimator;
+    private final AtomicBoolean accounting = new AtomicBoolean(false);
+
+    // guarded by accounting
+    private RamAccountingContext context;
+    // estimated size of the items at the last accounting; guarded by accounting
+    private long accountedBytes = 0L;
+
+    private volatile boolean closed = false;
+
+    public RingBufferSink(int size, CircuitBreaker breaker, SizeEstimator<T> sizeEstimator) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        this.size = size;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.breaker = breaker;
+        this.sizeEstimator = sizeEstimator;
+        this.context = new RamAccountingContext(contextId(), breaker);
+    }
+
+    private static String contextId() {
+        return String.format(Locale.ENGLISH, "RingBufferSink[%s]", UUID.randomUUID().toString());
+    }
+
+    @Override
+    public void add(T item) {
+        if (closed) {
+            return;
+        }
+        int idx = (int) (position.getAndIncrement() % size);
+        slots.lazySet(idx, item);
+        if (idx == size - 1) {
+            maybeAccount();
+        }
+    }
+
+    @Override
+    public void addAll(Iterable<T> iterable) {
+        for (T t : iterable) {
+            add(t);
+        }
+    }
+
+    /**
+     * Estimate the size of the items and adjust the breaker by the difference to the previous estimate.
+     * Skipped if another thread is already doing so.
+     */
+    private void maybeAccount() {
+        if (closed || !accounting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long bytes = 0L;
+            for (int i = 0; i < size; i++) {
+                T item = slots.get(i);
+                if (item != null) {
+                    bytes += sizeEstimator.estimateSize(item);
+                }
+            }
+            context.addBytesWithoutBreaking(bytes - accountedBytes);
+            accountedBytes = bytes;
+            if (context.exceededBreaker()) {
+                if (LOGGER.isWarnEnabled()) {
+                    LOGGER.warn("Memory limit for breaker [{}] was exceeded. Sink [{}] is cleared.",
+                        breaker.getName(), context.contextId());
+                }
+                clearSlots();
+                context.close();
+                context = new RamAccountingContext(contextId(), breaker);
+            }
+        } finally {
+            accounting.set(false);
+        }
+    }
+
+    private void clearSlots() {
+        for (int i = 0; i < size; i++) {
+            slots.set(i, null);
+        }
+        accountedBytes = 0L;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        maybeAccount();
+        List<T> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            T item = slots.get(i);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        items.sort(BY_ENDED);
+        return Collections.unmodifiableList(items).iterator();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // wait for a concurrent accounting run to finish so that the context isn't replaced after it's been closed
+        while (!accounting.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        clearSlots();
+        context.close();
+    }
+}
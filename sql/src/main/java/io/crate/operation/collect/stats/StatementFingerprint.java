@@ -0,0 +1,176 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+/**
+ * Computes a normalized representation of a SQL statement which can be used to group executions of
+ * the same statement with different parameters or literals.
+ * <p>
+ * Normalization is done on the lexical level so that no additional parsing is required on the query path:
+ * <ul>
+ *     <li>string and numeric literals and parameter placeholders (<code>?</code>, <code>$1</code>)
+ *     are replaced by <code>?</code></li>
+ *     <li>comments are removed and whitespace is collapsed</li>
+ *     <li>everything outside of quoted identifiers is lower cased</li>
+ *     <li>a trailing semicolon is removed</li>
+ * </ul>
+ * E.g. <code>SELECT * FROM t WHERE x = 10 AND name = 'foo'</code> results in
+ * <code>select * from t where x = ? and name = ?</code>
+ */
+public final class StatementFingerprint {
+
+    private static final char PLACEHOLDER = '?';
+
+    private StatementFingerprint() {
+    }
+
+    public static String of(String statement) {
+        StringBuilder sb = new StringBuilder(statement.length());
+        int length = statement.length();
+        int i = 0;
+        boolean pendingSpace = false;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (c == '-' && i + 1 < length && statement.charAt(i + 1) == '-') {
+                i = skipLineComment(statement, i);
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                i = skipBlockComment(statement, i);
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && sb.length() > 0) {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '\'') {
+                i = skipQuoted(statement, i, '\'');
+                sb.append(PLACEHOLDER);
+            } else if (c == '"') {
+                int end = skipQuoted(statement, i, '"');
+                sb.append(statement, i, end);
+                i = end;
+            } else if (c == '$' && i + 1 < length && isDigit(statement.charAt(i + 1))) {
+                i = skipDigits(statement, i + 1);
+                sb.append(PLACEHOLDER);
+            } else if (isNumberStart(statement, i) && !isIdentifierPart(sb)) {
+                i = skipNumber(statement, i);
+                sb.append(PLACEHOLDER);
+            } else {
+                sb.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        int last = sb.length() - 1;
+        while (last >= 0 && (sb.charAt(last) == ';' || sb.charAt(last) == ' ')) {
+            last--;
+        }
+        sb.setLength(last + 1);
+        return sb.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNumberStart(String statement, int i) {
+        char c = statement.charAt(i);
+        if (isDigit(c)) {
+            return true;
+        }
+        return c == '.' && i + 1 < statement.length() && isDigit(statement.charAt(i + 1));
+    }
+
+    /**
+     * @return true if the last character written is part of an identifier, in which case a digit belongs to the
+     *         identifier (e.g. <code>t1</code>) and isn't a literal.
+     */
+    private static boolean isIdentifierPart(StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+        char c = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int skipQuoted(String statement, int start, char quote) {
+        int i = start + 1;
+        int length = statement.length();
+        while (i < length) {
+            if (statement.charAt(i) == quote) {
+                // quotes are escaped by doubling them
+                if (i + 1 < length && statement.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private static int skipDigits(String statement, int start) {
+        int i = start;
+        while (i < statement.length() && isDigit(statement.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipNumber(String statement, int start) {
+        int i = skipDigits(statement, start);
+        int length = statement.length();
+        if (i < length && statement.charAt(i) == '.') {
+            i = skipDigits(statement, i + 1);
+        }
+        if (i < length && (statement.charAt(i) == 'e' || statement.charAt(i) == 'E')) {
+            int exp = i + 1;
+            if (exp < length && (statement.charAt(exp) == '+' || statement.charAt(exp) == '-')) {
+                exp++;
+            }
+            if (exp < length && isDigit(statement.charAt(exp))) {
+                i = skipDigits(statement, exp);
+            }
+        }
+        return i;
+    }
+
+    private static int skipLineComment(String statement, int start) {
+        int end = statement.indexOf('\n', start);
+        return end == -1 ? statement.length() : end + 1;
+    }
+
+    private static int skipBlockComment(String statement, int start) {
+        int end = statement.indexOf("*/", start + 2);
+        return end == -1 ? statement.length() : end + 2;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.crate.operation.reference.sys.job.QueryStatsEntry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distributions of executed statements, grouped by their {@link StatementFingerprint}.
+ * <p>
+ * Durations are recorded into a HDR histogram {@link Recorder} per fingerprint, which doesn't block writers.
+ * On read the values recorded since the last read are added to a cumulative histogram from which the
+ * percentiles are computed.
+ * <p>
+ * The number of tracked fingerprints is bounded; if the limit is reached the least recently executed
+ * fingerprint is removed.
+ */
+@ThreadSafe
+public class StatementStats {
+
+    static final int DEFAULT_MAX_FINGERPRINTS = 500;
+    private static final int SIGNIFICANT_VALUE_DIGITS = 2;
+
+    private final int maxFingerprints;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Cache<String, String> fingerprints;
+
+    public StatementStats() {
+        this(DEFAULT_MAX_FINGERPRINTS);
+    }
+
+    @VisibleForTesting
+    StatementStats(int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+        // statements are often executed repeatedly with the same literals or as prepared statements
+        this.fingerprints = CacheBuilder.newBuilder()
+            .maximumSize(maxFingerprints * 2)
+            .build();
+    }
+
+    /**
+     * @param duration duration of the execution in ms
+     * @param ended timestamp at which the execution ended
+     */
+    public void record(String statement, long duration, boolean failed, long ended) {
+        String fingerprint = fingerprint(statement);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            entry = addEntry(fingerprint);
+        }
+        entry.record(duration, failed, ended);
+    }
+
+    private String fingerprint(String statement) {
+        String fingerprint = fingerprints.getIfPresent(statement);
+        if (fingerprint == null) {
+            fingerprint = StatementFingerprint.of(statement);
+            fingerprints.put(statement, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private synchronized Entry addEntry(String fingerprint) {
+        Entry entry = entries.get(fingerprint);
+        if (entry != null) {
+            return entry;
+        }
+        if (entries.size() >= maxFingerprints) {
+            evictLeastRecentlyExecuted();
+        }
+        entry = new Entry(fingerprint);
+        entries.put(fingerprint, entry);
+        return entry;
+    }
+
+    private void evictLeastRecentlyExecuted() {
+        Entry oldest = null;
+        for (Entry entry : entries.values()) {
+            if (oldest == null || entry.lastExecuted < oldest.lastExecuted) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            entries.remove(oldest.fingerprint);
+        }
+    }
+
+    public Iterable<QueryStatsEntry> snapshot() {
+        List<QueryStatsEntry> snapshot = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            QueryStatsEntry queryStatsEntry = entry.snapshot();
+            if (queryStatsEntry != null) {
+                snapshot.add(queryStatsEntry);
+            }
+        }
+        return snapshot;
+    }
+
+    public void clear() {
+        entries.clear();
+        fingerprints.invalidateAll();
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final Recorder recorder = new Recorder(SIGNIFICANT_VALUE_DIGITS);
+        private final LongAdder errors = new LongAdder();
+        private volatile long lastExecuted;
+
+        // guarded by this
+        private final Histogram histogram = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+        private Histogram intervalHistogram;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void record(long duration, boolean failed, long ended) {
+            recorder.recordValue(Math.max(0L, duration));
+            if (failed) {
+                errors.increment();
+            }
+            lastExecuted = ended;
+        }
+
+        @Nullable
+        synchronized QueryStatsEntry snapshot() {
+            intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+            histogram.add(intervalHistogram);
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                return null;
+            }
+            return new QueryStatsEntry(
+                fingerprint,
+                count,
+                errors.sum(),
+                lastExecuted,
+                histogram.getMean(),
+                histogram.getMinValue(),
+                histogram.getMaxValue(),
+                histogram.getValueAtPercentile(50.0),
+                histogram.getValueAtPercentile(90.0),
+                histogram.getValueAtPercentile(95.0),
+                histogram.getValueAtPercentile(99.0)
+            );
+        }
+    }
+}
@@ -27,12 +27,16 @@ import io.crate.analyze.symbol.Symbol;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.TransactionContext;
 import io.crate.data.Input;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.VectorizedScalar;
 import io.crate.types.DataTypes;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
-public class AndOperator extends Operator<Boolean> {
+public class AndOperator extends Operator<Boolean> implements VectorizedScalar {
 
     public static final String NAME = "op_and";
     public static final FunctionInfo INFO = generateInfo(NAME, DataTypes.BOOLEAN);
@@ -115,6 +119,35 @@ public class AndOperator extends Operator<Boolean> {
         return left && right;
     }
 
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        for (Symbol argument : arguments) {
+            if (!argument.valueType().equals(DataTypes.BOOLEAN)) {
+                return null;
+            }
+        }
+        return (args, size, result) -> {
+            BooleanVector leftVector = (BooleanVector) args[0];
+            BooleanVector rightVector = (BooleanVector) args[1];
+            boolean[] left = leftVector.values;
+            boolean[] right = rightVector.values;
+            boolean[] values = ((BooleanVector) result).values;
+            result.clearNulls();
+            for (int i = 0; i < size; i++) {
+                boolean leftNull = leftVector.isNull(i);
+                boolean rightNull = rightVector.isNull(i);
+                if ((!leftNull && !left[i]) || (!rightNull && !right[i])) {
+                    values[i] = false;
+                } else if (leftNull || rightNull) {
+                    result.setNull(i);
+                } else {
+                    values[i] = left[i] && right[i];
+                }
+            }
+        };
+    }
+
     public static Function of(Symbol first, Symbol second) {
         assert first.valueType().equals(DataTypes.BOOLEAN) : "first symbol must have BOOLEAN return type to create AND function";
         assert second.valueType().equals(DataTypes.BOOLEAN) : "second symbol must have BOOLEAN return type to create AND function";
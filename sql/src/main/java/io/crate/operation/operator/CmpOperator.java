@@ -1,13 +1,22 @@
 package io.crate.operation.operator;
 
+import io.crate.analyze.symbol.Symbol;
 import io.crate.core.collections.MapComparator;
 import io.crate.metadata.FunctionInfo;
 import io.crate.data.Input;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.VectorizedScalar;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-public abstract class CmpOperator extends Operator<Object> {
+public abstract class CmpOperator extends Operator<Object> implements VectorizedScalar {
 
     /**
      * called inside {@link #normalizeSymbol(io.crate.analyze.symbol.Function)}
@@ -55,4 +64,46 @@ public abstract class CmpOperator extends Operator<Object> {
         }
     }
 
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        DataType leftType = arguments.get(0).valueType();
+        if (!leftType.equals(arguments.get(1).valueType())) {
+            return null;
+        }
+        if (LongVector.supports(leftType)) {
+            return (args, size, result) -> {
+                long[] left = ((LongVector) args[0]).values;
+                long[] right = ((LongVector) args[1]).values;
+                boolean[] values = ((BooleanVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    values[i] = compare(Long.compare(left[i], right[i]));
+                }
+            };
+        }
+        if (DoubleVector.supports(leftType)) {
+            return (args, size, result) -> {
+                double[] left = ((DoubleVector) args[0]).values;
+                double[] right = ((DoubleVector) args[1]).values;
+                boolean[] values = ((BooleanVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    values[i] = compare(Double.compare(left[i], right[i]));
+                }
+            };
+        }
+        if (leftType.equals(DataTypes.BOOLEAN)) {
+            return (args, size, result) -> {
+                boolean[] left = ((BooleanVector) args[0]).values;
+                boolean[] right = ((BooleanVector) args[1]).values;
+                boolean[] values = ((BooleanVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    values[i] = compare(Boolean.compare(left[i], right[i]));
+                }
+            };
+        }
+        return null;
+    }
 }
@@ -6,9 +6,14 @@ import io.crate.analyze.symbol.Symbol;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.TransactionContext;
 import io.crate.data.Input;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.VectorizedScalar;
 import io.crate.types.DataTypes;
 
-public class OrOperator extends Operator<Boolean> {
+import javax.annotation.Nullable;
+import java.util.List;
+
+public class OrOperator extends Operator<Boolean> implements VectorizedScalar {
 
     public static final String NAME = "op_or";
     public static final FunctionInfo INFO = generateInfo(NAME, DataTypes.BOOLEAN);
@@ -95,4 +100,33 @@ public class OrOperator extends Operator<Boolean> {
         return left || right;
     }
 
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        for (Symbol argument : arguments) {
+            if (!argument.valueType().equals(DataTypes.BOOLEAN)) {
+                return null;
+            }
+        }
+        return (args, size, result) -> {
+            BooleanVector leftVector = (BooleanVector) args[0];
+            BooleanVector rightVector = (BooleanVector) args[1];
+            boolean[] left = leftVector.values;
+            boolean[] right = rightVector.values;
+            boolean[] values = ((BooleanVector) result).values;
+            result.clearNulls();
+            for (int i = 0; i < size; i++) {
+                boolean leftNull = leftVector.isNull(i);
+                boolean rightNull = rightVector.isNull(i);
+                if ((!leftNull && left[i]) || (!rightNull && right[i])) {
+                    values[i] = true;
+                } else if (leftNull || rightNull) {
+                    result.setNull(i);
+                } else {
+                    values[i] = left[i] || right[i];
+                }
+            }
+        };
+    }
+
 }
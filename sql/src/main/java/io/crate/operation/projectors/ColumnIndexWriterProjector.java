@@ -108,7 +108,7 @@ public class ColumnIndexWriterProjector implements Projector {
             indexNameResolver,
             autoCreateIndices,
             transportActionProvider.transportShardUpsertAction()::execute,
-            transportActionProvider.transportBulkCreateIndicesAction()
+            transportActionProvider.partitionCreationCoordinator()
         );
     }
 
@@ -26,6 +26,7 @@ import com.google.common.collect.Lists;
 import io.crate.Streamer;
 import io.crate.data.BatchConsumer;
 import io.crate.executor.transport.distributed.*;
+import io.crate.jobs.OperationStats;
 import io.crate.operation.NodeOperation;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.node.ExecutionPhases;
@@ -70,7 +71,8 @@ public class DistributingDownstreamFactory extends AbstractComponent {
     public BatchConsumer create(NodeOperation nodeOperation,
                                 DistributionInfo distributionInfo,
                                 UUID jobId,
-                                int pageSize) {
+                                int pageSize,
+                                OperationStats stats) {
         Streamer<?>[] streamers = StreamerVisitor.streamersFromOutputs(nodeOperation.executionPhase());
         assert !ExecutionPhases.hasDirectResponseDownstream(nodeOperation.downstreamNodes())
             : "trying to build a DistributingDownstream but nodeOperation has a directResponse downstream";
@@ -109,7 +111,8 @@ public class DistributingDownstreamFactory extends AbstractComponent {
             nodeOperation.downstreamNodes(),
             transportDistributedResultAction,
             streamers,
-            pageSize
+            pageSize,
+            stats
         );
     }
 }
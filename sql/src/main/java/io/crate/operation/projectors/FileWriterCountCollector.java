@@ -30,17 +30,20 @@ import io.crate.exceptions.SQLParseException;
 import io.crate.exceptions.UnhandledServerException;
 import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.metadata.ColumnIdent;
+import io.crate.operation.collect.files.ColumnarFileWriter;
 import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.projectors.writer.BlockCompressor;
+import io.crate.operation.projectors.writer.JsonLineWriter;
 import io.crate.operation.projectors.writer.Output;
 import io.crate.operation.projectors.writer.OutputFile;
 import io.crate.operation.projectors.writer.OutputS3;
+import io.crate.operation.projectors.writer.ParallelCompressingOutputStream;
 import io.crate.planner.projection.WriterProjection;
 import org.apache.lucene.util.BytesRef;
-import org.elasticsearch.common.xcontent.XContentBuilder;
-import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentHelper;
 
 import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
@@ -61,12 +64,24 @@ import java.util.stream.Collector;
 
 /**
  * Collector implementation which writes the rows to the configured {@link Output}
- * and returns a count representing the number of written rows
+ * and returns a count representing the number of written rows.
+ * <p>
+ * The rows are encoded into a reused {@link JsonLineWriter}. If a compression is set, the output is
+ * compressed in blocks on the executor using a {@link ParallelCompressingOutputStream}.
+ * If {@code maxFileSize} is greater than 0, a new file is started once the current file
+ * contains at least {@code maxFileSize} uncompressed bytes. The additional files are named
+ * like the first file with a {@code _<n>} suffix added to the name, e.g. {@code t_0_.json} is followed
+ * by {@code t_0__1.json}.
+ * </p>
+ * <p>
+ * With the columnar output format the values of the inputs are written with a {@link ColumnarFileWriter} instead.
+ * </p>
  */
 public class FileWriterCountCollector implements Collector<Row, long[], Iterable<Row>> {
 
-    private static final byte NEW_LINE = (byte) '\n';
+    private static final int BUFFER_SIZE = 64 * 1024;
 
+    private final ExecutorService executorService;
     private final URI uri;
     private final Iterable<CollectExpression<Row, ?>> collectExpressions;
     private final List<Input<?>> inputs;
@@ -74,10 +89,21 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
     @Nullable
     private final List<String> outputNames;
     private final WriterProjection.OutputFormat outputFormat;
+    @Nullable
     private final WriterProjection.CompressionType compressionType;
-    private Output output;
-
+    private final long maxFileSize;
+    private final JsonLineWriter lineWriter = new JsonLineWriter();
+    @Nullable
     private final RowWriter rowWriter;
+    @Nullable
+    private final Object[] columnValues;
+
+    @Nullable
+    private OutputStream outputStream;
+    @Nullable
+    private ColumnarFileWriter columnarWriter;
+    private int fileNumber = 0;
+    private long bytesInFile = 0;
 
     public FileWriterCountCollector(ExecutorService executorService,
                                     String uri,
@@ -86,26 +112,29 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
                                     Iterable<CollectExpression<Row, ?>> collectExpressions,
                                     Map<ColumnIdent, Object> overwrites,
                                     @Nullable List<String> outputNames,
-                                    WriterProjection.OutputFormat outputFormat) {
+                                    WriterProjection.OutputFormat outputFormat,
+                                    long maxFileSize) {
+        this.executorService = executorService;
         this.collectExpressions = collectExpressions;
         this.inputs = inputs;
         this.overwrites = toNestedStringObjectMap(overwrites);
         this.outputNames = outputNames;
         this.outputFormat = outputFormat;
         this.compressionType = compressionType;
+        this.maxFileSize = maxFileSize;
         try {
             this.uri = new URI(uri);
         } catch (URISyntaxException e) {
             throw new SQLParseException(String.format(Locale.ENGLISH, "Invalid uri '%s'", uri), e);
         }
-        if (this.uri.getScheme() == null || this.uri.getScheme().equals("file")) {
-            this.output = new OutputFile(this.uri, this.compressionType);
-        } else if (this.uri.getScheme().equalsIgnoreCase("s3")) {
-            this.output = new OutputS3(executorService, this.uri, this.compressionType);
-        } else {
+        if (this.uri.getScheme() != null
+            && !this.uri.getScheme().equals("file")
+            && !this.uri.getScheme().equalsIgnoreCase("s3")) {
             throw new UnsupportedFeatureException(String.format(Locale.ENGLISH, "Unknown scheme '%s'", this.uri.getScheme()));
         }
         this.rowWriter = initWriter();
+        this.columnValues = rowWriter == null ? new Object[inputs.size()] : null;
+        openOutput(this.uri);
     }
 
     @VisibleForTesting
@@ -146,30 +175,91 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
         return nestedMap;
     }
 
-    private RowWriter initWriter() {
+    /**
+     * @return the uri of the n-th file, the first file uses the given uri
+     */
+    @VisibleForTesting
+    static URI fileUri(URI uri, int fileNumber) {
+        if (fileNumber == 0) {
+            return uri;
+        }
+        String uriString = uri.toString();
+        String path = uri.getRawPath();
+        assert uriString.endsWith(path) : "uri must not contain a query or fragment";
+        int nameStart = path.lastIndexOf('/') + 1;
+        int extensionStart = path.indexOf('.', nameStart);
+        if (extensionStart == -1) {
+            extensionStart = path.length();
+        }
+        String partUri = uriString.substring(0, uriString.length() - path.length())
+                         + path.substring(0, extensionStart) + '_' + fileNumber + path.substring(extensionStart);
         try {
-            if (!overwrites.isEmpty()) {
-                return new DocWriter(
-                    output.acquireOutputStream(), collectExpressions, overwrites);
-            } else if (outputFormat.equals(WriterProjection.OutputFormat.JSON_ARRAY)) {
-                return new ColumnRowWriter(output.acquireOutputStream(), collectExpressions, inputs);
-            } else if (outputNames != null && outputFormat.equals(WriterProjection.OutputFormat.JSON_OBJECT)) {
-                return new ColumnRowObjectWriter(output.acquireOutputStream(), collectExpressions, inputs, outputNames);
-            } else {
-                return new RawRowWriter(output.acquireOutputStream());
+            return new URI(partUri);
+        } catch (URISyntaxException e) {
+            throw new SQLParseException(String.format(Locale.ENGLISH, "Invalid uri '%s'", partUri), e);
+        }
+    }
+
+    private void openOutput(URI fileUri) {
+        outputStream = openOutputStream(fileUri);
+        if (outputFormat == WriterProjection.OutputFormat.COLUMNAR) {
+            try {
+                columnarWriter = new ColumnarFileWriter(outputStream, outputNames);
+            } catch (IOException e) {
+                throw new UnhandledServerException(
+                    String.format(Locale.ENGLISH, "Failed to open output: '%s'", e.getMessage()), e);
             }
-        } catch (IOException e) {
-            throw new UnhandledServerException(String.format(Locale.ENGLISH, "Failed to open output: '%s'", e.getMessage()), e);
         }
     }
 
-    private void closeWriterAndOutput() {
+    private OutputStream openOutputStream(URI fileUri) {
+        Output output;
+        if (fileUri.getScheme() == null || fileUri.getScheme().equals("file")) {
+            output = new OutputFile(fileUri);
+        } else {
+            output = new OutputS3(executorService, fileUri);
+        }
         try {
-            if (rowWriter != null) {
-                rowWriter.close();
+            OutputStream os = output.acquireOutputStream();
+            if (compressionType == null) {
+                return new BufferedOutputStream(os, BUFFER_SIZE);
             }
+            return new ParallelCompressingOutputStream(os, BlockCompressor.of(compressionType), executorService);
         } catch (IOException e) {
+            throw new UnhandledServerException(String.format(Locale.ENGLISH, "Failed to open output: '%s'", e.getMessage()), e);
+        }
+    }
 
+    @Nullable
+    private RowWriter initWriter() {
+        if (outputFormat == WriterProjection.OutputFormat.COLUMNAR) {
+            return null;
+        } else if (!overwrites.isEmpty()) {
+            return new DocWriter(collectExpressions, overwrites);
+        } else if (outputFormat.equals(WriterProjection.OutputFormat.JSON_ARRAY)) {
+            return new ColumnRowWriter(collectExpressions, inputs);
+        } else if (outputNames != null && outputFormat.equals(WriterProjection.OutputFormat.JSON_OBJECT)) {
+            return new ColumnRowObjectWriter(collectExpressions, inputs, outputNames);
+        } else {
+            return new RawRowWriter();
+        }
+    }
+
+    private void closeOutput() {
+        if (outputStream != null) {
+            try {
+                if (columnarWriter == null) {
+                    outputStream.close();
+                } else {
+                    // writes the footer and closes the stream
+                    columnarWriter.close();
+                }
+            } catch (IOException e) {
+                throw new UnhandledServerException("Failed to close output", e);
+            } finally {
+                outputStream = null;
+                columnarWriter = null;
+            }
         }
     }
 
@@ -184,8 +274,36 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
     }
 
     private void onNextRow(long[] container, Row row) {
-        rowWriter.write(row);
+        if (outputStream == null) {
+            fileNumber++;
+            bytesInFile = 0;
+            openOutput(fileUri(uri, fileNumber));
+        }
+        try {
+            if (columnarWriter == null) {
+                rowWriter.write(row, lineWriter);
+                bytesInFile += lineWriter.writeLineTo(outputStream);
+            } else {
+                writeColumnValues(row);
+                bytesInFile = columnarWriter.bytesWritten();
+            }
+        } catch (IOException e) {
+            throw new UnhandledServerException("Failed to write row to output", e);
+        }
         container[0] += 1;
+        if (maxFileSize > 0 && bytesInFile >= maxFileSize) {
+            closeOutput();
+        }
+    }
+
+    private void writeColumnValues(Row row) throws IOException {
+        for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
+            collectExpression.setNextRow(row);
+        }
+        for (int i = 0; i < columnValues.length; i++) {
+            columnValues[i] = inputs.get(i).value();
+        }
+        columnarWriter.addRow(columnValues);
     }
 
     @Override
@@ -198,7 +316,7 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
     @Override
     public Function<long[], Iterable<Row>> finisher() {
         return (container) -> {
-            closeWriterAndOutput();
+            closeOutput();
             return Collections.singletonList(new Row1(container[0]));
         };
     }
@@ -210,116 +328,62 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
 
     interface RowWriter {
 
-        void write(Row row);
-
-        void close() throws IOException;
+        /**
+         * encode the row as single line (without line terminator) into the writer
+         */
+        void write(Row row, JsonLineWriter writer) throws IOException;
     }
 
     static class DocWriter implements RowWriter {
 
-        private final OutputStream outputStream;
         private final Iterable<CollectExpression<Row, ?>> collectExpressions;
         private final Map<String, Object> overwrites;
-        private final XContentBuilder builder;
 
-        public DocWriter(OutputStream outputStream,
-                         Iterable<CollectExpression<Row, ?>> collectExpressions,
-                         Map<String, Object> overwrites) throws IOException {
-            this.outputStream = outputStream;
+        DocWriter(Iterable<CollectExpression<Row, ?>> collectExpressions, Map<String, Object> overwrites) {
             this.collectExpressions = collectExpressions;
             this.overwrites = overwrites;
-            builder = XContentFactory.jsonBuilder(outputStream);
         }
 
         @Override
         @SuppressWarnings("unchecked")
-        public void write(Row row) {
+        public void write(Row row, JsonLineWriter writer) throws IOException {
             for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
                 collectExpression.setNextRow(row);
             }
             Map doc = (Map) row.get(0);
             XContentHelper.update(doc, overwrites, false);
-            try {
-                builder.map(doc);
-                builder.flush();
-                outputStream.write(NEW_LINE);
-            } catch (IOException e) {
-                throw new UnhandledServerException("Failed to write row to output", e);
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            outputStream.close();
+            writer.writeMap(doc);
         }
     }
 
     static class RawRowWriter implements RowWriter {
 
-        private final OutputStream outputStream;
-
-        RawRowWriter(OutputStream outputStream) {
-            this.outputStream = outputStream;
-        }
-
         @Override
-        public void write(Row row) {
-            BytesRef value = (BytesRef) row.get(0);
-            try {
-                outputStream.write(value.bytes, value.offset, value.length);
-                outputStream.write(NEW_LINE);
-            } catch (IOException e) {
-                throw new UnhandledServerException("Failed to write row to output", e);
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            outputStream.close();
+        public void write(Row row, JsonLineWriter writer) {
+            writer.writeRaw((BytesRef) row.get(0));
         }
     }
 
     static class ColumnRowWriter implements RowWriter {
 
         private final Iterable<CollectExpression<Row, ?>> collectExpressions;
-        private final OutputStream outputStream;
         protected final List<Input<?>> inputs;
-        protected final XContentBuilder builder;
 
-        ColumnRowWriter(OutputStream outputStream,
-                        Iterable<CollectExpression<Row, ?>> collectExpressions,
-                        List<Input<?>> inputs) throws IOException {
-            this.outputStream = outputStream;
+        ColumnRowWriter(Iterable<CollectExpression<Row, ?>> collectExpressions, List<Input<?>> inputs) {
             this.collectExpressions = collectExpressions;
             this.inputs = inputs;
-            builder = XContentFactory.jsonBuilder(outputStream);
         }
 
-        public void write(Row row) {
+        @Override
+        public void write(Row row, JsonLineWriter writer) throws IOException {
             for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
                 collectExpression.setNextRow(row);
             }
-            try {
-                processInputs();
-                builder.flush();
-                outputStream.write(NEW_LINE);
-            } catch (IOException e) {
-                throw new UnhandledServerException("Failed to write row to output", e);
-            }
+            processInputs(writer);
         }
 
-        @Override
-        public void close() throws IOException {
-            builder.close();
-            outputStream.close();
-        }
-
-        protected void processInputs() throws IOException {
-            builder.startArray();
-            for (Input<?> input : inputs) {
-                builder.value(input.value());
-            }
-            builder.endArray();
+        protected void processInputs(JsonLineWriter writer) throws IOException {
+            writer.writeArray(inputs);
         }
     }
 
@@ -327,25 +391,16 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
 
         private final List<String> outputNames;
 
-        public ColumnRowObjectWriter(OutputStream outputStream,
-                                     Iterable<CollectExpression<Row, ?>> collectExpressions,
-                                     List<Input<?>> inputs,
-                                     List<String> outputNames) throws IOException {
-            super(outputStream, collectExpressions, inputs);
+        ColumnRowObjectWriter(Iterable<CollectExpression<Row, ?>> collectExpressions,
+                              List<Input<?>> inputs,
+                              List<String> outputNames) {
+            super(collectExpressions, inputs);
             this.outputNames = outputNames;
         }
 
         @Override
-        protected void processInputs() throws IOException {
-            try {
-                builder.startObject();
-                for (int i = 0; i < inputs.size(); i++) {
-                    builder.field(outputNames.get(i), inputs.get(i).value());
-                }
-                builder.endObject();
-            } catch (IOException e) {
-                throw new UnhandledServerException("Failed to write row to output", e);
-            }
+        protected void processInputs(JsonLineWriter writer) throws IOException {
+            writer.writeObject(outputNames, inputs);
         }
     }
 }
@@ -42,6 +42,7 @@ public class FileWriterProjector implements Projector {
     private final WriterProjection.OutputFormat outputFormat;
     private final WriterProjection.CompressionType compressionType;
     private final ExecutorService executorService;
+    private final long maxFileSize;
 
     /**
      * @param inputs a list of {@link Input}.
@@ -50,6 +51,7 @@ public class FileWriterProjector implements Projector {
      *               That raw source is then written to the output
      *               <p/>
      *               If inputs is not null the inputs are consumed to write a JSON array to the output.
+     * @param maxFileSize the number of uncompressed bytes after which a new file is started, 0 to write a single file
      */
     public FileWriterProjector(ExecutorService executorService,
                                String uri,
@@ -58,7 +60,8 @@ public class FileWriterProjector implements Projector {
                                Iterable<CollectExpression<Row, ?>> collectExpressions,
                                Map<ColumnIdent, Object> overwrites,
                                @Nullable List<String> outputNames,
-                               WriterProjection.OutputFormat outputFormat) {
+                               WriterProjection.OutputFormat outputFormat,
+                               long maxFileSize) {
         this.collectExpressions = collectExpressions;
         this.executorService = executorService;
         this.inputs = inputs;
@@ -67,6 +70,7 @@ public class FileWriterProjector implements Projector {
         this.outputFormat = outputFormat;
         this.compressionType = compressionType;
         this.uri = uri;
+        this.maxFileSize = maxFileSize;
     }
 
     @Override
@@ -81,7 +85,8 @@ public class FileWriterProjector implements Projector {
                 collectExpressions,
                 overwrites,
                 outputNames,
-                outputFormat
+                outputFormat,
+                maxFileSize
             ),
             1
         );
@@ -33,7 +33,6 @@ import io.crate.operation.collect.CollectExpression;
 import io.crate.operation.collect.RowShardResolver;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.BytesRef;
-import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
 import org.elasticsearch.action.bulk.BulkRequestExecutor;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -63,7 +62,7 @@ public class IndexWriterProjector implements Projector {
                                 ScheduledExecutorService scheduler,
                                 Functions functions,
                                 Settings settings,
-                                TransportBulkCreateIndicesAction transportBulkCreateIndicesAction,
+                                PartitionCreationCoordinator partitionCreationCoordinator,
                                 BulkRequestExecutor<ShardUpsertRequest> shardUpsertAction,
                                 Supplier<String> indexNameResolver,
                                 Reference rawSourceReference,
@@ -113,7 +112,7 @@ public class IndexWriterProjector implements Projector {
             indexNameResolver,
             autoCreateIndices,
             shardUpsertAction,
-            transportBulkCreateIndicesAction
+            partitionCreationCoordinator
         );
     }
 
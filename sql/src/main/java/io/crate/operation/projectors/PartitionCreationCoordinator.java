@@ -0,0 +1,213 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesRequest;
+import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesResponse;
+import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Coalesces the creation of partitions requested by the concurrent writers of a node
+ * (e.g. the {@link ShardingUpsertExecutor}s of a <code>COPY FROM</code> into a partitioned table).
+ * <p>
+ * Each {@link BulkCreateIndicesRequest} results in a cluster state update task on the master and waits until the
+ * shards of the new partitions are active. Instead of sending a request per writer and bulk, at most one request is in
+ * flight per node: Partitions requested while a request is in flight are collected and created by a single request
+ * once the in-flight request finished. Partitions which are already being created aren't requested again, callers
+ * requesting them wait for the in-flight request instead.
+ * <p>
+ * If a coalesced request fails, the partitions of each caller are requested separately, so that a failure only
+ * affects the callers which requested the partition causing it.
+ */
+@Singleton
+public class PartitionCreationCoordinator {
+
+    private final BiConsumer<BulkCreateIndicesRequest, ActionListener<BulkCreateIndicesResponse>> createIndicesAction;
+    private final Object lock = new Object();
+
+    /**
+     * futures of the partitions being created by the in-flight request
+     */
+    private final Map<String, CompletableFuture<Void>> inFlight = new HashMap<>();
+
+    @Nullable
+    private Batch pending = null;
+    private boolean requestInFlight = false;
+
+    @Inject
+    public PartitionCreationCoordinator(TransportBulkCreateIndicesAction createIndicesAction) {
+        this(createIndicesAction::execute);
+    }
+
+    @VisibleForTesting
+    PartitionCreationCoordinator(
+        BiConsumer<BulkCreateIndicesRequest, ActionListener<BulkCreateIndicesResponse>> createIndicesAction) {
+        this.createIndicesAction = createIndicesAction;
+    }
+
+    /**
+     * Create the given partitions (indices) if they don't exist yet.
+     *
+     * @return a future which completes once all partitions are created
+     */
+    public CompletableFuture<Void> createIndices(Collection<String> indices, UUID jobId) {
+        if (indices.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(2);
+        Batch toSend = null;
+        synchronized (lock) {
+            List<String> toCreate = new ArrayList<>(indices.size());
+            for (String index : indices) {
+                CompletableFuture<Void> future = inFlight.get(index);
+                if (future == null) {
+                    toCreate.add(index);
+                } else if (futures.contains(future) == false) {
+                    futures.add(future);
+                }
+            }
+            if (toCreate.isEmpty() == false) {
+                if (pending == null) {
+                    pending = new Batch(jobId);
+                }
+                futures.addAll(pending.add(toCreate, jobId));
+            }
+            if (requestInFlight == false) {
+                toSend = takePending();
+            }
+        }
+        if (toSend != null) {
+            send(toSend);
+        }
+        if (futures.size() == 1) {
+            return futures.get(0);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    @Nullable
+    private Batch takePending() {
+        assert Thread.holdsLock(lock) : "must hold the lock to take the pending batch";
+        Batch batch = pending;
+        if (batch != null) {
+            pending = null;
+            requestInFlight = true;
+            inFlight.putAll(batch.futureByIndex);
+        }
+        return batch;
+    }
+
+    private void send(Batch batch) {
+        createIndicesAction.accept(
+            new BulkCreateIndicesRequest(new ArrayList<>(batch.futureByIndex.keySet()), batch.jobId),
+            ActionListener.wrap(r -> onBatchDone(batch, null), e -> onBatchDone(batch, e)));
+    }
+
+    private void onBatchDone(Batch batch, @Nullable Exception failure) {
+        Batch next;
+        synchronized (lock) {
+            inFlight.keySet().removeAll(batch.futureByIndex.keySet());
+            requestInFlight = false;
+            next = takePending();
+        }
+        if (next != null) {
+            send(next);
+        }
+        if (failure == null) {
+            for (Caller caller : batch.callers) {
+                caller.future.complete(null);
+            }
+        } else if (batch.callers.size() == 1) {
+            batch.callers.get(0).future.completeExceptionally(failure);
+        } else {
+            for (Caller caller : batch.callers) {
+                createIndicesAction.accept(
+                    new BulkCreateIndicesRequest(caller.indices, caller.jobId),
+                    ActionListener.wrap(r -> caller.future.complete(null), caller.future::completeExceptionally));
+            }
+        }
+    }
+
+    private static class Caller {
+
+        private final List<String> indices;
+        private final UUID jobId;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Caller(List<String> indices, UUID jobId) {
+            this.indices = indices;
+            this.jobId = jobId;
+        }
+    }
+
+    private static class Batch {
+
+        private final UUID jobId;
+        private final Map<String, CompletableFuture<Void>> futureByIndex = new LinkedHashMap<>();
+        private final List<Caller> callers = new ArrayList<>();
+
+        Batch(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        /**
+         * @return the futures of the given indices; indices already part of the batch keep the future of the
+         *         caller which added them first
+         */
+        List<CompletableFuture<Void>> add(List<String> indices, UUID jobId) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(2);
+            List<String> newIndices = new ArrayList<>(indices.size());
+            for (String index : indices) {
+                CompletableFuture<Void> future = futureByIndex.get(index);
+                if (future == null) {
+                    newIndices.add(index);
+                } else if (futures.contains(future) == false) {
+                    futures.add(future);
+                }
+            }
+            if (newIndices.isEmpty() == false) {
+                Caller caller = new Caller(newIndices, jobId);
+                callers.add(caller);
+                for (String index : newIndices) {
+                    futureByIndex.put(index, caller.future);
+                }
+                futures.add(caller.future);
+            }
+            return futures;
+        }
+    }
+}
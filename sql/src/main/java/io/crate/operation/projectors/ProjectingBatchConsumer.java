@@ -26,6 +26,7 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchConsumer;
 import io.crate.data.BatchIterator;
 import io.crate.data.Projector;
+import io.crate.jobs.OperationStats;
 import io.crate.planner.projection.Projection;
 
 import javax.annotation.Nullable;
@@ -53,6 +54,9 @@ public class ProjectingBatchConsumer implements BatchConsumer {
 
     private final BatchConsumer consumer;
     private final List<Projector> projectors;
+    private final List<String> projectorNames;
+    @Nullable
+    private final OperationStats stats;
     private boolean requiresScroll;
 
     public static BatchConsumer create(BatchConsumer lastConsumer,
@@ -60,24 +64,44 @@ public class ProjectingBatchConsumer implements BatchConsumer {
                                        UUID jobId,
                                        RamAccountingContext ramAccountingContext,
                                        ProjectorFactory projectorFactory) {
+        return create(lastConsumer, projections, jobId, ramAccountingContext, projectorFactory, null);
+    }
+
+    /**
+     * @param stats if the stats are {@link OperationStats#isProfiling() profiling} the output of each projector
+     *              is profiled.
+     */
+    public static BatchConsumer create(BatchConsumer lastConsumer,
+                                       Collection<? extends Projection> projections,
+                                       UUID jobId,
+                                       RamAccountingContext ramAccountingContext,
+                                       ProjectorFactory projectorFactory,
+                                       @Nullable OperationStats stats) {
         if (projections.isEmpty()) {
             return lastConsumer;
         }
-        return new ProjectingBatchConsumer(lastConsumer, projections, jobId, ramAccountingContext, projectorFactory);
+        if (stats != null && !stats.isProfiling()) {
+            stats = null;
+        }
+        return new ProjectingBatchConsumer(lastConsumer, projections, jobId, ramAccountingContext, projectorFactory, stats);
     }
 
     private ProjectingBatchConsumer(BatchConsumer consumer,
                                     Collection<? extends Projection> projections,
                                     UUID jobId,
                                     RamAccountingContext ramAccountingContext,
-                                    ProjectorFactory projectorFactory) {
+                                    ProjectorFactory projectorFactory,
+                                    @Nullable OperationStats stats) {
         this.consumer = consumer;
+        this.stats = stats;
         projectors = new ArrayList<>(projections.size());
+        projectorNames = new ArrayList<>(projections.size());
 
         boolean projectorsSupportIndependentScrolling = false;
         for (Projection projection : projections) {
             Projector projector = projectorFactory.create(projection, ramAccountingContext, jobId);
             projectors.add(projector);
+            projectorNames.add("projection " + projectorNames.size() + ": " + projection.projectionType());
 
             if (projector.providesIndependentScroll()) {
                 projectorsSupportIndependentScrolling = true;
@@ -93,9 +117,12 @@ public class ProjectingBatchConsumer implements BatchConsumer {
     @Override
     public void accept(BatchIterator iterator, @Nullable Throwable failure) {
         if (failure == null) {
-            for (Projector projector : projectors) {
+            for (int i = 0; i < projectors.size(); i++) {
                 try {
-                    iterator = projector.apply(iterator);
+                    iterator = projectors.get(i).apply(iterator);
+                    if (stats != null) {
+                        iterator = stats.profile(projectorNames.get(i), iterator);
+                    }
                 } catch (Throwable t) {
                     consumer.accept(null, t);
                     return;
@@ -26,6 +26,7 @@ import io.crate.action.sql.SessionContext;
 import io.crate.analyze.EvaluatingNormalizer;
 import io.crate.analyze.symbol.Literal;
 import io.crate.analyze.symbol.Symbol;
+import io.crate.analyze.symbol.SymbolVisitors;
 import io.crate.analyze.symbol.Symbols;
 import io.crate.analyze.symbol.ValueSymbolVisitor;
 import io.crate.breaker.RamAccountingContext;
@@ -50,6 +51,7 @@ import io.crate.operation.projectors.fetch.FetchProjector;
 import io.crate.operation.projectors.fetch.FetchProjectorContext;
 import io.crate.operation.projectors.fetch.TransportFetchOperation;
 import io.crate.operation.projectors.sorting.OrderingByPosition;
+import io.crate.operation.projectors.sorting.SortKeyEncoder;
 import io.crate.operation.reference.StaticTableDefinition;
 import io.crate.operation.reference.sys.SysRowUpdater;
 import io.crate.planner.projection.AggregationProjection;
@@ -68,6 +70,7 @@ import io.crate.planner.projection.SysUpdateProjection;
 import io.crate.planner.projection.TopNProjection;
 import io.crate.planner.projection.UpdateProjection;
 import io.crate.planner.projection.WriterProjection;
+import io.crate.types.DataType;
 import io.crate.types.StringType;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
@@ -76,6 +79,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -171,21 +176,29 @@ public class ProjectionToProjectorVisitor
         for (int i = numOutputs; i < inputs.size(); i++) {
             orderByIndices[idx++] = i;
         }
+        List<DataType> orderByTypes = Symbols.typeView(projection.orderBy());
+        Comparator<Object[]> comparator = OrderingByPosition.arrayOrdering(
+            orderByIndices, projection.reverseFlags(), projection.nullsFirst(), orderByTypes);
         if (projection.limit() > TopN.NO_LIMIT) {
             return new SortingTopNProjector(
                 inputs,
                 ctx.expressions(),
                 numOutputs,
-                OrderingByPosition.arrayOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+                comparator,
                 projection.limit(),
                 projection.offset()
             );
         }
+        // with more than two columns comparing a single binary key is cheaper than comparing column by column
+        SortKeyEncoder sortKeyEncoder = orderByIndices.length > 2
+            ? SortKeyEncoder.of(orderByIndices, projection.reverseFlags(), projection.nullsFirst(), orderByTypes)
+            : null;
         return new SortingProjector(
             inputs,
             ctx.expressions(),
             numOutputs,
-            OrderingByPosition.arrayOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+            comparator,
+            sortKeyEncoder,
             projection.offset()
         );
     }
@@ -201,9 +214,31 @@ public class ProjectionToProjectorVisitor
             projection.offset());
     }
 
+    /**
+     * @return a context to evaluate the symbols in batch mode or null if batch mode is disabled, the symbols
+     *         don't contain functions (so there is nothing to gain) or can't be vectorized.
+     */
+    @Nullable
+    private InputFactory.VectorContext vectorContext(List<? extends Symbol> symbols) {
+        int batchSize = VectorizedProjector.BATCH_SIZE_SETTING.setting().get(settings);
+        if (batchSize == 0) {
+            return null;
+        }
+        for (Symbol symbol : symbols) {
+            if (SymbolVisitors.any(s -> s instanceof io.crate.analyze.symbol.Function, symbol)) {
+                return inputFactory.ctxForVectors(symbols, batchSize);
+            }
+        }
+        return null;
+    }
+
     @Override
     public Projector visitEvalProjection(EvalProjection projection, Context context) {
         InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(projection.outputs());
+        InputFactory.VectorContext vectorContext = vectorContext(projection.outputs());
+        if (vectorContext != null) {
+            return VectorizedProjector.eval(vectorContext, ctx);
+        }
         return new InputRowProjector(ctx.topLevelInputs(), ctx.expressions());
     }
 
@@ -266,8 +301,11 @@ public class ProjectionToProjectorVisitor
             sb.append("/");
         }
         sb.append(fileName);
+        sb.append(projection.outputFormat() == WriterProjection.OutputFormat.COLUMNAR ? ".columnar" : ".json");
         if (projection.compressionType() == WriterProjection.CompressionType.GZIP) {
             sb.append(".gz");
+        } else if (projection.compressionType() == WriterProjection.CompressionType.SNAPPY) {
+            sb.append(".snappy");
         }
         uri = sb.toString();
 
@@ -279,7 +317,8 @@ public class ProjectionToProjectorVisitor
             ctx.expressions(),
             overwrites,
             projection.outputNames(),
-            projection.outputFormat()
+            projection.outputFormat(),
+            projection.maxFileSize()
         );
     }
 
@@ -314,7 +353,7 @@ public class ProjectionToProjectorVisitor
             threadPool.scheduler(),
             functions,
             clusterService.state().metaData().settings(),
-            transportActionProvider.transportBulkCreateIndicesAction(),
+            transportActionProvider.partitionCreationCoordinator(),
             transportActionProvider.transportShardUpsertAction()::execute,
             indexNameResolver,
             projection.rawSourceReference(),
@@ -369,6 +408,10 @@ public class ProjectionToProjectorVisitor
     @Override
     public Projector visitFilterProjection(FilterProjection projection, Context context) {
         Predicate<Row> rowFilter = RowFilter.create(inputFactory, projection.query());
+        InputFactory.VectorContext vectorContext = vectorContext(Collections.singletonList(projection.query()));
+        if (vectorContext != null) {
+            return VectorizedProjector.filter(vectorContext, rowFilter);
+        }
         return new FilterProjector(rowFilter);
     }
 
@@ -22,7 +22,6 @@
 
 package io.crate.operation.projectors;
 
-import io.crate.action.FutureActionListener;
 import io.crate.action.LimitedExponentialBackoff;
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
@@ -36,9 +35,6 @@ import io.crate.settings.CrateSetting;
 import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
-import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesRequest;
-import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesResponse;
-import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
 import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkRequestExecutor;
 import org.elasticsearch.cluster.routing.ShardIterator;
@@ -89,7 +85,7 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
     private final BiFunction<ShardId, String, TReq> requestFactory;
     private final boolean autoCreateIndices;
     private final BulkRequestExecutor<TReq> requestExecutor;
-    private final TransportBulkCreateIndicesAction createIndicesAction;
+    private final PartitionCreationCoordinator partitionCreationCoordinator;
     private final Map<ShardLocation, TReq> requestsByShard = new HashMap<>();
     private final Map<String, List<PendingRequest<TItem>>> pendingRequestsByIndex = new HashMap<>();
     private final BitSet responses = new BitSet();
@@ -113,7 +109,7 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
                            Supplier<String> indexNameResolver,
                            boolean autoCreateIndices,
                            BulkRequestExecutor<TReq> requestExecutor,
-                           TransportBulkCreateIndicesAction createIndicesAction) {
+                           PartitionCreationCoordinator partitionCreationCoordinator) {
         this.clusterService = clusterService;
         this.nodeJobsCounter = nodeJobsCounter;
         this.scheduler = scheduler;
@@ -123,7 +119,7 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
         this.requestFactory = requestFactory;
         this.autoCreateIndices = autoCreateIndices;
         this.requestExecutor = requestExecutor;
-        this.createIndicesAction = createIndicesAction;
+        this.partitionCreationCoordinator = partitionCreationCoordinator;
         this.rowConsumer = createRowConsumer(rowShardResolver, itemFactory, expressions, indexNameResolver);
         this.backpressureTrigger = createBackpressureTrigger(nodeJobsCounter);
         this.execute = this::createExecuteFunction;
@@ -162,8 +158,6 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
     }
 
     private CompletableFuture<BitSet> createExecuteFunction() {
-        CompletableFuture<BitSet> executeBulkFuture = new CompletableFuture<>();
-
         if (pendingRequestsByIndex.isEmpty() == false) {
             // We create new indices in an async fashion and execute the requests after they are created.
             // This means the iterator consumer thread can carry on accumulating rows for the next bulk.
@@ -176,15 +170,23 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
             Map<ShardLocation, TReq> bulkRequests = new HashMap<>(requestsByShard);
             requestsByShard.clear();
 
-            createPendingIndices(pendingRequestsForCurrentBulk)
-                .thenAccept(resp -> {
-                    bulkRequests.putAll(getFromPendingToRequestMap(pendingRequestsForCurrentBulk));
-                    sendRequestsForBulk(executeBulkFuture, bulkRequests);
+            // Requests for existing indices don't have to wait for the creation of the new indices
+            CompletableFuture<BitSet> existingIndicesFuture = new CompletableFuture<>();
+            sendRequestsForBulk(existingIndicesFuture, bulkRequests);
+
+            CompletableFuture<BitSet> pendingIndicesFuture = new CompletableFuture<>();
+            partitionCreationCoordinator.createIndices(pendingRequestsForCurrentBulk.keySet(), jobId)
+                .whenComplete((ignored, failure) -> {
+                    if (failure == null) {
+                        sendRequestsForBulk(pendingIndicesFuture, getFromPendingToRequestMap(pendingRequestsForCurrentBulk));
+                    } else {
+                        pendingIndicesFuture.completeExceptionally(failure);
+                    }
                 });
-        } else {
-            sendRequestsForBulk(executeBulkFuture, requestsByShard);
+            return existingIndicesFuture.thenCombine(pendingIndicesFuture, (r1, r2) -> responses);
         }
-
+        CompletableFuture<BitSet> executeBulkFuture = new CompletableFuture<>();
+        sendRequestsForBulk(executeBulkFuture, requestsByShard);
         return executeBulkFuture;
     }
 
@@ -326,16 +328,6 @@ public class ShardingUpsertExecutor<TReq extends ShardRequest<TReq, TItem>, TIte
         }
     }
 
-    private CompletableFuture<BulkCreateIndicesResponse> createPendingIndices(
-        Map<String, List<PendingRequest<TItem>>> requestsByIndexForCurrentBulk) {
-
-        FutureActionListener<BulkCreateIndicesResponse, BulkCreateIndicesResponse> listener =
-            new FutureActionListener<>(r -> r);
-        createIndicesAction.execute(new BulkCreateIndicesRequest(requestsByIndexForCurrentBulk.keySet(), jobId),
-            listener);
-        return listener;
-    }
-
     private Map<ShardLocation, TReq> getFromPendingToRequestMap(
         Map<String, List<PendingRequest<TItem>>> requestsByIndexForCurrentBulk) {
         Map<ShardLocation, TReq> requests = new HashMap<>();
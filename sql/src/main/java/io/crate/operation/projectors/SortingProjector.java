@@ -22,9 +22,12 @@
 package io.crate.operation.projectors;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedBytes;
 import io.crate.data.*;
 import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.projectors.sorting.SortKeyEncoder;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -43,6 +46,8 @@ class SortingProjector implements Projector {
     private final Iterable<? extends CollectExpression<Row, ?>> collectExpressions;
 
     private final Comparator<Object[]> comparator;
+    @Nullable
+    private final SortKeyEncoder sortKeyEncoder;
     private final int offset;
     private final int numOutputs;
 
@@ -58,11 +63,25 @@ class SortingProjector implements Projector {
                      int numOutputs,
                      Comparator<Object[]> comparator,
                      int offset) {
+        this(inputs, collectExpressions, numOutputs, comparator, null, offset);
+    }
+
+    /**
+     * @param sortKeyEncoder if not null the rows are sorted by the binary keys it creates instead of using the
+     *                       comparator. It must encode the same order as <code>comparator.reversed()</code>
+     */
+    SortingProjector(Collection<? extends Input<?>> inputs,
+                     Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                     int numOutputs,
+                     Comparator<Object[]> comparator,
+                     @Nullable SortKeyEncoder sortKeyEncoder,
+                     int offset) {
         Preconditions.checkArgument(offset >= 0, "invalid offset %s", offset);
         this.numOutputs = numOutputs;
         this.inputs = inputs;
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
+        this.sortKeyEncoder = sortKeyEncoder;
         this.offset = offset;
     }
 
@@ -84,16 +103,27 @@ class SortingProjector implements Projector {
         for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
             collectExpression.setNextRow(row);
         }
-        Object[] newRow = new Object[inputs.size()];
+        int numCells = inputs.size();
+        // the sort key is stored in an additional cell after the inputs; it's cut off by the bucket (numOutputs)
+        Object[] newRow = new Object[sortKeyEncoder == null ? numCells : numCells + 1];
         int i = 0;
         for (Input<?> input : inputs) {
             newRow[i++] = input.value();
         }
+        if (sortKeyEncoder != null) {
+            newRow[numCells] = sortKeyEncoder.encode(newRow);
+        }
         return newRow;
     }
 
     private Bucket sortAndCreateBucket(List<Object[]> rows) {
-        rows.sort(comparator.reversed());
+        if (sortKeyEncoder == null) {
+            rows.sort(comparator.reversed());
+        } else {
+            int keyIdx = inputs.size();
+            Comparator<byte[]> keyComparator = UnsignedBytes.lexicographicalComparator();
+            rows.sort((a, b) -> keyComparator.compare((byte[]) a[keyIdx], (byte[]) b[keyIdx]));
+        }
         if (offset == 0) {
             return new CollectionBucket(rows, numOutputs);
         }
@@ -0,0 +1,349 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import io.crate.concurrent.CompletableFutures;
+import io.crate.data.AsyncOperationBatchIterator;
+import io.crate.data.BatchAccumulator;
+import io.crate.data.BatchIterator;
+import io.crate.data.Buckets;
+import io.crate.data.Input;
+import io.crate.data.Projector;
+import io.crate.data.Row;
+import io.crate.operation.InputFactory;
+import io.crate.operation.InputRow;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.vector.BooleanVector;
+import io.crate.operation.vector.ColumnVector;
+import io.crate.operation.vector.VectorExpression;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.settings.Setting;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Batch mode variant of the {@link InputRowProjector} and {@link FilterProjector}.
+ *
+ * Rows are collected into {@link ColumnVector}s of up to {@link InputFactory.VectorContext#batchSize()} rows,
+ * which are then evaluated at once using the {@link io.crate.operation.vector.VectorizedScalar} implementations
+ * of the functions. The resulting rows are views on the vectors and on the buffered source rows, which are reused
+ * for every batch.
+ *
+ * A batch is evaluated before its rows are consumed. If that fails, e.g. because of a division by zero, the rows
+ * of the batch are evaluated one by one using the row based inputs or filter instead, so that the error is raised
+ * for the row which causes it and only if it's consumed.
+ */
+public class VectorizedProjector implements Projector {
+
+    public static final CrateSetting<Integer> BATCH_SIZE_SETTING = CrateSetting.of(Setting.intSetting(
+        "indices.sql_vectorized.batch_size", 0, 0, Setting.Property.NodeScope), DataTypes.INTEGER);
+
+    private final InputFactory.VectorContext ctx;
+    private final InputFactory.Context<CollectExpression<Row, ?>> rowCtx;
+    private final Predicate<Row> rowFilter;
+
+    /**
+     * Evaluates the top level expressions of the context, emitting one column per expression.
+     *
+     * @param rowCtx the row based inputs of the same symbols, used if the batch evaluation fails.
+     */
+    static VectorizedProjector eval(InputFactory.VectorContext ctx,
+                                    InputFactory.Context<CollectExpression<Row, ?>> rowCtx) {
+        return new VectorizedProjector(ctx, rowCtx, null);
+    }
+
+    /**
+     * Emits the source rows for which the single top level expression of the context evaluates to true.
+     *
+     * @param rowFilter the row based filter of the same query, used if the batch evaluation fails.
+     */
+    static VectorizedProjector filter(InputFactory.VectorContext ctx, Predicate<Row> rowFilter) {
+        assert ctx.topLevelExpressions().size() == 1 : "filter must have exactly one top level expression";
+        return new VectorizedProjector(ctx, null, rowFilter);
+    }
+
+    private VectorizedProjector(InputFactory.VectorContext ctx,
+                                InputFactory.Context<CollectExpression<Row, ?>> rowCtx,
+                                Predicate<Row> rowFilter) {
+        this.ctx = ctx;
+        this.rowCtx = rowCtx;
+        this.rowFilter = rowFilter;
+    }
+
+    @Override
+    public BatchIterator apply(BatchIterator batchIterator) {
+        int numSourceColumns = batchIterator.rowData().size();
+        int numColumns = rowFilter == null ? ctx.topLevelExpressions().size() : numSourceColumns;
+        return new AsyncOperationBatchIterator(
+            batchIterator, numColumns, new VectorAccumulator(ctx, rowCtx, rowFilter, numSourceColumns));
+    }
+
+    @Override
+    public boolean providesIndependentScroll() {
+        return false;
+    }
+
+    private static class VectorAccumulator implements BatchAccumulator<Row, Iterator<? extends Row>> {
+
+        private final InputFactory.VectorContext ctx;
+        private final InputFactory.Context<CollectExpression<Row, ?>> rowCtx;
+        private final Predicate<Row> rowFilter;
+        private final ColumnVector[] columns;
+        private final Object[][] sourceColumns;
+        private int size = 0;
+
+        VectorAccumulator(InputFactory.VectorContext ctx,
+                          InputFactory.Context<CollectExpression<Row, ?>> rowCtx,
+                          Predicate<Row> rowFilter,
+                          int numSourceColumns) {
+            this.ctx = ctx;
+            this.rowCtx = rowCtx;
+            this.rowFilter = rowFilter;
+            this.columns = new ColumnVector[ctx.topLevelExpressions().size()];
+            this.sourceColumns = new Object[numSourceColumns][ctx.batchSize()];
+        }
+
+        @Override
+        public void onItem(Row row) {
+            ctx.setRow(size, row);
+            for (int c = 0; c < sourceColumns.length; c++) {
+                sourceColumns[c][size] = row.get(c);
+            }
+            size++;
+        }
+
+        @Override
+        public int batchSize() {
+            return ctx.batchSize();
+        }
+
+        @Override
+        public CompletableFuture<Iterator<? extends Row>> processBatch(boolean isLastBatch) {
+            try {
+                return CompletableFuture.completedFuture(evaluate());
+            } catch (Throwable t) {
+                return CompletableFutures.failedFuture(t);
+            } finally {
+                reset();
+            }
+        }
+
+        private Iterator<? extends Row> evaluate() {
+            List<VectorExpression> expressions = ctx.topLevelExpressions();
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = expressions.get(i).evaluate(size);
+                }
+            } catch (RuntimeException e) {
+                return rowFilter == null
+                    ? new EvaluatingRows(sourceColumns, size, rowCtx)
+                    : new FilteringRows(sourceColumns, size, rowFilter);
+            }
+            if (rowFilter == null) {
+                return new PositionIterator(size, new VectorRow(columns));
+            }
+            return new MatchingRows(sourceColumns, size, (BooleanVector) columns[0]);
+        }
+
+        @Override
+        public void close() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Iterates over the positions of a batch, returning the same row which is moved to the current position.
+     */
+    private static class PositionIterator implements Iterator<Row> {
+
+        private final int size;
+        private final PositionedRow row;
+        int position = -1;
+
+        PositionIterator(int size, PositionedRow row) {
+            this.size = size;
+            this.row = row;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position + 1 < size;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("batch has no more rows");
+            }
+            position++;
+            row.position = position;
+            return row;
+        }
+    }
+
+    /**
+     * Emits the buffered source rows whose position is true in the given vector.
+     */
+    private static class MatchingRows extends PositionIterator {
+
+        private final BooleanVector matches;
+
+        MatchingRows(Object[][] sourceColumns, int size, BooleanVector matches) {
+            super(size, new BufferedRow(sourceColumns));
+            this.matches = matches;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (super.hasNext()) {
+                if (matches.isTrue(position + 1)) {
+                    return true;
+                }
+                position++;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Emits the buffered source rows which match the row based filter, evaluating it on demand.
+     */
+    private static class FilteringRows extends PositionIterator {
+
+        private final Predicate<Row> rowFilter;
+        private final BufferedRow candidate;
+        private int matchedPosition = -1;
+
+        FilteringRows(Object[][] sourceColumns, int size, Predicate<Row> rowFilter) {
+            super(size, new BufferedRow(sourceColumns));
+            this.rowFilter = rowFilter;
+            this.candidate = new BufferedRow(sourceColumns);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (matchedPosition > position) {
+                return true;
+            }
+            while (super.hasNext()) {
+                candidate.position = position + 1;
+                if (rowFilter.test(candidate)) {
+                    matchedPosition = candidate.position;
+                    return true;
+                }
+                position++;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Evaluates the row based inputs for the buffered source rows on demand.
+     */
+    private static class EvaluatingRows implements Iterator<Row> {
+
+        private final PositionIterator sourceRows;
+        private final Iterable<? extends CollectExpression<Row, ?>> expressions;
+        private final Row row;
+
+        EvaluatingRows(Object[][] sourceColumns,
+                       int size,
+                       InputFactory.Context<CollectExpression<Row, ?>> rowCtx) {
+            this.sourceRows = new PositionIterator(size, new BufferedRow(sourceColumns));
+            this.expressions = rowCtx.expressions();
+            List<Input<?>> inputs = rowCtx.topLevelInputs();
+            this.row = new InputRow(inputs);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return sourceRows.hasNext();
+        }
+
+        @Override
+        public Row next() {
+            Row sourceRow = sourceRows.next();
+            for (CollectExpression<Row, ?> expression : expressions) {
+                expression.setNextRow(sourceRow);
+            }
+            return row;
+        }
+    }
+
+    private abstract static class PositionedRow implements Row {
+
+        int position;
+
+        @Override
+        public Object[] materialize() {
+            return Buckets.materialize(this);
+        }
+    }
+
+    private static class VectorRow extends PositionedRow {
+
+        private final ColumnVector[] columns;
+
+        VectorRow(ColumnVector[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public int numColumns() {
+            return columns.length;
+        }
+
+        @Override
+        public Object get(int index) {
+            return columns[index].value(position);
+        }
+    }
+
+    private static class BufferedRow extends PositionedRow {
+
+        private final Object[][] sourceColumns;
+
+        BufferedRow(Object[][] sourceColumns) {
+            this.sourceColumns = sourceColumns;
+        }
+
+        @Override
+        public int numColumns() {
+            return sourceColumns.length;
+        }
+
+        @Override
+        public Object get(int index) {
+            return sourceColumns[index][position];
+        }
+    }
+}
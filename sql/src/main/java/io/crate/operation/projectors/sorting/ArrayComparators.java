@@ -0,0 +1,227 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.sorting;
+
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+import org.apache.lucene.util.BytesRef;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Type specialized variants of {@link OrderingByPosition#arrayOrdering(int[], boolean[], Boolean[])}.
+ * <p>
+ * The comparators have exactly the same (queue reversed) semantics as the generic ordering but compare
+ * long, double and string keys directly instead of going through a chain of natural/reverse/nulls orderings.
+ * One and two keys are compared without iterating over the positions.
+ * Types without a specialization use the generic ordering for their key.
+ */
+public final class ArrayComparators {
+
+    private ArrayComparators() {
+    }
+
+    public static Comparator<Object[]> of(int[] positions,
+                                          boolean[] reverseFlags,
+                                          Boolean[] nullsFirst,
+                                          List<? extends DataType> types) {
+        assert positions.length == types.size() : "there must be a type for each position";
+        switch (positions.length) {
+            case 1:
+                return forKey(positions[0], reverseFlags[0], nullsFirst[0], types.get(0));
+
+            case 2:
+                return new TwoKeyComparator(
+                    forKey(positions[0], reverseFlags[0], nullsFirst[0], types.get(0)),
+                    forKey(positions[1], reverseFlags[1], nullsFirst[1], types.get(1))
+                );
+
+            default:
+                @SuppressWarnings("unchecked")
+                Comparator<Object[]>[] comparators = new Comparator[positions.length];
+                for (int i = 0; i < positions.length; i++) {
+                    comparators[i] = forKey(positions[i], reverseFlags[i], nullsFirst[i], types.get(i));
+                }
+                return new MultiKeyComparator(comparators);
+        }
+    }
+
+    static Comparator<Object[]> forKey(int position, boolean reverse, Boolean nullsFirst, DataType type) {
+        // see OrderingByPosition: the ordering is reversed for the queue and so is the null handling
+        int nullCmp = (reverse && nullsFirst != Boolean.FALSE) || (!reverse && nullsFirst == Boolean.TRUE) ? 1 : -1;
+        switch (type.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+                return new LongKeyComparator(position, reverse, nullCmp);
+
+            case DoubleType.ID:
+            case FloatType.ID:
+                return new DoubleKeyComparator(position, reverse, nullCmp);
+
+            case StringType.ID:
+                return new StringKeyComparator(position, reverse, nullCmp);
+
+            default:
+                return OrderingByPosition.arrayOrdering(position, reverse, nullsFirst);
+        }
+    }
+
+    private static final class LongKeyComparator implements Comparator<Object[]> {
+
+        private final int position;
+        private final boolean reverse;
+        private final int nullCmp;
+
+        LongKeyComparator(int position, boolean reverse, int nullCmp) {
+            this.position = position;
+            this.reverse = reverse;
+            this.nullCmp = nullCmp;
+        }
+
+        @Override
+        public int compare(Object[] left, Object[] right) {
+            Object l = left[position];
+            Object r = right[position];
+            if (l == null) {
+                return r == null ? 0 : nullCmp;
+            }
+            if (r == null) {
+                return -nullCmp;
+            }
+            long lv = ((Number) l).longValue();
+            long rv = ((Number) r).longValue();
+            return reverse ? Long.compare(lv, rv) : Long.compare(rv, lv);
+        }
+    }
+
+    private static final class DoubleKeyComparator implements Comparator<Object[]> {
+
+        private final int position;
+        private final boolean reverse;
+        private final int nullCmp;
+
+        DoubleKeyComparator(int position, boolean reverse, int nullCmp) {
+            this.position = position;
+            this.reverse = reverse;
+            this.nullCmp = nullCmp;
+        }
+
+        @Override
+        public int compare(Object[] left, Object[] right) {
+            Object l = left[position];
+            Object r = right[position];
+            if (l == null) {
+                return r == null ? 0 : nullCmp;
+            }
+            if (r == null) {
+                return -nullCmp;
+            }
+            double lv = ((Number) l).doubleValue();
+            double rv = ((Number) r).doubleValue();
+            return reverse ? Double.compare(lv, rv) : Double.compare(rv, lv);
+        }
+    }
+
+    private static final class StringKeyComparator implements Comparator<Object[]> {
+
+        private final int position;
+        private final boolean reverse;
+        private final int nullCmp;
+
+        StringKeyComparator(int position, boolean reverse, int nullCmp) {
+            this.position = position;
+            this.reverse = reverse;
+            this.nullCmp = nullCmp;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(Object[] left, Object[] right) {
+            Object l = left[position];
+            Object r = right[position];
+            if (l == null) {
+                return r == null ? 0 : nullCmp;
+            }
+            if (r == null) {
+                return -nullCmp;
+            }
+            Object a = reverse ? l : r;
+            Object b = reverse ? r : l;
+            // some system tables provide strings instead of BytesRefs
+            if (a instanceof BytesRef && b instanceof BytesRef) {
+                return ((BytesRef) a).compareTo((BytesRef) b);
+            }
+            return ((Comparable) a).compareTo(b);
+        }
+    }
+
+    private static final class TwoKeyComparator implements Comparator<Object[]> {
+
+        private final Comparator<Object[]> first;
+        private final Comparator<Object[]> second;
+
+        TwoKeyComparator(Comparator<Object[]> first, Comparator<Object[]> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int compare(Object[] left, Object[] right) {
+            int cmp = first.compare(left, right);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return second.compare(left, right);
+        }
+    }
+
+    private static final class MultiKeyComparator implements Comparator<Object[]> {
+
+        private final Comparator<Object[]>[] comparators;
+
+        MultiKeyComparator(Comparator<Object[]>[] comparators) {
+            this.comparators = comparators;
+        }
+
+        @Override
+        public int compare(Object[] left, Object[] right) {
+            for (Comparator<Object[]> comparator : comparators) {
+                int cmp = comparator.compare(left, right);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+    }
+}
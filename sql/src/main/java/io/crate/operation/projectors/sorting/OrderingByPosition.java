@@ -23,10 +23,12 @@ package io.crate.operation.projectors.sorting;
 
 import com.google.common.collect.Ordering;
 import io.crate.analyze.OrderBy;
+import io.crate.analyze.symbol.Symbols;
 import io.crate.data.Row;
 import io.crate.planner.PositionalOrderBy;
 import io.crate.planner.consumer.OrderByPositionVisitor;
 import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.types.DataType;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -38,11 +40,12 @@ public abstract class OrderingByPosition<T> extends Ordering<T> {
     public static Ordering<Object[]> arrayOrdering(RoutedCollectPhase collectPhase) {
         OrderBy orderBy = collectPhase.orderBy();
         assert orderBy != null : "collectPhase must have an orderBy clause to generate an ordering";
-        return arrayOrdering(
+        return Ordering.from(arrayOrdering(
             OrderByPositionVisitor.orderByPositions(orderBy.orderBySymbols(), collectPhase.toCollect()),
             orderBy.reverseFlags(),
-            orderBy.nullsFirst()
-        );
+            orderBy.nullsFirst(),
+            Symbols.typeView(orderBy.orderBySymbols())
+        ));
     }
 
     public static Ordering<Row> rowOrdering(PositionalOrderBy orderBy) {
@@ -91,6 +94,17 @@ public abstract class OrderingByPosition<T> extends Ordering<T> {
         return Ordering.compound(comparators);
     }
 
+    /**
+     * Same as {@link #arrayOrdering(int[], boolean[], Boolean[])} but uses comparators specialized for the types
+     * of the order by values if possible.
+     */
+    public static Comparator<Object[]> arrayOrdering(int[] position,
+                                                     boolean[] reverse,
+                                                     Boolean[] nullsFirst,
+                                                     List<? extends DataType> types) {
+        return ArrayComparators.of(position, reverse, nullsFirst, types);
+    }
+
     public static OrderingByPosition<Object[]> arrayOrdering(int position, boolean reverse, Boolean nullsFirst) {
         return new ArrayOrdering(position, reverse, nullsFirst);
     }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.sorting;
+
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.elasticsearch.common.lucene.BytesRefs;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes the order by values of a row into a single binary sort key.
+ * <p>
+ * Comparing two keys byte by byte (unsigned) results in the final order of the rows (the order the user requested,
+ * not the reversed queue order of {@link OrderingByPosition}), which makes multi-column sorts a single
+ * array comparison instead of a comparator per column.
+ * <p>
+ * Each column is encoded as a marker byte (nulls sort before or after the values depending on the nullsFirst flag)
+ * followed by an order preserving encoding of the value. The value bytes are inverted for descending columns.
+ * <p>
+ * Instances are not thread-safe; they re-use an internal buffer.
+ */
+public final class SortKeyEncoder {
+
+    private static final byte NULL_FIRST = 0x00;
+    private static final byte NOT_NULL = 0x01;
+    private static final byte NULL_LAST = 0x02;
+
+    private final int[] positions;
+    private final boolean[] descending;
+    private final byte[] nullMarkers;
+    private final int[] typeIds;
+    private final BytesRefBuilder buffer = new BytesRefBuilder();
+
+    private SortKeyEncoder(int[] positions, boolean[] descending, byte[] nullMarkers, int[] typeIds) {
+        this.positions = positions;
+        this.descending = descending;
+        this.nullMarkers = nullMarkers;
+        this.typeIds = typeIds;
+    }
+
+    /**
+     * @return an encoder for the given order by columns or null if any of the types can't be encoded.
+     */
+    @Nullable
+    public static SortKeyEncoder of(int[] positions,
+                                    boolean[] reverseFlags,
+                                    Boolean[] nullsFirst,
+                                    List<? extends DataType> types) {
+        assert positions.length == types.size() : "there must be a type for each position";
+        int[] typeIds = new int[positions.length];
+        byte[] nullMarkers = new byte[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            DataType type = types.get(i);
+            if (!supports(type)) {
+                return null;
+            }
+            typeIds[i] = type.id();
+            boolean nullFirst = nullsFirst[i] == null ? reverseFlags[i] : nullsFirst[i];
+            nullMarkers[i] = nullFirst ? NULL_FIRST : NULL_LAST;
+        }
+        return new SortKeyEncoder(positions, reverseFlags.clone(), nullMarkers, typeIds);
+    }
+
+    public static boolean supports(DataType type) {
+        switch (type.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+            case DoubleType.ID:
+            case FloatType.ID:
+            case BooleanType.ID:
+            case StringType.ID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public byte[] encode(Object[] cells) {
+        buffer.clear();
+        for (int i = 0; i < positions.length; i++) {
+            Object value = cells[positions[i]];
+            if (value == null) {
+                buffer.append(nullMarkers[i]);
+                continue;
+            }
+            buffer.append(NOT_NULL);
+            int start = buffer.length();
+            encodeValue(typeIds[i], value);
+            if (descending[i]) {
+                byte[] bytes = buffer.bytes();
+                for (int j = start; j < buffer.length(); j++) {
+                    bytes[j] = (byte) ~bytes[j];
+                }
+            }
+        }
+        return Arrays.copyOf(buffer.bytes(), buffer.length());
+    }
+
+    private void encodeValue(int typeId, Object value) {
+        switch (typeId) {
+            case DoubleType.ID:
+            case FloatType.ID:
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                appendLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+                break;
+
+            case BooleanType.ID:
+                buffer.append((Boolean) value ? (byte) 1 : (byte) 0);
+                break;
+
+            case StringType.ID:
+                BytesRef ref = BytesRefs.toBytesRef(value);
+                int end = ref.offset + ref.length;
+                for (int i = ref.offset; i < end; i++) {
+                    byte b = ref.bytes[i];
+                    buffer.append(b);
+                    if (b == 0) {
+                        // escape 0x00 so that the terminator can't occur within a value
+                        buffer.append((byte) 0xFF);
+                    }
+                }
+                buffer.append((byte) 0);
+                buffer.append((byte) 0);
+                break;
+
+            default:
+                appendLong(((Number) value).longValue() ^ Long.MIN_VALUE);
+        }
+    }
+
+    private void appendLong(long v) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer.append((byte) (v >>> shift));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import io.crate.planner.projection.WriterProjection;
+
+import java.io.IOException;
+
+/**
+ * Compresses blocks of data into self-contained units which can be concatenated,
+ * so that the blocks of a stream can be compressed concurrently, see {@link ParallelCompressingOutputStream}.
+ * Implementations must be thread-safe.
+ */
+public interface BlockCompressor {
+
+    /**
+     * @return the bytes which are written once at the beginning of the stream
+     */
+    byte[] header();
+
+    byte[] compress(byte[] block, int length) throws IOException;
+
+    static BlockCompressor of(WriterProjection.CompressionType compressionType) {
+        switch (compressionType) {
+            case GZIP:
+                return GzipBlockCompressor.INSTANCE;
+            case SNAPPY:
+                return SnappyBlockCompressor.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unsupported compression type " + compressionType);
+        }
+    }
+}
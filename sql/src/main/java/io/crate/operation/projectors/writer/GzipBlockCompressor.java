@@ -0,0 +1,53 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses every block as gzip member. A file of concatenated members is a valid gzip file.
+ */
+public final class GzipBlockCompressor implements BlockCompressor {
+
+    public static final GzipBlockCompressor INSTANCE = new GzipBlockCompressor();
+
+    private static final byte[] NO_HEADER = new byte[0];
+
+    private GzipBlockCompressor() {
+    }
+
+    @Override
+    public byte[] header() {
+        return NO_HEADER;
+    }
+
+    @Override
+    public byte[] compress(byte[] block, int length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(block, 0, length);
+        }
+        return out.toByteArray();
+    }
+}
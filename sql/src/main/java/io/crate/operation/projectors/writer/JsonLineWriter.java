@@ -0,0 +1,289 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import io.crate.data.Input;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes rows as JSON lines into a buffer which is reused for every line.
+ * <p>
+ * Strings, numbers, booleans, maps, collections and arrays are encoded directly, like Jackson would encode
+ * them with the default settings. Values of other types are encoded using a {@link XContentBuilder}.
+ * </p>
+ */
+public final class JsonLineWriter {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer = new byte[1024];
+    private int length = 0;
+
+    public void writeRaw(BytesRef value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value.bytes, value.offset, buffer, length, value.length);
+        length += value.length;
+    }
+
+    public void writeArray(List<? extends Input<?>> inputs) throws IOException {
+        writeByte('[');
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeValue(inputs.get(i).value());
+        }
+        writeByte(']');
+    }
+
+    public void writeObject(List<String> names, List<? extends Input<?>> inputs) throws IOException {
+        writeByte('{');
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeString(names.get(i));
+            writeByte(':');
+            writeValue(inputs.get(i).value());
+        }
+        writeByte('}');
+    }
+
+    public void writeMap(Map<?, ?> map) throws IOException {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (first) {
+                first = false;
+            } else {
+                writeByte(',');
+            }
+            writeString(String.valueOf(entry.getKey()));
+            writeByte(':');
+            writeValue(entry.getValue());
+        }
+        writeByte('}');
+    }
+
+    /**
+     * Terminate the current line and write it to the output.
+     *
+     * @return the number of bytes written
+     */
+    public int writeLineTo(OutputStream out) throws IOException {
+        writeByte('\n');
+        int numBytes = length;
+        out.write(buffer, 0, length);
+        length = 0;
+        return numBytes;
+    }
+
+    public void writeValue(@Nullable Object value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+        } else if (value instanceof BytesRef) {
+            writeString((BytesRef) value);
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            if (Double.isFinite(d)) {
+                writeAscii(Double.toString(d));
+            } else {
+                writeString(Double.toString(d));
+            }
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            if (Float.isFinite(f)) {
+                writeAscii(Float.toString(f));
+            } else {
+                writeString(Float.toString(f));
+            }
+        } else if (value instanceof Boolean) {
+            writeBytes((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value);
+        } else if (value instanceof Collection) {
+            writeByte('[');
+            boolean first = true;
+            for (Object o : (Collection<?>) value) {
+                if (first) {
+                    first = false;
+                } else {
+                    writeByte(',');
+                }
+                writeValue(o);
+            }
+            writeByte(']');
+        } else if (value instanceof Object[]) {
+            writeValue(Arrays.asList((Object[]) value));
+        } else {
+            XContentBuilder builder = XContentFactory.jsonBuilder().value(value);
+            BytesRef bytes = builder.bytes().toBytesRef();
+            writeRaw(bytes);
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG);
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int numDigits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            numDigits++;
+        }
+        int pos = length + numDigits;
+        do {
+            buffer[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        length += numDigits;
+    }
+
+    private void writeString(BytesRef value) {
+        // every byte is escaped with at most 6 bytes
+        ensureCapacity(value.length * 6 + 2);
+        buffer[length++] = '"';
+        int end = value.offset + value.length;
+        for (int i = value.offset; i < end; i++) {
+            byte b = value.bytes[i];
+            if (b >= 0 && (b < 0x20 || b == '"' || b == '\\')) {
+                writeEscaped(b);
+            } else {
+                buffer[length++] = b;
+            }
+        }
+        buffer[length++] = '"';
+    }
+
+    private void writeString(String value) {
+        // every char is encoded with at most 6 bytes, surrogate pairs with 4
+        ensureCapacity(value.length() * 6 + 2);
+        buffer[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c < 0x20 || c == '"' || c == '\\') {
+                    writeEscaped((byte) c);
+                } else {
+                    buffer[length++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xc0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else {
+                if (Character.isSurrogate(c)) {
+                    // unpaired surrogate, encode the replacement character
+                    c = '\uFFFD';
+                }
+                buffer[length++] = (byte) (0xe0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        buffer[length++] = '"';
+    }
+
+    private void writeEscaped(byte b) {
+        buffer[length++] = '\\';
+        switch (b) {
+            case '"':
+            case '\\':
+                buffer[length++] = b;
+                break;
+            case '\n':
+                buffer[length++] = 'n';
+                break;
+            case '\r':
+                buffer[length++] = 'r';
+                break;
+            case '\t':
+                buffer[length++] = 't';
+                break;
+            case '\b':
+                buffer[length++] = 'b';
+                break;
+            case '\f':
+                buffer[length++] = 'f';
+                break;
+            default:
+                buffer[length++] = 'u';
+                buffer[length++] = '0';
+                buffer[length++] = '0';
+                buffer[length++] = HEX[b >> 4];
+                buffer[length++] = HEX[b & 0xf];
+        }
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void ensureCapacity(int numBytes) {
+        if (length + numBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + numBytes));
+        }
+    }
+}
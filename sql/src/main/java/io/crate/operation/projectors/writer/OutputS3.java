@@ -28,7 +28,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.crate.external.S3ClientHelper;
-import io.crate.planner.projection.WriterProjection;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import java.io.ByteArrayInputStream;
@@ -41,28 +40,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.zip.GZIPOutputStream;
 
 @NotThreadSafe
 public class OutputS3 extends Output {
 
     private final ExecutorService executorService;
     private final URI uri;
-    private final boolean compression;
 
-    public OutputS3(ExecutorService executorService, URI uri, WriterProjection.CompressionType compressionType) {
+    public OutputS3(ExecutorService executorService, URI uri) {
         this.executorService = executorService;
         this.uri = uri;
-        compression = compressionType != null;
     }
 
     @Override
     public OutputStream acquireOutputStream() throws IOException {
-        OutputStream outputStream = new S3OutputStream(executorService, uri, new S3ClientHelper());
-        if (compression) {
-            outputStream = new GZIPOutputStream(outputStream);
-        }
-        return outputStream;
+        return new S3OutputStream(executorService, uri, new S3ClientHelper());
     }
 
 
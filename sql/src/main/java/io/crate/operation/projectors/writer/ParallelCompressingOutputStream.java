@@ -0,0 +1,177 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * OutputStream which splits the written data into blocks and compresses them concurrently
+ * using a {@link BlockCompressor} on the given executor.
+ *
+ * The compressed blocks are written to the delegate in order by the writing thread.
+ * The number of blocks in flight is limited, if the limit is reached, the writing thread waits
+ * for the oldest block to be compressed.
+ */
+public class ParallelCompressingOutputStream extends OutputStream {
+
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private final OutputStream out;
+    private final BlockCompressor compressor;
+    private final Executor executor;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block;
+    private int position = 0;
+    private boolean closed = false;
+
+    public ParallelCompressingOutputStream(OutputStream out, BlockCompressor compressor, Executor executor) throws IOException {
+        this(out, compressor, executor, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    ParallelCompressingOutputStream(OutputStream out,
+                                    BlockCompressor compressor,
+                                    Executor executor,
+                                    int blockSize,
+                                    int maxPendingBlocks) throws IOException {
+        this.out = out;
+        this.compressor = compressor;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+        this.block = new byte[blockSize];
+        out.write(compressor.header());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == blockSize) {
+            submitBlock();
+        }
+        block[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (position == blockSize) {
+                submitBlock();
+            }
+            int toCopy = Math.min(len, blockSize - position);
+            System.arraycopy(b, off, block, position, toCopy);
+            position += toCopy;
+            off += toCopy;
+            len -= toCopy;
+        }
+    }
+
+    /**
+     * Writes all blocks which are already compressed, the current block is only submitted once it is full
+     * to keep the compression ratio independent of flush calls.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            writeHead();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (position > 0) {
+                submitBlock();
+            }
+            while (!pending.isEmpty()) {
+                writeHead();
+            }
+        } finally {
+            pending.clear();
+            block = null;
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        while (pending.size() >= maxPendingBlocks) {
+            writeHead();
+        }
+        final byte[] toCompress = block;
+        final int length = position;
+        pending.addLast(CompletableFuture.supplyAsync(() -> {
+            try {
+                return compressor.compress(toCompress, length);
+            } catch (IOException e) {
+                throw new CompressionException(e);
+            }
+        }, executor));
+        block = new byte[blockSize];
+        position = 0;
+    }
+
+    private void writeHead() throws IOException {
+        CompletableFuture<byte[]> head = pending.pollFirst();
+        byte[] compressed;
+        try {
+            compressed = head.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for compression");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompressionException) {
+                throw (IOException) cause.getCause();
+            }
+            throw new IOException("Failed to compress block", cause);
+        }
+        out.write(compressed);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private static class CompressionException extends RuntimeException {
+
+        CompressionException(IOException cause) {
+            super(cause);
+        }
+    }
+}
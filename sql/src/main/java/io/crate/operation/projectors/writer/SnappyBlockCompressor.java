@@ -0,0 +1,122 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Compresses blocks using the pure Java Snappy implementation of Netty into the
+ * <a href="https://github.com/google/snappy/blob/master/framing_format.txt">Snappy framing format</a>,
+ * which can be decompressed with the common snappy tools (e.g. {@code python -m snappy -d}).
+ */
+public final class SnappyBlockCompressor implements BlockCompressor {
+
+    public static final SnappyBlockCompressor INSTANCE = new SnappyBlockCompressor();
+
+    private static final byte[] STREAM_IDENTIFIER = {
+        (byte) 0xff, 0x06, 0x00, 0x00, 's', 'N', 'a', 'P', 'p', 'Y'
+    };
+    private static final int COMPRESSED_DATA = 0x00;
+    private static final int UNCOMPRESSED_DATA = 0x01;
+
+    /**
+     * the maximum number of uncompressed bytes in a chunk
+     */
+    private static final int MAX_CHUNK_SIZE = 65536;
+
+    private SnappyBlockCompressor() {
+    }
+
+    @Override
+    public byte[] header() {
+        return STREAM_IDENTIFIER.clone();
+    }
+
+    @Override
+    public byte[] compress(byte[] block, int length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+        Snappy snappy = new Snappy();
+        ByteBuf compressed = Unpooled.buffer(MAX_CHUNK_SIZE + MAX_CHUNK_SIZE / 6 + 32);
+        for (int offset = 0; offset < length; offset += MAX_CHUNK_SIZE) {
+            int chunkSize = Math.min(MAX_CHUNK_SIZE, length - offset);
+            compressed.clear();
+            snappy.reset();
+            snappy.encode(Unpooled.wrappedBuffer(block, offset, chunkSize), compressed, chunkSize);
+            int checksum = maskedChecksum(Crc32c.checksum(block, offset, chunkSize));
+            int compressedSize = compressed.readableBytes();
+            if (compressedSize < chunkSize) {
+                writeChunkHeader(out, COMPRESSED_DATA, compressedSize + 4, checksum);
+                compressed.readBytes(out, compressedSize);
+            } else {
+                writeChunkHeader(out, UNCOMPRESSED_DATA, chunkSize + 4, checksum);
+                out.write(block, offset, chunkSize);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeChunkHeader(ByteArrayOutputStream out, int type, int length, int checksum) {
+        out.write(type);
+        out.write(length);
+        out.write(length >>> 8);
+        out.write(length >>> 16);
+        out.write(checksum);
+        out.write(checksum >>> 8);
+        out.write(checksum >>> 16);
+        out.write(checksum >>> 24);
+    }
+
+    private static int maskedChecksum(int crc) {
+        return ((crc >>> 15) | (crc << 17)) + 0xa282ead8;
+    }
+
+    /**
+     * CRC-32C (Castagnoli) as required by the framing format
+     */
+    static final class Crc32c {
+
+        private static final int[] TABLE = new int[256];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                int crc = i;
+                for (int j = 0; j < 8; j++) {
+                    crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82f63b78 : crc >>> 1;
+                }
+                TABLE[i] = crc;
+            }
+        }
+
+        static int checksum(byte[] bytes, int offset, int length) {
+            int crc = 0xffffffff;
+            for (int i = offset; i < offset + length; i++) {
+                crc = (crc >>> 8) ^ TABLE[(crc ^ bytes[i]) & 0xff];
+            }
+            return ~crc;
+        }
+    }
+}
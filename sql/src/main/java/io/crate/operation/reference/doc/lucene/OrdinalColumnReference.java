@@ -0,0 +1,95 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.doc.lucene;
+
+import io.crate.exceptions.GroupByOnArrayUnsupportedException;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomAccessOrds;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+import java.io.IOException;
+
+/**
+ * Expression for string columns which exposes the segment ordinal of the current document.
+ * <p>
+ * Unlike {@link BytesRefColumnReference} the value is only looked up (and copied) if {@link #value()} is called,
+ * so consumers which only need to distinguish values within a segment can use {@link #ord()}.
+ */
+public class OrdinalColumnReference extends FieldCacheExpression<IndexOrdinalsFieldData, BytesRef> {
+
+    public static final long MISSING_ORD = -1L;
+
+    private RandomAccessOrds values;
+    private long ord = MISSING_ORD;
+
+    public OrdinalColumnReference(String columnName, MappedFieldType mappedFieldType) {
+        super(columnName, mappedFieldType);
+    }
+
+    @Override
+    public BytesRef value() {
+        if (ord == MISSING_ORD) {
+            return null;
+        }
+        return BytesRef.deepCopyOf(values.lookupOrd(ord));
+    }
+
+    /**
+     * @return the ordinal of the current document within the current segment or {@link #MISSING_ORD} if
+     *         the document has no value.
+     */
+    public long ord() {
+        return ord;
+    }
+
+    /**
+     * @return the ordinals of the current segment; used to resolve {@link #ord()} to the actual value.
+     */
+    public RandomAccessOrds values() {
+        return values;
+    }
+
+    @Override
+    public void setNextDocId(int docId) {
+        super.setNextDocId(docId);
+        values.setDocument(docId);
+        switch (values.cardinality()) {
+            case 0:
+                ord = MISSING_ORD;
+                break;
+            case 1:
+                ord = values.ordAt(0);
+                break;
+            default:
+                throw new GroupByOnArrayUnsupportedException(columnName);
+        }
+    }
+
+    @Override
+    public void setNextReader(LeafReaderContext context) throws IOException {
+        super.setNextReader(context);
+        values = indexFieldData.load(context).getOrdinalsValues();
+    }
+}
@@ -24,9 +24,13 @@ package io.crate.operation.reference.file;
 import io.crate.metadata.ColumnIdent;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentHelper;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
 import java.util.Map;
 
@@ -37,12 +41,26 @@ public class LineContext {
 
     @Nullable
     public BytesRef sourceAsBytesRef() {
+        if (rawSource == null && parsedSource != null) {
+            rawSource = toJson(parsedSource);
+        }
         if (rawSource != null) {
             return new BytesRef(rawSource);
         }
         return null;
     }
 
+    /**
+     * Serialize a source which has been read from a format other than JSON
+     */
+    public static byte[] toJson(Map<String, Object> source) {
+        try {
+            return BytesReference.toBytes(XContentFactory.jsonBuilder().map(source).bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public Map<String, Object> sourceAsMap() {
         if (parsedSource == null) {
             try {
@@ -86,8 +104,26 @@ public class LineContext {
         return o;
     }
 
+    /**
+     * Set a record which has been read as map, it is serialized to JSON once the raw source is accessed.
+     */
+    public void source(Map<String, Object> source) {
+        this.rawSource = null;
+        this.parsedSource = source;
+    }
+
     public void rawSource(byte[] bytes) {
         this.rawSource = bytes;
         this.parsedSource = null;
     }
+
+    /**
+     * Set the line together with its already parsed source.
+     * If parsedSource is null the line is parsed once it is accessed,
+     * if bytes is null the parsedSource is serialized once the line is accessed.
+     */
+    public void rawSource(@Nullable byte[] bytes, @Nullable Map<String, Object> parsedSource) {
+        this.rawSource = bytes;
+        this.parsedSource = parsedSource;
+    }
 }
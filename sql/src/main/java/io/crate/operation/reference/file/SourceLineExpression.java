@@ -39,4 +39,14 @@ public class SourceLineExpression extends LineCollectorExpression<BytesRef> {
     public void startCollect(LineContext context) {
         this.context = context;
     }
+
+    @Override
+    public boolean requiresParsedSource() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresRawSource() {
+        return true;
+    }
 }
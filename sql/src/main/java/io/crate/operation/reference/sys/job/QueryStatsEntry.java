@@ -0,0 +1,110 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.sys.job;
+
+/**
+ * A snapshot of the latency distribution of all executions of a statement fingerprint on a node.
+ * All durations are in milliseconds.
+ */
+public class QueryStatsEntry {
+
+    private final String fingerprint;
+    private final long count;
+    private final long errorCount;
+    private final long lastExecuted;
+    private final double avgDuration;
+    private final long minDuration;
+    private final long maxDuration;
+    private final long p50;
+    private final long p90;
+    private final long p95;
+    private final long p99;
+
+    public QueryStatsEntry(String fingerprint,
+                           long count,
+                           long errorCount,
+                           long lastExecuted,
+                           double avgDuration,
+                           long minDuration,
+                           long maxDuration,
+                           long p50,
+                           long p90,
+                           long p95,
+                           long p99) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.lastExecuted = lastExecuted;
+        this.avgDuration = avgDuration;
+        this.minDuration = minDuration;
+        this.maxDuration = maxDuration;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long errorCount() {
+        return errorCount;
+    }
+
+    public long lastExecuted() {
+        return lastExecuted;
+    }
+
+    public double avgDuration() {
+        return avgDuration;
+    }
+
+    public long minDuration() {
+        return minDuration;
+    }
+
+    public long maxDuration() {
+        return maxDuration;
+    }
+
+    public long p50() {
+        return p50;
+    }
+
+    public long p90() {
+        return p90;
+    }
+
+    public long p95() {
+        return p95;
+    }
+
+    public long p99() {
+        return p99;
+    }
+}
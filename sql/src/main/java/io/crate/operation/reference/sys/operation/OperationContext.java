@@ -21,6 +21,8 @@
 
 package io.crate.operation.reference.sys.operation;
 
+import io.crate.jobs.OperationStats;
+
 import java.util.Objects;
 import java.util.UUID;
 
@@ -31,13 +33,19 @@ public class OperationContext {
     public final String name;
 
     public final long started;
+    public final OperationStats stats;
     public long usedBytes;
 
     public OperationContext(int id, UUID jobId, String name, long started) {
+        this(id, jobId, name, started, new OperationStats());
+    }
+
+    public OperationContext(int id, UUID jobId, String name, long started, OperationStats stats) {
         this.id = id;
         this.jobId = jobId;
         this.name = name;
         this.started = started;
+        this.stats = stats;
     }
 
     public int id() {
@@ -60,6 +68,38 @@ public class OperationContext {
         return usedBytes;
     }
 
+    public long cpuNanos() {
+        return stats.cpuNanos();
+    }
+
+    public long rowsProduced() {
+        return stats.rowsProduced();
+    }
+
+    public long rowsConsumed() {
+        return stats.rowsConsumed();
+    }
+
+    public long bytesSent() {
+        return stats.bytesSent();
+    }
+
+    public long bytesReceived() {
+        return stats.bytesReceived();
+    }
+
+    public long blockedNanos() {
+        return stats.blockedNanos();
+    }
+
+    public double compressionRatio() {
+        return stats.compressionRatio();
+    }
+
+    public long compressionNanos() {
+        return stats.compressionNanos();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
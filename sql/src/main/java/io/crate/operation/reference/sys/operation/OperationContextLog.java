@@ -33,11 +33,28 @@ public class OperationContextLog implements ContextLog {
     @Nullable
     private final String errorMessage;
     private final long ended;
+    private final long cpuNanos;
+    private final long rowsProduced;
+    private final long rowsConsumed;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final long blockedNanos;
+    private final double compressionRatio;
+    private final long compressionNanos;
 
     public OperationContextLog(OperationContext operationContext, @Nullable String errorMessage) {
         this.operationContext = operationContext;
         this.errorMessage = errorMessage;
         this.ended = System.currentTimeMillis();
+        // snapshot the stats; the log entry must not change anymore once the operation finished
+        this.cpuNanos = operationContext.cpuNanos();
+        this.rowsProduced = operationContext.rowsProduced();
+        this.rowsConsumed = operationContext.rowsConsumed();
+        this.bytesSent = operationContext.bytesSent();
+        this.bytesReceived = operationContext.bytesReceived();
+        this.blockedNanos = operationContext.blockedNanos();
+        this.compressionRatio = operationContext.compressionRatio();
+        this.compressionNanos = operationContext.compressionNanos();
     }
 
     public int id() {
@@ -65,6 +82,38 @@ public class OperationContextLog implements ContextLog {
         return operationContext.usedBytes;
     }
 
+    public long cpuNanos() {
+        return cpuNanos;
+    }
+
+    public long rowsProduced() {
+        return rowsProduced;
+    }
+
+    public long rowsConsumed() {
+        return rowsConsumed;
+    }
+
+    public long bytesSent() {
+        return bytesSent;
+    }
+
+    public long bytesReceived() {
+        return bytesReceived;
+    }
+
+    public long blockedNanos() {
+        return blockedNanos;
+    }
+
+    public double compressionRatio() {
+        return compressionRatio;
+    }
+
+    public long compressionNanos() {
+        return compressionNanos;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
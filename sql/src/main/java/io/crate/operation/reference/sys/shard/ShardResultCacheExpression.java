@@ -0,0 +1,61 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.reference.sys.shard;
+
+import io.crate.metadata.ReferenceImplementation;
+import io.crate.operation.collect.ShardResultCache;
+import io.crate.operation.reference.NestedObjectExpression;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class ShardResultCacheExpression extends NestedObjectExpression {
+
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    private static final String EVICTIONS = "evictions";
+    private static final String SIZE = "size";
+
+    public ShardResultCacheExpression(Supplier<ShardResultCache.Stats> stats) {
+        childImplementations.put(HITS, new StatsExpression(stats, ShardResultCache.Stats::hits));
+        childImplementations.put(MISSES, new StatsExpression(stats, ShardResultCache.Stats::misses));
+        childImplementations.put(EVICTIONS, new StatsExpression(stats, ShardResultCache.Stats::evictions));
+        childImplementations.put(SIZE, new StatsExpression(stats, ShardResultCache.Stats::sizeInBytes));
+    }
+
+    private static class StatsExpression implements ReferenceImplementation<Long> {
+
+        private final Supplier<ShardResultCache.Stats> stats;
+        private final Function<ShardResultCache.Stats, Long> getter;
+
+        StatsExpression(Supplier<ShardResultCache.Stats> stats, Function<ShardResultCache.Stats, Long> getter) {
+            this.stats = stats;
+            this.getter = getter;
+        }
+
+        @Override
+        public Long value() {
+            return getter.apply(stats.get());
+        }
+    }
+}
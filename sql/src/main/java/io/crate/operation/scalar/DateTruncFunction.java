@@ -29,6 +29,8 @@ import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Scalar;
 import io.crate.metadata.TransactionContext;
 import io.crate.data.Input;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.VectorizedScalar;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import io.crate.types.TimestampType;
@@ -38,12 +40,13 @@ import org.elasticsearch.common.rounding.DateTimeUnit;
 import org.elasticsearch.common.rounding.Rounding;
 import org.joda.time.DateTimeZone;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-public class DateTruncFunction extends Scalar<Long, Object> {
+public class DateTruncFunction extends Scalar<Long, Object> implements VectorizedScalar {
 
     public static final String NAME = "date_trunc";
 
@@ -166,6 +169,29 @@ public class DateTruncFunction extends Scalar<Long, Object> {
         return truncate(tzRounding, TimestampType.INSTANCE.value(value));
     }
 
+    /**
+     * Only supported if the interval and time zone are literals, so that the rounding has been compiled.
+     */
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        int tsIdx = arguments.size() - 1;
+        if (tzRounding == null || !LongVector.supports(arguments.get(tsIdx).valueType())) {
+            return null;
+        }
+        Rounding rounding = tzRounding;
+        return (args, size, result) -> {
+            long[] timestamps = ((LongVector) args[tsIdx]).values;
+            long[] values = ((LongVector) result).values;
+            result.copyNulls(args[tsIdx]);
+            for (int i = 0; i < size; i++) {
+                if (!result.isNull(i)) {
+                    values[i] = rounding.round(timestamps[i]);
+                }
+            }
+        };
+    }
+
     private Rounding rounding(BytesRef interval, BytesRef timeZoneString) {
         DateTimeUnit intervalAsUnit = intervalAsUnit(interval);
         DateTimeZone timeZone = TimeZoneParser.parseTimeZone(timeZoneString);
@@ -34,6 +34,8 @@ import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Scalar;
 import io.crate.metadata.TransactionContext;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.VectorizedScalar;
 import io.crate.sql.tree.Extract;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
@@ -42,6 +44,7 @@ import org.elasticsearch.common.lucene.BytesRefs;
 import org.joda.time.DateTimeField;
 import org.joda.time.chrono.ISOChronology;
 
+import java.util.List;
 import java.util.Locale;
 
 public class ExtractFunctions {
@@ -176,7 +179,8 @@ public class ExtractFunctions {
         }
     }
 
-    private abstract static class GenericExtractFunction extends Scalar<Number, Long> implements FunctionFormatSpec {
+    private abstract static class GenericExtractFunction extends Scalar<Number, Long>
+        implements FunctionFormatSpec, VectorizedScalar {
 
         public abstract int evaluate(long value);
 
@@ -191,6 +195,23 @@ public class ExtractFunctions {
             return evaluate((Long) value);
         }
 
+        @Override
+        public Kernel vectorize(List<Symbol> arguments) {
+            if (!arguments.get(0).valueType().equals(DataTypes.TIMESTAMP)) {
+                return null;
+            }
+            return (args, size, result) -> {
+                long[] timestamps = ((LongVector) args[0]).values;
+                long[] values = ((LongVector) result).values;
+                result.copyNulls(args[0]);
+                for (int i = 0; i < size; i++) {
+                    if (!result.isNull(i)) {
+                        values[i] = evaluate(timestamps[i]);
+                    }
+                }
+            };
+        }
+
         @Override
         public boolean formatArgs(Function function) {
             return true;
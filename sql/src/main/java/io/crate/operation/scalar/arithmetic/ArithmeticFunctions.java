@@ -11,7 +11,8 @@ import io.crate.types.DataTypes;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 public class ArithmeticFunctions {
 
@@ -32,7 +33,6 @@ public class ArithmeticFunctions {
             "+",
             FunctionInfo.DETERMINISTIC_AND_COMPARISON_REPLACEMENT,
             (arg0, arg1) -> arg0 + arg1,
-            (arg0, arg1) -> arg0 + arg1,
             (arg0, arg1) -> arg0 + arg1
         ));
         module.register(Names.SUBTRACT, new ArithmeticFunctionResolver(
@@ -40,7 +40,6 @@ public class ArithmeticFunctions {
             "-",
             FunctionInfo.DETERMINISTIC_ONLY,
             (arg0, arg1) -> arg0 - arg1,
-            (arg0, arg1) -> arg0 - arg1,
             (arg0, arg1) -> arg0 - arg1
         ));
         module.register(Names.MULTIPLY, new ArithmeticFunctionResolver(
@@ -48,7 +47,6 @@ public class ArithmeticFunctions {
             "*",
             FunctionInfo.DETERMINISTIC_ONLY,
             (arg0, arg1) -> arg0 * arg1,
-            (arg0, arg1) -> arg0 * arg1,
             (arg0, arg1) -> arg0 * arg1
         ));
         module.register(Names.DIVIDE, new ArithmeticFunctionResolver(
@@ -56,7 +54,6 @@ public class ArithmeticFunctions {
             "/",
             FunctionInfo.DETERMINISTIC_ONLY,
             (arg0, arg1) -> arg0 / arg1,
-            (arg0, arg1) -> arg0 / arg1,
             (arg0, arg1) -> arg0 / arg1
         ));
         module.register(Names.MODULUS, new ArithmeticFunctionResolver(
@@ -64,12 +61,11 @@ public class ArithmeticFunctions {
             "%",
             FunctionInfo.DETERMINISTIC_ONLY,
             (arg0, arg1) -> arg0 % arg1,
-            (arg0, arg1) -> arg0 % arg1,
             (arg0, arg1) -> arg0 % arg1
         ));
         module.register(Names.POWER, new DoubleFunctionResolver(
             Names.POWER,
-            (arg0, arg1) -> Math.pow(arg0, arg1)
+            Math::pow
         ));
     }
 
@@ -78,9 +74,9 @@ public class ArithmeticFunctions {
         private static final Signature.ArgMatcher ARITHMETIC_TYPE = Signature.ArgMatcher.of(
             DataTypes.NUMERIC_PRIMITIVE_TYPES::contains, DataTypes.TIMESTAMP::equals);
         private final String name;
-        private final BinaryOperator<Double> doubleFunction;
+        private final DoubleBinaryOperator doubleFunction;
 
-        DoubleFunctionResolver(String name, BinaryOperator<Double> doubleFunction) {
+        DoubleFunctionResolver(String name, DoubleBinaryOperator doubleFunction) {
             super(Signature.of(ARITHMETIC_TYPE, ARITHMETIC_TYPE));
             this.name = name;
             this.doubleFunction = doubleFunction;
@@ -88,7 +84,7 @@ public class ArithmeticFunctions {
 
         @Override
         public FunctionImplementation getForTypes(List<DataType> dataTypes) throws IllegalArgumentException {
-            return new BinaryScalar<>(doubleFunction, name, DataTypes.DOUBLE, FunctionInfo.DETERMINISTIC_ONLY);
+            return BinaryScalar.ofDouble(doubleFunction, name, FunctionInfo.DETERMINISTIC_ONLY);
         }
     }
 
@@ -101,22 +97,23 @@ public class ArithmeticFunctions {
         private final String operator;
         private final Set<FunctionInfo.Feature> features;
 
-        private final BinaryOperator<Double> doubleFunction;
-        private final BinaryOperator<Long> longFunction;
-        private final BinaryOperator<Float> floatFunction;
+        private final DoubleBinaryOperator doubleFunction;
+        private final LongBinaryOperator longFunction;
 
+        /**
+         * @param doubleFunction used for double and float arguments.
+         *                       Float results are computed in double precision and then rounded to float.
+         */
         ArithmeticFunctionResolver(String name,
                                    String operator,
                                    Set<FunctionInfo.Feature> features,
-                                   BinaryOperator<Double> doubleFunction,
-                                   BinaryOperator<Long> longFunction,
-                                   BinaryOperator<Float> floatFunction) {
+                                   DoubleBinaryOperator doubleFunction,
+                                   LongBinaryOperator longFunction) {
             super(Signature.of(ARITHMETIC_TYPE, ARITHMETIC_TYPE));
             this.name = name;
             this.operator = operator;
             this.doubleFunction = doubleFunction;
             this.longFunction = longFunction;
-            this.floatFunction = floatFunction;
             this.features = features;
         }
 
@@ -125,12 +122,12 @@ public class ArithmeticFunctions {
             BinaryScalar<?> scalar;
             if (containsTypesWithDecimal(dataTypes)) {
                 if (containsDouble(dataTypes)) {
-                    scalar = new BinaryScalar<>(doubleFunction, name, DataTypes.DOUBLE, features);
+                    scalar = BinaryScalar.ofDouble(doubleFunction, name, features);
                 } else {
-                    scalar = new BinaryScalar<>(floatFunction, name, DataTypes.FLOAT, features);
+                    scalar = BinaryScalar.ofFloat(doubleFunction, name, features);
                 }
             } else {
-                scalar = new BinaryScalar<>(longFunction, name, DataTypes.LONG, features);
+                scalar = BinaryScalar.ofLong(longFunction, name, features);
             }
             return Scalar.withOperator(scalar, operator);
         }
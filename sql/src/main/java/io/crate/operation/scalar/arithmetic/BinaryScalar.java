@@ -1,25 +1,138 @@
 package io.crate.operation.scalar.arithmetic;
 
+import io.crate.analyze.symbol.Symbol;
 import io.crate.data.Input;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Scalar;
+import io.crate.operation.vector.ColumnVector;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.VectorizedScalar;
 import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
-public final class BinaryScalar<T> extends Scalar<T, T> {
+public final class BinaryScalar<T> extends Scalar<T, T> implements VectorizedScalar {
 
     private final BinaryOperator<T> func;
     private final FunctionInfo info;
     private final DataType<T> type;
 
+    @Nullable
+    private final Predicate<DataType> supportedArgumentType;
+    @Nullable
+    private final Supplier<Kernel> kernel;
+
     public BinaryScalar(BinaryOperator<T> func, String name, DataType<T> type, Set<FunctionInfo.Feature> feature) {
+        this(func, name, type, feature, null, null);
+    }
+
+    private BinaryScalar(BinaryOperator<T> func,
+                         String name,
+                         DataType<T> type,
+                         Set<FunctionInfo.Feature> feature,
+                         @Nullable Predicate<DataType> supportedArgumentType,
+                         @Nullable Supplier<Kernel> kernel) {
         this.func = func;
         this.info = new FunctionInfo(new FunctionIdent(name, Arrays.asList(type, type)), type, FunctionInfo.Type.SCALAR, feature);
         this.type = type;
+        this.supportedArgumentType = supportedArgumentType;
+        this.kernel = kernel;
+    }
+
+    /**
+     * Create a scalar returning a long which can also be evaluated using {@link LongVector}s.
+     */
+    public static BinaryScalar<Long> ofLong(LongBinaryOperator func, String name, Set<FunctionInfo.Feature> feature) {
+        return new BinaryScalar<>(
+            func::applyAsLong,
+            name,
+            DataTypes.LONG,
+            feature,
+            LongVector::supports,
+            () -> (args, size, result) -> {
+                long[] arg0 = ((LongVector) args[0]).values;
+                long[] arg1 = ((LongVector) args[1]).values;
+                long[] values = ((LongVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    // skip nulls, their values are undefined and could cause a division by zero
+                    if (!result.isNull(i)) {
+                        values[i] = func.applyAsLong(arg0[i], arg1[i]);
+                    }
+                }
+            });
+    }
+
+    /**
+     * Create a scalar returning a double which can also be evaluated using {@link DoubleVector}s.
+     */
+    public static BinaryScalar<Double> ofDouble(DoubleBinaryOperator func, String name, Set<FunctionInfo.Feature> feature) {
+        return new BinaryScalar<>(
+            func::applyAsDouble,
+            name,
+            DataTypes.DOUBLE,
+            feature,
+            BinaryScalar::isNumeric,
+            () -> (args, size, result) -> {
+                double[] arg0 = DoubleVector.doubles(args[0], size);
+                double[] arg1 = DoubleVector.doubles(args[1], size);
+                double[] values = ((DoubleVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    values[i] = func.applyAsDouble(arg0[i], arg1[i]);
+                }
+            });
+    }
+
+    /**
+     * Create a scalar returning a float which can also be evaluated using {@link DoubleVector}s.
+     * The function is applied to the double representation of the float arguments and the result is
+     * rounded to float, which is identical to the float result for the basic arithmetic operations.
+     */
+    public static BinaryScalar<Float> ofFloat(DoubleBinaryOperator func, String name, Set<FunctionInfo.Feature> feature) {
+        return new BinaryScalar<>(
+            (arg0, arg1) -> (float) func.applyAsDouble(arg0, arg1),
+            name,
+            DataTypes.FLOAT,
+            feature,
+            BinaryScalar::isNumeric,
+            () -> (args, size, result) -> {
+                double[] arg0 = floats(args[0], size);
+                double[] arg1 = floats(args[1], size);
+                double[] values = ((DoubleVector) result).values;
+                result.unionNulls(args[0], args[1]);
+                for (int i = 0; i < size; i++) {
+                    values[i] = (float) func.applyAsDouble(arg0[i], arg1[i]);
+                }
+            });
+    }
+
+    private static boolean isNumeric(DataType type) {
+        return LongVector.supports(type) || DoubleVector.supports(type);
+    }
+
+    private static double[] floats(ColumnVector vector, int size) {
+        if (vector instanceof DoubleVector) {
+            return ((DoubleVector) vector).values;
+        }
+        // long -> float is not the same as long -> double -> float for large values
+        double[] values = ((LongVector) vector).asDoubles(size);
+        long[] longValues = ((LongVector) vector).values;
+        for (int i = 0; i < size; i++) {
+            values[i] = (float) longValues[i];
+        }
+        return values;
     }
 
     @Override
@@ -41,4 +154,18 @@ public final class BinaryScalar<T> extends Scalar<T, T> {
         }
         return func.apply(arg0Value, arg1Value);
     }
+
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        if (kernel == null) {
+            return null;
+        }
+        for (Symbol argument : arguments) {
+            if (!supportedArgumentType.test(argument.valueType())) {
+                return null;
+            }
+        }
+        return kernel.get();
+    }
 }
@@ -30,15 +30,27 @@ import io.crate.exceptions.ConversionException;
 import io.crate.metadata.*;
 import io.crate.data.Input;
 import io.crate.operation.scalar.ScalarFunctionModule;
+import io.crate.operation.vector.ColumnVector;
+import io.crate.operation.vector.DoubleVector;
+import io.crate.operation.vector.LongVector;
+import io.crate.operation.vector.VectorizedScalar;
+import io.crate.types.ByteType;
 import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
 
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 
 import static io.crate.analyze.symbol.format.SymbolPrinter.Strings.PAREN_CLOSE;
 import static io.crate.analyze.symbol.format.SymbolPrinter.Strings.PAREN_OPEN;
 
-public class CastFunction extends Scalar<Object, Object> implements FunctionFormatSpec {
+public class CastFunction extends Scalar<Object, Object> implements FunctionFormatSpec, VectorizedScalar {
 
     private static final String TRY_CAST_SQL_NAME = "try_cast";
     private static final String CAST_SQL_NAME = "cast";
@@ -68,6 +80,122 @@ public class CastFunction extends Scalar<Object, Object> implements FunctionForm
         return info;
     }
 
+    /**
+     * Supported are casts between the numeric types and timestamp.
+     * The conversions are the same as the ones of {@link DataType#value(Object)}.
+     */
+    @Nullable
+    @Override
+    public Kernel vectorize(List<Symbol> arguments) {
+        DataType sourceType = arguments.get(0).valueType();
+        boolean fromLong = LongVector.supports(sourceType);
+        if (!fromLong && !DoubleVector.supports(sourceType)) {
+            return null;
+        }
+        if (!LongVector.supports(returnType) && !DoubleVector.supports(returnType)) {
+            return null;
+        }
+        boolean fromFloat = sourceType.id() == FloatType.ID;
+        int targetId = returnType.id();
+        return (args, size, result) -> {
+            ColumnVector source = args[0];
+            result.copyNulls(source);
+            for (int i = 0; i < size; i++) {
+                if (result.isNull(i)) {
+                    continue;
+                }
+                try {
+                    if (fromLong) {
+                        castLong(((LongVector) source).values[i], targetId, result, i);
+                    } else {
+                        castDouble(((DoubleVector) source).values[i], fromFloat, targetId, result, i);
+                    }
+                } catch (IllegalArgumentException e) {
+                    result.set(i, onEvaluateException(source.value(i)));
+                }
+            }
+        };
+    }
+
+    private static void castLong(long value, int targetId, ColumnVector result, int idx) {
+        switch (targetId) {
+            case LongType.ID:
+            case TimestampType.ID:
+                ((LongVector) result).values[idx] = value;
+                break;
+            case IntegerType.ID:
+                if (value < Integer.MIN_VALUE || Integer.MAX_VALUE < value) {
+                    throw new IllegalArgumentException("integer value out of range: " + value);
+                }
+                ((LongVector) result).values[idx] = (int) value;
+                break;
+            case ShortType.ID:
+                ((LongVector) result).values[idx] = toShort((int) value);
+                break;
+            case ByteType.ID:
+                ((LongVector) result).values[idx] = toByte((int) value);
+                break;
+            case DoubleType.ID:
+                ((DoubleVector) result).values[idx] = value;
+                break;
+            case FloatType.ID:
+                ((DoubleVector) result).values[idx] = (float) value;
+                break;
+            default:
+                throw new AssertionError("Unsupported target type: " + targetId);
+        }
+    }
+
+    private static void castDouble(double value, boolean fromFloat, int targetId, ColumnVector result, int idx) {
+        switch (targetId) {
+            case LongType.ID:
+                ((LongVector) result).values[idx] = (long) value;
+                break;
+            case TimestampType.ID:
+                // float and double values are seconds with milliseconds as fractions, see TimestampType
+                ((LongVector) result).values[idx] = fromFloat ? (long) ((float) value * 1000) : (long) (value * 1000);
+                break;
+            case IntegerType.ID:
+                long longValue = (long) value;
+                if (longValue < Integer.MIN_VALUE || Integer.MAX_VALUE < longValue) {
+                    throw new IllegalArgumentException("integer value out of range: " + longValue);
+                }
+                ((LongVector) result).values[idx] = (int) value;
+                break;
+            case ShortType.ID:
+                ((LongVector) result).values[idx] = toShort((int) value);
+                break;
+            case ByteType.ID:
+                ((LongVector) result).values[idx] = toByte((int) value);
+                break;
+            case DoubleType.ID:
+                ((DoubleVector) result).values[idx] = value;
+                break;
+            case FloatType.ID:
+                if (value < -Float.MAX_VALUE || Float.MAX_VALUE < value) {
+                    throw new IllegalArgumentException("float value out of range: " + value);
+                }
+                ((DoubleVector) result).values[idx] = (float) value;
+                break;
+            default:
+                throw new AssertionError("Unsupported target type: " + targetId);
+        }
+    }
+
+    private static short toShort(int value) {
+        if (value < Short.MIN_VALUE || Short.MAX_VALUE < value) {
+            throw new IllegalArgumentException("short value out of range: " + value);
+        }
+        return (short) value;
+    }
+
+    private static byte toByte(int value) {
+        if (value < Byte.MIN_VALUE || Byte.MAX_VALUE < value) {
+            throw new IllegalArgumentException("byte value out of range: " + value);
+        }
+        return (byte) value;
+    }
+
     @Override
     public Symbol normalizeSymbol(Function symbol, TransactionContext transactionContext) {
         assert symbol.arguments().size() == 1 : "Number of arguments must be 1";
@@ -32,38 +32,62 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+/**
+ * Immutable index of the privileges of a user.
+ *
+ * The privileges are compiled into one bitmask per class and ident, in which the bits of the granted types are
+ * followed by the bits of the denied types. A lookup resolves at most one mask per class, without allocating
+ * or iterating over the privileges.
+ */
 class UserPrivileges implements Iterable<Privilege> {
 
+    private static final int DENIED_SHIFT = 16;
+    private static final int GRANTED_TYPES = (1 << DENIED_SHIFT) - 1;
+
+    private static final int NOT_FOUND = 0;
+    private static final int GRANTED = 1;
+    private static final int DENIED = 2;
+
+    static {
+        assert Privilege.Type.VALUES.size() <= DENIED_SHIFT : "privilege types must fit into the bitmask";
+    }
+
     private final Iterable<Privilege> privileges;
-    private final Map<PrivilegeIdent, Privilege> privilegesMap;
-    private final boolean anyClusterPrivilege;
-    private final Map<String, Boolean> anySchemaPrivilege = new HashMap<>();
-    private final Map<String, Boolean> anyTablePrivilege = new HashMap<>();
+    private final int clusterMask;
+    private final Map<String, Integer> schemaMasks = new HashMap<>();
+    private final Map<String, Integer> tableMasks = new HashMap<>();
 
     UserPrivileges(Collection<Privilege> privileges) {
         this.privileges = privileges;
-        privilegesMap = new HashMap<>(privileges.size());
-        boolean anyClusterPrivilege = false;
+        int clusterMask = 0;
         for (Privilege privilege : privileges) {
             PrivilegeIdent privilegeIdent = privilege.ident();
-            this.privilegesMap.put(privilegeIdent, privilege);
-            if (privilege.state() != Privilege.State.DENY) {
-                switch (privilegeIdent.clazz()) {
-                    case CLUSTER:
-                        anyClusterPrivilege = true;
-                        break;
-                    case SCHEMA:
-                        anySchemaPrivilege.put(privilegeIdent.ident(), true);
-                        break;
-                    case TABLE:
-                        anyTablePrivilege.put(privilegeIdent.ident(), true);
-                        break;
-                    default:
-                        throw new IllegalStateException("Unsupported privilege class=" + privilegeIdent.clazz());
-                }
+            int bit = 1 << privilegeIdent.type().ordinal();
+            switch (privilege.state()) {
+                case GRANT:
+                    break;
+                case DENY:
+                    bit <<= DENIED_SHIFT;
+                    break;
+                default:
+                    // revoked privileges are removed from the meta data and never part of a user
+                    continue;
+            }
+            switch (privilegeIdent.clazz()) {
+                case CLUSTER:
+                    clusterMask |= bit;
+                    break;
+                case SCHEMA:
+                    schemaMasks.merge(privilegeIdent.ident(), bit, (a, b) -> a | b);
+                    break;
+                case TABLE:
+                    tableMasks.merge(privilegeIdent.ident(), bit, (a, b) -> a | b);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported privilege class=" + privilegeIdent.clazz());
             }
         }
-        this.anyClusterPrivilege = anyClusterPrivilege;
+        this.clusterMask = clusterMask;
     }
 
     /**
@@ -74,23 +98,15 @@ class UserPrivileges implements Iterable<Privilege> {
         boolean foundPrivilege;
         switch (clazz) {
             case CLUSTER:
-                foundPrivilege = hasAnyClusterPrivilege();
+                foundPrivilege = hasAnyGrant(clusterMask);
                 break;
             case SCHEMA:
-                foundPrivilege = hasAnySchemaPrivilege(ident);
-                if (foundPrivilege == false) {
-                    foundPrivilege = hasAnyClusterPrivilege();
-                }
+                foundPrivilege = hasAnyGrant(schemaMask(ident)) || hasAnyGrant(clusterMask);
                 break;
             case TABLE:
-                foundPrivilege = hasAnyTablePrivilege(ident);
-                if (foundPrivilege == false) {
-                    String schemaIdent = Privilege.schemaNameFromTableIdent(ident);
-                    foundPrivilege = hasAnySchemaPrivilege(schemaIdent);
-                    if (foundPrivilege == false) {
-                        foundPrivilege = hasAnyClusterPrivilege();
-                    }
-                }
+                foundPrivilege = hasAnyGrant(tableMask(ident))
+                                 || hasAnyGrant(schemaMask(Privilege.schemaNameFromTableIdent(ident)))
+                                 || hasAnyGrant(clusterMask);
                 break;
             default:
                 throw new IllegalStateException("Unsupported privilege class=" + clazz);
@@ -106,50 +122,54 @@ class UserPrivileges implements Iterable<Privilege> {
     boolean matchPrivilege(@Nullable Privilege.Type type,
                            Privilege.Clazz clazz,
                            @Nullable String ident) {
-        Privilege foundPrivilege = privilegesMap.get(new PrivilegeIdent(type, clazz, ident));
-        if (foundPrivilege == null) {
-            switch (clazz) {
-                case SCHEMA:
-                    foundPrivilege = privilegesMap.get(new PrivilegeIdent(type, Privilege.Clazz.CLUSTER, null));
-                    break;
-                case TABLE:
-                    String schemaIdent = Privilege.schemaNameFromTableIdent(ident);
-                    foundPrivilege = privilegesMap.get(new PrivilegeIdent(type, Privilege.Clazz.SCHEMA, schemaIdent));
-                    if (foundPrivilege == null) {
-                        foundPrivilege = privilegesMap.get(new PrivilegeIdent(type, Privilege.Clazz.CLUSTER, null));
-                    }
-                    break;
-            }
+        if (type == null) {
+            return false;
         }
+        int decision = NOT_FOUND;
+        switch (clazz) {
+            case TABLE:
+                decision = decide(tableMask(ident), type);
+                if (decision == NOT_FOUND) {
+                    decision = decide(schemaMask(Privilege.schemaNameFromTableIdent(ident)), type);
+                }
+                break;
+            case SCHEMA:
+                decision = decide(schemaMask(ident), type);
+                break;
+        }
+        if (decision == NOT_FOUND) {
+            decision = decide(clusterMask, type);
+        }
+        return decision == GRANTED;
+    }
 
-        if (foundPrivilege == null) {
-            return false;
+    private static int decide(int mask, Privilege.Type type) {
+        int bit = 1 << type.ordinal();
+        if ((mask & (bit << DENIED_SHIFT)) != 0) {
+            return DENIED;
         }
-        switch (foundPrivilege.state()) {
-            case GRANT:
-                return true;
-            case DENY:
-            default:
-                return false;
+        if ((mask & bit) != 0) {
+            return GRANTED;
         }
+        return NOT_FOUND;
     }
 
-    @Nonnull
-    @Override
-    public Iterator<Privilege> iterator() {
-        return privileges.iterator();
+    private static boolean hasAnyGrant(int mask) {
+        return (mask & GRANTED_TYPES) != 0;
     }
 
-    private boolean hasAnyClusterPrivilege() {
-        return anyClusterPrivilege;
+    private int schemaMask(String ident) {
+        return schemaMasks.getOrDefault(ident, 0);
     }
 
-    private boolean hasAnySchemaPrivilege(String ident) {
-        return anySchemaPrivilege.get(ident) != null;
+    private int tableMask(String ident) {
+        return tableMasks.getOrDefault(ident, 0);
     }
 
-    private boolean hasAnyTablePrivilege(String ident) {
-        return anyTablePrivilege.get(ident) != null;
+    @Nonnull
+    @Override
+    public Iterator<Privilege> iterator() {
+        return privileges.iterator();
     }
 
     @Override
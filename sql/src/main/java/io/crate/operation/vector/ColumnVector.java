@@ -0,0 +1,149 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.types.BooleanType;
+import io.crate.types.DataType;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * A column of up to {@link #capacity()} values of a single primitive type together with a null bitmap.
+ *
+ * <p>
+ * Values of null positions are undefined. Implementations of {@link VectorizedScalar.Kernel} must not rely on them,
+ * but are also not required to skip them, unless the computation could fail (e.g. integer division by zero).
+ * </p>
+ *
+ * Supported are the numeric types, timestamps and booleans, see {@link #supports(DataType)}.
+ */
+public abstract class ColumnVector {
+
+    protected final DataType type;
+    private final int capacity;
+    private final long[] nulls;
+
+    ColumnVector(DataType type, int capacity) {
+        this.type = type;
+        this.capacity = capacity;
+        this.nulls = new long[(capacity + 63) >>> 6];
+    }
+
+    public static boolean supports(DataType type) {
+        return LongVector.supports(type) || DoubleVector.supports(type) || type.id() == BooleanType.ID;
+    }
+
+    public static ColumnVector create(DataType type, int capacity) {
+        if (LongVector.supports(type)) {
+            return new LongVector(type, capacity);
+        }
+        if (DoubleVector.supports(type)) {
+            return new DoubleVector(type, capacity);
+        }
+        if (type.id() == BooleanType.ID) {
+            return new BooleanVector(type, capacity);
+        }
+        throw new IllegalArgumentException("Cannot create a column vector for type " + type);
+    }
+
+    public DataType type() {
+        return type;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isNull(int idx) {
+        return (nulls[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    public void setNull(int idx) {
+        nulls[idx >>> 6] |= 1L << idx;
+    }
+
+    void clearNull(int idx) {
+        nulls[idx >>> 6] &= ~(1L << idx);
+    }
+
+    /**
+     * Mark all positions as not null
+     */
+    public void clearNulls() {
+        Arrays.fill(nulls, 0L);
+    }
+
+    /**
+     * Set the null bitmap of this vector to the null bitmap of the given vector.
+     */
+    public void copyNulls(ColumnVector vector) {
+        System.arraycopy(vector.nulls, 0, nulls, 0, nulls.length);
+    }
+
+    /**
+     * Set the null bitmap of this vector so that a position is null if it is null in any of the given vectors.
+     */
+    public void unionNulls(ColumnVector a, ColumnVector b) {
+        long[] aNulls = a.nulls;
+        long[] bNulls = b.nulls;
+        for (int i = 0; i < nulls.length; i++) {
+            nulls[i] = aNulls[i] | bNulls[i];
+        }
+    }
+
+    /**
+     * @return the value at the given position, boxed as an instance of the java class of {@link #type()}
+     */
+    @Nullable
+    public Object value(int idx) {
+        if (isNull(idx)) {
+            return null;
+        }
+        return boxedValue(idx);
+    }
+
+    /**
+     * Set the value at the given position. The value must be an instance of the java class of {@link #type()} or null.
+     */
+    public void set(int idx, @Nullable Object value) {
+        if (value == null) {
+            setNull(idx);
+        } else {
+            clearNull(idx);
+            setValue(idx, value);
+        }
+    }
+
+    protected abstract Object boxedValue(int idx);
+
+    protected abstract void setValue(int idx, Object value);
+
+    /**
+     * Fill all positions with the given value
+     */
+    public void fill(@Nullable Object value) {
+        for (int i = 0; i < capacity; i++) {
+            set(i, value);
+        }
+    }
+}
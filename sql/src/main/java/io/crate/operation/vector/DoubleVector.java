@@ -0,0 +1,67 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+
+/**
+ * Vector for double and float values. Float values are stored as double, which is lossless.
+ */
+public final class DoubleVector extends ColumnVector {
+
+    public final double[] values;
+
+    DoubleVector(DataType type, int capacity) {
+        super(type, capacity);
+        this.values = new double[capacity];
+    }
+
+    public static boolean supports(DataType type) {
+        return type.id() == DoubleType.ID || type.id() == FloatType.ID;
+    }
+
+    /**
+     * @return the values of the vector as double, converting them if it is a {@link LongVector}.
+     *         The returned array of a LongVector is re-used by subsequent calls.
+     */
+    public static double[] doubles(ColumnVector vector, int size) {
+        if (vector instanceof DoubleVector) {
+            return ((DoubleVector) vector).values;
+        }
+        return ((LongVector) vector).asDoubles(size);
+    }
+
+    @Override
+    protected Object boxedValue(int idx) {
+        if (type.id() == FloatType.ID) {
+            return (float) values[idx];
+        }
+        return values[idx];
+    }
+
+    @Override
+    protected void setValue(int idx, Object value) {
+        values[idx] = ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+public final class FunctionVectorExpression implements VectorExpression {
+
+    private final VectorizedScalar.Kernel kernel;
+    private final VectorExpression[] arguments;
+    private final ColumnVector[] argumentVectors;
+    private final ColumnVector result;
+
+    public FunctionVectorExpression(VectorizedScalar.Kernel kernel, VectorExpression[] arguments, ColumnVector result) {
+        this.kernel = kernel;
+        this.arguments = arguments;
+        this.argumentVectors = new ColumnVector[arguments.length];
+        this.result = result;
+    }
+
+    @Override
+    public ColumnVector evaluate(int size) {
+        for (int i = 0; i < arguments.length; i++) {
+            argumentVectors[i] = arguments[i].evaluate(size);
+        }
+        kernel.evaluate(argumentVectors, size, result);
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+
+/**
+ * Vector for long, timestamp, integer, short and byte values. All of them are stored as long.
+ */
+public final class LongVector extends ColumnVector {
+
+    public final long[] values;
+    private double[] doubles;
+
+    LongVector(DataType type, int capacity) {
+        super(type, capacity);
+        this.values = new long[capacity];
+    }
+
+    public static boolean supports(DataType type) {
+        switch (type.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the first {@code size} values converted to double. The returned array is re-used by subsequent calls.
+     */
+    public double[] asDoubles(int size) {
+        if (doubles == null) {
+            doubles = new double[capacity()];
+        }
+        for (int i = 0; i < size; i++) {
+            doubles[i] = values[i];
+        }
+        return doubles;
+    }
+
+    @Override
+    protected Object boxedValue(int idx) {
+        long value = values[idx];
+        switch (type.id()) {
+            case IntegerType.ID:
+                return (int) value;
+            case ShortType.ID:
+                return (short) value;
+            case ByteType.ID:
+                return (byte) value;
+            default:
+                return value;
+        }
+    }
+
+    @Override
+    protected void setValue(int idx, Object value) {
+        values[idx] = ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import javax.annotation.Nullable;
+
+/**
+ * Vectorized counterpart of {@link io.crate.data.Input}, created by
+ * {@link io.crate.operation.InputFactory#ctxForVectors(Iterable, int)}.
+ */
+@FunctionalInterface
+public interface VectorExpression {
+
+    /**
+     * Evaluate the first {@code size} positions of the current batch.
+     * The returned vector is re-used, its content is only valid until the next call.
+     *
+     * @return the result or null for a literal argument of an unsupported type
+     *         (See {@link VectorizedScalar.Kernel#evaluate(ColumnVector[], int, ColumnVector)})
+     */
+    @Nullable
+    ColumnVector evaluate(int size);
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.analyze.symbol.Symbol;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Optional interface for {@link io.crate.metadata.Scalar} implementations which can evaluate a whole batch of rows
+ * at once using primitive {@link ColumnVector}s, instead of one boxed value per
+ * {@link io.crate.metadata.Scalar#evaluate(io.crate.data.Input[])} call.
+ *
+ * The result of the kernel must be equal to the result of calling evaluate for every row.
+ */
+public interface VectorizedScalar {
+
+    /**
+     * Called on the scalar returned by {@link io.crate.metadata.Scalar#compile(List)}.
+     *
+     * @param arguments the arguments in symbol form.
+     * @return a kernel to evaluate the scalar or null if it can't be evaluated in vectorized form for these arguments.
+     */
+    @Nullable
+    Kernel vectorize(List<Symbol> arguments);
+
+    @FunctionalInterface
+    interface Kernel {
+
+        /**
+         * Evaluate the first {@code size} positions of the arguments and write the results into {@code result}.
+         *
+         * @param args one vector per argument. The entry is null for an argument which doesn't have a
+         *             {@link ColumnVector#supports(io.crate.types.DataType) supported type};
+         *             this can only be the case for literals.
+         * @param result a vector of the return type of the scalar. Null bits and values must be overwritten.
+         */
+        void evaluate(ColumnVector[] args, int size, ColumnVector result);
+    }
+}
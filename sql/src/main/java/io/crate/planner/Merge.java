@@ -72,7 +72,7 @@ public class Merge implements Plan, ResultDescription {
         if (ExecutionPhases.executesOnHandler(plannerContext.handlerNode(), resultDescription.nodeIds())) {
             return addProjections(subPlan, projections, resultDescription, topN);
         }
-        maybeUpdatePageSizeHint(subPlan, resultDescription.maxRowsPerNode());
+        maybeUpdatePageSizeHint(subPlan, resultDescription);
         Collection<String> handlerNodeIds = Collections.singletonList(plannerContext.handlerNode());
 
         MergePhase mergePhase = new MergePhase(
@@ -97,9 +97,9 @@ public class Merge implements Plan, ResultDescription {
         );
     }
 
-    private static void maybeUpdatePageSizeHint(Plan subPlan, int maxRowsPerNode) {
-        if (Paging.shouldPage(maxRowsPerNode)) {
-            Paging.updateNodePageSizeHint(subPlan, maxRowsPerNode);
+    private static void maybeUpdatePageSizeHint(Plan subPlan, ResultDescription resultDescription) {
+        if (Paging.shouldPage(resultDescription)) {
+            Paging.updateNodePageSizeHint(subPlan, resultDescription);
         }
     }
 
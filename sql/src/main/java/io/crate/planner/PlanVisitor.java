@@ -34,6 +34,9 @@ import io.crate.planner.node.dql.join.NestedLoop;
 import io.crate.planner.node.management.ExplainPlan;
 import io.crate.planner.node.management.ShowCreateTablePlan;
 import io.crate.planner.node.management.KillPlan;
+import io.crate.planner.statement.CloseCursorPlan;
+import io.crate.planner.statement.DeclareCursorPlan;
+import io.crate.planner.statement.FetchFromCursorPlan;
 import io.crate.planner.statement.SetSessionPlan;
 import org.elasticsearch.common.Nullable;
 
@@ -55,6 +58,18 @@ public class PlanVisitor<C, R> {
         return visitPlan(plan, context);
     }
 
+    public R visitDeclareCursorPlan(DeclareCursorPlan plan, C context) {
+        return visitPlan(plan, context);
+    }
+
+    public R visitFetchFromCursorPlan(FetchFromCursorPlan plan, C context) {
+        return visitPlan(plan, context);
+    }
+
+    public R visitCloseCursorPlan(CloseCursorPlan plan, C context) {
+        return visitPlan(plan, context);
+    }
+
     public R visitUpsert(Upsert node, C context) {
         return visitPlan(node, context);
     }
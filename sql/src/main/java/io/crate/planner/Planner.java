@@ -28,17 +28,20 @@ import io.crate.analyze.Analysis;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.AnalyzedStatementVisitor;
+import io.crate.analyze.CloseCursorAnalyzedStatement;
 import io.crate.analyze.CopyFromAnalyzedStatement;
 import io.crate.analyze.CopyToAnalyzedStatement;
 import io.crate.analyze.CreateAnalyzerAnalyzedStatement;
 import io.crate.analyze.CreateTableAnalyzedStatement;
 import io.crate.analyze.DCLStatement;
 import io.crate.analyze.DDLStatement;
+import io.crate.analyze.DeclareCursorAnalyzedStatement;
 import io.crate.analyze.DeleteAnalyzedStatement;
 import io.crate.analyze.DropBlobTableAnalyzedStatement;
 import io.crate.analyze.DropTableAnalyzedStatement;
 import io.crate.analyze.EvaluatingNormalizer;
 import io.crate.analyze.ExplainAnalyzedStatement;
+import io.crate.analyze.FetchFromCursorAnalyzedStatement;
 import io.crate.analyze.InsertFromSubQueryAnalyzedStatement;
 import io.crate.analyze.InsertFromValuesAnalyzedStatement;
 import io.crate.analyze.KillAnalyzedStatement;
@@ -55,6 +58,7 @@ import io.crate.analyze.symbol.SelectSymbol;
 import io.crate.analyze.symbol.Symbol;
 import io.crate.data.Input;
 import io.crate.exceptions.UnhandledServerException;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.metadata.Functions;
 import io.crate.metadata.PartitionName;
 import io.crate.metadata.Reference;
@@ -76,8 +80,11 @@ import io.crate.planner.node.dml.UpsertById;
 import io.crate.planner.node.management.ExplainPlan;
 import io.crate.planner.node.management.KillPlan;
 import io.crate.planner.node.management.ShowCreateTablePlan;
+import io.crate.planner.statement.CloseCursorPlan;
 import io.crate.planner.statement.CopyStatementPlanner;
+import io.crate.planner.statement.DeclareCursorPlan;
 import io.crate.planner.statement.DeleteStatementPlanner;
+import io.crate.planner.statement.FetchFromCursorPlan;
 import io.crate.planner.statement.SetSessionPlan;
 import io.crate.sql.tree.Expression;
 import io.crate.types.DataTypes;
@@ -111,11 +118,12 @@ public class Planner extends AnalyzedStatementVisitor<Planner.Context, Plan> {
     private final CopyStatementPlanner copyStatementPlanner;
     private final SelectStatementPlanner selectStatementPlanner;
     private final EvaluatingNormalizer normalizer;
+    private final AdaptiveReplicaSelection replicaSelection;
 
 
     public static class Context {
 
-        private final RoutingBuilder routingBuilder = new RoutingBuilder();
+        private final RoutingBuilder routingBuilder;
         private final Planner planner;
         private final ClusterService clusterService;
         private final UUID jobId;
@@ -136,6 +144,7 @@ public class Planner extends AnalyzedStatementVisitor<Planner.Context, Plan> {
                        int softLimit,
                        int fetchSize) {
             this.planner = planner;
+            this.routingBuilder = new RoutingBuilder(planner.replicaSelection);
             this.clusterService = clusterService;
             this.jobId = jobId;
             this.consumingPlanner = consumingPlanner;
@@ -232,8 +241,12 @@ public class Planner extends AnalyzedStatementVisitor<Planner.Context, Plan> {
 
 
     @Inject
-    public Planner(ClusterService clusterService, Functions functions, TableStats tableStats) {
+    public Planner(ClusterService clusterService,
+                   Functions functions,
+                   TableStats tableStats,
+                   AdaptiveReplicaSelection replicaSelection) {
         this.clusterService = clusterService;
+        this.replicaSelection = replicaSelection;
         this.consumingPlanner = new ConsumingPlanner(clusterService, functions, tableStats);
         this.copyStatementPlanner = new CopyStatementPlanner(clusterService);
         this.selectStatementPlanner = new SelectStatementPlanner(consumingPlanner);
@@ -411,7 +424,32 @@ public class Planner extends AnalyzedStatementVisitor<Planner.Context, Plan> {
 
     @Override
     public Plan visitExplainStatement(ExplainAnalyzedStatement explainAnalyzedStatement, Context context) {
-        return new ExplainPlan(process(explainAnalyzedStatement.statement(), context));
+        return new ExplainPlan(process(explainAnalyzedStatement.statement(), context), explainAnalyzedStatement.isAnalyze());
+    }
+
+    @Override
+    public Plan visitDeclareCursor(DeclareCursorAnalyzedStatement analysis, Context context) {
+        // the rows of a cursor are fetched incrementally, so the default limit isn't applied
+        Context queryContext = new Context(this, clusterService, context.jobId, consumingPlanner, normalizer,
+            context.transactionContext, 0, context.fetchSize);
+        SelectAnalyzedStatement query = analysis.query();
+        return new DeclareCursorPlan(
+            context.jobId(),
+            analysis.cursorName(),
+            query.relation().fields(),
+            process(query, queryContext),
+            context.transactionContext().sessionContext().cursors());
+    }
+
+    @Override
+    public Plan visitFetchFromCursor(FetchFromCursorAnalyzedStatement analysis, Context context) {
+        return new FetchFromCursorPlan(context.jobId(), analysis.cursor(), analysis.count());
+    }
+
+    @Override
+    public Plan visitCloseCursor(CloseCursorAnalyzedStatement analysis, Context context) {
+        return new CloseCursorPlan(
+            context.jobId(), analysis.cursorName(), context.transactionContext().sessionContext().cursors());
     }
 
     private UpsertById processInsertStatement(InsertFromValuesAnalyzedStatement analysis, Context context) {
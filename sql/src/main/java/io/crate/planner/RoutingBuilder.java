@@ -27,8 +27,10 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.WhereClause;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.metadata.Routing;
 import io.crate.metadata.TableIdent;
+import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.table.TableInfo;
 import io.crate.planner.fetch.IndexBaseBuilder;
 
@@ -43,6 +45,8 @@ final class RoutingBuilder {
 
     final Map<TableIdent, List<TableRouting>> routingListByTable = new HashMap<>();
 
+    private final AdaptiveReplicaSelection replicaSelection;
+
     private ReaderAllocations readerAllocations;
 
     @VisibleForTesting
@@ -58,6 +62,10 @@ final class RoutingBuilder {
         }
     }
 
+    RoutingBuilder(AdaptiveReplicaSelection replicaSelection) {
+        this.replicaSelection = replicaSelection;
+    }
+
     Routing allocateRouting(TableInfo tableInfo, WhereClause where,
                             @Nullable String preference,
                             SessionContext sessionContext) {
@@ -68,7 +76,7 @@ final class RoutingBuilder {
         Routing existing = tryFindMatchInExisting(where, preference, existingRoutings);
         if (existing != null) return existing;
 
-        Routing routing = tableInfo.getRouting(where, preference, sessionContext);
+        Routing routing = getRouting(tableInfo, where, preference, sessionContext);
         existingRoutings.add(new TableRouting(where, preference, routing));
         // ensure all routings of this table are allocated
         // and update new routing by merging with existing ones
@@ -97,11 +105,21 @@ final class RoutingBuilder {
                                        SessionContext sessionContext) {
         List<TableRouting> existingRoutings = new ArrayList<>();
         routingListByTable.put(tableInfo.ident(), existingRoutings);
-        Routing routing = tableInfo.getRouting(where, preference, sessionContext);
+        Routing routing = getRouting(tableInfo, where, preference, sessionContext);
         existingRoutings.add(new TableRouting(where, preference, routing));
         return routing;
     }
 
+    private Routing getRouting(TableInfo tableInfo,
+                               WhereClause where,
+                               @Nullable String preference,
+                               SessionContext sessionContext) {
+        if (preference == null && tableInfo instanceof DocTableInfo && replicaSelection.isEnabled()) {
+            return ((DocTableInfo) tableInfo).getRouting(where, sessionContext, replicaSelection);
+        }
+        return tableInfo.getRouting(where, preference, sessionContext);
+    }
+
     ReaderAllocations buildReaderAllocations() {
         if (readerAllocations != null) {
             return readerAllocations;
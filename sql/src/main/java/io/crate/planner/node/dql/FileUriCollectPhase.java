@@ -44,6 +44,8 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
     private final List<Symbol> toCollect;
     private final String compression;
     private final Boolean sharedStorage;
+    private final String inputFormat;
+    private final List<String> columns;
     private DistributionInfo distributionInfo = DistributionInfo.DEFAULT_BROADCAST;
 
     public FileUriCollectPhase(UUID jobId,
@@ -54,13 +56,17 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
                                List<Symbol> toCollect,
                                List<Projection> projections,
                                String compression,
-                               Boolean sharedStorage) {
+                               Boolean sharedStorage,
+                               @Nullable String inputFormat,
+                               @Nullable List<String> columns) {
         super(jobId, phaseId, name, projections);
         this.executionNodes = executionNodes;
         this.targetUri = targetUri;
         this.toCollect = toCollect;
         this.compression = compression;
         this.sharedStorage = sharedStorage;
+        this.inputFormat = inputFormat;
+        this.columns = columns;
         outputTypes = extractOutputTypes(toCollect, projections);
     }
 
@@ -92,6 +98,23 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
         return compression;
     }
 
+    /**
+     * @return the name of the {@link io.crate.operation.collect.files.InputFormat} or null for the default
+     */
+    @Nullable
+    public String inputFormat() {
+        return inputFormat;
+    }
+
+    /**
+     * @return the top level columns of the target table which have to be read from the files in addition
+     *         to the columns of {@link #toCollect()} or null if all columns of the files are required
+     */
+    @Nullable
+    public List<String> columns() {
+        return columns;
+    }
+
     public FileUriCollectPhase(StreamInput in) throws IOException {
         super(in);
         compression = in.readOptionalString();
@@ -105,6 +128,16 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
         }
         this.executionNodes = nodes;
         toCollect = Symbols.listFromStream(in);
+        inputFormat = in.readOptionalString();
+        if (in.readBoolean()) {
+            int numColumns = in.readVInt();
+            columns = new ArrayList<>(numColumns);
+            for (int i = 0; i < numColumns; i++) {
+                columns.add(in.readString());
+            }
+        } else {
+            columns = null;
+        }
     }
 
     @Override
@@ -118,6 +151,14 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
             out.writeString(node);
         }
         Symbols.toStream(toCollect, out);
+        out.writeOptionalString(inputFormat);
+        out.writeBoolean(columns != null);
+        if (columns != null) {
+            out.writeVInt(columns.size());
+            for (String column : columns) {
+                out.writeString(column);
+            }
+        }
     }
 
     @Override
@@ -129,6 +170,8 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
             .add("outputTypes", outputTypes)
             .add("compression", compression)
             .add("sharedStorageDefault", sharedStorage)
+            .add("inputFormat", inputFormat)
+            .add("columns", columns)
             .toString();
     }
 
@@ -31,9 +31,15 @@ import java.util.UUID;
 public class ExplainPlan extends UnnestablePlan {
 
     private final Plan subPlan;
+    private final boolean isAnalyze;
 
     public ExplainPlan(Plan subPlan) {
+        this(subPlan, false);
+    }
+
+    public ExplainPlan(Plan subPlan, boolean isAnalyze) {
         this.subPlan = subPlan;
+        this.isAnalyze = isAnalyze;
     }
 
     @Override
@@ -49,4 +55,11 @@ public class ExplainPlan extends UnnestablePlan {
     public Plan subPlan() {
         return subPlan;
     }
+
+    /**
+     * @return true if the subPlan must be executed and its execution profiled
+     */
+    public boolean isAnalyze() {
+        return isAnalyze;
+    }
 }
@@ -54,7 +54,7 @@ public class WriterProjection extends Projection {
         new FunctionIdent(FormatFunction.NAME, Arrays.<DataType>asList(StringType.INSTANCE,
             StringType.INSTANCE, StringType.INSTANCE, StringType.INSTANCE)),
         StringType.INSTANCE),
-        Arrays.<Symbol>asList(Literal.of("%s_%s_%s.json"), TABLE_NAME_REF, SHARD_ID_REF, PARTITION_IDENT_REF)
+        Arrays.<Symbol>asList(Literal.of("%s_%s_%s"), TABLE_NAME_REF, SHARD_ID_REF, PARTITION_IDENT_REF)
     );
 
     private Symbol uri;
@@ -73,15 +73,21 @@ public class WriterProjection extends Projection {
 
     public enum OutputFormat {
         JSON_OBJECT,
-        JSON_ARRAY
+        JSON_ARRAY,
+        COLUMNAR
     }
 
     private CompressionType compressionType;
 
     public enum CompressionType {
-        GZIP
+        GZIP,
+        SNAPPY
     }
 
+    /**
+     * number of uncompressed bytes after which a new output file is started, 0 for no limit
+     */
+    private final long maxFileSize;
 
 
     public WriterProjection(List<Symbol> inputs,
@@ -89,13 +95,15 @@ public class WriterProjection extends Projection {
                             @Nullable CompressionType compressionType,
                             Map<ColumnIdent, Symbol> overwrites,
                             @Nullable List<String> outputNames,
-                            OutputFormat outputFormat) {
+                            OutputFormat outputFormat,
+                            long maxFileSize) {
         this.inputs = inputs;
         this.uri = uri;
         this.overwrites = overwrites;
         this.outputNames = outputNames;
         this.outputFormat = outputFormat;
         this.compressionType = compressionType;
+        this.maxFileSize = maxFileSize;
     }
 
     public WriterProjection(StreamInput in) throws IOException {
@@ -116,6 +124,7 @@ public class WriterProjection extends Projection {
         int compressionTypeOrdinal = in.readInt();
         compressionType = compressionTypeOrdinal >= 0 ? CompressionType.values()[compressionTypeOrdinal] : null;
         outputFormat = OutputFormat.values()[in.readInt()];
+        maxFileSize = in.readVLong();
     }
 
     @Override
@@ -165,6 +174,10 @@ public class WriterProjection extends Projection {
         return compressionType;
     }
 
+    public long maxFileSize() {
+        return maxFileSize;
+    }
+
     @Override
     public <C, R> R accept(ProjectionVisitor<C, R> visitor, C context) {
         return visitor.visitWriterProjection(this, context);
@@ -191,6 +204,7 @@ public class WriterProjection extends Projection {
         }
         out.writeInt(compressionType != null ? compressionType.ordinal() : -1);
         out.writeInt(outputFormat.ordinal());
+        out.writeVLong(maxFileSize);
     }
 
     @Override
@@ -207,6 +221,7 @@ public class WriterProjection extends Projection {
         if (compressionType != null ? !compressionType.equals(that.compressionType) : that.compressionType != null)
             return false;
         if (!outputFormat.equals(that.outputFormat)) return false;
+        if (maxFileSize != that.maxFileSize) return false;
 
         return true;
     }
@@ -219,6 +234,7 @@ public class WriterProjection extends Projection {
         result = 31 * result + overwrites.hashCode();
         result = 31 * result + (compressionType != null ? compressionType.hashCode() : 0);
         result = 31 * result + outputFormat.hashCode();
+        result = 31 * result + Long.hashCode(maxFileSize);
         return result;
     }
 
@@ -229,6 +245,7 @@ public class WriterProjection extends Projection {
                ", outputNames=" + outputNames +
                ", compressionType=" + compressionType +
                ", outputFormat=" + outputFormat +
+               ", maxFileSize=" + maxFileSize +
                '}';
     }
 
@@ -241,7 +258,8 @@ public class WriterProjection extends Projection {
                 compressionType,
                 overwrites,
                 outputNames,
-                outputFormat
+                outputFormat,
+                maxFileSize
             );
         }
         return this;
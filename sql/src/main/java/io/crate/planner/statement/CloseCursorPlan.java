@@ -0,0 +1,66 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.statement;
+
+import io.crate.action.sql.Cursors;
+import io.crate.planner.PlanVisitor;
+import io.crate.planner.UnnestablePlan;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+public class CloseCursorPlan extends UnnestablePlan {
+
+    private final UUID id;
+    @Nullable
+    private final String cursorName;
+    private final Cursors cursors;
+
+    public CloseCursorPlan(UUID id, @Nullable String cursorName, Cursors cursors) {
+        this.id = id;
+        this.cursorName = cursorName;
+        this.cursors = cursors;
+    }
+
+    @Override
+    public <C, R> R accept(PlanVisitor<C, R> visitor, C context) {
+        return visitor.visitCloseCursorPlan(this, context);
+    }
+
+    @Override
+    public UUID jobId() {
+        return id;
+    }
+
+    /**
+     * @return the name of the cursor to close or null if all cursors should be closed.
+     */
+    @Nullable
+    public String cursorName() {
+        return cursorName;
+    }
+
+    public Cursors cursors() {
+        return cursors;
+    }
+}
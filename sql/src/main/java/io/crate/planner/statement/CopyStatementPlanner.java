@@ -35,6 +35,7 @@ import io.crate.metadata.PartitionName;
 import io.crate.metadata.Reference;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.ColumnPolicy;
 import io.crate.operation.projectors.TopN;
 import io.crate.planner.Merge;
 import io.crate.planner.Plan;
@@ -143,13 +144,30 @@ public class CopyStatementPlanner {
             toCollect,
             projections,
             copyFrom.settings().get("compression", null),
-            copyFrom.settings().getAsBoolean("shared", null)
+            copyFrom.settings().getAsBoolean("shared", null),
+            copyFrom.settings().get("format", null),
+            columnsToRead(table)
         );
 
         Collect collect = new Collect(collectPhase, TopN.NO_LIMIT, 0, 1, 1, null);
         return Merge.ensureOnHandler(collect, context, Collections.singletonList(MergeCountProjection.INSTANCE));
     }
 
+    /**
+     * Columns which aren't part of a strict table can't be imported,
+     * so formats which support it only need to read the columns of the table.
+     */
+    @Nullable
+    private static List<String> columnsToRead(DocTableInfo table) {
+        if (table.columnPolicy() != ColumnPolicy.STRICT) {
+            return null;
+        }
+        return table.columns().stream()
+            .map(r -> r.ident().columnIdent().name())
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
     private static void rewriteToCollectToUsePartitionValues(List<Reference> partitionedByColumns,
                                                              List<BytesRef> partitionValues,
                                                              List<Symbol> toCollect) {
@@ -229,7 +247,8 @@ public class CopyStatementPlanner {
             statement.compressionType(),
             statement.overwrites(),
             statement.outputNames(),
-            outputFormat);
+            outputFormat,
+            statement.maxFileSize());
 
         ConsumerContext consumerContext = new ConsumerContext(context);
         consumerContext.setFetchMode(FetchMode.NEVER);
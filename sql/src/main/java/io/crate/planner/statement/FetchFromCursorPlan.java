@@ -0,0 +1,60 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.statement;
+
+import io.crate.action.sql.Cursor;
+import io.crate.planner.PlanVisitor;
+import io.crate.planner.UnnestablePlan;
+
+import java.util.UUID;
+
+public class FetchFromCursorPlan extends UnnestablePlan {
+
+    private final UUID id;
+    private final Cursor cursor;
+    private final long count;
+
+    public FetchFromCursorPlan(UUID id, Cursor cursor, long count) {
+        this.id = id;
+        this.cursor = cursor;
+        this.count = count;
+    }
+
+    @Override
+    public <C, R> R accept(PlanVisitor<C, R> visitor, C context) {
+        return visitor.visitFetchFromCursorPlan(this, context);
+    }
+
+    @Override
+    public UUID jobId() {
+        return id;
+    }
+
+    public Cursor cursor() {
+        return cursor;
+    }
+
+    public long count() {
+        return count;
+    }
+}
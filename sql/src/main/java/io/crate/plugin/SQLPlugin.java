@@ -22,6 +22,7 @@
 package io.crate.plugin;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.action.sql.Cursors;
 import io.crate.action.sql.SQLOperations;
 import io.crate.analyze.repositories.RepositorySettingsModule;
 import io.crate.breaker.CircuitBreakerModule;
@@ -44,9 +45,11 @@ import io.crate.monitor.MonitorModule;
 import io.crate.operation.aggregation.impl.AggregationImplModule;
 import io.crate.operation.auth.AuthSettings;
 import io.crate.operation.collect.CollectOperationModule;
+import io.crate.operation.collect.ShardResultCache;
 import io.crate.operation.collect.files.FileCollectModule;
 import io.crate.operation.operator.OperatorModule;
 import io.crate.operation.predicate.PredicateModule;
+import io.crate.operation.projectors.VectorizedProjector;
 import io.crate.operation.reference.sys.check.SysChecksModule;
 import io.crate.operation.reference.sys.check.node.SysNodeChecksModule;
 import io.crate.operation.reference.sys.cluster.SysClusterExpressionModule;
@@ -126,6 +129,9 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
         List<Setting<?>> settings = new ArrayList<>();
         settings.add(AnalyzerSettings.CUSTOM_ANALYSIS_SETTING_GROUP);
         settings.add(SQLOperations.NODE_READ_ONLY_SETTING);
+        settings.add(Cursors.IDLE_TIMEOUT_SETTING);
+        settings.add(ShardResultCache.SIZE_SETTING.setting());
+        settings.add(VectorizedProjector.BATCH_SIZE_SETTING.setting());
 
         // Postgres settings are node settings
         settings.add(PostgresNetty.PSQL_ENABLED_SETTING.setting());
@@ -144,6 +150,9 @@ public class SQLPlugin extends Plugin implements ActionPlugin, MapperPlugin, Clu
         settings.add(SslConfigSettings.SSL_KEYSTORE_FILEPATH.setting());
         settings.add(SslConfigSettings.SSL_KEYSTORE_PASSWORD.setting());
         settings.add(SslConfigSettings.SSL_KEYSTORE_KEY_PASSWORD.setting());
+        settings.add(SslConfigSettings.SSL_SESSION_CACHE_SIZE.setting());
+        settings.add(SslConfigSettings.SSL_SESSION_TIMEOUT.setting());
+        settings.add(SslConfigSettings.SSL_PROVIDER.setting());
 
         // also add CrateSettings
         for (CrateSetting crateSetting : CrateSettings.CRATE_CLUSTER_SETTINGS) {
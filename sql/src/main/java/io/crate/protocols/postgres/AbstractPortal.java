@@ -25,6 +25,7 @@ package io.crate.protocols.postgres;
 import io.crate.action.sql.SessionContext;
 import io.crate.analyze.Analyzer;
 import io.crate.executor.Executor;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 
 abstract class AbstractPortal implements Portal {
 
@@ -33,10 +34,15 @@ abstract class AbstractPortal implements Portal {
     final SessionContext sessionContext;
     boolean synced = false;
 
-    AbstractPortal(String name, Analyzer analyzer, Executor executor, boolean isReadOnly, SessionContext sessionContext) {
+    AbstractPortal(String name,
+                   Analyzer analyzer,
+                   Executor executor,
+                   boolean isReadOnly,
+                   CircuitBreaker queryBreaker,
+                   SessionContext sessionContext) {
         this.name = name;
         this.sessionContext = sessionContext;
-        portalContext = new PortalContext(analyzer, executor, isReadOnly);
+        portalContext = new PortalContext(analyzer, executor, isReadOnly, queryBreaker);
     }
 
     AbstractPortal(String name, SessionContext sessionContext, PortalContext portalContext) {
@@ -64,11 +70,13 @@ abstract class AbstractPortal implements Portal {
         private final Analyzer analyzer;
         private final Executor executor;
         private final boolean isReadOnly;
+        private final CircuitBreaker queryBreaker;
 
-        private PortalContext(Analyzer analyzer, Executor executor, boolean isReadOnly) {
+        private PortalContext(Analyzer analyzer, Executor executor, boolean isReadOnly, CircuitBreaker queryBreaker) {
             this.analyzer = analyzer;
             this.executor = executor;
             this.isReadOnly = isReadOnly;
+            this.queryBreaker = queryBreaker;
         }
 
         Analyzer getAnalyzer() {
@@ -82,5 +90,9 @@ abstract class AbstractPortal implements Portal {
         boolean isReadOnly() {
             return isReadOnly;
         }
+
+        CircuitBreaker getQueryBreaker() {
+            return queryBreaker;
+        }
     }
 }
@@ -28,8 +28,11 @@ import io.crate.action.sql.SessionContext;
 import io.crate.analyze.Analysis;
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.ParameterContext;
+import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.symbol.Field;
 import io.crate.analyze.symbol.Symbols;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowAccounting;
 import io.crate.concurrent.CountdownFutureCallback;
 import io.crate.data.BatchConsumer;
 import io.crate.data.Row;
@@ -49,6 +52,12 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Portal for statements which are sent within the same sync batch using the same portal.
+ *
+ * Either all statements are write operations or all statements are queries. Queries are executed concurrently
+ * but their results are sent in the order of the statements, see {@link OrderedResultReceiver}.
+ */
 class BatchPortal extends AbstractPortal {
 
     private final List<List<Object>> batchParams = new ArrayList<>();
@@ -57,6 +66,7 @@ class BatchPortal extends AbstractPortal {
     private final List<FormatCodes.FormatCode[]> resultFormatCodes = new ArrayList<>();
     private final List<List<? extends DataType>> outputTypes = new ArrayList<>();
     private final List<ResultReceiver> resultReceivers = new ArrayList<>();
+    private final boolean isQueryBatch;
 
     BatchPortal(String name,
                 String query,
@@ -72,6 +82,7 @@ class BatchPortal extends AbstractPortal {
         this.outputTypes.add(outputTypes);
         resultReceivers.add(resultReceiver);
         batchParams.add(params);
+        isQueryBatch = isQuery(analysis);
     }
 
     @Override
@@ -100,8 +111,11 @@ class BatchPortal extends AbstractPortal {
         queries.add(query);
         batchParams.add(params);
         this.resultFormatCodes.add(resultFormatCodes);
-        analysis.add(portalContext.getAnalyzer().boundAnalyze(
-            statement, sessionContext, new ParameterContext(getArgs(), Collections.emptyList())));
+        Analysis boundAnalysis = portalContext.getAnalyzer().boundAnalyze(
+            statement, sessionContext, new ParameterContext(getArgs(), Collections.emptyList()));
+        analysis.add(boundAnalysis);
+        AnalyzedRelation rootRelation = boundAnalysis.rootRelation();
+        outputTypes.add(rootRelation == null ? null : Symbols.typeView(rootRelation.fields()));
         return this;
     }
 
@@ -111,9 +125,7 @@ class BatchPortal extends AbstractPortal {
         if (lastAnalysis.rootRelation() == null) {
             return null;
         }
-        List<Field> fields = lastAnalysis.rootRelation().fields();
-        outputTypes.add(Symbols.typeView(fields));
-        return fields;
+        return lastAnalysis.rootRelation().fields();
     }
 
     @Override
@@ -124,19 +136,41 @@ class BatchPortal extends AbstractPortal {
 
     @Override
     public CompletableFuture<Void> sync(Planner planner, JobsLogs jobsLogs) {
-        CountdownFutureCallback completionCallback = new CountdownFutureCallback(analysis.size());
-        for (int i = 0; i < analysis.size(); i++) {
+        int numStatements = analysis.size();
+        UUID[] jobIds = new UUID[numStatements];
+        Plan[] plans = new Plan[numStatements];
+        int softLimit = isQueryBatch ? sessionContext.defaultLimit() : 0;
+        // plan all statements before executing any, so that a planning failure doesn't leave statements running
+        for (int i = 0; i < numStatements; i++) {
             UUID jobId = UUID.randomUUID();
-            Plan plan;
-            String stmt = queries.get(i);
+            jobIds[i] = jobId;
             try {
-                plan = planner.plan(analysis.get(i), jobId, 0, 0);
+                plans[i] = planner.plan(analysis.get(i), jobId, softLimit, 0);
             } catch (Throwable t) {
-                jobsLogs.logPreExecutionFailure(jobId, stmt, SQLExceptions.messageOf(t), sessionContext.user());
+                jobsLogs.logPreExecutionFailure(jobId, queries.get(i), SQLExceptions.messageOf(t), sessionContext.user());
                 throw t;
             }
+        }
+
+        CountdownFutureCallback completionCallback = new CountdownFutureCallback(numStatements);
+        CompletableFuture<?> previousCompletion = null;
+        for (int i = 0; i < numStatements; i++) {
+            UUID jobId = jobIds[i];
             ResultReceiver resultReceiver = resultReceivers.get(i);
-            jobsLogs.logExecutionStart(jobId, stmt, sessionContext.user());
+            Row params;
+            if (isQueryBatch) {
+                if (previousCompletion != null) {
+                    RowAccounting rowAccounting = new RowAccounting(
+                        outputTypes.get(i),
+                        new RamAccountingContext("pg-pipelined-result", portalContext.getQueryBreaker()));
+                    resultReceiver = new OrderedResultReceiver(resultReceiver, previousCompletion, rowAccounting);
+                }
+                previousCompletion = resultReceiver.completionFuture();
+                params = new RowN(batchParams.get(i).toArray());
+            } else {
+                params = new RowN(batchParams.toArray());
+            }
+            jobsLogs.logExecutionStart(jobId, queries.get(i), sessionContext.user());
             JobsLogsUpdateListener jobsLogsUpdateListener = new JobsLogsUpdateListener(jobId, jobsLogs);
 
             resultReceiver.completionFuture()
@@ -144,7 +178,7 @@ class BatchPortal extends AbstractPortal {
                 .whenComplete(completionCallback);
 
             BatchConsumer consumer = new BatchConsumerToResultReceiver(resultReceiver, 0);
-            portalContext.getExecutor().execute(plan, consumer, new RowN(batchParams.toArray()));
+            portalContext.getExecutor().execute(plans[i], consumer, params);
         }
         synced = true;
         return completionCallback;
@@ -155,6 +189,12 @@ class BatchPortal extends AbstractPortal {
     }
 
     private void validate(Analysis analysis) {
+        if (isQueryBatch) {
+            if (!isQuery(analysis)) {
+                throw new UnsupportedOperationException("Only queries are allowed in Batch statements starting with a query");
+            }
+            return;
+        }
         AnalyzedStatement analyzedStatement = analysis.analyzedStatement();
         if (!analyzedStatement.isWriteOperation()) {
             throw new UnsupportedOperationException("Only write operations are allowed in Batch statements");
@@ -163,4 +203,8 @@ class BatchPortal extends AbstractPortal {
             throw new ReadOnlyException();
         }
     }
+
+    private static boolean isQuery(Analysis analysis) {
+        return !analysis.analyzedStatement().isWriteOperation() && analysis.rootRelation() != null;
+    }
 }
@@ -93,6 +93,10 @@ public class Messages {
          */
         if ("BEGIN".equals(query)) {
             commandTag = "BEGIN";
+        } else if ("DECLARE".equals(query)) {
+            commandTag = "DECLARE CURSOR";
+        } else if ("CLOSE".equals(query)) {
+            commandTag = "CLOSE CURSOR";
         } else if ("INSERT".equals(query)) {
             commandTag = "INSERT 0 " + rowCount;
         } else {
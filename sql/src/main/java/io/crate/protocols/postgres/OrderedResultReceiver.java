@@ -0,0 +1,146 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.action.sql.ResultReceiver;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * ResultReceiver for a query of a pipeline whose queries are executed concurrently.
+ *
+ * The results are only passed to the delegate once the previous query of the pipeline completed, so that the
+ * results are sent to the client in the order of the queries. Results received before are buffered and accounted
+ * for using the given {@link RowAccounting}; if the circuit breaker trips, the query fails and its buffered rows
+ * are dropped.
+ *
+ * As with a sequential execution, the results are discarded if the previous query failed or was skipped,
+ * in which case this receiver fails with the same error.
+ */
+class OrderedResultReceiver implements ResultReceiver {
+
+    private final ResultReceiver delegate;
+    private final RowAccounting rowAccounting;
+    private final CompletableFuture<Object> completionFuture = new CompletableFuture<>();
+    private final List<Consumer<ResultReceiver>> pendingCalls = new ArrayList<>();
+
+    private boolean released = false;
+    private boolean finished = false;
+    private Throwable previousFailure = null;
+
+    OrderedResultReceiver(ResultReceiver delegate,
+                          CompletableFuture<?> previousCompletion,
+                          RowAccounting rowAccounting) {
+        this.delegate = delegate;
+        this.rowAccounting = rowAccounting;
+        delegate.completionFuture().whenComplete((result, t) -> {
+            if (t == null) {
+                completionFuture.complete(result);
+            } else {
+                completionFuture.completeExceptionally(t);
+            }
+        });
+        previousCompletion.whenComplete((result, t) -> release(t));
+    }
+
+    private void release(Throwable t) {
+        synchronized (this) {
+            if (t == null) {
+                for (Consumer<ResultReceiver> call : pendingCalls) {
+                    call.accept(delegate);
+                }
+            } else {
+                previousFailure = t;
+                if (finished) {
+                    completionFuture.completeExceptionally(t);
+                }
+            }
+            pendingCalls.clear();
+            released = true;
+        }
+        rowAccounting.close();
+    }
+
+    private void dispatch(Consumer<ResultReceiver> call, boolean isLastCall) {
+        synchronized (this) {
+            if (released == false) {
+                pendingCalls.add(call);
+                finished = isLastCall;
+                return;
+            }
+        }
+        if (previousFailure == null) {
+            call.accept(delegate);
+        } else if (isLastCall) {
+            completionFuture.completeExceptionally(previousFailure);
+        }
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        synchronized (this) {
+            if (released == false) {
+                try {
+                    rowAccounting.accountForAndMaybeBreak(row);
+                } catch (Throwable t) {
+                    // the query fails; the rows buffered so far won't be sent
+                    pendingCalls.clear();
+                    throw t;
+                }
+                Object[] cells = row.materialize();
+                pendingCalls.add(r -> r.setNextRow(new RowN(cells)));
+                return;
+            }
+        }
+        if (previousFailure == null) {
+            delegate.setNextRow(row);
+        }
+    }
+
+    @Override
+    public void batchFinished() {
+        dispatch(ResultReceiver::batchFinished, false);
+    }
+
+    @Override
+    public void allFinished(boolean interrupted) {
+        dispatch(r -> r.allFinished(interrupted), true);
+    }
+
+    @Override
+    public void fail(@Nonnull Throwable t) {
+        dispatch(r -> r.fail(t), true);
+    }
+
+    @Override
+    public CompletableFuture<?> completionFuture() {
+        return completionFuture;
+    }
+}
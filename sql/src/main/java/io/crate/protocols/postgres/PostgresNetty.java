@@ -29,6 +29,7 @@ import io.crate.action.sql.SQLOperations;
 import io.crate.operation.auth.Authentication;
 import io.crate.protocols.ssl.SslConfigSettings;
 import io.crate.protocols.ssl.SslContextProvider;
+import io.crate.protocols.ssl.SslHandshakeStats;
 import io.crate.settings.CrateSetting;
 import io.crate.types.DataTypes;
 import io.netty.bootstrap.ServerBootstrap;
@@ -137,6 +138,7 @@ public class PostgresNetty extends AbstractLifecycleComponent {
         } else {
             sslContext = null;
         }
+        SslHandshakeStats handshakeStats = sslContextProvider.handshakeStats();
         bootstrap = new ServerBootstrap()
             .channel(NioServerSocketChannel.class)
             .group(boss, worker)
@@ -149,7 +151,7 @@ public class PostgresNetty extends AbstractLifecycleComponent {
                 protected void initChannel(Channel ch) throws Exception {
                     ChannelPipeline pipeline = ch.pipeline();
                     PostgresWireProtocol postgresWireProtocol =
-                        new PostgresWireProtocol(sqlOperations, authentication, sslContext);
+                        new PostgresWireProtocol(sqlOperations, authentication, sslContext, handshakeStats);
                     pipeline.addLast("frame-decoder", postgresWireProtocol.decoder);
                     pipeline.addLast("handler", postgresWireProtocol.handler);
                 }
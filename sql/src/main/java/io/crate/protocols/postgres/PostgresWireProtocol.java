@@ -34,6 +34,7 @@ import io.crate.operation.user.User;
 import io.crate.protocols.http.CrateNettyHttpServerTransport;
 import io.crate.protocols.postgres.types.PGType;
 import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.protocols.ssl.SslHandshakeStats;
 import io.crate.types.DataType;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
@@ -188,9 +189,16 @@ class PostgresWireProtocol {
     private State state = PRE_STARTUP;
 
     PostgresWireProtocol(SQLOperations sqlOperations, Authentication authService, @Nullable SslContext sslContext) {
+        this(sqlOperations, authService, sslContext, new SslHandshakeStats());
+    }
+
+    PostgresWireProtocol(SQLOperations sqlOperations,
+                         Authentication authService,
+                         @Nullable SslContext sslContext,
+                         SslHandshakeStats handshakeStats) {
         this.sqlOperations = sqlOperations;
         this.authService = authService;
-        this.sslReqHandler = new SslReqHandler(sslContext);
+        this.sslReqHandler = new SslReqHandler(sslContext, handshakeStats);
         this.decoder = new MessageDecoder();
         this.handler = new MessageHandler();
     }
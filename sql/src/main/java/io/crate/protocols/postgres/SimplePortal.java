@@ -42,6 +42,7 @@ import io.crate.planner.Planner;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.logging.Loggers;
 
 import javax.annotation.Nullable;
@@ -71,8 +72,9 @@ public class SimplePortal extends AbstractPortal {
                         Analyzer analyzer,
                         Executor executor,
                         boolean isReadOnly,
+                        CircuitBreaker queryBreaker,
                         SessionContext sessionContext) {
-        super(name, analyzer, executor, isReadOnly, sessionContext);
+        super(name, analyzer, executor, isReadOnly, queryBreaker, sessionContext);
         this.defaultLimit = sessionContext.defaultLimit();
     }
 
@@ -112,14 +114,19 @@ public class SimplePortal extends AbstractPortal {
                 fields(),
                 resultReceiver, maxRows, this.params, sessionContext, portalContext);
             return portal.bind(statementName, query, statement, params, resultFormatCodes);
-        } else if (this.statement != null && this.analysis != null) {
+        } else if (this.statement != null && this.analysis != null && synced == false) {
             assert consumer == null : "Existing portal must not have a consumer";
-            if (portalContext.isReadOnly()) { // Cannot have a batch operation in read only mode
-                throw new ReadOnlyException();
-            }
+            validateReadOnly(analysis);
             BatchPortal portal = new BatchPortal(
                 name, this.query, analysis, outputTypes, resultReceiver, this.params, sessionContext, portalContext);
             return portal.bind(statementName, query, statement, params, resultFormatCodes);
+        } else if (this.statement != null) {
+            // named portal which is re-used for another statement after its previous statement was synced
+            close();
+            consumer = null;
+            analysis = null;
+            outputTypes = null;
+            synced = false;
         }
 
         this.query = query;
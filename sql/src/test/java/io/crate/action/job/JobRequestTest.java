@@ -48,5 +48,19 @@ public class JobRequestTest {
         assertThat(r1.coordinatorNodeId(), is(r2.coordinatorNodeId()));
         assertThat(r1.jobId(), is(r2.jobId()));
         assertThat(r1.nodeOperations().isEmpty(), is(true));
+        assertThat(r2.enableProfiling(), is(false));
+    }
+
+    @Test
+    public void testJobRequestWithProfilingStreaming() throws Exception {
+        JobRequest r1 = new JobRequest(UUID.randomUUID(), "n1", Collections.<NodeOperation>emptyList(), true);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        r1.writeTo(out);
+
+        JobRequest r2 = new JobRequest();
+        r2.readFrom(out.bytes().streamInput());
+
+        assertThat(r2.enableProfiling(), is(true));
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.action.sql;
+
+import io.crate.data.BatchIterator;
+import io.crate.exceptions.CursorAlreadyExistsException;
+import io.crate.exceptions.CursorUnknownException;
+import io.crate.sql.tree.FetchFromCursor;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.BatchSimulatingIterator;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.testing.TestingBatchIterators;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class CursorTest extends CrateUnitTest {
+
+    private static Cursor newCursor(String name) {
+        return new Cursor(name, Collections.emptyList());
+    }
+
+    private static List<Object> fetch(Cursor cursor, long count) throws Exception {
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        cursor.fetch(consumer, count);
+        return consumer.getResult().stream().map(row -> row[0]).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFetchContinuesWhereThePreviousFetchStopped() throws Exception {
+        Cursor cursor = newCursor("c");
+        cursor.accept(new BatchSimulatingIterator(TestingBatchIterators.range(0, 10), 3, 4, null), null);
+
+        assertThat(fetch(cursor, 4), contains(0, 1, 2, 3));
+        assertThat(fetch(cursor, 1), contains(4));
+        assertThat(fetch(cursor, FetchFromCursor.ALL), contains(5, 6, 7, 8, 9));
+        assertThat(fetch(cursor, 1), is(empty()));
+    }
+
+    @Test
+    public void testFetchIsQueuedUntilQueryAndPreviousFetchFinished() throws Exception {
+        Cursor cursor = newCursor("c");
+        TestingBatchConsumer first = new TestingBatchConsumer();
+        TestingBatchConsumer second = new TestingBatchConsumer();
+        cursor.fetch(first, 2);
+        cursor.fetch(second, 2);
+
+        cursor.accept(TestingBatchIterators.range(0, 10), null);
+
+        assertThat(first.getResult().stream().map(row -> row[0]).collect(Collectors.toList()), contains(0, 1));
+        assertThat(second.getResult().stream().map(row -> row[0]).collect(Collectors.toList()), contains(2, 3));
+    }
+
+    @Test
+    public void testFailureOfQueryIsPassedToFetch() throws Exception {
+        Cursor cursor = newCursor("c");
+        cursor.accept(null, new IllegalStateException("query failed"));
+
+        assertThat(cursor.started().isCompletedExceptionally(), is(true));
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("query failed");
+        fetch(cursor, 1);
+    }
+
+    @Test
+    public void testIdleCursorIsClosed() throws Exception {
+        Cursor cursor = newCursor("c");
+        cursor.accept(TestingBatchIterators.range(0, 10), null);
+
+        assertThat(cursor.closeIfIdle(TimeUnit.HOURS.toNanos(1)), greaterThan(0L));
+        assertThat(cursor.closeIfIdle(0L), is(0L));
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Cursor 'c' is closed");
+        fetch(cursor, 1);
+    }
+
+    @Test
+    public void testCloseWaitsForFetchInProgress() throws Exception {
+        Cursor cursor = newCursor("c");
+        cursor.accept(TestingBatchIterators.range(0, 10), null);
+        CompletableFuture<BatchIterator> fetchIterator = new CompletableFuture<>();
+        cursor.fetch((iterator, failure) -> fetchIterator.complete(iterator), 2);
+
+        cursor.close();
+
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(fetchIterator.get(), null);
+        assertThat(consumer.getResult().stream().map(row -> row[0]).collect(Collectors.toList()), contains(0, 1));
+    }
+
+    @Test
+    public void testDeclareCursorWithExistingNameFails() throws Exception {
+        Cursors cursors = new Cursors();
+        cursors.add(newCursor("c"));
+
+        expectedException.expect(CursorAlreadyExistsException.class);
+        expectedException.expectMessage("Cursor 'c' already exists");
+        cursors.add(newCursor("c"));
+    }
+
+    @Test
+    public void testClosedCursorIsRemoved() throws Exception {
+        Cursors cursors = new Cursors();
+        cursors.add(newCursor("c"));
+        cursors.close("c");
+        assertThat(cursors.size(), is(0));
+
+        expectedException.expect(CursorUnknownException.class);
+        expectedException.expectMessage("Cursor 'c' does not exist");
+        cursors.get("c");
+    }
+}
@@ -151,6 +151,21 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(analysis.compressionType(), is(WriterProjection.CompressionType.GZIP));
     }
 
+    @Test
+    public void testCopyToFileWithSnappyCompressionAndMaxFileSize() throws Exception {
+        CopyToAnalyzedStatement analysis = e.analyze(
+            "copy users to directory '/blah' with (compression='snappy', max_file_size='10mb')");
+        assertThat(analysis.compressionType(), is(WriterProjection.CompressionType.SNAPPY));
+        assertThat(analysis.maxFileSize(), is(10L * 1024 * 1024));
+    }
+
+    @Test
+    public void testCopyToFileWithNegativeMaxFileSize() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid value -1 for max_file_size, must not be negative");
+        e.analyze("copy users to directory '/blah' with (max_file_size='-1')");
+    }
+
     @Test
     public void testCopyToFileWithUnknownParams() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -258,6 +273,21 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         e.analyze("copy users to directory '/blah' with (format='json_array')");
     }
 
+    @Test
+    public void testCopyToFileWithColumnarOutputFormat() throws Exception {
+        CopyToAnalyzedStatement analysis = e.analyze(
+            "copy users (id, name) to directory '/blah' with (format='columnar')");
+        assertThat(analysis.outputFormat(), is(WriterProjection.OutputFormat.COLUMNAR));
+        assertThat(analysis.outputNames(), contains("id", "name"));
+    }
+
+    @Test
+    public void testCopyToFileWithColumnarOutputFormatAndCompression() throws Exception {
+        expectedException.expect(UnsupportedFeatureException.class);
+        expectedException.expectMessage("Compression is not supported for the columnar output format.");
+        e.analyze("copy users (id, name) to directory '/blah' with (format='columnar', compression='gzip')");
+    }
+
     @Test
     public void testCopyFromWithReferenceAssignedToProperty() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -265,6 +295,13 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         e.analyze("copy users from '/blah.txt' with (compression = gzip)");
     }
 
+    @Test
+    public void testCopyFromWithInvalidFormat() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid format \"xml\", supported formats are: json, csv, columnar");
+        e.analyze("copy users from '/blah.xml' with (format = 'xml')");
+    }
+
     @Test
     public void testCopyFromFileUriArray() throws Exception {
         Object[] files = $("/f1.json", "/f2.json");
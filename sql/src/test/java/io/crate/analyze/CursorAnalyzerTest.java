@@ -0,0 +1,67 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.analyze;
+
+import io.crate.exceptions.CursorUnknownException;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.crate.testing.SymbolMatchers.isField;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CursorAnalyzerTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void prepare() {
+        e = SQLExecutor.builder(clusterService).enableDefaultTables().build();
+    }
+
+    @Test
+    public void testAnalyzeDeclareCursor() throws Exception {
+        DeclareCursorAnalyzedStatement stmt = e.analyze("declare c cursor for select id, name from users");
+        assertThat(stmt.cursorName(), is("c"));
+        assertThat(stmt.isWriteOperation(), is(false));
+        assertThat(stmt.query().relation().fields(), contains(isField("id"), isField("name")));
+    }
+
+    @Test
+    public void testAnalyzeFetchFromUnknownCursor() throws Exception {
+        expectedException.expect(CursorUnknownException.class);
+        expectedException.expectMessage("Cursor 'c' does not exist");
+        e.analyze("fetch 10 from c");
+    }
+
+    @Test
+    public void testAnalyzeCloseCursor() throws Exception {
+        CloseCursorAnalyzedStatement stmt = e.analyze("close c");
+        assertThat(stmt.cursorName(), is("c"));
+        stmt = e.analyze("close all");
+        assertThat(stmt.cursorName(), nullValue());
+    }
+}
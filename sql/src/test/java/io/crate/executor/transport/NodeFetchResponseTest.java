@@ -46,6 +46,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static io.crate.testing.TestingHelpers.isRow;
+import static org.hamcrest.Matchers.is;
 
 public class NodeFetchResponseTest extends CrateUnitTest {
 
@@ -77,7 +78,7 @@ public class NodeFetchResponseTest extends CrateUnitTest {
 
     @Test
     public void testStreaming() throws Exception {
-        NodeFetchResponse orig = NodeFetchResponse.forSending(fetched);
+        NodeFetchResponse orig = NodeFetchResponse.forSending(fetched, 3);
 
         BytesStreamOutput out = new BytesStreamOutput();
         orig.writeTo(out);
@@ -89,11 +90,12 @@ public class NodeFetchResponseTest extends CrateUnitTest {
         streamed.readFrom(in);
 
         assertThat((Row) Iterables.getOnlyElement(streamed.fetched().get(1)), isRow(true));
+        assertThat(streamed.queueSize(), is(3));
     }
 
     @Test
     public void testResponseCircuitBreaker() throws Exception {
-        NodeFetchResponse orig = NodeFetchResponse.forSending(fetched);
+        NodeFetchResponse orig = NodeFetchResponse.forSending(fetched, -1);
         BytesStreamOutput out = new BytesStreamOutput();
         orig.writeTo(out);
         StreamInput in = out.bytes().streamInput();
@@ -0,0 +1,105 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.transport.LocalTransportAddress;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class ResultCompressionTest extends CrateUnitTest {
+
+    private static final DiscoveryNodes NODES = DiscoveryNodes.builder()
+        .localNodeId("n1")
+        .add(node("n1", ImmutableMap.of("zone", "a", "rack", "r1")))
+        .add(node("n2", ImmutableMap.of("zone", "a", "rack", "r2")))
+        .add(node("n3", ImmutableMap.of("zone", "b", "rack", "r1")))
+        .add(node("n4", Collections.emptyMap()))
+        .build();
+
+    private static DiscoveryNode node(String id, Map<String, String> attributes) {
+        return new DiscoveryNode(id, LocalTransportAddress.buildUnique(), attributes, ImmutableSet.of(), Version.CURRENT);
+    }
+
+    private static ResultCompression resultCompression(Settings settings) {
+        return new ResultCompression(settings, () -> NODES);
+    }
+
+    @Test
+    public void testAutoCompressesPagesSentToOtherZones() throws Exception {
+        ResultCompression compression = resultCompression(Settings.EMPTY);
+        assertThat(compression.compressFor("n2"), is(false));
+        assertThat(compression.compressFor("n3"), is(true));
+        // nodes without zone are considered to be in the same zone
+        assertThat(compression.compressFor("n4"), is(false));
+        assertThat(compression.compressFor("unknown"), is(false));
+    }
+
+    @Test
+    public void testZoneAttributeIsConfigurable() throws Exception {
+        ResultCompression compression = resultCompression(Settings.builder()
+            .put(ResultCompression.ZONE_ATTRIBUTE_SETTING.getKey(), "rack")
+            .build());
+        assertThat(compression.compressFor("n2"), is(true));
+        assertThat(compression.compressFor("n3"), is(false));
+    }
+
+    @Test
+    public void testPagesSmallerThanMinSizeAreNotCompressed() throws Exception {
+        ResultCompression compression = resultCompression(Settings.builder()
+            .put(ResultCompression.MIN_SIZE_SETTING.getKey(), "1kb")
+            .build());
+        assertThat(compression.compress("n3", 1023), is(false));
+        assertThat(compression.compress("n3", 1024), is(true));
+        assertThat(compression.compress("n2", 1024), is(false));
+    }
+
+    @Test
+    public void testAlwaysAndNeverMode() throws Exception {
+        ResultCompression always = resultCompression(Settings.builder()
+            .put(ResultCompression.MODE_SETTING.getKey(), "always")
+            .build());
+        assertThat(always.compress("n2", 64 * 1024), is(true));
+
+        ResultCompression never = resultCompression(Settings.builder()
+            .put(ResultCompression.MODE_SETTING.getKey(), "never")
+            .build());
+        assertThat(never.compress("n3", Long.MAX_VALUE), is(false));
+    }
+
+    @Test
+    public void testInvalidMode() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid result compression mode \"fast\", must be one of auto, always or never");
+        resultCompression(Settings.builder().put(ResultCompression.MODE_SETTING.getKey(), "fast").build());
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.executor.transport;
+
+import io.crate.Streamer;
+import io.crate.data.Bucket;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class StreamBucketTest extends CrateUnitTest {
+
+    private static final Streamer<?>[] STREAMERS = new Streamer[]{
+        DataTypes.STRING.streamer(), DataTypes.INTEGER.streamer(), DataTypes.STRING.streamer()};
+
+    private static StreamBucket streamed(StreamBucket bucket) throws Exception {
+        return streamed(bucket, false);
+    }
+
+    private static StreamBucket streamed(StreamBucket bucket, boolean compress) throws Exception {
+        BytesStreamOutput out = new BytesStreamOutput();
+        bucket.writeTo(out, compress);
+        StreamInput in = out.bytes().streamInput();
+        StreamBucket streamed = new StreamBucket(STREAMERS);
+        streamed.readFrom(in);
+        return streamed;
+    }
+
+    private static List<Object[]> materialize(Bucket bucket) {
+        List<Object[]> rows = new ArrayList<>(bucket.size());
+        for (Row row : bucket) {
+            rows.add(row.materialize());
+        }
+        return rows;
+    }
+
+    private static void assertRows(List<Object[]> expected, Bucket bucket) {
+        List<Object[]> actual = materialize(bucket);
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i), is(expected.get(i)));
+        }
+    }
+
+    private List<Object[]> randomRows(int numRows, int cardinality) {
+        List<Object[]> rows = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            rows.add(new Object[]{
+                rarely() ? null : new BytesRef("status-" + randomInt(cardinality)),
+                randomInt(),
+                randomBoolean() ? null : new BytesRef(randomAsciiOfLength(randomIntBetween(0, 20)))
+            });
+        }
+        return rows;
+    }
+
+    private static StreamBucket build(StreamBucket.Builder builder, List<Object[]> rows) throws Exception {
+        for (Object[] row : rows) {
+            builder.add(new RowN(row));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testLowCardinalityStringsRoundTrip() throws Exception {
+        List<Object[]> rows = randomRows(5000, 5);
+        assertRows(rows, streamed(build(new StreamBucket.Builder(STREAMERS, null), rows)));
+    }
+
+    @Test
+    public void testHighCardinalityStringsRoundTrip() throws Exception {
+        // more distinct values than fit into the dictionary
+        List<Object[]> rows = randomRows(5000, 100_000);
+        assertRows(rows, streamed(build(new StreamBucket.Builder(STREAMERS, null), rows)));
+    }
+
+    @Test
+    public void testDictionaryIsResetForEachPage() throws Exception {
+        StreamBucket.Builder builder = new StreamBucket.Builder(STREAMERS, null);
+        List<Object[]> firstPage = randomRows(100, 3);
+        StreamBucket first = build(builder, firstPage);
+        builder.reset();
+        List<Object[]> secondPage = randomRows(100, 3);
+        StreamBucket second = build(builder, secondPage);
+
+        assertRows(firstPage, streamed(first));
+        assertRows(secondPage, streamed(second));
+    }
+
+    @Test
+    public void testLowCardinalityStringsAreSmallerThanPlainValues() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.STRING.streamer()};
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, null);
+        BytesStreamOutput plain = new BytesStreamOutput();
+        for (int i = 0; i < 1000; i++) {
+            BytesRef value = new BytesRef(randomFrom("Austria", "Germany", "Switzerland"));
+            builder.add(new RowN(new Object[]{value}));
+            DataTypes.STRING.streamer().writeValueTo(plain, value);
+        }
+        // at most two bytes per value instead of the full value
+        assertThat(builder.sizeInBytes(), lessThan(2L * 1000));
+        assertThat(builder.sizeInBytes(), lessThan((long) plain.size()));
+    }
+
+    private static StreamBucket streamed(Streamer<?>[] streamers, List<Object[]> rows) throws Exception {
+        StreamBucket bucket = build(new StreamBucket.Builder(streamers, null), rows);
+        BytesStreamOutput out = new BytesStreamOutput();
+        bucket.writeTo(out);
+        StreamBucket streamed = new StreamBucket(streamers);
+        streamed.readFrom(out.bytes().streamInput());
+        return streamed;
+    }
+
+    private Map<String, Object> randomObject(int depth) {
+        Map<String, Object> object = new HashMap<>();
+        object.put("id", randomLong());
+        object.put("name", randomAsciiOfLength(randomIntBetween(0, 10)));
+        if (randomBoolean()) {
+            // the kind of a value may differ from the kind of the first value of the key
+            object.put("value", randomFrom(randomInt(), randomDouble(), randomAsciiOfLength(3), null, (short) 2));
+        }
+        object.put("flag", randomBoolean() ? null : randomBoolean());
+        if (rarely()) {
+            // dynamic key
+            object.put(randomAsciiOfLength(5), randomFloat());
+        }
+        if (depth > 0) {
+            object.put("nested", randomBoolean() ? null : randomObject(depth - 1));
+            object.put("list", Arrays.asList(randomObject(depth - 1), randomByte(), null));
+            object.put("array", new Object[]{randomObject(depth - 1), "a"});
+        }
+        return object;
+    }
+
+    private static void assertObjectRows(List<Object[]> expected, Bucket bucket) {
+        List<Object[]> actual = materialize(bucket);
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(normalize(actual.get(i)), is(normalize(expected.get(i))));
+        }
+    }
+
+    /**
+     * converts arrays to lists so that values can be compared using equals
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Object[]) {
+            value = Arrays.asList((Object[]) value);
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), normalize(entry.getValue()));
+            }
+            return map;
+        }
+        return value;
+    }
+
+    @Test
+    public void testObjectsRoundTrip() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.OBJECT.streamer(), DataTypes.INTEGER.streamer()};
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(new Object[]{rarely() ? null : randomObject(2), i});
+        }
+        assertObjectRows(rows, streamed(streamers, rows));
+    }
+
+    @Test
+    public void testObjectArraysRoundTrip() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.OBJECT_ARRAY.streamer()};
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Object[]{rarely() ? null : new Object[]{randomObject(0), null, randomObject(1)}});
+        }
+        assertObjectRows(rows, streamed(streamers, rows));
+    }
+
+    @Test
+    public void testObjectsWithMoreKeysThanFitIntoTheSchema() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.OBJECT.streamer()};
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> object = new HashMap<>();
+            for (int k = 0; k < 100; k++) {
+                object.put("k" + (i * 100 + k), k);
+            }
+            rows.add(new Object[]{object});
+        }
+        assertObjectRows(rows, streamed(streamers, rows));
+    }
+
+    @Test
+    public void testObjectKeysAreWrittenOncePerPage() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.OBJECT.streamer()};
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, null);
+        BytesStreamOutput generic = new BytesStreamOutput();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> object = new HashMap<>();
+            object.put("customer_id", (long) i);
+            object.put("customer_name", "name");
+            builder.add(new RowN(new Object[]{object}));
+            DataTypes.OBJECT.writeValueTo(generic, object);
+        }
+        assertThat(builder.sizeInBytes(), lessThan(generic.size() / 2L));
+    }
+
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        List<Object[]> rows = randomRows(5000, 100_000);
+        StreamBucket bucket = build(new StreamBucket.Builder(STREAMERS, null), rows);
+        assertRows(rows, streamed(bucket, true));
+        // the compressed bytes are cached and can be written again
+        assertRows(rows, streamed(bucket, true));
+        assertRows(rows, streamed(bucket, false));
+    }
+
+    @Test
+    public void testCompressedSizeOfRepetitiveRows() throws Exception {
+        Streamer<?>[] streamers = new Streamer[]{DataTypes.LONG.streamer(), DataTypes.LONG.streamer()};
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, null);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(new RowN(new Object[]{(long) i, 42L}));
+        }
+        StreamBucket bucket = builder.build();
+        assertThat(bucket.compressedSizeInBytes(), lessThan(bucket.sizeInBytes()));
+    }
+
+    @Test
+    public void testCompressEmptyBucket() throws Exception {
+        StreamBucket bucket = new StreamBucket.Builder(STREAMERS, null).build();
+        assertThat(bucket.compressedSizeInBytes(), is(0L));
+        assertThat(streamed(bucket, true).size(), is(0));
+    }
+}
@@ -26,6 +26,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 import io.crate.Streamer;
 import io.crate.breaker.RamAccountingContext;
 import io.crate.data.CollectionBucket;
+import io.crate.jobs.OperationStats;
 import io.crate.jobs.PageDownstreamContext;
 import io.crate.operation.merge.PassThroughPagingIterator;
 import io.crate.test.integration.CrateUnitTest;
@@ -129,7 +130,8 @@ public class DistributingConsumerTest extends CrateUnitTest {
             Collections.singletonList("n1"),
             distributedResultAction,
             streamers,
-            2 // pageSize
+            2, // pageSize
+            new OperationStats()
         );
     }
 
@@ -143,7 +145,8 @@ public class DistributingConsumerTest extends CrateUnitTest {
                 PassThroughPagingIterator.oneShot(),
                 streamers,
                 new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy")),
-                1
+                1,
+                new OperationStats()
             );
     }
 
@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableSet;
 import io.crate.analyze.WhereClause;
 import io.crate.core.collections.TreeMapBuilder;
 import io.crate.data.BatchConsumer;
+import io.crate.jobs.OperationStats;
 import io.crate.metadata.Routing;
 import io.crate.metadata.RowGranularity;
 import io.crate.operation.NodeOperation;
@@ -90,7 +91,8 @@ public class DistributingDownstreamFactoryTest extends CrateDummyClusterServiceU
             null
         );
         NodeOperation nodeOperation = NodeOperation.withDownstream(collectPhase, mergePhase, (byte) 0);
-        return rowDownstreamFactory.create(nodeOperation, collectPhase.distributionInfo(), jobId, Paging.PAGE_SIZE);
+        return rowDownstreamFactory.create(
+            nodeOperation, collectPhase.distributionInfo(), jobId, Paging.PAGE_SIZE, new OperationStats());
     }
 
     @Test
@@ -24,6 +24,7 @@ package io.crate.integrationtests;
 import com.carrotsearch.randomizedtesting.LifecycleScope;
 import com.google.common.collect.ImmutableList;
 import io.crate.action.sql.SQLActionException;
+import io.crate.operation.collect.files.ColumnarFileWriter;
 import io.crate.testing.SQLResponse;
 import io.crate.testing.TestingHelpers;
 import org.elasticsearch.test.ESIntegTestCase;
@@ -34,6 +35,7 @@ import org.junit.rules.TemporaryFolder;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.lang.reflect.Array;
 import java.net.URISyntaxException;
@@ -253,6 +255,75 @@ public class CopyIntegrationTest extends SQLHttpIntegrationTest {
         assertEquals(6L, response.rowCount());
     }
 
+    @Test
+    public void testCopyFromCsvFile() throws Exception {
+        execute("create table quotes (id int primary key, quote string) with (number_of_replicas = 0)");
+        ensureYellow();
+        File newFile = folder.newFile();
+        Files.write(newFile.toPath(),
+            "id,quote\n1,\"Don't panic, really\"\n2,\"So long, and thanks for all the fish\"\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        execute("copy quotes from ? with (format='csv')", new Object[]{Paths.get(newFile.toURI()).toUri().toString()});
+        assertThat(response.rowCount(), is(2L));
+        refresh();
+
+        execute("select id, quote from quotes order by id");
+        assertThat(TestingHelpers.printedTable(response.rows()),
+            is("1| Don't panic, really\n" +
+               "2| So long, and thanks for all the fish\n"));
+    }
+
+    @Test
+    public void testCopyFromColumnarFileReadsOnlyColumnsOfStrictTable() throws Exception {
+        execute("create table quotes (id int primary key, quote string) " +
+                "with (number_of_replicas = 0, column_policy = 'strict')");
+        ensureYellow();
+        File newFile = folder.newFile();
+        try (OutputStream out = new FileOutputStream(newFile);
+             ColumnarFileWriter writer = new ColumnarFileWriter(out, Arrays.asList("id", "unknown", "quote"), 2)) {
+            for (int i = 0; i < 5; i++) {
+                writer.addRow(i, "ignored", "quote " + i);
+            }
+        }
+
+        execute("copy quotes from ? with (format='columnar')", new Object[]{Paths.get(newFile.toURI()).toUri().toString()});
+        assertThat(response.rowCount(), is(5L));
+        refresh();
+
+        execute("select id, quote from quotes order by id limit 2");
+        assertThat(TestingHelpers.printedTable(response.rows()),
+            is("0| quote 0\n" +
+               "1| quote 1\n"));
+    }
+
+    @Test
+    public void testCopyToColumnarFilesCanBeImported() throws Exception {
+        execute("create table quotes (id int primary key, quote string) with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into quotes (id, quote) values (?, ?)", new Object[][]{
+            new Object[]{1, "Don't panic"},
+            new Object[]{2, "So long, and thanks for all the fish"}
+        });
+        execute("refresh table quotes");
+
+        File tmpExport = folder.newFolder("tmpExport");
+        String uriTemplate = Paths.get(tmpExport.toURI()).toUri().toString();
+        execute("copy quotes (id, quote) to directory ? with (format='columnar')", new Object[]{uriTemplate});
+        assertThat(response.rowCount(), is(2L));
+
+        execute("delete from quotes");
+        execute("refresh table quotes");
+        execute("copy quotes from ? with (format='columnar', shared=true)", new Object[]{uriTemplate + "*.columnar"});
+        assertThat(response.rowCount(), is(2L));
+        refresh();
+
+        execute("select id, quote from quotes order by id");
+        assertThat(TestingHelpers.printedTable(response.rows()),
+            is("1| Don't panic\n" +
+               "2| So long, and thanks for all the fish\n"));
+    }
+
     @Test
     public void testCopyFromWithGeneratedColumn() throws Exception {
         execute("create table quotes (" +
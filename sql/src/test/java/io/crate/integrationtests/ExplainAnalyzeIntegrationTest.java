@@ -0,0 +1,69 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.integrationtests;
+
+import io.crate.action.sql.SQLActionException;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class ExplainAnalyzeIntegrationTest extends SQLTransportIntegrationTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExplainAnalyzeReturnsProfilesOfAllPhases() throws Exception {
+        execute("create table t (x int) clustered into 2 shards with (number_of_replicas = 0)");
+        execute("insert into t (x) values (1), (2), (3)");
+        execute("refresh table t");
+
+        execute("explain analyze select x, count(*) from t group by x");
+        assertThat(response.rowCount(), is(1L));
+        Map<String, Object> map = (Map<String, Object>) response.rows()[0][0];
+        assertThat(map.get("rows"), is(3L));
+        assertThat((Double) map.get("execution_time"), greaterThanOrEqualTo(0.0));
+
+        Map<String, Object> phases = (Map<String, Object>) map.get("phases");
+        assertThat(phases, hasKey("0-collect"));
+        Map<String, Object> collectByNode = (Map<String, Object>) phases.get("0-collect");
+        long rowsProduced = 0L;
+        for (Object profile : collectByNode.values()) {
+            Map<String, Object> profileMap = (Map<String, Object>) profile;
+            assertThat(profileMap.get("duration"), notNullValue());
+            assertThat(profileMap, hasKey("iterators"));
+            rowsProduced += (Long) profileMap.get("rows_produced");
+        }
+        assertThat(rowsProduced, greaterThanOrEqualTo(3L));
+    }
+
+    @Test
+    public void testExplainAnalyzeIsNotSupportedForInsert() throws Exception {
+        execute("create table t (x int)");
+        expectedException.expect(SQLActionException.class);
+        expectedException.expectMessage("EXPLAIN ANALYZE is not supported for Insert");
+        execute("explain analyze insert into t (x) values (1)");
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.integrationtests;
+
+import io.crate.testing.TestingHelpers;
+import io.crate.testing.UseJdbc;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+
+@UseJdbc
+public class IndexStatsAggregationIntegrationTest extends SQLTransportIntegrationTest {
+
+    @Test
+    public void testMinMaxCountOnShardWithDeletedDocsFallsBackToCollect() throws Exception {
+        execute("create table t (x integer) clustered into 1 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into t (x) values (1), (2), (3)");
+        execute("refresh table t");
+        execute("delete from t where x = 3");
+        execute("refresh table t");
+
+        // the reader has deletions, so min/max/count are collected instead of read from the index statistics
+        execute("select min(x), max(x), count(x), count(*) from t");
+        assertThat(TestingHelpers.printedTable(response.rows()), is("1| 2| 2| 2\n"));
+
+        // same again, to make sure the shared reader of the first statement has been released properly
+        execute("select min(x), max(x), count(x), count(*) from t");
+        assertThat(TestingHelpers.printedTable(response.rows()), is("1| 2| 2| 2\n"));
+    }
+
+    @Test
+    public void testMinMaxCountFromIndexStatistics() throws Exception {
+        execute("create table t (x integer) clustered into 2 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into t (x) values (1), (2), (3)");
+        execute("refresh table t");
+
+        execute("select min(x), max(x), count(x), count(*) from t");
+        assertThat(TestingHelpers.printedTable(response.rows()), is("1| 3| 3| 3\n"));
+    }
+}
@@ -672,6 +672,44 @@ public class PostgresITest extends SQLTransportIntegrationTest {
         }
     }
 
+    @Test
+    public void testDeclareFetchAndCloseCursor() throws Exception {
+        try (Connection conn = DriverManager.getConnection(JDBC_CRATE_URL, properties)) {
+            conn.setAutoCommit(true);
+            Statement statement = conn.createStatement();
+            statement.executeUpdate("create table t (x int) with (number_of_replicas = 0)");
+            ensureYellow();
+            statement.executeUpdate("insert into t (x) values (1), (2), (3), (4), (5)");
+            statement.executeUpdate("refresh table t");
+
+            statement.execute("declare c1 cursor for select x from t order by x");
+            assertThat(fetchInts(statement, "fetch 2 from c1"), Matchers.contains(1, 2));
+            assertThat(fetchInts(statement, "fetch next from c1"), Matchers.contains(3));
+            assertThat(fetchInts(statement, "fetch all from c1"), Matchers.contains(4, 5));
+            assertThat(fetchInts(statement, "fetch next from c1"), Matchers.empty());
+
+            // the subquery is executed before the query of the cursor is started
+            statement.execute("declare c2 cursor for select x from t where x = (select max(x) from t)");
+            assertThat(fetchInts(statement, "fetch all from c2"), Matchers.contains(5));
+
+            statement.execute("close c1");
+            statement.execute("close all");
+
+            expectedException.expect(PSQLException.class);
+            expectedException.expectMessage("Cursor 'c2' does not exist");
+            statement.executeQuery("fetch next from c2");
+        }
+    }
+
+    private static List<Integer> fetchInts(Statement statement, String fetch) throws SQLException {
+        List<Integer> values = new ArrayList<>();
+        ResultSet resultSet = statement.executeQuery(fetch);
+        while (resultSet.next()) {
+            values.add(resultSet.getInt(1));
+        }
+        return values;
+    }
+
     private void assertSelectNameFromSysClusterWorks(Connection conn) throws SQLException {
         PreparedStatement stmt;// verify that queries can be made after an error occurred
         stmt = conn.prepareStatement("select name from sys.cluster");
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.startsWith;
 
@@ -80,4 +81,23 @@ public class SysOperationsTest extends SQLTransportIntegrationTest {
         assertThat(response.rowCount(), is(1L));
         assertThat(response.rows()[0][0].toString(), startsWith("node_s"));
     }
+
+    @Test
+    public void testResourceUsageOfOperationsIsLogged() throws Exception {
+        execute("create table t (x int) clustered into 2 shards with (number_of_replicas = 0)");
+        execute("insert into t (x) values (1), (2), (3)");
+        execute("refresh table t");
+        execute("select x from t");
+        String jobId = (String) execute(
+            "select id from sys.jobs_log where stmt = 'select x from t' order by ended desc limit 1").rows()[0][0];
+
+        assertBusy(() -> {
+            SQLResponse response = execute(
+                "select sum(rows_produced), min(cpu_nanos), min(blocked_nanos) " +
+                "from sys.operations_log where job_id = ? and name = 'collect'", new Object[]{jobId});
+            assertThat((Long) response.rows()[0][0], is(3L));
+            assertThat((Long) response.rows()[0][1], greaterThanOrEqualTo(0L));
+            assertThat((Long) response.rows()[0][2], is(0L));
+        });
+    }
 }
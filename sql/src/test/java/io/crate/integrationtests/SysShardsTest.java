@@ -151,14 +151,14 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
         SQLResponse response = execute(
             "select * from sys.shards where table_name = 'characters'");
         assertEquals(8L, response.rowCount());
-        assertEquals(15, response.cols().length);
+        assertEquals(16, response.cols().length);
     }
 
     @Test
     public void testSelectStarAllTables() throws Exception {
         SQLResponse response = execute("select * from sys.shards");
         assertEquals(26L, response.rowCount());
-        assertEquals(15, response.cols().length);
+        assertEquals(16, response.cols().length);
         assertThat(response.cols(), arrayContaining(
             "blob_path",
             "id",
@@ -170,6 +170,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
             "primary",
             "recovery",
             "relocating_node",
+            "result_cache",
             "routing_state",
             "schema_name",
             "size",
@@ -182,7 +183,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
         SQLResponse response = execute(
             "select * from sys.shards where table_name like 'charact%'");
         assertEquals(8L, response.rowCount());
-        assertEquals(15, response.cols().length);
+        assertEquals(16, response.cols().length);
     }
 
     @Test
@@ -190,7 +191,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
         SQLResponse response = execute(
             "select * from sys.shards where table_name not like 'quotes%'");
         assertEquals(18L, response.rowCount());
-        assertEquals(15, response.cols().length);
+        assertEquals(16, response.cols().length);
     }
 
     @Test
@@ -198,7 +199,7 @@ public class SysShardsTest extends SQLTransportIntegrationTest {
         SQLResponse response = execute(
             "select * from sys.shards where table_name in ('characters')");
         assertEquals(8L, response.rowCount());
-        assertEquals(15, response.cols().length);
+        assertEquals(16, response.cols().length);
     }
 
     @Test
@@ -52,7 +52,7 @@ public class CountContextTest extends CrateUnitTest {
         CountOperation countOperation = mock(CountOperation.class);
         when(countOperation.count(anyMap(), any(WhereClause.class))).thenReturn(future);
 
-        CountContext countContext = new CountContext(1, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL);
+        CountContext countContext = new CountContext(1, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL, new OperationStats());
         countContext.prepare();
         countContext.start();
         future.complete(1L);
@@ -64,7 +64,7 @@ public class CountContextTest extends CrateUnitTest {
         future = new CompletableFuture<>();
         when(countOperation.count(anyMap(), any(WhereClause.class))).thenReturn(future);
 
-        countContext = new CountContext(2, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL);
+        countContext = new CountContext(2, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL, new OperationStats());
         countContext.prepare();
         countContext.start();
         future.completeExceptionally(new UnhandledServerException("dummy"));
@@ -78,7 +78,7 @@ public class CountContextTest extends CrateUnitTest {
         CompletableFuture<Long> future = mock(CompletableFuture.class);
         CountOperation countOperation = new FakeCountOperation(future);
 
-        CountContext countContext = new CountContext(1, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL);
+        CountContext countContext = new CountContext(1, countOperation, new TestingBatchConsumer(), null, WhereClause.MATCH_ALL, new OperationStats());
 
         countContext.prepare();
         countContext.start();
@@ -117,7 +117,8 @@ public class JobExecutionContextTest extends CrateUnitTest {
             mock(MapSideDataCollectOperation.class),
             mock(RamAccountingContext.class),
             new TestingBatchConsumer(),
-            mock(SharedShardContexts.class));
+            mock(SharedShardContexts.class),
+            new OperationStats());
         TestingBatchConsumer batchConsumer = new TestingBatchConsumer();
         PageDownstreamContext pageDownstreamContext = spy(new PageDownstreamContext(
             Loggers.getLogger(PageDownstreamContext.class),
@@ -127,7 +128,8 @@ public class JobExecutionContextTest extends CrateUnitTest {
             PassThroughPagingIterator.oneShot(),
             new Streamer[]{IntegerType.INSTANCE.streamer()},
             mock(RamAccountingContext.class),
-            1));
+            1,
+            new OperationStats()));
 
         builder.addSubContext(jobCollectContext);
         builder.addSubContext(pageDownstreamContext);
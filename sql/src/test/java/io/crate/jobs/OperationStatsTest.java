@@ -0,0 +1,111 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.jobs;
+
+import io.crate.data.BatchConsumer;
+import io.crate.data.BatchIterator;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.testing.TestingBatchIterators;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class OperationStatsTest extends CrateUnitTest {
+
+    @Test
+    public void testTrackedConsumerCountsProducedRows() throws Exception {
+        OperationStats stats = new OperationStats();
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        BatchConsumer tracked = stats.track(consumer);
+
+        tracked.accept(TestingBatchIterators.range(0, 10), null);
+
+        assertThat(consumer.getResult().size(), is(10));
+        assertThat(stats.rowsProduced(), is(10L));
+        assertThat(stats.cpuNanos(), greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void testTrackedConsumerForwardsFailure() throws Exception {
+        OperationStats stats = new OperationStats();
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+
+        stats.track(consumer).accept(null, new IllegalStateException("dummy"));
+
+        expectedException.expect(IllegalStateException.class);
+        consumer.getResult();
+    }
+
+    @Test
+    public void testRowsAreCountedAgainAfterMoveToStart() throws Exception {
+        OperationStats stats = new OperationStats();
+        BatchIterator it = stats.countRowsProduced(TestingBatchIterators.range(0, 3));
+        while (it.moveNext()) {
+        }
+        it.moveToStart();
+        while (it.moveNext()) {
+        }
+        assertThat(stats.rowsProduced(), is(6L));
+    }
+
+    @Test
+    public void testCountersAreAccumulated() throws Exception {
+        OperationStats stats = new OperationStats();
+        stats.addRowsConsumed(2);
+        stats.addRowsConsumed(3);
+        stats.addBytesSent(10);
+        stats.addBytesReceived(20);
+        stats.addBlockedNanos(30);
+
+        assertThat(stats.rowsConsumed(), is(5L));
+        assertThat(stats.bytesSent(), is(10L));
+        assertThat(stats.bytesReceived(), is(20L));
+        assertThat(stats.blockedNanos(), is(30L));
+    }
+
+    @Test
+    public void testProfileReturnsIteratorAsIsIfProfilingIsDisabled() throws Exception {
+        OperationStats stats = new OperationStats();
+        BatchIterator it = TestingBatchIterators.range(0, 3);
+        assertThat(stats.profile("range", it), sameInstance(it));
+        assertThat(stats.iteratorProfiles().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testProfiledIteratorsCountRowsAndTime() throws Exception {
+        OperationStats stats = new OperationStats(true);
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        stats.profile("range", consumer).accept(TestingBatchIterators.range(0, 5), null);
+        consumer.getResult();
+
+        Map<String, long[]> profiles = stats.iteratorProfiles();
+        assertThat(profiles.size(), is(1));
+        long[] profile = profiles.get("range");
+        assertThat(profile[0], greaterThanOrEqualTo(0L));
+        assertThat(profile[1], is(5L));
+    }
+}
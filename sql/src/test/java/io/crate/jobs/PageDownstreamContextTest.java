@@ -67,7 +67,8 @@ public class PageDownstreamContextTest extends CrateUnitTest {
             pagingIterator,
             new Streamer[1],
             RAM_ACCOUNTING_CONTEXT,
-            numBuckets
+            numBuckets,
+            new OperationStats()
         );
     }
 
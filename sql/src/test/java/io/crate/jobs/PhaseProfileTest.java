@@ -0,0 +1,61 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.jobs;
+
+import io.crate.data.BatchIterator;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchIterators;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class PhaseProfileTest extends CrateUnitTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreaming() throws Exception {
+        OperationStats stats = new OperationStats(true);
+        stats.addRowsConsumed(10);
+        stats.addBytesReceived(200);
+        BatchIterator it = stats.profile("range", TestingBatchIterators.range(0, 3));
+        while (it.moveNext()) {
+        }
+        PhaseProfile p1 = new PhaseProfile(1, "collect", 2_500_000L, stats);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        p1.writeTo(out);
+        PhaseProfile p2 = new PhaseProfile(out.bytes().streamInput());
+
+        assertThat(p2.phaseId(), is(1));
+        assertThat(p2.name(), is("collect"));
+        assertThat(p2.durationNanos(), is(2_500_000L));
+        Map<String, Object> map = p2.toMap();
+        assertThat(map.get("duration"), is(2.5));
+        assertThat(map.get("rows_consumed"), is(10L));
+        assertThat(map.get("bytes_received"), is(200L));
+        Map<String, Object> range = (Map<String, Object>) ((Map<String, Object>) map.get("iterators")).get("range");
+        assertThat(range.get("rows"), is(3L));
+    }
+}
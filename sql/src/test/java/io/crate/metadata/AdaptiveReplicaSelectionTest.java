@@ -0,0 +1,161 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.metadata;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
+import org.elasticsearch.cluster.routing.TestShardRouting;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class AdaptiveReplicaSelectionTest extends CrateUnitTest {
+
+    private final AdaptiveReplicaSelection replicaSelection = new AdaptiveReplicaSelection(true);
+
+    private static List<ShardRouting> copies(int shardId, String... nodes) {
+        ShardRouting[] copies = new ShardRouting[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            copies[i] = TestShardRouting.newShardRouting("t1", shardId, nodes[i], i == 0, ShardRoutingState.STARTED);
+        }
+        return Arrays.asList(copies);
+    }
+
+    private void respond(String node, long responseTimeNanos, int queueSize) {
+        long start = replicaSelection.onRequestSent(node);
+        replicaSelection.onResponse(node, start - responseTimeNanos, queueSize);
+    }
+
+    @Test
+    public void testFastestCopyIsSelected() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(100), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(5), 0);
+
+        AdaptiveReplicaSelection.Selection selection = replicaSelection.newSelection();
+        assertThat(selection.select(copies(0, "n1", "n2")).currentNodeId(), is("n2"));
+    }
+
+    @Test
+    public void testShardsOfARoutingAreSpreadIfNodesHaveSimilarResponseTimes() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(12), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(10), 0);
+
+        AdaptiveReplicaSelection.Selection selection = replicaSelection.newSelection();
+        Map<String, Integer> shardsPerNode = new HashMap<>();
+        for (int shardId = 0; shardId < 10; shardId++) {
+            shardsPerNode.merge(selection.select(copies(shardId, "n1", "n2")).currentNodeId(), 1, Integer::sum);
+        }
+        assertThat(shardsPerNode.get("n1"), is(5));
+        assertThat(shardsPerNode.get("n2"), is(5));
+    }
+
+    @Test
+    public void testQueueSizeAndOutstandingRequestsArePenalized() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(10), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(10), 20);
+        AdaptiveReplicaSelection.Selection selection = replicaSelection.newSelection();
+        assertThat(selection.select(copies(0, "n2", "n1")).currentNodeId(), is("n1"));
+
+        respond("n3", TimeUnit.MILLISECONDS.toNanos(10), 0);
+        replicaSelection.onRequestSent("n1");
+        replicaSelection.onRequestSent("n1");
+        selection = replicaSelection.newSelection();
+        assertThat(selection.select(copies(0, "n1", "n3")).currentNodeId(), is("n3"));
+    }
+
+    @Test
+    public void testActiveCopiesArePreferred() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(100), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(1), 0);
+        List<ShardRouting> copies = Arrays.asList(
+            TestShardRouting.newShardRouting("t1", 0, "n1", true, ShardRoutingState.STARTED),
+            TestShardRouting.newShardRouting("t1", 0, "n2", false, ShardRoutingState.INITIALIZING));
+
+        assertThat(replicaSelection.newSelection().select(copies).currentNodeId(), is("n1"));
+    }
+
+    @Test
+    public void testSkippedNodesApproachTheSelectedNode() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(1), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(100), 0);
+
+        AdaptiveReplicaSelection.Selection selection = replicaSelection.newSelection();
+        selection.select(copies(0, "n1", "n2"));
+        selection.finish();
+
+        // moved by 10% towards the response time of n1
+        assertThat(replicaSelection.stats("n2").responseTime(), closeTo(90_100_000.0, 200_000.0));
+        assertThat(replicaSelection.stats("n1").responseTime(), closeTo(1_000_000.0, 200_000.0));
+    }
+
+    @Test
+    public void testResponseTimeIsMovingAverage() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(10), 10);
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(20), 0);
+
+        AdaptiveReplicaSelection.NodeStats stats = replicaSelection.stats("n1");
+        assertThat(stats.responseTime(), closeTo(13_000_000.0, 200_000.0));
+        assertThat(stats.queueSize(), closeTo(7.0, 0.001));
+        assertThat(stats.outstanding(), is(0));
+    }
+
+    @Test
+    public void testFailedRequestsPenalizeTheNode() throws Exception {
+        respond("n1", TimeUnit.MILLISECONDS.toNanos(10), 0);
+        respond("n2", TimeUnit.MILLISECONDS.toNanos(20), 0);
+
+        // n1 fails immediately, e.g. because it is disconnected
+        replicaSelection.onRequestSent("n1");
+        replicaSelection.onFailure("n1");
+
+        AdaptiveReplicaSelection.NodeStats stats = replicaSelection.stats("n1");
+        assertThat(stats.responseTime(), is((double) TimeUnit.SECONDS.toNanos(1)));
+        assertThat(stats.outstanding(), is(0));
+        assertThat(replicaSelection.newSelection().select(copies(0, "n1", "n2")).currentNodeId(), is("n2"));
+
+        replicaSelection.onRequestSent("n1");
+        replicaSelection.onFailure("n1");
+        assertThat(stats.responseTime(), is((double) TimeUnit.SECONDS.toNanos(2)));
+    }
+
+    @Test
+    public void testQueueSizeOfThreadPoolExecutor() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(10));
+        try {
+            assertThat(AdaptiveReplicaSelection.queueSize(executor), is(0));
+            assertThat(AdaptiveReplicaSelection.queueSize(Runnable::run), lessThan(0));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -35,7 +35,12 @@ import io.crate.operation.udf.UserDefinedFunctionService;
 import io.crate.operation.udf.UserDefinedFunctionsMetaData;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.Index;
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -43,8 +48,12 @@ import org.junit.Test;
 
 import javax.annotation.Nullable;
 import javax.script.ScriptException;
+import java.util.HashMap;
+import java.util.Map;
 
 import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
 
 public class DocSchemaInfoTest extends CrateDummyClusterServiceUnitTest {
 
@@ -116,6 +125,43 @@ public class DocSchemaInfoTest extends CrateDummyClusterServiceUnitTest {
         assertThat(functions.getUserDefined("my_schema", "invalid", ImmutableList.of()), Matchers.nullValue());
     }
 
+    @Test
+    public void testOnlyTablesOfChangedIndicesAreInvalidated() throws Exception {
+        Map<String, Integer> builds = new HashMap<>();
+        DocTableInfoStats stats = new DocTableInfoStats();
+        DocSchemaInfo schemaInfo = new DocSchemaInfo("doc", clusterService, functions, udfService,
+            (ident, ignored) -> {
+                builds.merge(ident.name(), 1, Integer::sum);
+                return mock(DocTableInfo.class);
+            }, stats, null);
+
+        ClusterState prevState = ClusterState.builder(clusterService.state())
+            .metaData(MetaData.builder().put(indexMetaData("t1"), false).put(indexMetaData("t2"), false))
+            .build();
+        schemaInfo.getTableInfo("t1");
+        schemaInfo.getTableInfo("t2");
+
+        ClusterState newState = ClusterState.builder(prevState)
+            .metaData(MetaData.builder(prevState.metaData()).put(indexMetaData("t1"), false))
+            .build();
+        schemaInfo.update(new ClusterChangedEvent("t1 altered", newState, prevState));
+        schemaInfo.getTableInfo("t1");
+        schemaInfo.getTableInfo("t2");
+
+        assertThat(builds.get("t1"), is(2));
+        assertThat(builds.get("t2"), is(1));
+        assertThat(stats.builds(), is(3L));
+        assertThat(stats.invalidations(), is(1L));
+    }
+
+    private static IndexMetaData indexMetaData(String name) {
+        return IndexMetaData.builder(name)
+            .settings(Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+            .numberOfShards(1)
+            .numberOfReplicas(0)
+            .build();
+    }
+
     @Test
     public void testNoNPEIfDeletedIndicesNotInPreviousClusterState() throws Exception {
         // sometimes on startup it occurs that a ClusterChangedEvent contains deleted indices
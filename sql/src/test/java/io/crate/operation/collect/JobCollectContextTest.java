@@ -24,6 +24,7 @@ package io.crate.operation.collect;
 import com.carrotsearch.randomizedtesting.RandomizedTest;
 import io.crate.action.job.SharedShardContexts;
 import io.crate.breaker.RamAccountingContext;
+import io.crate.jobs.OperationStats;
 import io.crate.metadata.Routing;
 import io.crate.metadata.RowGranularity;
 import io.crate.planner.node.dql.RoutedCollectPhase;
@@ -62,7 +63,8 @@ public class JobCollectContextTest extends RandomizedTest {
             mock(MapSideDataCollectOperation.class),
             ramAccountingContext,
             new TestingBatchConsumer(),
-            mock(SharedShardContexts.class));
+            mock(SharedShardContexts.class),
+            new OperationStats());
     }
 
     @Test
@@ -105,7 +107,8 @@ public class JobCollectContextTest extends RandomizedTest {
             collectOperationMock,
             ramAccountingContext,
             new TestingBatchConsumer(),
-            mock(SharedShardContexts.class));
+            mock(SharedShardContexts.class),
+            new OperationStats());
 
         jobCtx.addSearcher(1, mock1);
         CrateCollector collectorMock1 = mock(CrateCollector.class);
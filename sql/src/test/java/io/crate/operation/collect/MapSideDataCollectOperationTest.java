@@ -32,6 +32,7 @@ import io.crate.planner.node.dql.RoutedCollectPhase;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.TestingBatchConsumer;
 import io.crate.types.DataTypes;
+import org.elasticsearch.common.settings.Settings;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -61,7 +62,7 @@ public class MapSideDataCollectOperationTest extends CrateDummyClusterServiceUni
         Functions functions = getFunctions();
         CollectSourceResolver collectSourceResolver = mock(CollectSourceResolver.class);
         when(collectSourceResolver.getService(any(RoutedCollectPhase.class)))
-            .thenReturn(new FileCollectSource(functions, clusterService, Collections.emptyMap()));
+            .thenReturn(new FileCollectSource(Settings.EMPTY, functions, clusterService, Collections.emptyMap(), THREAD_POOL));
         MapSideDataCollectOperation collectOperation = new MapSideDataCollectOperation(
             collectSourceResolver,
             THREAD_POOL
@@ -84,7 +85,9 @@ public class MapSideDataCollectOperationTest extends CrateDummyClusterServiceUni
             ),
             Collections.emptyList(),
             null,
-            false
+            false,
+            null,
+            null
         );
         String threadPoolName = JobCollectContext.threadPoolName(collectNode);
 
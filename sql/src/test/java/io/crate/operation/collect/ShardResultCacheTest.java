@@ -0,0 +1,227 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.Streamer;
+import io.crate.analyze.WhereClause;
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.analyze.symbol.Aggregation;
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Bucket;
+import io.crate.executor.transport.StreamBucket;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RowGranularity;
+import io.crate.planner.distribution.DistributionInfo;
+import io.crate.planner.node.dql.RoutedCollectPhase;
+import io.crate.planner.projection.AggregationProjection;
+import io.crate.planner.projection.Projection;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.testing.TestingBatchIterators;
+import io.crate.testing.TestingHelpers;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ShardResultCacheTest extends CrateUnitTest {
+
+    private static final ShardId SHARD_ID = new ShardId("t", "_na_", 0);
+    private static final Streamer<?>[] STREAMERS = new Streamer[]{DataTypes.INTEGER.streamer()};
+    private static final RamAccountingContext RAM_ACCOUNTING_CONTEXT =
+        new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+
+    private IndexWriter iw;
+    private DirectoryReader reader;
+    private ShardResultCache cache;
+
+    @Before
+    public void prepare() throws Exception {
+        iw = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        addDocument(1L);
+        reader = DirectoryReader.open(iw);
+        cache = new ShardResultCache(1024 * 1024);
+    }
+
+    @After
+    public void closeIndex() throws Exception {
+        reader.close();
+        iw.close();
+    }
+
+    private void addDocument(long x) throws Exception {
+        Document doc = new Document();
+        doc.add(new LongPoint("x", x));
+        iw.addDocument(doc);
+        iw.commit();
+    }
+
+    private static RoutedCollectPhase phase(List<Symbol> toCollect, List<Projection> projections) {
+        return new RoutedCollectPhase(
+            UUID.randomUUID(),
+            1,
+            "collect",
+            new Routing(Collections.emptyMap()),
+            RowGranularity.DOC,
+            toCollect,
+            projections,
+            WhereClause.MATCH_ALL,
+            DistributionInfo.DEFAULT_BROADCAST,
+            null
+        );
+    }
+
+    private static RoutedCollectPhase countPhase(Symbol toCollect) {
+        FunctionInfo countInfo = new FunctionInfo(
+            new FunctionIdent("count", ImmutableList.of(toCollect.valueType())), DataTypes.LONG, FunctionInfo.Type.AGGREGATE);
+        Aggregation count = new Aggregation(
+            countInfo, DataTypes.LONG, Collections.singletonList(new InputColumn(0, toCollect.valueType())));
+        return phase(
+            Collections.singletonList(toCollect),
+            Collections.singletonList(
+                new AggregationProjection(Collections.singletonList(count), RowGranularity.SHARD, AggregateMode.ITER_PARTIAL))
+        );
+    }
+
+    private static Symbol xRef() {
+        return TestingHelpers.createReference("x", DataTypes.LONG);
+    }
+
+    private void fillCache(ShardResultCache.Key key, int numRows) throws Exception {
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        cache.cachingConsumer(key, STREAMERS, RAM_ACCOUNTING_CONTEXT, consumer)
+            .accept(TestingBatchIterators.range(0, numRows), null);
+        assertThat(consumer.getResult().size(), is(numRows));
+    }
+
+    @Test
+    public void testKeyDependsOnPhaseContentAndReaderVersion() throws Exception {
+        ShardResultCache.Key key = cache.key(SHARD_ID, reader, countPhase(xRef()));
+        assertThat(key, notNullValue());
+        // jobId and routing must not be part of the key
+        assertThat(cache.key(SHARD_ID, reader, countPhase(xRef())), is(key));
+        assertThat(cache.key(new ShardId("t", "_na_", 1), reader, countPhase(xRef())), not(is(key)));
+        assertThat(cache.key(SHARD_ID, reader, countPhase(TestingHelpers.createReference("y", DataTypes.LONG))),
+            not(is(key)));
+
+        addDocument(2L);
+        DirectoryReader newReader = DirectoryReader.openIfChanged(reader);
+        assertThat(newReader, notNullValue());
+        reader.close();
+        reader = newReader;
+        assertThat(cache.key(SHARD_ID, reader, countPhase(xRef())), not(is(key)));
+    }
+
+    @Test
+    public void testPhaseWithoutShardAggregationIsNotCached() throws Exception {
+        RoutedCollectPhase phase = phase(Collections.singletonList(xRef()), Collections.emptyList());
+        assertThat(cache.key(SHARD_ID, reader, phase), nullValue());
+    }
+
+    @Test
+    public void testPhaseWithNonDeterministicFunctionIsNotCached() throws Exception {
+        FunctionInfo randomInfo = new FunctionInfo(
+            new FunctionIdent("random", Collections.emptyList()),
+            DataTypes.DOUBLE,
+            FunctionInfo.Type.SCALAR,
+            Collections.emptySet());
+        Function random = new Function(randomInfo, Collections.emptyList());
+        assertThat(cache.key(SHARD_ID, reader, countPhase(random)), nullValue());
+    }
+
+    @Test
+    public void testDisabledCacheCreatesNoKeys() throws Exception {
+        ShardResultCache disabledCache = new ShardResultCache(0L);
+        assertThat(disabledCache.key(SHARD_ID, reader, countPhase(xRef())), nullValue());
+    }
+
+    @Test
+    public void testRowsAreCachedOnceTheIteratorIsConsumed() throws Exception {
+        ShardResultCache.Key key = cache.key(SHARD_ID, reader, countPhase(xRef()));
+        assertThat(cache.get(key), nullValue());
+
+        fillCache(key, 5);
+
+        Bucket rows = cache.get(key);
+        assertThat(rows, notNullValue());
+        assertThat(TestingHelpers.printedTable(rows), is("0\n1\n2\n3\n4\n"));
+        // every hit reads a new copy of the rows
+        assertThat(TestingHelpers.printedTable(rows), is("0\n1\n2\n3\n4\n"));
+
+        ShardResultCache.Stats stats = cache.stats(SHARD_ID);
+        assertThat(stats.misses(), is(1L));
+        assertThat(stats.hits(), is(1L));
+        assertThat(stats.sizeInBytes(), greaterThan(0L));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+        cache = new ShardResultCache(2048L);
+        StreamBucket.Builder builder = new StreamBucket.Builder(STREAMERS, RAM_ACCOUNTING_CONTEXT);
+        StreamBucket bucket = builder.build();
+        for (int i = 0; i < 50; i++) {
+            cache.put(cache.key(SHARD_ID, reader, countPhase(TestingHelpers.createReference("x" + i, DataTypes.LONG))), bucket);
+        }
+        ShardResultCache.Stats stats = cache.stats(SHARD_ID);
+        assertThat(stats.evictions(), greaterThan(0L));
+        assertThat(stats.sizeInBytes(), lessThanOrEqualTo(2048L));
+    }
+
+    @Test
+    public void testClearRemovesEntriesAndStatsOfShard() throws Exception {
+        ShardResultCache.Key key = cache.key(SHARD_ID, reader, countPhase(xRef()));
+        fillCache(key, 2);
+        assertThat(cache.stats(SHARD_ID).sizeInBytes(), greaterThan(0L));
+
+        cache.clear(SHARD_ID);
+        assertThat(cache.get(key), nullValue());
+        assertThat(cache.stats(SHARD_ID).sizeInBytes(), is(0L));
+        assertThat(cache.stats(SHARD_ID).evictions(), is(0L));
+    }
+}
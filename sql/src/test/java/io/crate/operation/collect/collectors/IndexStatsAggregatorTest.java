@@ -0,0 +1,148 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.collectors;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.symbol.Aggregation;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.operation.aggregation.impl.CountAggregation;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.crate.testing.TestingHelpers.createReference;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class IndexStatsAggregatorTest extends CrateUnitTest {
+
+    private static final List<Symbol> TO_COLLECT = ImmutableList.of(
+        createReference("x", DataTypes.LONG),
+        createReference("name", DataTypes.STRING)
+    );
+
+    private IndexWriter iw;
+
+    @Before
+    public void prepareIndex() throws Exception {
+        iw = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(new StandardAnalyzer()));
+        for (long i = 0; i < 20; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("_id", String.valueOf(i), Field.Store.NO));
+            doc.add(new StringField("name", i % 2 == 0 ? "even" : "odd", Field.Store.NO));
+            if (i != 5) {
+                doc.add(new LongPoint("x", i - 3));
+            }
+            iw.addDocument(doc);
+        }
+        iw.commit();
+    }
+
+    private IndexSearcher searcher() throws Exception {
+        return new IndexSearcher(DirectoryReader.open(iw));
+    }
+
+    private static Aggregation aggregation(String name, DataType returnType, Symbol... inputs) {
+        List<DataType> argTypes = Arrays.stream(inputs).map(Symbol::valueType).collect(Collectors.toList());
+        FunctionInfo info = new FunctionInfo(new FunctionIdent(name, argTypes), returnType, FunctionInfo.Type.AGGREGATE);
+        return new Aggregation(info, returnType, Arrays.asList(inputs));
+    }
+
+    @Test
+    public void testMinMaxCountWithoutQuery() throws Exception {
+        List<Aggregation> aggregations = Arrays.asList(
+            aggregation("min", DataTypes.LONG, new InputColumn(0, DataTypes.LONG)),
+            aggregation("max", DataTypes.LONG, new InputColumn(0, DataTypes.LONG)),
+            aggregation("count", DataTypes.LONG, new InputColumn(0, DataTypes.LONG)),
+            aggregation("count", DataTypes.LONG)
+        );
+        assertThat(IndexStatsAggregator.supports(aggregations, TO_COLLECT, true), is(true));
+
+        Object[] row = IndexStatsAggregator.aggregate(searcher(), null, aggregations, TO_COLLECT);
+        assertThat(row[0], is(-3L));
+        assertThat(row[1], is(16L));
+        assertThat(((CountAggregation.LongState) row[2]).compareTo(new CountAggregation.LongState(19L)), is(0));
+        assertThat(((CountAggregation.LongState) row[3]).compareTo(new CountAggregation.LongState(20L)), is(0));
+    }
+
+    @Test
+    public void testCountStarWithQuery() throws Exception {
+        List<Aggregation> aggregations = Collections.singletonList(aggregation("count", DataTypes.LONG));
+        assertThat(IndexStatsAggregator.supports(aggregations, TO_COLLECT, false), is(true));
+
+        Object[] row = IndexStatsAggregator.aggregate(
+            searcher(), new TermQuery(new Term("name", "odd")), aggregations, TO_COLLECT);
+        assertThat(((CountAggregation.LongState) row[0]).compareTo(new CountAggregation.LongState(10L)), is(0));
+    }
+
+    @Test
+    public void testMinWithQueryIsNotSupported() throws Exception {
+        List<Aggregation> aggregations = Collections.singletonList(
+            aggregation("min", DataTypes.LONG, new InputColumn(0, DataTypes.LONG)));
+        assertThat(IndexStatsAggregator.supports(aggregations, TO_COLLECT, false), is(false));
+    }
+
+    @Test
+    public void testStringColumnsAndOtherAggregationsAreNotSupported() throws Exception {
+        assertThat(IndexStatsAggregator.supports(
+            Collections.singletonList(aggregation("min", DataTypes.STRING, new InputColumn(1, DataTypes.STRING))),
+            TO_COLLECT,
+            true), is(false));
+        assertThat(IndexStatsAggregator.supports(
+            Collections.singletonList(aggregation("sum", DataTypes.LONG, new InputColumn(0, DataTypes.LONG))),
+            TO_COLLECT,
+            true), is(false));
+    }
+
+    @Test
+    public void testPointStatisticsAreNotUsedIfThereAreDeletions() throws Exception {
+        iw.deleteDocuments(new Term("_id", "0"));
+        iw.commit();
+        List<Aggregation> aggregations = Collections.singletonList(
+            aggregation("min", DataTypes.LONG, new InputColumn(0, DataTypes.LONG)));
+
+        assertThat(IndexStatsAggregator.aggregate(searcher(), null, aggregations, TO_COLLECT), nullValue());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.collectors;
+
+import io.crate.analyze.symbol.AggregateMode;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchRowVisitor;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.operation.aggregation.AggregationFunction;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.reference.doc.lucene.CollectorContext;
+import io.crate.operation.reference.doc.lucene.OrdinalColumnReference;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.index.fielddata.AtomicOrdinalsFieldData;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataService;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OrdinalGroupingCollectorTest extends CrateUnitTest {
+
+    private static final RamAccountingContext RAM_ACCOUNTING_CONTEXT =
+        new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+
+    private static void addDocs(IndexWriter iw, String... countries) throws Exception {
+        for (String country : countries) {
+            Document doc = new Document();
+            if (country != null) {
+                doc.add(new SortedSetDocValuesField("country", new BytesRef(country)));
+            }
+            iw.addDocument(doc);
+        }
+        iw.commit();
+    }
+
+    private static IndexFieldDataService fieldDataService(IndexReader reader) throws Exception {
+        IndexOrdinalsFieldData fieldData = mock(IndexOrdinalsFieldData.class);
+        for (LeafReaderContext leaf : reader.leaves()) {
+            AtomicOrdinalsFieldData atomicFieldData = mock(AtomicOrdinalsFieldData.class);
+            when(atomicFieldData.getOrdinalsValues()).thenReturn(
+                FieldData.maybeSlowRandomAccessOrds(DocValues.getSortedSet(leaf.reader(), "country")));
+            when(fieldData.load(leaf)).thenReturn(atomicFieldData);
+        }
+        IndexFieldDataService fieldDataService = mock(IndexFieldDataService.class);
+        doReturn(fieldData).when(fieldDataService).getForField(any());
+        return fieldDataService;
+    }
+
+    private static Map<Object, Object> countByCountry(RamAccountingContext ramAccountingContext) throws Exception {
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer());
+        config.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(new RAMDirectory(), config);
+        addDocs(iw, "AT", "DE", "AT", null);
+        addDocs(iw, "DE", "FR", "DE");
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+        assertThat(searcher.getIndexReader().leaves().size(), is(2));
+
+        OrdinalColumnReference keyExpression = new OrdinalColumnReference("country", null);
+        LuceneBatchIterator batchIterator = new LuceneBatchIterator(
+            searcher,
+            new MatchAllDocsQuery(),
+            null,
+            false,
+            new CollectorContext(fieldDataService(searcher.getIndexReader()), new CollectorFieldsVisitor(0)),
+            RAM_ACCOUNTING_CONTEXT,
+            Collections.singletonList(keyExpression),
+            Collections.singletonList(keyExpression)
+        );
+        AggregationFunction count = (AggregationFunction) getFunctions().getBuiltin("count", Collections.emptyList());
+        OrdinalGroupingCollector collector = new OrdinalGroupingCollector(
+            keyExpression,
+            new CollectExpression[0],
+            new AggregationFunction[] { count },
+            AggregateMode.ITER_FINAL,
+            new Input[][] { new Input[0] },
+            ramAccountingContext
+        );
+
+        Map<Object, Object> countsByCountry = new HashMap<>();
+        for (Row row : BatchRowVisitor.visitRows(batchIterator, collector).get()) {
+            countsByCountry.put(row.get(0), row.get(1));
+        }
+        return countsByCountry;
+    }
+
+    @Test
+    public void testGroupByOrdinalsOverMultipleSegments() throws Exception {
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put(new BytesRef("AT"), 2L);
+        expected.put(new BytesRef("DE"), 3L);
+        expected.put(new BytesRef("FR"), 1L);
+        expected.put(null, 1L);
+        assertThat(countByCountry(RAM_ACCOUNTING_CONTEXT), is(expected));
+    }
+
+    @Test
+    public void testBytesOfOrdinalEntriesAreReleasedAfterEachSegment() throws Exception {
+        RamAccountingContext ramAccountingContext = new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+        countByCountry(ramAccountingContext);
+
+        // AT, DE, FR and null remain as keys, the 5 states by ordinal of both segments were released
+        long keyBytes = 3 * RamAccountingContext.roundUp(2 + 32 + 36L) + RamAccountingContext.roundUp(8 + 36L);
+        long countStateBytes = 5 * DataTypes.LONG.fixedSize();
+        assertThat(ramAccountingContext.totalBytes(), is(keyBytes + countStateBytes));
+    }
+}
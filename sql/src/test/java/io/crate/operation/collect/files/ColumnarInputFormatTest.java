@@ -0,0 +1,161 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.FunctionResolver;
+import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
+import io.crate.operation.InputFactory;
+import io.crate.operation.reference.file.FileLineReferenceResolver;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingBatchConsumer;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.crate.testing.TestingHelpers.createReference;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+public class ColumnarInputFormatTest extends CrateUnitTest {
+
+    private static final int NUM_ROWS = 25;
+
+    private InputFactory inputFactory;
+    private Path file;
+
+    @Before
+    public void prepare() throws Exception {
+        Functions functions = new Functions(
+            ImmutableMap.<FunctionIdent, FunctionImplementation>of(),
+            ImmutableMap.<String, FunctionResolver>of()
+        );
+        inputFactory = new InputFactory(functions);
+
+        file = createTempFile();
+        try (OutputStream out = Files.newOutputStream(file);
+             ColumnarFileWriter writer = new ColumnarFileWriter(out, Arrays.asList("id", "name", "details"), 4)) {
+            for (int i = 0; i < NUM_ROWS; i++) {
+                writer.addRow(i, new BytesRef("name" + i), i % 2 == 0 ? null : ImmutableMap.of("age", i));
+            }
+        }
+    }
+
+    @Test
+    public void testOnlySelectedColumnsAreRead() throws Exception {
+        URI uri = file.toUri();
+        FileSplits.Split split = new FileSplits.Split(new LocalFsFileInput(), uri, uri, 0, Long.MAX_VALUE);
+        List<Map<String, Object>> records = new ArrayList<>();
+        try (InputFormat.RecordReader reader =
+                 ColumnarInputFormat.INSTANCE.newReader(split, false, ImmutableSet.of("details", "unknown"))) {
+            while (reader.next()) {
+                records.add(reader.source());
+            }
+        }
+        assertThat(records.size(), is(NUM_ROWS));
+        assertThat(records.get(0), is(Collections.singletonMap("details", null)));
+        assertThat(records.get(1), is(Collections.singletonMap("details", ImmutableMap.of("age", 1))));
+    }
+
+    @Test
+    public void testSplitsContainEveryRowGroupExactlyOnce() throws Exception {
+        Reference id = createReference("id", DataTypes.INTEGER);
+        Object[][] expected = new Object[NUM_ROWS][];
+        for (int i = 0; i < NUM_ROWS; i++) {
+            expected[i] = new Object[] { i };
+        }
+        long size = Files.size(file);
+        for (long splitSize : new long[] { 1, 7, 30, size / 2, size }) {
+            FileSplits splits = new FileSplits(
+                Collections.singletonList(file.toUri().toString()),
+                null,
+                ImmutableMap.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+                false,
+                1,
+                0,
+                splitSize
+            );
+            InputFactory.Context<LineCollectorExpression<?>> ctx =
+                inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+            List<Input<?>> inputs = Collections.singletonList(ctx.add(id));
+            BatchIterator it = FileReadingIterator.newInstance(
+                splits, ColumnarInputFormat.INSTANCE, ImmutableSet.of("id"), inputs, ctx.expressions(), 3);
+            TestingBatchConsumer consumer = new TestingBatchConsumer();
+            consumer.accept(it, null);
+            assertThat("splitSize=" + splitSize, consumer.getResult(), contains(expected));
+        }
+    }
+
+    @Test
+    public void testRawSourceIsSerializedFromTheReadColumns() throws Exception {
+        FileSplits splits = new FileSplits(
+            Collections.singletonList(file.toUri().toString()),
+            null,
+            ImmutableMap.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            false,
+            1,
+            0,
+            Long.MAX_VALUE
+        );
+        Reference raw = createReference("_raw", DataTypes.STRING);
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        List<Input<?>> inputs = Collections.singletonList(ctx.add(raw));
+        BatchIterator it = FileReadingIterator.newInstance(
+            splits, ColumnarInputFormat.INSTANCE, ImmutableSet.of("id", "name"), inputs, ctx.expressions(), 10);
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(it, null);
+
+        List<Map<String, Object>> sources = new ArrayList<>();
+        for (Object[] row : consumer.getResult()) {
+            sources.add(XContentHelper.convertToMap(new BytesArray((BytesRef) row[0]), false).v2());
+        }
+        Map<String, Object> first = new HashMap<>();
+        first.put("id", 0);
+        first.put("name", "name0");
+        assertThat(sources.size(), is(NUM_ROWS));
+        assertThat(sources.get(0), is(first));
+        assertThat(ImmutableList.copyOf(sources.get(NUM_ROWS - 1).keySet()), containsInAnyOrder("id", "name"));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.collect.files;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class CsvInputFormatTest extends CrateUnitTest {
+
+    private static List<Map<String, Object>> read(String csv, @Nullable Set<String> columns) throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        try (CsvInputFormat.CsvRecordReader reader =
+                 new CsvInputFormat.CsvRecordReader(new StringReader(csv), columns)) {
+            while (reader.next()) {
+                assertThat(reader.raw() == null, is(true));
+                records.add(reader.source());
+            }
+        }
+        return records;
+    }
+
+    private static Map<String, Object> record(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void testReadRecordsWithHeader() throws Exception {
+        List<Map<String, Object>> records = read("id,name\n1,Arthur\r\n2,Trillian\r3,\n", null);
+        assertThat(records, contains(
+            record("id", "1", "name", "Arthur"),
+            record("id", "2", "name", "Trillian"),
+            record("id", "3", "name", null)
+        ));
+    }
+
+    @Test
+    public void testQuotedValuesCanContainDelimitersQuotesAndLineBreaks() throws Exception {
+        List<Map<String, Object>> records = read(
+            "\uFEFFid,quote\n" +
+            "1,\"Don't panic, \"\"really\"\"\"\n" +
+            "\n" +
+            "2,\"multi\nline\"\n" +
+            "3,\"\"", null);
+        assertThat(records, contains(
+            record("id", "1", "quote", "Don't panic, \"really\""),
+            record("id", "2", "quote", "multi\nline"),
+            record("id", "3", "quote", "")
+        ));
+    }
+
+    @Test
+    public void testOnlySelectedColumnsAreRead() throws Exception {
+        List<Map<String, Object>> records = read("a,b,c\n1,2,3\n4,\"5,5\",6\n", ImmutableSet.of("c", "x"));
+        assertThat(records, contains(record("c", "3"), record("c", "6")));
+    }
+
+    @Test
+    public void testRecordNumberIsLineNumber() throws Exception {
+        try (CsvInputFormat.CsvRecordReader reader =
+                 new CsvInputFormat.CsvRecordReader(new StringReader("a\n\"x\ny\"\n\nz\n"), null)) {
+            assertThat(reader.next(), is(true));
+            assertThat(reader.recordNumber(), is(2L));
+            assertThat(reader.next(), is(true));
+            assertThat(reader.recordNumber(), is(5L));
+            assertThat(reader.next(), is(false));
+        }
+    }
+
+    @Test
+    public void testWrongNumberOfValuesRaisesAnError() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Record in line 3 has 3 values, but the header defines 2 columns");
+        read("a,b\n1,2\n1,2,3\n", null);
+    }
+
+    @Test
+    public void testUnterminatedQuotedValueRaisesAnError() throws Exception {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Unterminated quoted value in record starting in line 2");
+        read("a,b\n1,\"2\n", null);
+    }
+}
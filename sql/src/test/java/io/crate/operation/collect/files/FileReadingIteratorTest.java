@@ -23,6 +23,7 @@
 package io.crate.operation.collect.files;
 
 import com.google.common.collect.ImmutableMap;
+import io.crate.data.AsyncCompositeBatchIterator;
 import io.crate.data.BatchIterator;
 import io.crate.data.Input;
 import io.crate.metadata.*;
@@ -30,8 +31,10 @@ import io.crate.operation.InputFactory;
 import io.crate.operation.reference.file.FileLineReferenceResolver;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.BatchIteratorTester;
+import io.crate.testing.TestingBatchConsumer;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.ElasticsearchParseException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -39,7 +42,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -47,6 +52,9 @@ import java.util.List;
 import java.util.function.Supplier;
 
 import static io.crate.testing.TestingHelpers.createReference;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 
 public class FileReadingIteratorTest extends CrateUnitTest {
 
@@ -86,6 +94,143 @@ public class FileReadingIteratorTest extends CrateUnitTest {
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
 
+    @Test
+    public void testSplitsContainEveryLineExactlyOnce() throws Exception {
+        Path file = createTempFile();
+        List<String> lines = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            String line = "{\"id\": " + i + ", \"name\": \"" + String.join("", Collections.nCopies(i % 7, "x")) + "\"}";
+            lines.add(line);
+            content.append(line).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 5 == 0) {
+                content.append("\n");
+            }
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+        Object[][] expected = lines.stream().map(l -> new Object[] { new BytesRef(l) }).toArray(Object[][]::new);
+
+        String fileUri = file.toUri().toString();
+        for (long splitSize = 1; splitSize <= 64; splitSize++) {
+            BatchIterator it = createBatchIterator(newSplits(fileUri, splitSize, false, 1, 0), 0);
+            TestingBatchConsumer consumer = new TestingBatchConsumer();
+            consumer.accept(it, null);
+            assertThat("splitSize=" + splitSize, consumer.getResult(), contains(expected));
+        }
+    }
+
+    @Test
+    public void testSplitsOfSharedFileAreDistributedAcrossNodes() throws Exception {
+        Path file = createTempFile();
+        List<Object[]> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            String line = "{\"id\": " + i + "}";
+            expected.add(new Object[] { new BytesRef(line) });
+            content.append(line).append("\n");
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        String fileUri = file.toUri().toString();
+        List<Object[]> result = new ArrayList<>();
+        for (int readerNumber = 0; readerNumber < 3; readerNumber++) {
+            BatchIterator it = createBatchIterator(newSplits(fileUri, 40, true, 3, readerNumber), 0);
+            TestingBatchConsumer consumer = new TestingBatchConsumer();
+            consumer.accept(it, null);
+            List<Object[]> rows = consumer.getResult();
+            assertThat(rows.isEmpty(), is(false));
+            result.addAll(rows);
+        }
+        assertThat(result, containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void testSplitsAreReadAndParsedConcurrentlyInBatches() throws Exception {
+        Path file = createTempFile();
+        List<Object[]> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("{\"id\": ").append(i).append("}\n");
+            expected.add(new Object[] { i });
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        FileSplits splits = newSplits(file.toUri().toString(), 64, false, 1, 0);
+        Reference id = createReference("id", DataTypes.INTEGER);
+        BatchIterator[] iterators = new BatchIterator[3];
+        for (int i = 0; i < iterators.length; i++) {
+            InputFactory.Context<LineCollectorExpression<?>> ctx =
+                inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+            iterators[i] = FileReadingIterator.newInstance(
+                splits, Collections.singletonList(ctx.add(id)), ctx.expressions(), 7);
+        }
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(new AsyncCompositeBatchIterator(Runnable::run, iterators), null);
+        assertThat(consumer.getResult(), containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void testParseErrorInSplitReportsTheOffsetOfTheSplit() throws Exception {
+        Path file = createTempFile();
+        Files.write(file, "{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}\n{|}\n".getBytes(StandardCharsets.UTF_8));
+
+        FileSplits splits = newSplits(file.toUri().toString(), 20, false, 1, 0);
+        Reference id = createReference("id", DataTypes.INTEGER);
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        BatchIterator it = FileReadingIterator.newInstance(
+            splits, Collections.singletonList(ctx.add(id)), ctx.expressions(), 0);
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(it, null);
+
+        expectedException.expect(ElasticsearchParseException.class);
+        expectedException.expectMessage("Failed to parse JSON in line: 2 after byte offset 20 in file:");
+        consumer.getResult();
+    }
+
+    @Test
+    public void testCsvFilesAreNotSplitAndReadAsMaps() throws Exception {
+        Path file = createTempFile();
+        Files.write(file, "id,name\n1,Arthur\n2,\"Trillian\"\n".getBytes(StandardCharsets.UTF_8));
+
+        FileSplits splits = newSplits(file.toUri().toString(), Long.MAX_VALUE, false, 1, 0);
+        Reference name = createReference("name", DataTypes.STRING);
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        BatchIterator it = FileReadingIterator.newInstance(
+            splits,
+            InputFormats.get("CSV"),
+            Collections.singleton("name"),
+            Collections.singletonList(ctx.add(name)),
+            ctx.expressions(),
+            0);
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(it, null);
+        assertThat(consumer.getResult(), contains(
+            new Object[] { new BytesRef("Arthur") },
+            new Object[] { new BytesRef("Trillian") }));
+    }
+
+    private static FileSplits newSplits(String fileUri, long splitSize, boolean shared, int numReaders, int readerNumber) {
+        return new FileSplits(
+            Collections.singletonList(fileUri),
+            null,
+            ImmutableMap.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            shared,
+            numReaders,
+            readerNumber,
+            splitSize
+        );
+    }
+
+    private BatchIterator createBatchIterator(FileSplits splits, int batchSize) {
+        Reference raw = createReference("_raw", DataTypes.STRING);
+        InputFactory.Context<LineCollectorExpression<?>> ctx =
+            inputFactory.ctxForRefs(FileLineReferenceResolver::getImplementation);
+        List<Input<?>> inputs = Collections.singletonList(ctx.add(raw));
+        return FileReadingIterator.newInstance(splits, inputs, ctx.expressions(), batchSize);
+    }
+
     private BatchIterator createBatchIterator(Collection<String> fileUris, String compression) {
         Reference raw = createReference("_raw", DataTypes.STRING);
         InputFactory.Context<LineCollectorExpression<?>> ctx =
@@ -23,13 +23,19 @@
 package io.crate.operation.collect.files;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.io.ByteStreams;
 import io.crate.external.S3ClientHelper;
 import io.crate.test.integration.CrateUnitTest;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
@@ -92,6 +98,29 @@ public class S3FileInputTest extends CrateUnitTest {
         assertThat(uris.get(1).toString(), is("s3://fakeBucket/prefix/test2.json.gz"));
     }
 
+    @Test
+    public void testStreamOfSplitRequestsBoundedRangesUntilTheObjectEnds() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024];
+        ArgumentCaptor<GetObjectRequest> requests = ArgumentCaptor.forClass(GetObjectRequest.class);
+        when(amazonS3.getObject(requests.capture())).thenAnswer(invocation -> {
+            long[] range = ((GetObjectRequest) invocation.getArguments()[0]).getRange();
+            int end = (int) Math.min(range[1] + 1, content.length);
+            S3Object object = new S3Object();
+            object.setObjectContent(new ByteArrayInputStream(content, (int) range[0], end - (int) range[0]));
+            return object;
+        });
+
+        long read;
+        try (InputStream stream = s3FileInput.getStream(uri, 100, 200)) {
+            read = ByteStreams.exhaust(stream);
+        }
+        assertThat(read, is(content.length - 100L));
+        List<GetObjectRequest> ranges = requests.getAllValues();
+        assertThat(ranges.size(), is(3));
+        assertThat(ranges.get(0).getRange(), is(new long[] { 100, 200 + 1024 * 1024 - 1 }));
+        assertThat(ranges.get(1).getRange(), is(new long[] { 200 + 1024 * 1024, 200 + 2 * 1024 * 1024 - 1 }));
+    }
+
     private List<S3ObjectSummary> objectSummaries() {
         listObjectSummaries = new LinkedList<>();
 
@@ -112,9 +112,9 @@ public class JobsLogsTest extends CrateDummyClusterServiceUnitTest {
 
         assertThat(stats.isEnabled(), is(true));
         assertThat(stats.jobsLogSize, is(100));
-        assertThat(stats.jobsLogSink, Matchers.instanceOf(QueueSink.class));
+        assertThat(stats.jobsLogSink, Matchers.instanceOf(RingBufferSink.class));
         assertThat(stats.operationsLogSize, is(100));
-        assertThat(stats.operationsLogSink, Matchers.instanceOf(QueueSink.class));
+        assertThat(stats.operationsLogSink, Matchers.instanceOf(RingBufferSink.class));
     }
 
     @Test
@@ -126,14 +126,9 @@ public class JobsLogsTest extends CrateDummyClusterServiceUnitTest {
             .build();
         JobsLogService stats = new JobsLogService(settings, clusterSettings, scheduler, breakerService);
 
-        // sinks are still of type QueueSink
-        assertThat(stats.jobsLogSink, Matchers.instanceOf(QueueSink.class));
-        assertThat(stats.operationsLogSink, Matchers.instanceOf(QueueSink.class));
-
-        assertThat(inspectRamAccountingQueue((QueueSink) stats.jobsLogSink),
-            Matchers.instanceOf(BlockingEvictingQueue.class));
-        assertThat(inspectRamAccountingQueue((QueueSink) stats.operationsLogSink),
-            Matchers.instanceOf(BlockingEvictingQueue.class));
+        // size bounded sinks are ring buffers
+        assertThat(stats.jobsLogSink, Matchers.instanceOf(RingBufferSink.class));
+        assertThat(stats.operationsLogSink, Matchers.instanceOf(RingBufferSink.class));
 
         clusterSettings.applySettings(Settings.builder()
             .put(JobsLogService.STATS_JOBS_LOG_EXPIRATION_SETTING.getKey(), "10s")
@@ -161,12 +156,8 @@ public class JobsLogsTest extends CrateDummyClusterServiceUnitTest {
             .put(JobsLogService.STATS_OPERATIONS_LOG_SIZE_SETTING.getKey(), 200)
             .put(JobsLogService.STATS_ENABLED_SETTING.getKey(), true)
             .build());
-        assertThat(stats.jobsLogSink, Matchers.instanceOf(QueueSink.class));
-        assertThat(inspectRamAccountingQueue((QueueSink) stats.jobsLogSink),
-            Matchers.instanceOf(BlockingEvictingQueue.class));
-        assertThat(stats.operationsLogSink, Matchers.instanceOf(QueueSink.class));
-        assertThat(inspectRamAccountingQueue((QueueSink) stats.operationsLogSink),
-            Matchers.instanceOf(BlockingEvictingQueue.class));
+        assertThat(stats.jobsLogSink, Matchers.instanceOf(RingBufferSink.class));
+        assertThat(stats.operationsLogSink, Matchers.instanceOf(RingBufferSink.class));
 
         // disable stats
         clusterSettings.applySettings(Settings.builder()
@@ -213,6 +204,32 @@ public class JobsLogsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(ImmutableList.copyOf(stats.jobsLogSink.iterator()).size(), is(1));
     }
 
+    @Test
+    public void testSizeBoundedLogKeepsSizeEntriesOfSingleWriter() {
+        Settings settings = Settings.builder()
+            .put(JobsLogService.STATS_ENABLED_SETTING.getKey(), true)
+            .put(JobsLogService.STATS_JOBS_LOG_SIZE_SETTING.getKey(), 100).build();
+        JobsLogService stats = new JobsLogService(settings, clusterSettings, scheduler, breakerService);
+
+        for (int i = 0; i < 150; i++) {
+            stats.jobsLogSink.add(new JobContextLog(
+                new JobContext(UUID.randomUUID(), "select 1", 1L, null), null));
+        }
+        assertThat(ImmutableList.copyOf(stats.jobsLogSink.iterator()).size(), is(100));
+
+        // the entries of the old log are copied by a single thread
+        clusterSettings.applySettings(Settings.builder()
+            .put(JobsLogService.STATS_ENABLED_SETTING.getKey(), true)
+            .put(JobsLogService.STATS_JOBS_LOG_SIZE_SETTING.getKey(), 200).build());
+        assertThat(ImmutableList.copyOf(stats.jobsLogSink.iterator()).size(), is(100));
+
+        for (int i = 0; i < 150; i++) {
+            stats.jobsLogSink.add(new JobContextLog(
+                new JobContext(UUID.randomUUID(), "select 1", 1L, null), null));
+        }
+        assertThat(ImmutableList.copyOf(stats.jobsLogSink.iterator()).size(), is(200));
+    }
+
     @Test
     public void testExecutionStart() {
         JobsLogs jobsLogs = new JobsLogs(() -> true);
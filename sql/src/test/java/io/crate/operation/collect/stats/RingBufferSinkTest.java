@@ -0,0 +1,179 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.SizeEstimator;
+import io.crate.operation.reference.sys.job.ContextLog;
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RingBufferSinkTest extends CrateUnitTest {
+
+    private static final AtomicLong CLOCK = new AtomicLong(0L);
+
+    private static class TestLog implements ContextLog {
+
+        private final long ended = CLOCK.incrementAndGet();
+
+        @Override
+        public long ended() {
+            return ended;
+        }
+    }
+
+    private static class FixedSizeEstimator extends SizeEstimator<TestLog> {
+        @Override
+        public long estimateSize(@Nullable TestLog value) {
+            return 100L;
+        }
+    }
+
+    private long originalBufferSize;
+
+    @Before
+    public void reduceFlushBufferSize() throws Exception {
+        originalBufferSize = RamAccountingContext.FLUSH_BUFFER_SIZE;
+        RamAccountingContext.FLUSH_BUFFER_SIZE = 1;
+    }
+
+    @After
+    public void resetFlushBufferSize() throws Exception {
+        RamAccountingContext.FLUSH_BUFFER_SIZE = originalBufferSize;
+    }
+
+    private static CircuitBreaker breaker(long limit) {
+        CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
+        when(circuitBreaker.getLimit()).thenReturn(limit);
+        return circuitBreaker;
+    }
+
+    @Test
+    public void testReadReturnsLatestItemsOrderedByEnded() throws Exception {
+        RingBufferSink<TestLog> sink = new RingBufferSink<>(
+            10, breaker(Long.MAX_VALUE), new FixedSizeEstimator());
+        List<TestLog> added = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            TestLog log = new TestLog();
+            added.add(log);
+            sink.add(log);
+        }
+        assertThat(ImmutableList.copyOf(sink), is(added.subList(15, 25)));
+    }
+
+    @Test
+    public void testConcurrentWritesAreBoundedBySize() throws Exception {
+        RingBufferSink<TestLog> sink = new RingBufferSink<>(
+            1_000, breaker(Long.MAX_VALUE), new FixedSizeEstimator());
+
+        int numThreads = 20;
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        List<Thread> threads = new ArrayList<>(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    sink.add(new TestLog());
+                }
+                latch.countDown();
+            });
+            t.start();
+            threads.add(t);
+        }
+        latch.await();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<TestLog> items = ImmutableList.copyOf(sink);
+        assertThat(items.size(), is(1_000));
+        for (int i = 1; i < items.size(); i++) {
+            assertTrue(items.get(i - 1).ended() <= items.get(i).ended());
+        }
+    }
+
+    @Test
+    public void testItemsAreRemovedIfBreakerLimitIsExceeded() throws Exception {
+        CircuitBreaker breaker = breaker(0L);
+        RingBufferSink<TestLog> sink = new RingBufferSink<>(4, breaker, new FixedSizeEstimator());
+        sink.add(new TestLog());
+        sink.add(new TestLog());
+
+        assertThat(ImmutableList.copyOf(sink).size(), is(0));
+    }
+
+    @Test
+    public void testCloseRemovesItemsAndIgnoresFurtherWrites() throws Exception {
+        RingBufferSink<TestLog> sink = new RingBufferSink<>(
+            4, breaker(Long.MAX_VALUE), new FixedSizeEstimator());
+        sink.add(new TestLog());
+        sink.close();
+        sink.add(new TestLog());
+
+        assertThat(ImmutableList.copyOf(sink).size(), is(0));
+    }
+
+    @Test
+    public void testWrapIsAccountedByTheDifferenceToThePreviousEstimate() throws Exception {
+        MemoryCircuitBreaker breaker = new MemoryCircuitBreaker(
+            new ByteSizeValue(1, ByteSizeUnit.MB), 1.0, Loggers.getLogger(RingBufferSinkTest.class));
+        RingBufferSink<TestLog> sink = new RingBufferSink<>(4, breaker, new FixedSizeEstimator());
+
+        for (int i = 0; i < 3; i++) {
+            sink.add(new TestLog());
+        }
+        assertThat(breaker.getUsed(), is(0L));
+
+        // the buffer wraps around with the 4th item
+        sink.add(new TestLog());
+        assertThat(breaker.getUsed(), is(400L));
+
+        // the next wrap replaced all items, so the estimate stays the same
+        for (int i = 0; i < 4; i++) {
+            sink.add(new TestLog());
+        }
+        assertThat(breaker.getUsed(), is(400L));
+        assertThat(ImmutableList.copyOf(sink).size(), is(4));
+        assertThat(breaker.getUsed(), is(400L));
+
+        sink.close();
+        assertThat(breaker.getUsed(), is(0L));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+
+public class StatementFingerprintTest extends CrateUnitTest {
+
+    @Test
+    public void testLiteralsAreReplaced() throws Exception {
+        assertThat(StatementFingerprint.of("SELECT * FROM t1 WHERE x = 10 AND name = 'foo''s' AND d > 1.5e10"),
+            is("select * from t1 where x = ? and name = ? and d > ?"));
+    }
+
+    @Test
+    public void testParametersAreReplaced() throws Exception {
+        assertThat(StatementFingerprint.of("select x from t where a = $1 and b = ?"),
+            is("select x from t where a = ? and b = ?"));
+    }
+
+    @Test
+    public void testSameStatementWithDifferentLiteralsHasSameFingerprint() throws Exception {
+        assertThat(StatementFingerprint.of("insert into t (id, name) values (1, 'Arthur')"),
+            is(StatementFingerprint.of("INSERT INTO t (id, name)\n   VALUES (42, 'Trillian');")));
+    }
+
+    @Test
+    public void testQuotedIdentifiersAreKept() throws Exception {
+        assertThat(StatementFingerprint.of("select \"Name\", \"col 1\" from \"T1\" where \"x\"\"y\" = 2"),
+            is("select \"Name\", \"col 1\" from \"T1\" where \"x\"\"y\" = ?"));
+    }
+
+    @Test
+    public void testCommentsAndWhitespaceAreRemoved() throws Exception {
+        assertThat(StatementFingerprint.of("  select /* comment */ 1 -- trailing\n from  sys.cluster ; "),
+            is("select ? from sys.cluster"));
+    }
+
+    @Test
+    public void testDigitsInIdentifiersAreKept() throws Exception {
+        assertThat(StatementFingerprint.of("select col_2 from t2 where arr[1] = 3"),
+            is("select col_2 from t2 where arr[?] = ?"));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.collect.stats;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.operation.reference.sys.job.QueryStatsEntry;
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+
+public class StatementStatsTest extends CrateUnitTest {
+
+    @Test
+    public void testDurationsAreGroupedByFingerprint() throws Exception {
+        StatementStats stats = new StatementStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.record("select * from t where x = " + i, i, i % 10 == 0, 1000L + i);
+        }
+        stats.record("delete from t", 5, false, 2000L);
+
+        List<QueryStatsEntry> entries = ImmutableList.copyOf(stats.snapshot());
+        assertThat(entries.size(), is(2));
+
+        QueryStatsEntry select = entries.stream()
+            .filter(e -> e.fingerprint().equals("select * from t where x = ?"))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+        assertThat(select.count(), is(100L));
+        assertThat(select.errorCount(), is(10L));
+        assertThat(select.lastExecuted(), is(1100L));
+        assertThat(select.minDuration(), is(1L));
+        assertThat(select.maxDuration(), is(100L));
+        assertThat(select.p50(), is(50L));
+        assertThat(select.p99(), is(99L));
+        assertThat(select.avgDuration(), is(50.5));
+    }
+
+    @Test
+    public void testSnapshotsAreCumulative() throws Exception {
+        StatementStats stats = new StatementStats();
+        stats.record("select 1", 10, false, 1L);
+        assertThat(stats.snapshot().iterator().next().count(), is(1L));
+
+        stats.record("select 2", 20, false, 2L);
+        QueryStatsEntry entry = stats.snapshot().iterator().next();
+        assertThat(entry.count(), is(2L));
+        assertThat(entry.maxDuration(), is(20L));
+    }
+
+    @Test
+    public void testLeastRecentlyExecutedFingerprintIsEvicted() throws Exception {
+        StatementStats stats = new StatementStats(2);
+        stats.record("select * from t1", 1, false, 10L);
+        stats.record("select * from t2", 1, false, 5L);
+        stats.record("select * from t3", 1, false, 20L);
+
+        List<QueryStatsEntry> entries = ImmutableList.copyOf(stats.snapshot());
+        assertThat(entries.size(), is(2));
+        for (QueryStatsEntry entry : entries) {
+            assertFalse(entry.fingerprint().equals("select * from t2"));
+        }
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        StatementStats stats = new StatementStats();
+        stats.record("select 1", 10, false, 1L);
+        stats.clear();
+        assertThat(stats.snapshot().iterator().hasNext(), is(false));
+    }
+}
@@ -33,10 +33,16 @@ import io.crate.testing.RowGenerator;
 import io.crate.testing.TestingBatchConsumer;
 import io.crate.testing.TestingHelpers;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.io.Streams;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
@@ -48,6 +54,7 @@ import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.core.Is.is;
 
@@ -80,7 +87,7 @@ public class FileWriterProjectorTest extends CrateUnitTest {
 
         FileWriterProjector fileWriterProjector = new FileWriterProjector(executorService, file.toUri().toString(),
             null, null, ImmutableSet.of(), new HashMap<>(),
-            null, WriterProjection.OutputFormat.JSON_OBJECT);
+            null, WriterProjection.OutputFormat.JSON_OBJECT, 0L);
 
         new TestingBatchConsumer().accept(fileWriterProjector.apply(sourceSupplier.get()), null);
 
@@ -91,6 +98,52 @@ public class FileWriterProjectorTest extends CrateUnitTest {
                      "input line 04\n", TestingHelpers.readFile(file.toAbsolutePath().toString()));
     }
 
+    @Test
+    public void testWriteRawToMultipleFilesIfMaxFileSizeIsReached() throws Exception {
+        Path directory = createTempDir();
+        Path file = directory.resolve("out.json");
+
+        FileWriterProjector fileWriterProjector = new FileWriterProjector(executorService, file.toUri().toString(),
+            null, null, ImmutableSet.of(), new HashMap<>(),
+            null, WriterProjection.OutputFormat.JSON_OBJECT, 28L);
+
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(fileWriterProjector.apply(sourceSupplier.get()), null);
+
+        assertThat(TestingHelpers.printedTable(consumer.getBucket()), is("5\n"));
+        assertThat(TestingHelpers.readFile(file.toString()), is("input line 00\ninput line 01\n"));
+        assertThat(TestingHelpers.readFile(directory.resolve("out_1.json").toString()), is("input line 02\ninput line 03\n"));
+        assertThat(TestingHelpers.readFile(directory.resolve("out_2.json").toString()), is("input line 04\n"));
+        assertThat(Files.exists(directory.resolve("out_3.json")), is(false));
+    }
+
+    @Test
+    public void testWriteGzipCompressed() throws Exception {
+        Path file = createTempDir().resolve("out.json.gz");
+
+        FileWriterProjector fileWriterProjector = new FileWriterProjector(executorService, file.toUri().toString(),
+            WriterProjection.CompressionType.GZIP, null, ImmutableSet.of(), new HashMap<>(),
+            null, WriterProjection.OutputFormat.JSON_OBJECT, 0L);
+
+        new TestingBatchConsumer().accept(fileWriterProjector.apply(sourceSupplier.get()), null);
+
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)) {
+            assertThat(Streams.copyToString(reader), is("input line 00\n" +
+                                                        "input line 01\n" +
+                                                        "input line 02\n" +
+                                                        "input line 03\n" +
+                                                        "input line 04\n"));
+        }
+    }
+
+    @Test
+    public void testFileUriOfAdditionalFiles() throws Exception {
+        URI uri = new URI("s3://key:sec%2Fret@bucket/export/t_0_.json.gz");
+        assertThat(FileWriterCountCollector.fileUri(uri, 0), is(uri));
+        assertThat(FileWriterCountCollector.fileUri(uri, 3).toString(), is("s3://key:sec%2Fret@bucket/export/t_0__3.json.gz"));
+        assertThat(FileWriterCountCollector.fileUri(new URI("file:///tmp/out"), 1).toString(), is("file:///tmp/out_1"));
+    }
+
     @Test
     public void testDirectoryAsFile() throws Exception {
         expectedException.expect(UnhandledServerException.class);
@@ -100,7 +153,7 @@ public class FileWriterProjectorTest extends CrateUnitTest {
 
         FileWriterProjector fileWriterProjector = new FileWriterProjector(executorService, directory.toUri().toString(),
             null, null, ImmutableSet.of(), new HashMap<>(),
-            null, WriterProjection.OutputFormat.JSON_OBJECT);
+            null, WriterProjection.OutputFormat.JSON_OBJECT, 0L);
 
         new TestingBatchConsumer().accept(fileWriterProjector.apply(sourceSupplier.get()), null);
     }
@@ -114,7 +167,7 @@ public class FileWriterProjectorTest extends CrateUnitTest {
 
         FileWriterProjector fileWriterProjector = new FileWriterProjector(executorService, uri,
             null, null, ImmutableSet.of(), new HashMap<>(),
-            null, WriterProjection.OutputFormat.JSON_OBJECT);
+            null, WriterProjection.OutputFormat.JSON_OBJECT, 0L);
 
         new TestingBatchConsumer().accept(fileWriterProjector.apply(sourceSupplier.get()), null);
     }
@@ -43,7 +43,6 @@ import io.crate.operation.collect.InputCollectExpression;
 import io.crate.testing.TestingBatchConsumer;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
-import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -80,7 +79,7 @@ public class IndexWriterProjectorTest extends SQLTransportIntegrationTest {
             internalCluster().getInstance(ThreadPool.class).scheduler(),
             internalCluster().getInstance(Functions.class),
             Settings.EMPTY,
-            internalCluster().getInstance(TransportBulkCreateIndicesAction.class),
+            internalCluster().getInstance(PartitionCreationCoordinator.class),
             internalCluster().getInstance(TransportShardUpsertAction.class)::execute,
             IndexNameResolver.forTable(new TableIdent(null, "bulk_import")),
             new Reference(new ReferenceIdent(bulkImportIdent, DocSysColumns.RAW), RowGranularity.DOC, DataTypes.STRING),
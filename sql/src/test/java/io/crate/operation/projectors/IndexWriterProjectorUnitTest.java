@@ -40,7 +40,6 @@ import io.crate.testing.TestingBatchConsumer;
 import io.crate.testing.TestingHelpers;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
-import org.elasticsearch.action.admin.indices.create.TransportBulkCreateIndicesAction;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
 import org.junit.Test;
@@ -53,8 +52,6 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Executors;
 
-import static org.mockito.Mockito.mock;
-
 public class IndexWriterProjectorUnitTest extends CrateUnitTest {
 
     private final static ColumnIdent ID_IDENT = new ColumnIdent("id");
@@ -70,14 +67,13 @@ public class IndexWriterProjectorUnitTest extends CrateUnitTest {
         InputCollectExpression sourceInput = new InputCollectExpression(0);
         List<CollectExpression<Row, ?>> collectExpressions = Collections.<CollectExpression<Row, ?>>singletonList(sourceInput);
 
-        TransportBulkCreateIndicesAction transportBulkCreateIndicesAction = mock(TransportBulkCreateIndicesAction.class);
         IndexWriterProjector indexWriter = new IndexWriterProjector(
             clusterService,
             new NodeJobsCounter(),
             Executors.newScheduledThreadPool(1),
             TestingHelpers.getFunctions(),
             Settings.EMPTY,
-            transportBulkCreateIndicesAction,
+            new PartitionCreationCoordinator((request, listener) -> {}),
             (request, listener) -> {},
             IndexNameResolver.forTable(new TableIdent(null, "bulk_import")),
             rawSourceReference,
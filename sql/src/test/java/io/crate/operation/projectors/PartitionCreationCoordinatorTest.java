@@ -0,0 +1,115 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesRequest;
+import org.elasticsearch.action.admin.indices.create.BulkCreateIndicesResponse;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class PartitionCreationCoordinatorTest extends CrateUnitTest {
+
+    private final List<BulkCreateIndicesRequest> requests = new ArrayList<>();
+    private final List<ActionListener<BulkCreateIndicesResponse>> listeners = new ArrayList<>();
+    private final PartitionCreationCoordinator coordinator = new PartitionCreationCoordinator((request, listener) -> {
+        requests.add(request);
+        listeners.add(listener);
+    });
+
+    private void respond(int request) {
+        listeners.get(request).onResponse(new BulkCreateIndicesResponse(true));
+    }
+
+    @Test
+    public void testPartitionsRequestedWhileARequestIsInFlightAreCoalesced() throws Exception {
+        CompletableFuture<Void> f1 = coordinator.createIndices(Arrays.asList("p1", "p2"), UUID.randomUUID());
+        CompletableFuture<Void> f2 = coordinator.createIndices(Arrays.asList("p2", "p3"), UUID.randomUUID());
+        CompletableFuture<Void> f3 = coordinator.createIndices(Arrays.asList("p3", "p4"), UUID.randomUUID());
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0).indices(), contains("p1", "p2"));
+
+        respond(0);
+        assertThat(f1.isDone(), is(true));
+        // p2 was part of the first request, but p3 is not created yet
+        assertThat(f2.isDone(), is(false));
+        assertThat(requests.size(), is(2));
+        assertThat(requests.get(1).indices(), containsInAnyOrder("p3", "p4"));
+
+        respond(1);
+        assertThat(f2.isDone(), is(true));
+        assertThat(f3.isDone(), is(true));
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void testPartitionsInFlightAreNotRequestedAgain() throws Exception {
+        CompletableFuture<Void> f1 = coordinator.createIndices(Collections.singletonList("p1"), UUID.randomUUID());
+        CompletableFuture<Void> f2 = coordinator.createIndices(Collections.singletonList("p1"), UUID.randomUUID());
+        assertThat(f2.isDone(), is(false));
+
+        respond(0);
+        assertThat(f1.isDone(), is(true));
+        assertThat(f2.isDone(), is(true));
+        assertThat(requests.size(), is(1));
+    }
+
+    @Test
+    public void testFailedCoalescedRequestIsRetriedPerCaller() throws Exception {
+        coordinator.createIndices(Collections.singletonList("p1"), UUID.randomUUID());
+        CompletableFuture<Void> f2 = coordinator.createIndices(Collections.singletonList("p2"), UUID.randomUUID());
+        CompletableFuture<Void> f3 = coordinator.createIndices(Collections.singletonList("invalid"), UUID.randomUUID());
+        respond(0);
+        assertThat(requests.get(1).indices(), contains("p2", "invalid"));
+
+        listeners.get(1).onFailure(new IllegalArgumentException("invalid index name"));
+        assertThat(requests.size(), is(4));
+        assertThat(requests.get(2).indices(), contains("p2"));
+        assertThat(requests.get(3).indices(), contains("invalid"));
+
+        respond(2);
+        listeners.get(3).onFailure(new IllegalArgumentException("invalid index name"));
+        assertThat(f2.isDone(), is(true));
+        assertThat(f3.isCompletedExceptionally(), is(true));
+
+        expectedException.expectCause(instanceOf(IllegalArgumentException.class));
+        f3.get();
+    }
+
+    @Test
+    public void testNoRequestWithoutIndices() throws Exception {
+        assertThat(coordinator.createIndices(Collections.emptyList(), UUID.randomUUID()).isDone(), is(true));
+        assertThat(requests.size(), is(0));
+    }
+}
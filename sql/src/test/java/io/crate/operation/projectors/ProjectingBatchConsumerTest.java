@@ -174,7 +174,8 @@ public class ProjectingBatchConsumerTest extends CrateUnitTest {
             null,
             Collections.emptyMap(),
             Collections.emptyList(),
-            WriterProjection.OutputFormat.JSON_OBJECT);
+            WriterProjection.OutputFormat.JSON_OBJECT,
+            0L);
 
         TestingBatchConsumer consumer = new TestingBatchConsumer();
         BatchConsumer batchConsumer = ProjectingBatchConsumer.create(
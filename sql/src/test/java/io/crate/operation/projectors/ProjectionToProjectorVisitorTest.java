@@ -33,6 +33,7 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.CollectionBucket;
+import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.RowsBatchIterator;
 import io.crate.executor.transport.TransportActionProvider;
@@ -45,7 +46,10 @@ import io.crate.operation.NodeJobsCounter;
 import io.crate.operation.aggregation.impl.AverageAggregation;
 import io.crate.operation.aggregation.impl.CountAggregation;
 import io.crate.operation.operator.EqOperator;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.scalar.arithmetic.ArithmeticFunctions;
 import io.crate.planner.projection.AggregationProjection;
+import io.crate.planner.projection.EvalProjection;
 import io.crate.planner.projection.FilterProjection;
 import io.crate.planner.projection.GroupProjection;
 import io.crate.planner.projection.OrderedTopNProjection;
@@ -98,25 +102,35 @@ public class ProjectionToProjectorVisitorTest extends CrateUnitTest {
         MockitoAnnotations.initMocks(this);
         functions = getFunctions();
         threadPool = new TestThreadPool("testing");
-        visitor = new ProjectionToProjectorVisitor(
+        visitor = createVisitor(Settings.EMPTY);
+
+        countInfo = new FunctionInfo(
+            new FunctionIdent(CountAggregation.NAME, Collections.singletonList(DataTypes.STRING)),
+            DataTypes.LONG);
+        avgInfo = new FunctionInfo(
+            new FunctionIdent(AverageAggregation.NAME, Collections.singletonList(DataTypes.INTEGER)),
+            DataTypes.DOUBLE);
+    }
+
+    private ProjectionToProjectorVisitor createVisitor(Settings settings) {
+        return new ProjectionToProjectorVisitor(
             mock(ClusterService.class),
             new NodeJobsCounter(),
             functions,
             threadPool,
-            Settings.EMPTY,
+            settings,
             mock(TransportActionProvider.class, Answers.RETURNS_DEEP_STUBS.get()),
             new InputFactory(functions),
             EvaluatingNormalizer.functionOnlyNormalizer(functions),
             t -> null,
             t -> null
         );
+    }
 
-        countInfo = new FunctionInfo(
-            new FunctionIdent(CountAggregation.NAME, Collections.singletonList(DataTypes.STRING)),
-            DataTypes.LONG);
-        avgInfo = new FunctionInfo(
-            new FunctionIdent(AverageAggregation.NAME, Collections.singletonList(DataTypes.INTEGER)),
-            DataTypes.DOUBLE);
+    private ProjectionToProjectorVisitor createVectorizingVisitor() {
+        return createVisitor(Settings.builder()
+            .put(VectorizedProjector.BATCH_SIZE_SETTING.getKey(), 1024)
+            .build());
     }
 
     @After
@@ -274,4 +288,89 @@ public class ProjectionToProjectorVisitorTest extends CrateUnitTest {
         Bucket bucket = consumer.getBucket();
         assertThat(bucket.size(), is(1));
     }
+
+    @Test
+    public void testFilterProjectionWithVectorizableQueryRunsInBatchMode() throws Exception {
+        InputColumn age = new InputColumn(1, DataTypes.INTEGER);
+        Function query = new Function(
+            functions.getBuiltin(GtOperator.NAME, ImmutableList.of(DataTypes.INTEGER, DataTypes.INTEGER)).info(),
+            Arrays.asList(age, Literal.of(20)));
+        FilterProjection projection = new FilterProjection(query,
+            Arrays.asList(new InputColumn(0, DataTypes.STRING), age));
+
+        Projector projector = createVectorizingVisitor().create(projection, RAM_ACCOUNTING_CONTEXT, UUID.randomUUID());
+        assertThat(projector, instanceOf(VectorizedProjector.class));
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add($("human", 22));
+        rows.add($("vogon", 12));
+        rows.add($("alien", null));
+        rows.add($("marvin", 44));
+
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(projector.apply(RowsBatchIterator.newInstance(new CollectionBucket(rows), 2)), null);
+        assertThat(consumer.getBucket(), contains(
+            isRow("human", 22),
+            isRow("marvin", 44)
+        ));
+    }
+
+    @Test
+    public void testEvalProjectionWithVectorizableOutputsRunsInBatchMode() throws Exception {
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        FunctionInfo multiplyInfo = functions.getBuiltin(
+            ArithmeticFunctions.Names.MULTIPLY, ImmutableList.of(DataTypes.LONG, DataTypes.LONG)).info();
+        Function multiply = new Function(multiplyInfo, Arrays.asList(x, Literal.of(2L)));
+        EvalProjection projection = new EvalProjection(Arrays.asList(multiply, x));
+
+        assertThat(visitor.create(projection, RAM_ACCOUNTING_CONTEXT, UUID.randomUUID()),
+            instanceOf(InputRowProjector.class));
+
+        Projector projector = createVectorizingVisitor().create(projection, RAM_ACCOUNTING_CONTEXT, UUID.randomUUID());
+        assertThat(projector, instanceOf(VectorizedProjector.class));
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add($(1L));
+        rows.add($((Object) null));
+        rows.add($(21L));
+
+        TestingBatchConsumer consumer = new TestingBatchConsumer();
+        consumer.accept(projector.apply(RowsBatchIterator.newInstance(new CollectionBucket(rows), 1)), null);
+        assertThat(consumer.getBucket(), contains(
+            isRow(2L, 1L),
+            isRow(null, null),
+            isRow(42L, 21L)
+        ));
+    }
+
+    @Test
+    public void testErrorOfVectorizedEvalProjectionIsRaisedForTheFailingRow() throws Exception {
+        InputColumn x = new InputColumn(0, DataTypes.LONG);
+        FunctionInfo divideInfo = functions.getBuiltin(
+            ArithmeticFunctions.Names.DIVIDE, ImmutableList.of(DataTypes.LONG, DataTypes.LONG)).info();
+        Function divide = new Function(divideInfo, Arrays.asList(Literal.of(10L), x));
+        EvalProjection projection = new EvalProjection(Collections.singletonList(divide));
+
+        Projector projector = createVectorizingVisitor().create(projection, RAM_ACCOUNTING_CONTEXT, UUID.randomUUID());
+        assertThat(projector, instanceOf(VectorizedProjector.class));
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add($(1L));
+        rows.add($(2L));
+        rows.add($(0L));
+
+        BatchIterator batchIterator = projector.apply(RowsBatchIterator.newInstance(new CollectionBucket(rows), 1));
+        batchIterator.loadNextBatch().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        // the whole batch is evaluated ahead, but the rows before the failing one can still be consumed
+        Input<?> result = batchIterator.rowData().get(0);
+        assertThat(batchIterator.moveNext(), is(true));
+        assertThat(result.value(), is(10L));
+        assertThat(batchIterator.moveNext(), is(true));
+        assertThat(result.value(), is(5L));
+        assertThat(batchIterator.moveNext(), is(true));
+
+        expectedException.expect(ArithmeticException.class);
+        result.value();
+    }
 }
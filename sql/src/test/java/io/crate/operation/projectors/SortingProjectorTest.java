@@ -26,15 +26,25 @@ import com.google.common.collect.ImmutableList;
 import io.crate.analyze.symbol.Literal;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
+import io.crate.data.CollectionBucket;
 import io.crate.data.Row;
+import io.crate.data.RowsBatchIterator;
 import io.crate.operation.collect.CollectExpression;
 import io.crate.operation.collect.InputCollectExpression;
 import io.crate.operation.projectors.sorting.OrderingByPosition;
+import io.crate.operation.projectors.sorting.SortKeyEncoder;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.TestingBatchConsumer;
 import io.crate.testing.TestingBatchIterators;
+import io.crate.testing.TestingHelpers;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static io.crate.testing.TestingHelpers.isRow;
 import static org.hamcrest.core.Is.is;
 
@@ -82,6 +92,41 @@ public class SortingProjectorTest extends CrateUnitTest {
         }
     }
 
+    @Test
+    public void testOrderByMultipleColumnsWithSortKeyEncoder() throws Exception {
+        InputCollectExpression a = new InputCollectExpression(0);
+        InputCollectExpression b = new InputCollectExpression(1);
+        InputCollectExpression c = new InputCollectExpression(2);
+        int[] positions = new int[]{1, 2, 0};
+        boolean[] reverseFlags = new boolean[]{false, true, false};
+        Boolean[] nullsFirst = new Boolean[]{null, null, true};
+        List<DataType> types = Arrays.asList(DataTypes.STRING, DataTypes.LONG, DataTypes.INTEGER);
+        SortingProjector projector = new SortingProjector(
+            ImmutableList.of(a, b, c),
+            ImmutableList.<CollectExpression<Row, ?>>of(a, b, c),
+            2,
+            OrderingByPosition.arrayOrdering(positions, reverseFlags, nullsFirst),
+            SortKeyEncoder.of(positions, reverseFlags, nullsFirst, types),
+            1
+        );
+        List<Object[]> rows = Arrays.asList(
+            new Object[]{1, new BytesRef("b"), 1L},
+            new Object[]{2, new BytesRef("a"), 1L},
+            new Object[]{3, new BytesRef("a"), 2L},
+            new Object[]{null, new BytesRef("a"), 2L},
+            new Object[]{4, null, 5L},
+            new Object[]{5, new BytesRef("a"), null}
+        );
+
+        consumer.accept(projector.apply(RowsBatchIterator.newInstance(new CollectionBucket(rows), 3)), null);
+        assertThat(TestingHelpers.printedTable(consumer.getBucket()),
+            is("NULL| a\n" +
+               "3| a\n" +
+               "2| a\n" +
+               "1| b\n" +
+               "4| NULL\n"));
+    }
+
     @Test
     public void testInvalidOffset() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
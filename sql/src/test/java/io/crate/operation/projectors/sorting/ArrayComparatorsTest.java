@@ -0,0 +1,133 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.sorting;
+
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+
+public class ArrayComparatorsTest extends CrateUnitTest {
+
+    private static final Boolean[] NULLS_FIRST_FLAGS = new Boolean[]{null, true, false};
+
+    private static List<Object[]> randomRows(int numRows, Supplier<Object> valueSupplier, int numColumns) {
+        List<Object[]> rows = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            Object[] row = new Object[numColumns];
+            for (int c = 0; c < numColumns; c++) {
+                row[c] = rarely() ? null : valueSupplier.get();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void assertSameOrder(List<Object[]> rows, int[] positions, List<DataType> types) {
+        boolean[] reverseFlags = new boolean[positions.length];
+        Boolean[] nullsFirst = new Boolean[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            reverseFlags[i] = randomBoolean();
+            nullsFirst[i] = randomFrom(NULLS_FIRST_FLAGS);
+        }
+        Comparator<Object[]> expected = OrderingByPosition.arrayOrdering(positions, reverseFlags, nullsFirst);
+        Comparator<Object[]> comparator = ArrayComparators.of(positions, reverseFlags, nullsFirst, types);
+        for (int i = 0; i < rows.size() - 1; i++) {
+            Object[] left = rows.get(i);
+            Object[] right = rows.get(i + 1);
+            assertThat(Integer.signum(comparator.compare(left, right)), is(Integer.signum(expected.compare(left, right))));
+        }
+
+        List<Object[]> sorted = new ArrayList<>(rows);
+        sorted.sort(comparator);
+        List<Object[]> expectedSorted = new ArrayList<>(rows);
+        expectedSorted.sort(expected);
+        assertThat(sorted, is(expectedSorted));
+    }
+
+    @Test
+    public void testLongKeyHasSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> (long) randomIntBetween(-20, 20), 1), new int[]{0}, Collections.singletonList(DataTypes.LONG));
+    }
+
+    @Test
+    public void testIntegerKeyHasSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> randomIntBetween(-20, 20), 1), new int[]{0}, Collections.singletonList(DataTypes.INTEGER));
+    }
+
+    @Test
+    public void testDoubleKeyHasSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> randomFrom(-0.0d, 0.0d, Double.NaN, 1.5d, -2.25d, Double.MAX_VALUE), 1),
+            new int[]{0},
+            Collections.singletonList(DataTypes.DOUBLE));
+    }
+
+    @Test
+    public void testStringKeyHasSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> new BytesRef(randomAsciiOfLengthBetween(0, 3)), 1),
+            new int[]{0},
+            Collections.singletonList(DataTypes.STRING));
+    }
+
+    @Test
+    public void testTwoKeysHaveSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> (long) randomIntBetween(0, 4), 3),
+            new int[]{2, 0},
+            Arrays.asList(DataTypes.LONG, DataTypes.LONG));
+    }
+
+    @Test
+    public void testMultipleKeysHaveSameOrderAsGenericOrdering() throws Exception {
+        assertSameOrder(
+            randomRows(200, () -> randomIntBetween(0, 3), 4),
+            new int[]{3, 1, 0, 2},
+            Arrays.asList(DataTypes.INTEGER, DataTypes.INTEGER, DataTypes.INTEGER, DataTypes.INTEGER));
+    }
+
+    @Test
+    public void testUnsupportedTypeUsesGenericOrdering() throws Exception {
+        Comparator<Object[]> comparator = ArrayComparators.of(
+            new int[]{0}, new boolean[]{false}, new Boolean[]{null}, Collections.singletonList(DataTypes.BOOLEAN));
+        assertThat(comparator, instanceOf(OrderingByPosition.class));
+
+        comparator = ArrayComparators.of(
+            new int[]{0}, new boolean[]{false}, new Boolean[]{null}, Collections.singletonList(DataTypes.LONG));
+        assertThat(comparator, not(instanceOf(OrderingByPosition.class)));
+    }
+}
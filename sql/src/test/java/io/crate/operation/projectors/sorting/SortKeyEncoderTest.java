@@ -0,0 +1,121 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.projectors.sorting;
+
+import com.google.common.primitives.UnsignedBytes;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class SortKeyEncoderTest extends CrateUnitTest {
+
+    private static Object randomValue(DataType type) {
+        if (rarely()) {
+            return null;
+        }
+        switch (type.id()) {
+            case ByteType.ID:
+                return (byte) randomIntBetween(-3, 3);
+            case BooleanType.ID:
+                return randomBoolean();
+            case StringType.ID:
+                return new BytesRef(randomFrom("", "a", "ab", "a\0", "a\1", "b", "\u00e4"));
+            case DoubleType.ID:
+                return randomFrom(-0.0d, 0.0d, Double.NaN, 1.5d, -2.25d, Double.NEGATIVE_INFINITY);
+            case FloatType.ID:
+                return randomFrom(-0.0f, 0.0f, 1.5f, -2.25f);
+            case IntegerType.ID:
+                return randomIntBetween(-3, 3);
+            case LongType.ID:
+                return randomFrom(Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE);
+            case TimestampType.ID:
+                return (long) randomIntBetween(0, 3);
+            default:
+                throw new AssertionError("unexpected type " + type);
+        }
+    }
+
+    @Test
+    public void testBinaryKeysHaveSameOrderAsGenericOrdering() throws Exception {
+        List<DataType> types = Arrays.asList(
+            DataTypes.BYTE, DataTypes.BOOLEAN, DataTypes.STRING, DataTypes.DOUBLE,
+            DataTypes.FLOAT, DataTypes.INTEGER, DataTypes.LONG, DataTypes.TIMESTAMP);
+        for (int run = 0; run < 10; run++) {
+            List<DataType> orderByTypes = new ArrayList<>();
+            int numKeys = randomIntBetween(1, 4);
+            int[] positions = new int[numKeys];
+            boolean[] reverseFlags = new boolean[numKeys];
+            Boolean[] nullsFirst = new Boolean[numKeys];
+            for (int i = 0; i < numKeys; i++) {
+                positions[i] = i;
+                reverseFlags[i] = randomBoolean();
+                nullsFirst[i] = randomFrom(null, true, false);
+                orderByTypes.add(randomFrom(types));
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (int r = 0; r < 200; r++) {
+                Object[] row = new Object[numKeys];
+                for (int i = 0; i < numKeys; i++) {
+                    row[i] = randomValue(orderByTypes.get(i));
+                }
+                rows.add(row);
+            }
+
+            SortKeyEncoder encoder = SortKeyEncoder.of(positions, reverseFlags, nullsFirst, orderByTypes);
+            Comparator<byte[]> keyComparator = UnsignedBytes.lexicographicalComparator();
+            List<Object[]> sorted = new ArrayList<>(rows);
+            sorted.sort((a, b) -> keyComparator.compare(encoder.encode(a), encoder.encode(b)));
+
+            List<Object[]> expected = new ArrayList<>(rows);
+            expected.sort(OrderingByPosition.arrayOrdering(positions, reverseFlags, nullsFirst).reverse());
+            assertThat(sorted, is(expected));
+        }
+    }
+
+    @Test
+    public void testNoEncoderForUnsupportedType() throws Exception {
+        SortKeyEncoder encoder = SortKeyEncoder.of(
+            new int[]{0, 1},
+            new boolean[]{false, false},
+            new Boolean[]{null, null},
+            Arrays.asList(DataTypes.LONG, DataTypes.OBJECT));
+        assertThat(encoder, nullValue());
+    }
+}
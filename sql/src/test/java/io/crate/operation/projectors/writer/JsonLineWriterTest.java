@@ -0,0 +1,108 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.data.Input;
+import io.crate.test.integration.CrateUnitTest;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class JsonLineWriterTest extends CrateUnitTest {
+
+    private final JsonLineWriter writer = new JsonLineWriter();
+
+    private String line() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int numBytes = writer.writeLineTo(out);
+        assertThat(numBytes, is(out.size()));
+        return out.toString("UTF-8");
+    }
+
+    private static String xContent(Map<String, Object> map) throws Exception {
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        builder.map(map);
+        return builder.string() + "\n";
+    }
+
+    private static List<Input<?>> inputs(Object... values) {
+        Input<?>[] inputs = new Input<?>[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            inputs[i] = () -> value;
+        }
+        return Arrays.asList(inputs);
+    }
+
+    @Test
+    public void testWriteMapIsEqualToXContent() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("string", "f\u00f6\u00f6 \"bar\"\n\t\\ \u001f \u20ac \ud83d\ude00");
+        map.put("bytesRef", new BytesRef("b\u00e4r"));
+        map.put("long", Long.MIN_VALUE);
+        map.put("int", -42);
+        map.put("short", (short) 7);
+        map.put("double", 1.5e-10);
+        map.put("float", 0.1f);
+        map.put("nan", Double.NaN);
+        map.put("bool", true);
+        map.put("null", null);
+        map.put("array", new Object[]{1L, "a", null});
+        map.put("list", Arrays.asList(1.0d, false));
+        map.put("nested", ImmutableMap.of("x", ImmutableMap.of("y", 10)));
+
+        writer.writeMap(map);
+        assertThat(line(), is(xContent(map)));
+    }
+
+    @Test
+    public void testWriteArrayAndObject() throws Exception {
+        writer.writeArray(inputs(1, "a", null));
+        assertThat(line(), is("[1,\"a\",null]\n"));
+
+        writer.writeObject(Arrays.asList("x", "y"), inputs(new BytesRef("b"), 2.5d));
+        assertThat(line(), is("{\"x\":\"b\",\"y\":2.5}\n"));
+    }
+
+    @Test
+    public void testBufferIsReusedAndGrows() throws Exception {
+        char[] chars = new char[5000];
+        Arrays.fill(chars, 'x');
+        String large = new String(chars);
+        writer.writeValue(large);
+        assertThat(line(), is("\"" + large + "\"\n"));
+
+        writer.writeRaw(new BytesRef("{\"a\":1}"));
+        assertThat(line(), is("{\"a\":1}\n"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.projectors.writer;
+
+import io.crate.test.integration.CrateUnitTest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.SnappyFrameDecoder;
+import org.elasticsearch.common.io.Streams;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.is;
+
+public class ParallelCompressingOutputStreamTest extends CrateUnitTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @After
+    public void shutdownExecutor() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static byte[] data(int numLines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < numLines; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"name ").append(i % 17).append("\"}\n");
+        }
+        return sb.toString().getBytes();
+    }
+
+    private byte[] compress(BlockCompressor compressor, byte[] data, int blockSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream os = new ParallelCompressingOutputStream(out, compressor, executor, blockSize, 2)) {
+            // write in uneven chunks to cover writes spanning multiple blocks
+            int offset = 0;
+            int chunk = 1;
+            while (offset < data.length) {
+                int length = Math.min(chunk, data.length - offset);
+                if (length == 1) {
+                    os.write(data[offset]);
+                } else {
+                    os.write(data, offset, length);
+                }
+                offset += length;
+                chunk = chunk * 3 % 1000 + 1;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testGzipBlocksCanBeReadAsSingleStream() throws Exception {
+        byte[] data = data(5000);
+        byte[] compressed = compress(GzipBlockCompressor.INSTANCE, data, 4096);
+
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        Streams.copy(new GZIPInputStream(new ByteArrayInputStream(compressed)), decompressed);
+        assertThat(decompressed.toByteArray(), is(data));
+    }
+
+    @Test
+    public void testSnappyFramesCanBeDecoded() throws Exception {
+        // block size larger than the maximum snappy chunk size to cover blocks with multiple chunks
+        byte[] data = data(20000);
+        byte[] compressed = compress(SnappyBlockCompressor.INSTANCE, data, 100_000);
+        assertThat(compressed.length < data.length, is(true));
+
+        EmbeddedChannel channel = new EmbeddedChannel(new SnappyFrameDecoder(true));
+        channel.writeInbound(Unpooled.wrappedBuffer(compressed));
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        ByteBuf chunk;
+        while ((chunk = channel.readInbound()) != null) {
+            chunk.readBytes(decompressed, chunk.readableBytes());
+            chunk.release();
+        }
+        assertThat(decompressed.toByteArray(), is(data));
+    }
+
+    @Test
+    public void testIncompressibleSnappyChunksAreStoredUncompressed() throws Exception {
+        byte[] data = new byte[10_000];
+        random().nextBytes(data);
+        byte[] compressed = compress(SnappyBlockCompressor.INSTANCE, data, 4096);
+
+        EmbeddedChannel channel = new EmbeddedChannel(new SnappyFrameDecoder(true));
+        channel.writeInbound(Unpooled.wrappedBuffer(compressed));
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        ByteBuf chunk;
+        while ((chunk = channel.readInbound()) != null) {
+            chunk.readBytes(decompressed, chunk.readableBytes());
+            chunk.release();
+        }
+        assertThat(decompressed.toByteArray(), is(data));
+    }
+
+    @Test
+    public void testEmptyStreamOnlyContainsHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelCompressingOutputStream(out, SnappyBlockCompressor.INSTANCE, executor).close();
+        assertThat(out.toByteArray(), is(SnappyBlockCompressor.INSTANCE.header()));
+    }
+
+    @Test
+    public void testCompressionFailureIsRaisedOnClose() throws Exception {
+        BlockCompressor failing = new BlockCompressor() {
+            @Override
+            public byte[] header() {
+                return new byte[0];
+            }
+
+            @Override
+            public byte[] compress(byte[] block, int length) throws IOException {
+                throw new IOException("compression failed");
+            }
+        };
+        OutputStream os = new ParallelCompressingOutputStream(new ByteArrayOutputStream(), failing, executor, 16, 2);
+        os.write(new byte[10]);
+
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("compression failed");
+        os.close();
+    }
+}
@@ -33,6 +33,7 @@ import io.crate.metadata.doc.TestingDocTableInfoFactory;
 import io.crate.metadata.shard.ShardReferenceResolver;
 import io.crate.metadata.sys.SysSchemaInfo;
 import io.crate.metadata.sys.SysShardsTableInfo;
+import io.crate.operation.collect.ShardResultCache;
 import io.crate.operation.reference.NestedObjectExpression;
 import io.crate.operation.reference.ReferenceResolver;
 import io.crate.operation.reference.sys.shard.ShardPathExpression;
@@ -101,6 +102,7 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
         resolver = ShardReferenceResolver.create(
             clusterService,
             schemas,
+            new ShardResultCache(Settings.EMPTY),
             indexShard
         );
     }
@@ -236,6 +238,22 @@ public class SysShardsExpressionsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(shardExpression.value(), nullValue());
     }
 
+    @Test
+    public void testResultCache() throws Exception {
+        Reference refInfo = refInfo("sys.shards.result_cache", DataTypes.OBJECT, RowGranularity.SHARD);
+        NestedObjectExpression ref = (NestedObjectExpression) resolver.getImplementation(refInfo);
+
+        Map<String, Object> resultCache = ref.value();
+        assertThat(resultCache.get("hits"), is(0L));
+        assertThat(resultCache.get("misses"), is(0L));
+        assertThat(resultCache.get("evictions"), is(0L));
+        assertThat(resultCache.get("size"), is(0L));
+
+        refInfo = refInfo("sys.shards.result_cache", DataTypes.LONG, RowGranularity.SHARD, "hits");
+        ReferenceImplementation<Long> hits = (ReferenceImplementation<Long>) resolver.getImplementation(refInfo);
+        assertThat(hits.value(), is(0L));
+    }
+
     @Test
     public void testTableNameOfPartition() throws Exception {
         // expression should return the real table name
@@ -122,4 +122,22 @@ public class UserPrivilegesTest extends CrateUnitTest {
         assertThat(userPrivileges.matchPrivilege(Privilege.Type.DQL, Privilege.Clazz.TABLE, "doc.t2"), is(false));
         assertThat(userPrivileges.matchPrivilege(Privilege.Type.DQL, Privilege.Clazz.SCHEMA, "my_schema"), is(true));
     }
+
+    @Test
+    public void testMatchPrivilegeTypesOfSameIdentAreIndependent() throws Exception {
+        Collection<Privilege> privileges = Sets.newHashSet(
+            new Privilege(Privilege.State.GRANT, Privilege.Type.DML, Privilege.Clazz.SCHEMA, "doc", "crate"),
+            new Privilege(Privilege.State.DENY, Privilege.Type.DQL, Privilege.Clazz.TABLE, "doc.t1", "crate"),
+            new Privilege(Privilege.State.GRANT, Privilege.Type.DDL, Privilege.Clazz.TABLE, "doc.t1", "crate")
+        );
+        UserPrivileges userPrivileges = new UserPrivileges(privileges);
+        assertThat(userPrivileges.matchPrivilege(Privilege.Type.DQL, Privilege.Clazz.TABLE, "doc.t1"), is(false));
+        assertThat(userPrivileges.matchPrivilege(Privilege.Type.DML, Privilege.Clazz.TABLE, "doc.t1"), is(true));
+        assertThat(userPrivileges.matchPrivilege(Privilege.Type.DDL, Privilege.Clazz.TABLE, "doc.t1"), is(true));
+        assertThat(userPrivileges.matchPrivilege(Privilege.Type.DDL, Privilege.Clazz.TABLE, "doc.t2"), is(false));
+        assertThat(userPrivileges.matchPrivilege(Privilege.Type.DDL, Privilege.Clazz.SCHEMA, "doc"), is(false));
+        assertThat(userPrivileges.matchPrivilegeOfAnyType(Privilege.Clazz.TABLE, "doc.t1"), is(true));
+        assertThat(userPrivileges.matchPrivilegeOfAnyType(Privilege.Clazz.SCHEMA, "doc"), is(true));
+        assertThat(userPrivileges.matchPrivilegeOfAnyType(Privilege.Clazz.SCHEMA, "my_schema"), is(false));
+    }
 }
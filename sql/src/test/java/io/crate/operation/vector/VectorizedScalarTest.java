@@ -0,0 +1,222 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.operation.vector;
+
+import io.crate.analyze.symbol.Function;
+import io.crate.analyze.symbol.InputColumn;
+import io.crate.analyze.symbol.Literal;
+import io.crate.analyze.symbol.Symbol;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.exceptions.ConversionException;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.Functions;
+import io.crate.operation.InputFactory;
+import io.crate.operation.collect.CollectExpression;
+import io.crate.operation.operator.AndOperator;
+import io.crate.operation.operator.EqOperator;
+import io.crate.operation.operator.GtOperator;
+import io.crate.operation.operator.LtOperator;
+import io.crate.operation.operator.OrOperator;
+import io.crate.operation.scalar.DateTruncFunction;
+import io.crate.operation.scalar.SubstrFunction;
+import io.crate.operation.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.operation.scalar.cast.CastFunctionResolver;
+import io.crate.sql.tree.Extract;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VectorizedScalarTest extends CrateUnitTest {
+
+    private static final InputColumn LONG = new InputColumn(0, DataTypes.LONG);
+    private static final InputColumn INTEGER = new InputColumn(1, DataTypes.INTEGER);
+    private static final InputColumn DOUBLE = new InputColumn(2, DataTypes.DOUBLE);
+    private static final InputColumn FLOAT = new InputColumn(3, DataTypes.FLOAT);
+    private static final InputColumn TIMESTAMP = new InputColumn(4, DataTypes.TIMESTAMP);
+    private static final InputColumn BOOLEAN = new InputColumn(5, DataTypes.BOOLEAN);
+    private static final InputColumn STRING = new InputColumn(6, DataTypes.STRING);
+
+    // batch size smaller than the number of rows and not a multiple of 64 to cover partial batches and null bitmaps
+    private static final int BATCH_SIZE = 70;
+
+    private final Functions functions = getFunctions();
+    private final InputFactory inputFactory = new InputFactory(functions);
+
+    private static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{10L, 3, 2.5d, 1.5f, 1499772405123L, true, "a"});
+        rows.add(new Object[]{-7L, 0, -0.0d, Float.MAX_VALUE, 0L, false, "b"});
+        rows.add(new Object[]{null, null, null, null, null, null, null});
+        rows.add(new Object[]{Long.MAX_VALUE, Integer.MIN_VALUE, Double.NaN, Float.NaN, -1L, null, "c"});
+        rows.add(new Object[]{0L, null, 1e300d, -3.25f, null, true, null});
+        for (int i = 0; i < 150; i++) {
+            rows.add(new Object[]{
+                i % 7 == 0 ? null : (long) i * 31 - 1000,
+                i % 5 == 0 ? null : i - 75,
+                i % 9 == 0 ? null : i * 1.7d - 80,
+                i % 11 == 0 ? null : i * 0.3f,
+                i % 13 == 0 ? null : 1400000000000L + i * 86_400_123L,
+                i % 3 == 0 ? null : i % 2 == 0,
+                "s" + i
+            });
+        }
+        return rows;
+    }
+
+    private Function fn(String name, Symbol... arguments) {
+        List<DataType> types = Arrays.stream(arguments).map(Symbol::valueType).collect(Collectors.toList());
+        FunctionImplementation impl = functions.getBuiltin(name, types);
+        assertThat("function " + name + types + " must exist", impl, notNullValue());
+        return new Function(impl.info(), Arrays.asList(arguments));
+    }
+
+    private void assertVectorizedEvaluation(Symbol symbol) {
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
+        Input<?> input = ctx.add(symbol);
+        InputFactory.VectorContext vectorCtx = inputFactory.ctxForVectors(Collections.singletonList(symbol), BATCH_SIZE);
+        assertThat("symbol must be vectorized: " + symbol, vectorCtx, notNullValue());
+        VectorExpression expression = vectorCtx.topLevelExpressions().get(0);
+
+        List<Object[]> rows = rows();
+        for (int start = 0; start < rows.size(); start += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, rows.size() - start);
+            for (int i = 0; i < size; i++) {
+                vectorCtx.setRow(i, new RowN(rows.get(start + i)));
+            }
+            ColumnVector result = expression.evaluate(size);
+            for (int i = 0; i < size; i++) {
+                Row row = new RowN(rows.get(start + i));
+                for (CollectExpression<Row, ?> collectExpression : ctx.expressions()) {
+                    collectExpression.setNextRow(row);
+                }
+                assertThat(symbol + " row " + (start + i), result.value(i), is(input.value()));
+            }
+        }
+    }
+
+    @Test
+    public void testArithmetic() throws Exception {
+        for (String name : Arrays.asList(
+            ArithmeticFunctions.Names.ADD,
+            ArithmeticFunctions.Names.SUBTRACT,
+            ArithmeticFunctions.Names.MULTIPLY,
+            ArithmeticFunctions.Names.POWER)) {
+            assertVectorizedEvaluation(fn(name, LONG, INTEGER));
+            assertVectorizedEvaluation(fn(name, LONG, Literal.of(3L)));
+            assertVectorizedEvaluation(fn(name, DOUBLE, INTEGER));
+            assertVectorizedEvaluation(fn(name, FLOAT, INTEGER));
+            assertVectorizedEvaluation(fn(name, FLOAT, FLOAT));
+            assertVectorizedEvaluation(fn(name, TIMESTAMP, LONG));
+        }
+        // nested, intermediate results stay in vectors
+        assertVectorizedEvaluation(fn(ArithmeticFunctions.Names.ADD,
+            fn(ArithmeticFunctions.Names.MULTIPLY, DOUBLE, Literal.of(2.0d)), LONG));
+    }
+
+    @Test
+    public void testDivisionSkipsNulls() throws Exception {
+        // null rows have a zero value in the vector; only non-null rows are divided
+        List<Object[]> rows = Arrays.asList(new Object[]{10L, 2}, new Object[]{10L, null});
+        Function divide = fn(ArithmeticFunctions.Names.DIVIDE, LONG, INTEGER);
+        InputFactory.VectorContext ctx = inputFactory.ctxForVectors(Collections.singletonList(divide), BATCH_SIZE);
+        for (int i = 0; i < rows.size(); i++) {
+            ctx.setRow(i, new RowN(rows.get(i)));
+        }
+        ColumnVector result = ctx.topLevelExpressions().get(0).evaluate(rows.size());
+        assertThat(result.value(0), is(5L));
+        assertThat(result.value(1), nullValue());
+
+        assertVectorizedEvaluation(fn(ArithmeticFunctions.Names.DIVIDE, DOUBLE, INTEGER));
+        assertVectorizedEvaluation(fn(ArithmeticFunctions.Names.MODULUS, FLOAT, DOUBLE));
+    }
+
+    @Test
+    public void testComparisonAndLogicalOperators() throws Exception {
+        for (String name : Arrays.asList(EqOperator.NAME, GtOperator.NAME, LtOperator.NAME)) {
+            assertVectorizedEvaluation(fn(name, LONG, Literal.of(-7L)));
+            assertVectorizedEvaluation(fn(name, INTEGER, INTEGER));
+            assertVectorizedEvaluation(fn(name, DOUBLE, Literal.of(-0.0d)));
+            assertVectorizedEvaluation(fn(name, FLOAT, Literal.of(1.5f)));
+            assertVectorizedEvaluation(fn(name, BOOLEAN, Literal.of(true)));
+        }
+        Function gt = fn(GtOperator.NAME, LONG, Literal.of(0L));
+        assertVectorizedEvaluation(fn(AndOperator.NAME, gt, BOOLEAN));
+        assertVectorizedEvaluation(fn(OrOperator.NAME, gt, BOOLEAN));
+    }
+
+    @Test
+    public void testDateTruncAndExtract() throws Exception {
+        assertVectorizedEvaluation(fn(DateTruncFunction.NAME, Literal.of("day"), TIMESTAMP));
+        assertVectorizedEvaluation(fn(DateTruncFunction.NAME, Literal.of("month"), Literal.of("Europe/Vienna"), TIMESTAMP));
+        assertVectorizedEvaluation(fn(DateTruncFunction.NAME, Literal.of("week"), LONG));
+        for (Extract.Field field : Arrays.asList(Extract.Field.YEAR, Extract.Field.DAY_OF_WEEK, Extract.Field.HOUR)) {
+            assertVectorizedEvaluation(fn("extract_" + field, TIMESTAMP));
+        }
+    }
+
+    @Test
+    public void testCasts() throws Exception {
+        for (DataType targetType : Arrays.asList(
+            DataTypes.LONG, DataTypes.INTEGER, DataTypes.SHORT, DataTypes.BYTE,
+            DataTypes.DOUBLE, DataTypes.FLOAT, DataTypes.TIMESTAMP)) {
+            for (Symbol source : Arrays.asList(LONG, INTEGER, DOUBLE, FLOAT, TIMESTAMP)) {
+                assertVectorizedEvaluation(CastFunctionResolver.generateCastFunction(source, targetType, true));
+            }
+        }
+        assertVectorizedEvaluation(CastFunctionResolver.generateCastFunction(INTEGER, DataTypes.LONG, false));
+        assertVectorizedEvaluation(CastFunctionResolver.generateCastFunction(FLOAT, DataTypes.DOUBLE, false));
+    }
+
+    @Test
+    public void testCastOutOfRangeRaisesConversionException() throws Exception {
+        Symbol cast = CastFunctionResolver.generateCastFunction(LONG, DataTypes.INTEGER, false);
+        InputFactory.VectorContext ctx = inputFactory.ctxForVectors(Collections.singletonList(cast), BATCH_SIZE);
+        ctx.setRow(0, new RowN(new Object[]{Long.MAX_VALUE}));
+
+        expectedException.expect(ConversionException.class);
+        ctx.topLevelExpressions().get(0).evaluate(1);
+    }
+
+    @Test
+    public void testUnsupportedSymbolsCannotBeVectorized() throws Exception {
+        Function substr = fn(SubstrFunction.NAME, STRING, Literal.of(1));
+        assertThat(inputFactory.ctxForVectors(Collections.singletonList(substr), BATCH_SIZE), nullValue());
+        assertThat(inputFactory.ctxForVectors(Collections.singletonList(STRING), BATCH_SIZE), nullValue());
+        Function dateTruncWithColumnInterval = fn(DateTruncFunction.NAME, STRING, TIMESTAMP);
+        assertThat(inputFactory.ctxForVectors(
+            Collections.singletonList(dateTruncWithColumnInterval), BATCH_SIZE), nullValue());
+    }
+}
@@ -51,7 +51,7 @@ public class RoutingBuilderTest {
         TableInfo tableInfo2 =
             TestingTableInfo.builder(custom, shardRoutingForReplicas("t1")).add("id", DataTypes.INTEGER, null).build();
 
-        RoutingBuilder routingBuilder = new RoutingBuilder();
+        RoutingBuilder routingBuilder = new RoutingBuilder(new AdaptiveReplicaSelection(true));
         WhereClause whereClause = new WhereClause(
             new Function(new FunctionInfo(
                 new FunctionIdent(EqOperator.NAME,
@@ -78,7 +78,7 @@ public class RoutingBuilderTest {
         TableIdent custom = new TableIdent("custom", "t1");
         TableInfo tableInfo = TestingTableInfo.builder(
             custom, shardRouting("t1")).add("id", DataTypes.INTEGER, null).build();
-        RoutingBuilder routingBuilder = new RoutingBuilder();
+        RoutingBuilder routingBuilder = new RoutingBuilder(new AdaptiveReplicaSelection(true));
         routingBuilder.allocateRouting(tableInfo, WhereClause.MATCH_ALL, null, null);
 
         ReaderAllocations readerAllocations = routingBuilder.buildReaderAllocations();
@@ -521,6 +521,31 @@ public class SelectPlannerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(((RoutedCollectPhase) collect.collectPhase()).nodePageSizeHint(), is(750007));
     }
 
+    @Test
+    public void testQAFPagingIsEnabledOnOrderedDeepOffset() throws Exception {
+        Merge merge = e.plan("select name from users order by name limit 10 offset 100000");
+        Collect collect = (Collect) merge.subPlan();
+        assertThat(merge.mergePhase().nodeIds().size(), is(1)); // mergePhase with executionNode = paging enabled
+        // the nodes send small pages, which the merge requests on demand
+        assertThat(((RoutedCollectPhase) collect.collectPhase()).nodePageSizeHint(), is(10_000));
+    }
+
+    @Test
+    public void testQAFPagingOnOrderedResultAboveThresholdUsesWeightedPageSize() throws Exception {
+        Merge merge = e.plan("select name from users order by name limit 10 offset 12000");
+        Collect collect = (Collect) merge.subPlan();
+        // each node sends only its share (+ overhead) of limit + offset per page
+        assertThat(((RoutedCollectPhase) collect.collectPhase()).nodePageSizeHint(), is(9007));
+    }
+
+    @Test
+    public void testQTFPagingIsNotEnabledOnUnorderedDeepOffset() throws Exception {
+        QueryThenFetch qtf = e.plan("select name from users limit 10 offset 100000");
+        Merge merge = (Merge) qtf.subPlan();
+        RoutedCollectPhase collectPhase = ((RoutedCollectPhase) ((Collect) merge.subPlan()).collectPhase());
+        assertThat(collectPhase.nodePageSizeHint(), is(100_000 + 10));
+    }
+
     @Test
     public void testQTFPagingIsEnabledOnHighLimit() throws Exception {
         QueryThenFetch qtf = e.plan("select name, date from users order by name limit 1000000");
@@ -43,7 +43,8 @@ public class WriterProjectionTest extends CrateUnitTest {
             MapBuilder.<ColumnIdent, Symbol>newMapBuilder().put(
                 new ColumnIdent("partitionColumn"), Literal.of(1)).map(),
             ImmutableList.of("foo"),
-            WriterProjection.OutputFormat.JSON_OBJECT
+            WriterProjection.OutputFormat.JSON_OBJECT,
+            1024L * 1024L
         );
 
         BytesStreamOutput out = new BytesStreamOutput();
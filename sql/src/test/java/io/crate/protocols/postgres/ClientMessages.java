@@ -81,6 +81,19 @@ class ClientMessages {
         buffer.writeInt(4);
     }
 
+    static void sendExecute(ByteBuf buffer, String portalName, int maxRows) {
+        buffer.writeByte('E');
+        byte[] portalBytes = portalName.getBytes(StandardCharsets.UTF_8);
+        buffer.writeInt(4 + portalBytes.length + 1 + 4);
+        writeCString(buffer, portalBytes);
+        buffer.writeInt(maxRows);
+    }
+
+    static void sendSync(ByteBuf buffer) {
+        buffer.writeByte('S');
+        buffer.writeInt(4);
+    }
+
     static void sendBindMessage(ByteBuf buffer,
                                 String portalName,
                                 String statementName,
@@ -0,0 +1,190 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.RowN;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class OrderedResultReceiverTest extends CrateUnitTest {
+
+    private static class CollectingResultReceiver extends BaseResultReceiver {
+
+        private final List<Object> rows = new ArrayList<>();
+
+        @Override
+        public void setNextRow(Row row) {
+            rows.add(row.get(0));
+        }
+    }
+
+    private long originalBufferSize;
+
+    @Before
+    public void reduceFlushBufferSize() throws Exception {
+        originalBufferSize = RamAccountingContext.FLUSH_BUFFER_SIZE;
+        RamAccountingContext.FLUSH_BUFFER_SIZE = 20;
+    }
+
+    @After
+    public void resetFlushBufferSize() throws Exception {
+        RamAccountingContext.FLUSH_BUFFER_SIZE = originalBufferSize;
+    }
+
+    private static OrderedResultReceiver newReceiver(CollectingResultReceiver delegate,
+                                                     CompletableFuture<?> previous,
+                                                     CircuitBreaker breaker) {
+        RowAccounting rowAccounting = new RowAccounting(
+            Collections.singletonList(DataTypes.INTEGER), new RamAccountingContext("test", breaker));
+        return new OrderedResultReceiver(delegate, previous, rowAccounting);
+    }
+
+    @Test
+    public void testResultsAreBufferedUntilPreviousQueryCompleted() throws Exception {
+        CompletableFuture<Object> previous = new CompletableFuture<>();
+        CollectingResultReceiver delegate = new CollectingResultReceiver();
+        OrderedResultReceiver receiver = newReceiver(delegate, previous, new NoopCircuitBreaker("dummy"));
+
+        // rows are shared and re-used by the producer, so they must be copied while buffering
+        RowN row = new RowN(new Object[]{1});
+        receiver.setNextRow(row);
+        row.cells(new Object[]{2});
+        receiver.setNextRow(row);
+        receiver.allFinished(false);
+
+        assertThat(delegate.rows, is(empty()));
+        assertThat(receiver.completionFuture().isDone(), is(false));
+
+        previous.complete(null);
+
+        assertThat(delegate.rows, contains(1, 2));
+        assertThat(receiver.completionFuture().isDone(), is(true));
+    }
+
+    @Test
+    public void testResultsArePassedThroughOncePreviousQueryCompleted() throws Exception {
+        CompletableFuture<Object> previous = new CompletableFuture<>();
+        CollectingResultReceiver delegate = new CollectingResultReceiver();
+        OrderedResultReceiver receiver = newReceiver(delegate, previous, new NoopCircuitBreaker("dummy"));
+
+        receiver.setNextRow(new Row1(1));
+        previous.complete(null);
+        receiver.setNextRow(new Row1(2));
+
+        assertThat(delegate.rows, contains(1, 2));
+        assertThat(receiver.completionFuture().isDone(), is(false));
+
+        receiver.allFinished(false);
+        assertThat(receiver.completionFuture().isDone(), is(true));
+    }
+
+    @Test
+    public void testResultsAreDiscardedIfPreviousQueryFailed() throws Exception {
+        CompletableFuture<Object> previous = new CompletableFuture<>();
+        CollectingResultReceiver delegate = new CollectingResultReceiver();
+        OrderedResultReceiver receiver = newReceiver(delegate, previous, new NoopCircuitBreaker("dummy"));
+
+        receiver.setNextRow(new Row1(1));
+        previous.completeExceptionally(new IllegalStateException("previous failed"));
+        receiver.setNextRow(new Row1(2));
+
+        assertThat(receiver.completionFuture().isDone(), is(false));
+        receiver.allFinished(false);
+
+        assertThat(delegate.rows, is(empty()));
+        assertThat(delegate.completionFuture().isDone(), is(false));
+        assertThat(receiver.completionFuture().isCompletedExceptionally(), is(true));
+    }
+
+    @Test
+    public void testBufferedRowsAreAccountedAndReleased() throws Exception {
+        CompletableFuture<Object> previous = new CompletableFuture<>();
+        CollectingResultReceiver delegate = new CollectingResultReceiver();
+        MemoryCircuitBreaker breaker = new MemoryCircuitBreaker(
+            new ByteSizeValue(1, ByteSizeUnit.KB), 1.0, Loggers.getLogger(OrderedResultReceiverTest.class));
+        OrderedResultReceiver receiver = newReceiver(delegate, previous, breaker);
+
+        for (int i = 0; i < 10; i++) {
+            receiver.setNextRow(new Row1(i));
+        }
+        assertThat(breaker.getUsed(), greaterThan(0L));
+
+        previous.complete(null);
+        receiver.allFinished(false);
+
+        assertThat(delegate.rows.size(), is(10));
+        assertThat(breaker.getUsed(), is(0L));
+    }
+
+    @Test
+    public void testQueryFailsIfBufferedRowsExceedBreakerLimit() throws Exception {
+        CompletableFuture<Object> previous = new CompletableFuture<>();
+        CollectingResultReceiver delegate = new CollectingResultReceiver();
+        MemoryCircuitBreaker breaker = new MemoryCircuitBreaker(
+            new ByteSizeValue(30, ByteSizeUnit.BYTES), 1.0, Loggers.getLogger(OrderedResultReceiverTest.class));
+        OrderedResultReceiver receiver = newReceiver(delegate, previous, breaker);
+
+        CircuitBreakingException breakingException = null;
+        try {
+            for (int i = 0; i < 100; i++) {
+                receiver.setNextRow(new Row1(i));
+            }
+        } catch (CircuitBreakingException e) {
+            breakingException = e;
+        }
+        assertThat(breakingException, notNullValue());
+        receiver.fail(breakingException);
+
+        previous.complete(null);
+
+        assertThat(delegate.rows, is(empty()));
+        assertThat(delegate.completionFuture().isCompletedExceptionally(), is(true));
+        assertThat(breaker.getUsed(), is(0L));
+    }
+}
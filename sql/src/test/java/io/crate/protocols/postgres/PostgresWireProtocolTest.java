@@ -23,11 +23,17 @@
 package io.crate.protocols.postgres;
 
 import io.crate.action.sql.SQLOperations;
+import io.crate.breaker.CrateCircuitBreakerService;
+import io.crate.data.BatchConsumer;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.RowsBatchIterator;
 import io.crate.executor.Executor;
 import io.crate.operation.auth.AlwaysOKNullAuthentication;
 import io.crate.operation.collect.stats.JobsLogs;
 import io.crate.operation.user.User;
 import io.crate.operation.user.UserManager;
+import io.crate.planner.Plan;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.DummyUserManager;
 import io.crate.testing.SQLExecutor;
@@ -36,7 +42,9 @@ import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.elasticsearch.common.inject.Provider;
+import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,9 +53,12 @@ import javax.annotation.Nullable;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isOneOf;
 import static org.mockito.Mockito.any;
@@ -62,19 +73,24 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
 
     private SQLOperations sqlOperations;
     private List<SQLOperations.Session> sessions = new ArrayList<>();
+    private QueuingExecutor executor = new QueuingExecutor();
     private EmbeddedChannel channel;
 
     @Before
     public void prepare() {
         SQLExecutor e = SQLExecutor.builder(clusterService).build();
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        CrateCircuitBreakerService breakerService = new CrateCircuitBreakerService(
+            Settings.EMPTY, clusterSettings, new HierarchyCircuitBreakerService(Settings.EMPTY, clusterSettings));
         sqlOperations = new SQLOperations(
             e.analyzer,
             e.planner,
-            () -> mock(Executor.class),
+            () -> executor,
             new JobsLogs(() -> true),
             Settings.EMPTY,
             clusterService,
-            USER_MANAGER_PROVIDER
+            USER_MANAGER_PROVIDER,
+            breakerService
         ) {
             @Override
             public Session createSession(@Nullable String defaultSchema, @Nullable User user) {
@@ -193,4 +209,112 @@ public class PostgresWireProtocolTest extends CrateDummyClusterServiceUnitTest {
         }
     }
 
+    @Test
+    public void testResultsOfPipelinedQueriesAreSentInOrderOfTheQueries() throws Exception {
+        PostgresWireProtocol ctx =
+            new PostgresWireProtocol(
+                sqlOperations,
+                new AlwaysOKNullAuthentication(),
+                null);
+        channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
+
+        ByteBuf buffer = Unpooled.buffer();
+        ClientMessages.sendStartupMessage(buffer, "doc");
+        ClientMessages.sendParseMessage(buffer, "S1", "select ?", new int[0]);
+        ClientMessages.sendBindMessage(buffer, "", "S1", Collections.singletonList(1));
+        ClientMessages.sendExecute(buffer, "", 0);
+        ClientMessages.sendParseMessage(buffer, "S2", "select ? as y", new int[0]);
+        ClientMessages.sendBindMessage(buffer, "", "S2", Collections.singletonList(2));
+        ClientMessages.sendExecute(buffer, "", 0);
+        ClientMessages.sendSync(buffer);
+        channel.writeInbound(buffer);
+
+        // both queries are started before either finished; the second one finishes first
+        assertThat(executor.pendingExecutions.size(), is(2));
+        executor.finish(1);
+        executor.finish(0);
+
+        assertThat(readDataRowValues(channel), contains("1", "2"));
+    }
+
+    @Test
+    public void testNamedPortalCanBeBoundToAnotherStatementAfterSync() throws Exception {
+        PostgresWireProtocol ctx =
+            new PostgresWireProtocol(
+                sqlOperations,
+                new AlwaysOKNullAuthentication(),
+                null);
+        channel = new EmbeddedChannel(ctx.decoder, ctx.handler);
+
+        ByteBuf buffer = Unpooled.buffer();
+        ClientMessages.sendStartupMessage(buffer, "doc");
+        ClientMessages.sendParseMessage(buffer, "S1", "select ?", new int[0]);
+        ClientMessages.sendBindMessage(buffer, "P1", "S1", Collections.singletonList(1));
+        ClientMessages.sendExecute(buffer, "P1", 0);
+        ClientMessages.sendSync(buffer);
+        channel.writeInbound(buffer);
+        executor.finish(0);
+        assertThat(readDataRowValues(channel), contains("1"));
+
+        buffer = Unpooled.buffer();
+        ClientMessages.sendParseMessage(buffer, "S2", "select ? as y", new int[0]);
+        ClientMessages.sendBindMessage(buffer, "P1", "S2", Collections.singletonList(2));
+        ClientMessages.sendExecute(buffer, "P1", 0);
+        ClientMessages.sendSync(buffer);
+        channel.writeInbound(buffer);
+
+        // the portal executes only the new statement instead of being turned into a batch with the synced one
+        assertThat(executor.pendingExecutions.size(), is(1));
+        executor.finish(0);
+        assertThat(readDataRowValues(channel), contains("2"));
+        assertThat(sessions.get(0).getQuery("P1"), is("select ? as y"));
+    }
+
+    /**
+     * Reads all messages which have been sent to the client and returns the first column of each DataRow.
+     */
+    private static List<String> readDataRowValues(EmbeddedChannel channel) {
+        List<String> values = new ArrayList<>();
+        ByteBuf response;
+        while ((response = channel.readOutbound()) != null) {
+            try {
+                while (response.isReadable()) {
+                    byte type = response.readByte();
+                    ByteBuf body = response.readSlice(response.readInt() - 4);
+                    if (type == 'D') {
+                        body.readShort(); // numColumns
+                        int valueLength = body.readInt();
+                        values.add(body.toString(body.readerIndex(), valueLength, StandardCharsets.UTF_8));
+                    }
+                }
+            } finally {
+                response.release();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Executor which returns the parameters as the single row of the result once {@link #finish(int)} is called
+     * with the index of the execution among the pending ones.
+     */
+    private static class QueuingExecutor implements Executor {
+
+        private final List<Runnable> pendingExecutions = new ArrayList<>();
+
+        @Override
+        public void execute(Plan plan, BatchConsumer consumer, Row parameters) {
+            Object[] cells = parameters.materialize();
+            pendingExecutions.add(() -> consumer.accept(RowsBatchIterator.newInstance(new RowN(cells)), null));
+        }
+
+        @Override
+        public List<CompletableFuture<Long>> executeBulk(Plan plan) {
+            throw new UnsupportedOperationException("bulk operations aren't supported");
+        }
+
+        void finish(int execution) {
+            pendingExecutions.remove(execution).run();
+        }
+    }
 }
@@ -43,6 +43,7 @@ import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.data.Rows;
 import io.crate.executor.transport.RepositoryService;
+import io.crate.metadata.AdaptiveReplicaSelection;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Schemas;
 import io.crate.metadata.TableIdent;
@@ -202,7 +203,8 @@ public class SQLExecutor {
                 new Planner(
                     clusterService,
                     functions,
-                    tableStats
+                    tableStats,
+                    new AdaptiveReplicaSelection(false)
                 ),
                 new RelationAnalyzer(clusterService, functions, schemas),
                 new SessionContext(defaultSchema, null, s -> {}, t -> {})
@@ -22,6 +22,7 @@
 
 package io.crate.protocols.postgres;
 
+import io.crate.protocols.ssl.SslHandshakeStats;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
@@ -55,9 +56,11 @@ public final class SslReqHandler {
     }
 
     private final SslContext sslContext;
+    private final SslHandshakeStats handshakeStats;
 
-    SslReqHandler(SslContext sslContext) {
+    SslReqHandler(SslContext sslContext, SslHandshakeStats handshakeStats) {
         this.sslContext = sslContext;
+        this.handshakeStats = handshakeStats;
         if (sslContext != null) {
             log.info("PSQL SSL support is enabled.");
         } else {
@@ -90,6 +93,7 @@ public final class SslReqHandler {
             if (sslContext != null) {
                 writeByteAndFlushMessage(pipeline.channel(), 'S');
                 SslHandler sslHandler = sslContext.newHandler(pipeline.channel().alloc());
+                handshakeStats.accept(sslHandler);
                 pipeline.addFirst(sslHandler);
             } else {
                 writeByteAndFlushMessage(pipeline.channel(), 'N');
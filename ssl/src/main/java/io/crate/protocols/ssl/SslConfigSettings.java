@@ -27,6 +27,9 @@ import io.crate.settings.SharedSettings;
 import io.crate.types.DataTypes;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Locale;
 
 /**
  * Settings for configuring Postgres SSL. Only applicable to the ssl-impl module.
@@ -44,6 +47,10 @@ public class SslConfigSettings {
     static final String SSL_KEYSTORE_PASSWORD_SETTING_NAME = "ssl.keystore_password";
     static final String SSL_KEYSTORE_KEY_PASSWORD_SETTING_NAME = "ssl.keystore_key_password";
 
+    static final String SSL_SESSION_CACHE_SIZE_SETTING_NAME = "ssl.session_cache_size";
+    static final String SSL_SESSION_TIMEOUT_SETTING_NAME = "ssl.session_timeout";
+    static final String SSL_PROVIDER_SETTING_NAME = "ssl.provider";
+
     public static final CrateSetting<Boolean> SSL_HTTP_ENABLED = CrateSetting.of(
         Setting.boolSetting(SSL_HTTP_ENABLED_SETTING_NAME, false, Setting.Property.NodeScope),
         DataTypes.BOOLEAN);
@@ -71,6 +78,38 @@ public class SslConfigSettings {
         Setting.simpleString(SSL_KEYSTORE_KEY_PASSWORD_SETTING_NAME, Setting.Property.NodeScope),
         DataTypes.STRING);
 
+    /**
+     * Number of TLS sessions cached to resume sessions of reconnecting clients without a full handshake.
+     */
+    public static final CrateSetting<Integer> SSL_SESSION_CACHE_SIZE = CrateSetting.of(
+        Setting.intSetting(SSL_SESSION_CACHE_SIZE_SETTING_NAME, 10_000, 0, Setting.Property.NodeScope),
+        DataTypes.INTEGER);
+
+    public static final CrateSetting<TimeValue> SSL_SESSION_TIMEOUT = CrateSetting.of(
+        Setting.timeSetting(SSL_SESSION_TIMEOUT_SETTING_NAME, TimeValue.timeValueHours(1), Setting.Property.NodeScope),
+        DataTypes.STRING);
+
+    /**
+     * The TLS implementation: <code>jdk</code>, <code>openssl</code> (requires netty-tcnative on the classpath),
+     * or <code>auto</code> to use OpenSSL if available and fall back to the JDK otherwise.
+     */
+    public static final CrateSetting<String> SSL_PROVIDER = CrateSetting.of(
+        new Setting<>(SSL_PROVIDER_SETTING_NAME, "auto", SslConfigSettings::parseProvider, Setting.Property.NodeScope),
+        DataTypes.STRING);
+
+    private static String parseProvider(String provider) {
+        String value = provider.toLowerCase(Locale.ENGLISH);
+        switch (value) {
+            case "auto":
+            case "jdk":
+            case "openssl":
+                return value;
+            default:
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Invalid SSL provider \"%s\", must be one of auto, jdk or openssl", provider));
+        }
+    }
+
     public static boolean isSslEnabled(Settings settings) {
         return isHttpsEnabled(settings) || isPSQLSslEnabled(settings);
     }
@@ -27,6 +27,10 @@ package io.crate.protocols.ssl;
  */
 class SslConfigurationException extends RuntimeException {
 
+    SslConfigurationException(String msg) {
+        super(msg);
+    }
+
     SslConfigurationException(String msg, Exception cause) {
         super(msg, cause);
     }
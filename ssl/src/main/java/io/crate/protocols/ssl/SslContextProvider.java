@@ -42,6 +42,7 @@ public class SslContextProvider implements Provider<SslContext> {
     private static final String SSL_CONTEXT_CLAZZ = "io.crate.protocols.ssl.SslConfiguration";
     private static final String SSL_CONTEXT_METHOD_NAME = "buildSslContext";
 
+    private final SslHandshakeStats handshakeStats = new SslHandshakeStats();
     private SslContext sslContext;
 
     @SuppressWarnings("WeakerAccess")
@@ -51,6 +52,7 @@ public class SslContextProvider implements Provider<SslContext> {
             this.sslContext = load(settings);
             if (SslConfigSettings.isHttpsEnabled(settings)) {
                 pipelineRegistry.registerSslContext(sslContext);
+                pipelineRegistry.registerSslHandlerListener(handshakeStats);
             }
         }
     }
@@ -99,4 +101,8 @@ public class SslContextProvider implements Provider<SslContext> {
     public SslContext get() {
         return sslContext;
     }
+
+    public SslHandshakeStats handshakeStats() {
+        return handshakeStats;
+    }
 }
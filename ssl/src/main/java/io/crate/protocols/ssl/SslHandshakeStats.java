@@ -0,0 +1,73 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.protocols.ssl;
+
+import io.netty.handler.ssl.SslHandler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the TLS handshakes of the {@link SslHandler}s added to the HTTP and PostgreSQL pipelines.
+ * The handshake time is measured from the creation of the handler until the handshake completed.
+ */
+public class SslHandshakeStats implements Consumer<SslHandler> {
+
+    private final LongAdder handshakes = new LongAdder();
+    private final LongAdder failedHandshakes = new LongAdder();
+    private final LongAdder handshakeNanos = new LongAdder();
+    private final LongAccumulator maxHandshakeNanos = new LongAccumulator(Math::max, 0L);
+
+    @Override
+    public void accept(SslHandler sslHandler) {
+        long startNanos = System.nanoTime();
+        sslHandler.handshakeFuture().addListener(future -> {
+            if (future.isSuccess()) {
+                long nanos = System.nanoTime() - startNanos;
+                handshakes.increment();
+                handshakeNanos.add(nanos);
+                maxHandshakeNanos.accumulate(nanos);
+            } else {
+                failedHandshakes.increment();
+            }
+        });
+    }
+
+    public long handshakes() {
+        return handshakes.sum();
+    }
+
+    public long failedHandshakes() {
+        return failedHandshakes.sum();
+    }
+
+    public long handshakeTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(handshakeNanos.sum());
+    }
+
+    public long maxHandshakeTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxHandshakeNanos.get());
+    }
+}